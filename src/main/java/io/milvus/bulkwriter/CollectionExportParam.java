@@ -0,0 +1,264 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.milvus.bulkwriter;
+
+import com.google.common.collect.Lists;
+import io.milvus.common.clientenum.ConsistencyLevelEnum;
+import io.milvus.exception.ParamException;
+import io.milvus.param.ParamUtils;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.milvus.param.Constant.MAX_BATCH_SIZE;
+
+/**
+ * Parameters for {@link CollectionExporter}.
+ */
+@Getter
+@ToString
+public class CollectionExportParam {
+    private final String databaseName;
+    private final String collectionName;
+    private final List<String> partitionNames;
+    private final String expr;
+    private final ConsistencyLevelEnum consistencyLevel;
+    private final String localPath;
+    private final long batchSize;
+    private final long maxFileBytes;
+    private final int splitCount;
+    private final List<Object> splitPoints;
+    private final int parallelism;
+    private final boolean resume;
+
+    private CollectionExportParam(@NonNull Builder builder) {
+        this.databaseName = builder.databaseName;
+        this.collectionName = builder.collectionName;
+        this.partitionNames = builder.partitionNames;
+        this.expr = builder.expr;
+        this.consistencyLevel = builder.consistencyLevel;
+        this.localPath = builder.localPath;
+        this.batchSize = builder.batchSize;
+        this.maxFileBytes = builder.maxFileBytes;
+        this.splitCount = builder.splitCount;
+        this.splitPoints = builder.splitPoints;
+        int splits = builder.splitPoints.isEmpty() ? builder.splitCount : builder.splitPoints.size() + 1;
+        this.parallelism = builder.parallelism == null ? splits : builder.parallelism;
+        this.resume = builder.resume;
+    }
+
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    /**
+     * Builder for {@link CollectionExportParam} class.
+     */
+    public static final class Builder {
+        private String databaseName;
+        private String collectionName;
+        private final List<String> partitionNames = Lists.newArrayList();
+        private String expr = "";
+        private ConsistencyLevelEnum consistencyLevel = null;
+        private String localPath;
+        private Long batchSize = 1000L;
+        // same as the default chunk size of LocalBulkWriter
+        private Long maxFileBytes = 128L * 1024 * 1024;
+        private Integer splitCount = 1;
+        private final List<Object> splitPoints = new ArrayList<>();
+        private Integer parallelism = null;
+        private Boolean resume = Boolean.FALSE;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the database name. database name can be nil.
+         *
+         * @param databaseName database name
+         * @return <code>Builder</code>
+         */
+        public Builder withDatabaseName(String databaseName) {
+            this.databaseName = databaseName;
+            return this;
+        }
+
+        /**
+         * Sets the collection name. Collection name cannot be empty or null.
+         *
+         * @param collectionName collection name
+         * @return <code>Builder</code>
+         */
+        public Builder withCollectionName(@NonNull String collectionName) {
+            this.collectionName = collectionName;
+            return this;
+        }
+
+        /**
+         * Sets partition names list to specify export scope (Optional).
+         *
+         * @param partitionNames partition names list
+         * @return <code>Builder</code>
+         */
+        public Builder withPartitionNames(@NonNull List<String> partitionNames) {
+            partitionNames.forEach(partitionName -> {
+                if (!this.partitionNames.contains(partitionName)) {
+                    this.partitionNames.add(partitionName);
+                }
+            });
+            return this;
+        }
+
+        /**
+         * Sets the expression to filter the exported entities (Optional).
+         *
+         * @param expr filtering expression
+         * @return <code>Builder</code>
+         */
+        public Builder withExpr(@NonNull String expr) {
+            this.expr = expr;
+            return this;
+        }
+
+        /**
+         * ConsistencyLevel of consistency level.
+         *
+         * @param consistencyLevel consistency level
+         * @return <code>Builder</code>
+         */
+        public Builder withConsistencyLevel(ConsistencyLevelEnum consistencyLevel) {
+            this.consistencyLevel = consistencyLevel;
+            return this;
+        }
+
+        /**
+         * Sets the local directory of the parquet files and the manifest.
+         *
+         * @param localPath output directory
+         * @return <code>Builder</code>
+         */
+        public Builder withLocalPath(@NonNull String localPath) {
+            this.localPath = localPath;
+            return this;
+        }
+
+        /**
+         * Sets the number of entities fetched by each query. Default value is 1000.
+         *
+         * @param batchSize number of entities per query
+         * @return <code>Builder</code>
+         */
+        public Builder withBatchSize(@NonNull Long batchSize) {
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        /**
+         * Sets the size of each parquet file, a new file is started once the current one reaches this size.
+         * Default value is 128MB.
+         *
+         * @param maxFileBytes file size in bytes
+         * @return <code>Builder</code>
+         */
+        public Builder withMaxFileBytes(@NonNull Long maxFileBytes) {
+            this.maxFileBytes = maxFileBytes;
+            return this;
+        }
+
+        /**
+         * Sets the number of primary key ranges exported concurrently, see
+         * {@link io.milvus.param.dml.ParallelQueryIteratorParam.Builder#withSplitCount}. Default value is 1.
+         *
+         * @param splitCount number of ranges
+         * @return <code>Builder</code>
+         */
+        public Builder withSplitCount(@NonNull Integer splitCount) {
+            this.splitCount = splitCount;
+            return this;
+        }
+
+        /**
+         * Specifies the primary key range boundaries explicitly (Optional), see
+         * {@link io.milvus.param.dml.ParallelQueryIteratorParam.Builder#withSplitPoints}.
+         *
+         * @param splitPoints range boundaries
+         * @return <code>Builder</code>
+         */
+        public Builder withSplitPoints(@NonNull List<?> splitPoints) {
+            this.splitPoints.clear();
+            this.splitPoints.addAll(splitPoints);
+            return this;
+        }
+
+        /**
+         * Sets the number of threads exporting the ranges. Default value is the number of ranges.
+         *
+         * @param parallelism number of threads
+         * @return <code>Builder</code>
+         */
+        public Builder withParallelism(@NonNull Integer parallelism) {
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * Continues from the manifest left in the local path by a previous export (Optional).
+         * Files recorded by the manifest are kept, each range restarts right after its last committed file.
+         * Default value is False, the export starts from scratch.
+         *
+         * @param resume <code>Boolean.TRUE</code> resume from the manifest
+         * @return <code>Builder</code>
+         */
+        public Builder withResume(@NonNull Boolean resume) {
+            this.resume = resume;
+            return this;
+        }
+
+        /**
+         * Verifies parameters and creates a new {@link CollectionExportParam} instance.
+         *
+         * @return {@link CollectionExportParam}
+         */
+        public CollectionExportParam build() throws ParamException {
+            ParamUtils.CheckNullEmptyString(collectionName, "Collection name");
+            ParamUtils.CheckNullEmptyString(localPath, "localPath");
+
+            if (batchSize <= 0 || batchSize > MAX_BATCH_SIZE) {
+                throw new ParamException(String.format("Batch size must be in range (0, %s]", MAX_BATCH_SIZE));
+            }
+
+            if (maxFileBytes <= 0) {
+                throw new ParamException("Max file bytes must be larger than zero");
+            }
+
+            if (splitPoints.isEmpty() && splitCount <= 0) {
+                throw new ParamException("Split count must be larger than zero");
+            }
+
+            if (parallelism != null && parallelism <= 0) {
+                throw new ParamException("Parallelism must be larger than zero");
+            }
+            return new CollectionExportParam(this);
+        }
+    }
+}
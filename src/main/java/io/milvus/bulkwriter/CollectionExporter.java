@@ -0,0 +1,454 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.milvus.bulkwriter;
+
+import com.google.common.collect.Lists;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import io.milvus.bulkwriter.common.utils.ParquetUtils;
+import io.milvus.client.MilvusClient;
+import io.milvus.common.utils.ExceptionUtils;
+import io.milvus.exception.ParamException;
+import io.milvus.grpc.DataType;
+import io.milvus.grpc.DescribeCollectionResponse;
+import io.milvus.grpc.FieldData;
+import io.milvus.grpc.QueryResults;
+import io.milvus.orm.iterator.ParallelQueryIterator;
+import io.milvus.param.R;
+import io.milvus.param.collection.CollectionSchemaParam;
+import io.milvus.param.collection.DescribeCollectionParam;
+import io.milvus.param.collection.FieldType;
+import io.milvus.param.dml.ParallelQueryIteratorParam;
+import io.milvus.param.dml.QueryIteratorParam;
+import io.milvus.param.dml.QueryParam;
+import io.milvus.response.DescCollResponseWrapper;
+import lombok.NonNull;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.hadoop.ParquetFileWriter;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.schema.MessageType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static io.milvus.param.Constant.DYNAMIC_FIELD_NAME;
+
+/**
+ * Exports a collection into parquet files which can be imported again by <code>bulkInsert</code>.
+ * The collection is walked by primary key like {@link io.milvus.orm.iterator.QueryIterator}, optionally split into
+ * ranges exported concurrently like {@link ParallelQueryIterator}. Each query result is written from its columns
+ * into the parquet writer, rows are never materialized as maps.
+ * <p>
+ * Each range rolls over to a new file once the current one reaches the max file size. A file is recorded in
+ * <code>manifest.json</code> with the last primary key it contains only after it is closed, so an interrupted
+ * export can be resumed from the manifest without rewriting the committed files.
+ */
+public class CollectionExporter {
+    private static final Logger logger = LoggerFactory.getLogger(CollectionExporter.class);
+
+    public static final String MANIFEST_FILE = "manifest.json";
+    private static final Gson GSON_INSTANCE = new GsonBuilder().setPrettyPrinting().create();
+
+    // 32MB is the same experience value used by the bulk writer buffer
+    private static final int ROW_GROUP_BYTES = 32 * 1024 * 1024;
+    private static final int PAGE_BYTES = 5 * 1024 * 1024;
+
+    private final MilvusClient client;
+    private final CollectionExportParam exportParam;
+    private final Path outputDir;
+
+    private FieldType primaryField;
+    private MessageType messageType;
+    private final Map<String, FieldType> fieldTypes = new HashMap<>();
+    private final List<String> outFields = new ArrayList<>();
+    private Manifest manifest;
+    private volatile boolean failed;
+
+    public CollectionExporter(@NonNull MilvusClient client, @NonNull CollectionExportParam exportParam) {
+        this.client = client;
+        this.exportParam = exportParam;
+        this.outputDir = Paths.get(exportParam.getLocalPath());
+    }
+
+    /**
+     * Runs the export and blocks until all the ranges are written.
+     *
+     * @return the parquet files recorded by the manifest, ordered by range
+     */
+    public List<String> export() throws IOException, InterruptedException {
+        prepareSchema();
+        Files.createDirectories(outputDir);
+        manifest = loadManifest();
+        if (manifest == null) {
+            manifest = new Manifest();
+            manifest.collectionName = exportParam.getCollectionName();
+            for (String splitExpr : computeSplitExprs()) {
+                SplitState split = new SplitState();
+                split.expr = splitExpr;
+                manifest.splits.add(split);
+            }
+        }
+        saveManifest();
+
+        List<Integer> pending = new ArrayList<>();
+        for (int i = 0; i < manifest.splits.size(); i++) {
+            if (!manifest.splits.get(i).finished) {
+                pending.add(i);
+            }
+        }
+        if (!pending.isEmpty()) {
+            runSplits(pending);
+        }
+
+        List<String> files = new ArrayList<>();
+        manifest.splits.forEach(split -> split.files.forEach(file -> files.add(file.path)));
+        logger.info("Export of collection {} finished, {} files", exportParam.getCollectionName(), files.size());
+        return files;
+    }
+
+    /**
+     * Gets the path of the manifest in the local path.
+     *
+     * @return <code>String</code>
+     */
+    public String getManifestPath() {
+        return outputDir.resolve(MANIFEST_FILE).toString();
+    }
+
+    private void prepareSchema() {
+        DescribeCollectionParam describeParam = DescribeCollectionParam.newBuilder()
+                .withDatabaseName(exportParam.getDatabaseName())
+                .withCollectionName(exportParam.getCollectionName())
+                .build();
+        R<DescribeCollectionResponse> response = client.describeCollection(describeParam);
+        checkResponse(response, "describe collection");
+
+        DescCollResponseWrapper wrapper = new DescCollResponseWrapper(response.getData());
+        CollectionSchemaParam schema = wrapper.getSchema();
+        primaryField = wrapper.getPrimaryField();
+        for (FieldType fieldType : schema.getFieldTypes()) {
+            DataType dataType = fieldType.getDataType();
+            if (dataType == DataType.Float16Vector || dataType == DataType.BFloat16Vector
+                    || dataType == DataType.SparseFloatVector) {
+                String msg = String.format("Field %s of type %s is not supported by parquet export",
+                        fieldType.getName(), dataType.name());
+                throw new ParamException(msg);
+            }
+            fieldTypes.put(fieldType.getName(), fieldType);
+            outFields.add(fieldType.getName());
+        }
+        if (schema.isEnableDynamicField()) {
+            fieldTypes.put(DYNAMIC_FIELD_NAME, FieldType.newBuilder()
+                    .withName(DYNAMIC_FIELD_NAME)
+                    .withDataType(DataType.JSON)
+                    .build());
+            outFields.add(DYNAMIC_FIELD_NAME);
+        }
+        messageType = ParquetUtils.parseCollectionSchema(schema);
+    }
+
+    private List<String> computeSplitExprs() {
+        if (exportParam.getSplitPoints().isEmpty() && exportParam.getSplitCount() <= 1) {
+            return Lists.newArrayList(exportParam.getExpr());
+        }
+
+        QueryIteratorParam queryIteratorParam = QueryIteratorParam.newBuilder()
+                .withDatabaseName(exportParam.getDatabaseName())
+                .withCollectionName(exportParam.getCollectionName())
+                .withPartitionNames(exportParam.getPartitionNames())
+                .withConsistencyLevel(exportParam.getConsistencyLevel())
+                .withExpr(exportParam.getExpr())
+                .build();
+        ParallelQueryIteratorParam.Builder builder = ParallelQueryIteratorParam.newBuilder()
+                .withQueryIteratorParam(queryIteratorParam)
+                .withSplitCount(exportParam.getSplitCount());
+        if (!exportParam.getSplitPoints().isEmpty()) {
+            builder.withSplitPoints(exportParam.getSplitPoints());
+        }
+        R<ParallelQueryIterator> response = client.parallelQueryIterator(builder.build());
+        checkResponse(response, "split collection");
+
+        // only the range expressions are needed, the ranges are walked by the export itself
+        ParallelQueryIterator iterator = response.getData();
+        List<String> exprs = new ArrayList<>(iterator.getSplitExprs());
+        iterator.close();
+        return exprs;
+    }
+
+    private void runSplits(List<Integer> pending) throws IOException, InterruptedException {
+        int parallelism = Math.min(exportParam.getParallelism(), pending.size());
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread thread = new Thread(r, "milvus-collection-export");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int index : pending) {
+                futures.add(executor.submit(() -> {
+                    exportSplit(index);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    failed = true;
+                    Throwable cause = e.getCause();
+                    if (cause instanceof IOException) {
+                        throw (IOException) cause;
+                    }
+                    if (cause instanceof RuntimeException) {
+                        throw (RuntimeException) cause;
+                    }
+                    throw new IOException(cause);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void exportSplit(int index) throws IOException {
+        SplitState split = manifest.splits.get(index);
+        String lastId;
+        int sequence;
+        synchronized (this) {
+            lastId = split.lastId;
+            sequence = split.files.size();
+        }
+
+        ParquetWriter<Integer> writer = null;
+        QueryResultsWriteSupport writeSupport = null;
+        String filePath = null;
+        long fileRows = 0;
+        try {
+            while (!failed) {
+                QueryResults results = query(nextExpr(split.expr, lastId));
+                int rowCount = rowCount(results);
+                if (rowCount == 0) {
+                    break;
+                }
+
+                if (writer == null) {
+                    filePath = outputDir.resolve(String.format("%s_%d_%d.parquet",
+                            exportParam.getCollectionName(), index, sequence)).toString();
+                    writeSupport = new QueryResultsWriteSupport(messageType, fieldTypes);
+                    writer = openWriter(filePath, writeSupport);
+                    fileRows = 0;
+                }
+                writeSupport.setBatch(results);
+                for (int i = 0; i < rowCount; i++) {
+                    writer.write(i);
+                }
+                fileRows += rowCount;
+                lastId = lastPrimaryKey(results, rowCount);
+
+                if (writer.getDataSize() >= exportParam.getMaxFileBytes()) {
+                    writer.close();
+                    writer = null;
+                    commitFile(split, filePath, fileRows, lastId, false);
+                    sequence++;
+                }
+            }
+
+            if (failed) {
+                return;
+            }
+            if (writer != null) {
+                writer.close();
+                writer = null;
+                commitFile(split, filePath, fileRows, lastId, true);
+            } else {
+                commitFile(split, null, 0, lastId, true);
+            }
+        } finally {
+            if (writer != null) {
+                // the uncommitted file is rewritten when the export is resumed
+                try {
+                    writer.close();
+                } catch (IOException e) {
+                    logger.warn("Failed to close parquet file {}", filePath, e);
+                }
+            }
+        }
+    }
+
+    private ParquetWriter<Integer> openWriter(String filePath, QueryResultsWriteSupport writeSupport) throws IOException {
+        return new ParquetWriter<>(new org.apache.hadoop.fs.Path(filePath),
+                ParquetFileWriter.Mode.OVERWRITE,
+                writeSupport,
+                CompressionCodecName.UNCOMPRESSED,
+                ROW_GROUP_BYTES,
+                PAGE_BYTES,
+                PAGE_BYTES,
+                ParquetWriter.DEFAULT_IS_DICTIONARY_ENABLED,
+                ParquetWriter.DEFAULT_IS_VALIDATING_ENABLED,
+                ParquetWriter.DEFAULT_WRITER_VERSION,
+                new Configuration());
+    }
+
+    private QueryResults query(String expr) {
+        QueryParam queryParam = QueryParam.newBuilder()
+                .withDatabaseName(exportParam.getDatabaseName())
+                .withCollectionName(exportParam.getCollectionName())
+                .withPartitionNames(exportParam.getPartitionNames())
+                .withConsistencyLevel(exportParam.getConsistencyLevel())
+                .withOutFields(outFields)
+                .withExpr(expr)
+                .withLimit(exportParam.getBatchSize())
+                .build();
+        R<QueryResults> response = client.query(queryParam);
+        checkResponse(response, "query");
+        return response.getData();
+    }
+
+    private String nextExpr(String expr, String lastId) {
+        if (lastId == null) {
+            return expr;
+        }
+        String cursor;
+        if (primaryField.getDataType() == DataType.VarChar) {
+            cursor = primaryField.getName() + " > \"" + lastId.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+        } else {
+            cursor = primaryField.getName() + " > " + lastId;
+        }
+        if (StringUtils.isEmpty(expr)) {
+            return cursor;
+        }
+        return "(" + expr + ") and " + cursor;
+    }
+
+    private FieldData primaryColumn(QueryResults results) {
+        for (FieldData fieldData : results.getFieldsDataList()) {
+            if (fieldData.getFieldName().equals(primaryField.getName())) {
+                return fieldData;
+            }
+        }
+        return null;
+    }
+
+    private int rowCount(QueryResults results) {
+        FieldData column = primaryColumn(results);
+        if (column == null) {
+            return 0;
+        }
+        if (primaryField.getDataType() == DataType.VarChar) {
+            return column.getScalars().getStringData().getDataCount();
+        }
+        return column.getScalars().getLongData().getDataCount();
+    }
+
+    private String lastPrimaryKey(QueryResults results, int rowCount) {
+        FieldData column = primaryColumn(results);
+        if (primaryField.getDataType() == DataType.VarChar) {
+            return column.getScalars().getStringData().getData(rowCount - 1);
+        }
+        return String.valueOf(column.getScalars().getLongData().getData(rowCount - 1));
+    }
+
+    private synchronized void commitFile(SplitState split, String filePath, long rowCount, String lastId,
+                                         boolean finished) throws IOException {
+        if (filePath != null) {
+            ExportedFile file = new ExportedFile();
+            file.path = filePath;
+            file.rowCount = rowCount;
+            file.bytes = Files.size(Paths.get(filePath));
+            split.files.add(file);
+            split.rowCount += rowCount;
+            logger.info("Exported file {}, row count: {}, size: {}", filePath, rowCount, file.bytes);
+        }
+        split.lastId = lastId;
+        split.finished = finished;
+        saveManifest();
+    }
+
+    private Manifest loadManifest() throws IOException {
+        Path path = outputDir.resolve(MANIFEST_FILE);
+        if (!exportParam.isResume() || !Files.exists(path)) {
+            return null;
+        }
+        Manifest loaded = GSON_INSTANCE.fromJson(new String(Files.readAllBytes(path), StandardCharsets.UTF_8),
+                Manifest.class);
+        if (loaded == null || !exportParam.getCollectionName().equals(loaded.collectionName)) {
+            String msg = String.format("Manifest %s doesn't belong to collection %s", path, exportParam.getCollectionName());
+            ExceptionUtils.throwUnExpectedException(msg);
+        }
+        logger.info("Resume export of collection {} from manifest {}", exportParam.getCollectionName(), path);
+        return loaded;
+    }
+
+    // written to a temporary file then renamed, a crash never leaves a truncated manifest
+    private synchronized void saveManifest() throws IOException {
+        Path path = outputDir.resolve(MANIFEST_FILE);
+        Path tmpPath = outputDir.resolve(MANIFEST_FILE + ".tmp");
+        Files.write(tmpPath, GSON_INSTANCE.toJson(manifest).getBytes(StandardCharsets.UTF_8));
+        Files.move(tmpPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void checkResponse(R<?> response, String action) {
+        if (response.getStatus() == R.Status.Success.getCode()) {
+            return;
+        }
+        Exception e = response.getException();
+        if (e instanceof RuntimeException) {
+            throw (RuntimeException) e;
+        }
+        ExceptionUtils.throwUnExpectedException(String.format("Failed to %s: %s", action,
+                e == null ? "unknown error" : e.getMessage()));
+    }
+
+    private static class Manifest {
+        private String collectionName;
+        private List<SplitState> splits = new ArrayList<>();
+    }
+
+    private static class SplitState {
+        private String expr;
+        // the last primary key of the committed files, kept as text so int64 keys stay exact
+        private String lastId;
+        private long rowCount;
+        private boolean finished;
+        private List<ExportedFile> files = new ArrayList<>();
+    }
+
+    private static class ExportedFile {
+        private String path;
+        private long rowCount;
+        private long bytes;
+    }
+}
@@ -0,0 +1,247 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.milvus.bulkwriter;
+
+import io.milvus.exception.ParamException;
+import io.milvus.grpc.DataType;
+import io.milvus.grpc.FieldData;
+import io.milvus.grpc.QueryResults;
+import io.milvus.grpc.ScalarField;
+import io.milvus.param.collection.FieldType;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.hadoop.api.WriteSupport;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.RecordConsumer;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.Type;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static io.milvus.param.Constant.DYNAMIC_FIELD_NAME;
+
+/**
+ * Writes the rows of a {@link QueryResults} batch straight from its columns into Parquet.
+ * The record handed to the writer is the row index in the current batch, so no per-row object is built.
+ * The layout follows {@link io.milvus.bulkwriter.common.utils.ParquetUtils#parseCollectionSchema}:
+ * vectors and arrays are 3-level lists, JSON and the dynamic field are UTF8 strings.
+ */
+class QueryResultsWriteSupport extends WriteSupport<Integer> {
+    private static final String LIST_FIELD = "list";
+    private static final String ELEMENT_FIELD = "element";
+
+    private final MessageType messageType;
+    private final Map<String, FieldType> fieldTypes;
+    private RecordConsumer consumer;
+    private FieldData[] columns;
+
+    QueryResultsWriteSupport(MessageType messageType, Map<String, FieldType> fieldTypes) {
+        this.messageType = messageType;
+        this.fieldTypes = fieldTypes;
+    }
+
+    /**
+     * Switches to a new batch, the following row indexes refer to this batch.
+     */
+    void setBatch(QueryResults results) {
+        Map<String, FieldData> byName = new HashMap<>();
+        for (FieldData fieldData : results.getFieldsDataList()) {
+            byName.put(fieldData.getIsDynamic() ? DYNAMIC_FIELD_NAME : fieldData.getFieldName(), fieldData);
+        }
+
+        List<Type> fields = messageType.getFields();
+        FieldData[] batchColumns = new FieldData[fields.size()];
+        for (int i = 0; i < fields.size(); i++) {
+            String name = fields.get(i).getName();
+            batchColumns[i] = byName.get(name);
+            if (batchColumns[i] == null) {
+                throw new ParamException("Query results don't contain the field: " + name);
+            }
+        }
+        this.columns = batchColumns;
+    }
+
+    @Override
+    public WriteContext init(Configuration configuration) {
+        return new WriteContext(messageType, new HashMap<>());
+    }
+
+    @Override
+    public void prepareForWrite(RecordConsumer recordConsumer) {
+        this.consumer = recordConsumer;
+    }
+
+    @Override
+    public void write(Integer row) {
+        consumer.startMessage();
+        List<Type> fields = messageType.getFields();
+        for (int i = 0; i < fields.size(); i++) {
+            String name = fields.get(i).getName();
+            consumer.startField(name, i);
+            writeField(fieldTypes.get(name), columns[i], row);
+            consumer.endField(name, i);
+        }
+        consumer.endMessage();
+    }
+
+    private void writeField(FieldType fieldType, FieldData column, int row) {
+        ScalarField scalars = column.getScalars();
+        switch (fieldType.getDataType()) {
+            case Int64:
+                consumer.addLong(scalars.getLongData().getData(row));
+                break;
+            case Int32:
+            case Int16:
+            case Int8:
+                consumer.addInteger(scalars.getIntData().getData(row));
+                break;
+            case Float:
+                consumer.addFloat(scalars.getFloatData().getData(row));
+                break;
+            case Double:
+                consumer.addDouble(scalars.getDoubleData().getData(row));
+                break;
+            case Bool:
+                consumer.addBoolean(scalars.getBoolData().getData(row));
+                break;
+            case VarChar:
+            case String:
+                consumer.addBinary(Binary.fromConstantByteBuffer(
+                        scalars.getStringData().getDataBytes(row).asReadOnlyByteBuffer()));
+                break;
+            case JSON:
+                consumer.addBinary(Binary.fromConstantByteBuffer(
+                        scalars.getJsonData().getData(row).asReadOnlyByteBuffer()));
+                break;
+            case FloatVector: {
+                int dim = (int) column.getVectors().getDim();
+                startList(dim);
+                for (int i = row * dim; i < (row + 1) * dim; i++) {
+                    startElement();
+                    consumer.addFloat(column.getVectors().getFloatVector().getData(i));
+                    endElement();
+                }
+                endList(dim);
+                break;
+            }
+            case BinaryVector: {
+                int bytesPerVector = (int) column.getVectors().getDim() / 8;
+                startList(bytesPerVector);
+                for (int i = row * bytesPerVector; i < (row + 1) * bytesPerVector; i++) {
+                    startElement();
+                    consumer.addInteger(column.getVectors().getBinaryVector().byteAt(i) & 0xFF);
+                    endElement();
+                }
+                endList(bytesPerVector);
+                break;
+            }
+            case Array:
+                writeArray(fieldType.getElementType(), scalars.getArrayData().getData(row));
+                break;
+            default:
+                throw new ParamException("Unsupported data type for parquet export: " + fieldType.getDataType().name());
+        }
+    }
+
+    private void writeArray(DataType elementType, ScalarField array) {
+        int count;
+        switch (elementType) {
+            case Int64:
+                count = array.getLongData().getDataCount();
+                break;
+            case Int32:
+            case Int16:
+            case Int8:
+                count = array.getIntData().getDataCount();
+                break;
+            case Float:
+                count = array.getFloatData().getDataCount();
+                break;
+            case Double:
+                count = array.getDoubleData().getDataCount();
+                break;
+            case Bool:
+                count = array.getBoolData().getDataCount();
+                break;
+            case VarChar:
+            case String:
+                count = array.getStringData().getDataCount();
+                break;
+            default:
+                throw new ParamException("Unsupported array element type for parquet export: " + elementType.name());
+        }
+
+        startList(count);
+        for (int i = 0; i < count; i++) {
+            startElement();
+            switch (elementType) {
+                case Int64:
+                    consumer.addLong(array.getLongData().getData(i));
+                    break;
+                case Int32:
+                case Int16:
+                case Int8:
+                    consumer.addInteger(array.getIntData().getData(i));
+                    break;
+                case Float:
+                    consumer.addFloat(array.getFloatData().getData(i));
+                    break;
+                case Double:
+                    consumer.addDouble(array.getDoubleData().getData(i));
+                    break;
+                case Bool:
+                    consumer.addBoolean(array.getBoolData().getData(i));
+                    break;
+                default:
+                    consumer.addBinary(Binary.fromConstantByteBuffer(
+                            array.getStringData().getDataBytes(i).asReadOnlyByteBuffer()));
+                    break;
+            }
+            endElement();
+        }
+        endList(count);
+    }
+
+    // a required list is a group holding a repeated "list" group, which holds one "element" per value
+    private void startList(int count) {
+        consumer.startGroup();
+        if (count > 0) {
+            consumer.startField(LIST_FIELD, 0);
+        }
+    }
+
+    private void endList(int count) {
+        if (count > 0) {
+            consumer.endField(LIST_FIELD, 0);
+        }
+        consumer.endGroup();
+    }
+
+    private void startElement() {
+        consumer.startGroup();
+        consumer.startField(ELEMENT_FIELD, 0);
+    }
+
+    private void endElement() {
+        consumer.endField(ELEMENT_FIELD, 0);
+        consumer.endGroup();
+    }
+}
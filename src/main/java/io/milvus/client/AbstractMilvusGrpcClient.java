@@ -21,11 +21,18 @@ package io.milvus.client;
 
 import com.google.common.collect.Lists;
 import com.google.common.util.concurrent.*;
+import com.google.protobuf.Message;
 import io.grpc.StatusRuntimeException;
+import io.milvus.common.utils.FieldDataSplitter;
+import io.milvus.common.utils.ResultCache;
+import io.milvus.common.utils.SearchCoalescer;
 import io.milvus.common.utils.JacksonUtils;
+import io.milvus.common.utils.MutationChunkDispatcher;
 import io.milvus.common.utils.VectorUtils;
 import io.milvus.exception.*;
 import io.milvus.grpc.*;
+import io.milvus.orm.iterator.BatchSearchIterator;
+import io.milvus.orm.iterator.ParallelQueryIterator;
 import io.milvus.orm.iterator.QueryIterator;
 import io.milvus.orm.iterator.SearchIterator;
 import io.milvus.param.*;
@@ -55,6 +62,9 @@ import javax.annotation.Nonnull;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
@@ -63,12 +73,76 @@ public abstract class AbstractMilvusGrpcClient implements MilvusClient {
     protected static final Logger logger = LoggerFactory.getLogger(AbstractMilvusGrpcClient.class);
     protected LogLevel logLevel = LogLevel.Info;
 
-    private ConcurrentHashMap<String, DescribeCollectionResponse> cacheCollectionInfo = new ConcurrentHashMap<>();
+    private ConcurrentHashMap<String, InsertPlan> cacheCollectionInfo = new ConcurrentHashMap<>();
 
     protected abstract MilvusServiceGrpc.MilvusServiceBlockingStub blockingStub();
 
+    /**
+     * The executor to encode requests of the async methods, so that the caller thread is not blocked.
+     */
+    protected Executor asyncExecutor() {
+        return ForkJoinPool.commonPool();
+    }
+
     protected abstract MilvusServiceGrpc.MilvusServiceFutureStub futureStub();
 
+    /**
+     * The coalescer to merge concurrent search requests, null if search coalescing is disabled.
+     */
+    protected SearchCoalescer searchCoalescer() {
+        return null;
+    }
+
+    /**
+     * The timeout of the search requests merged by the coalescer, 0 means the default deadline.
+     */
+    protected long searchTimeoutMs() {
+        return 0;
+    }
+
+    /**
+     * Returns counters of the search coalescer, or null if search coalescing is disabled.
+     *
+     * @return {@link SearchCoalescer.Metrics}
+     */
+    public SearchCoalescer.Metrics getSearchCoalescerMetrics() {
+        SearchCoalescer coalescer = searchCoalescer();
+        return coalescer == null ? null : coalescer.getMetrics();
+    }
+
+    /**
+     * The cache of search/query results, null if result caching is disabled.
+     */
+    protected ResultCache resultCache() {
+        return null;
+    }
+
+    /**
+     * Returns counters of the result cache, or null if result caching is disabled.
+     *
+     * @return {@link ResultCache.Metrics}
+     */
+    public ResultCache.Metrics getResultCacheMetrics() {
+        ResultCache cache = resultCache();
+        return cache == null ? null : cache.getMetrics();
+    }
+
+    private <T extends Message> ResultCache.Lookup<T> lookupResultCache(String databaseName, String collectionName,
+                                                                      Message request) {
+        ResultCache cache = resultCache();
+        if (cache == null) {
+            return null;
+        }
+        return cache.lookup(ResultCache.collectionKey(databaseName, collectionName), request);
+    }
+
+    private void invalidateResultCache(String databaseName, String collectionName) {
+        ResultCache cache = resultCache();
+        if (cache != null) {
+            cache.invalidate(ResultCache.collectionKey(databaseName, collectionName));
+        }
+    }
+
     protected abstract boolean clientIsReady();
 
     /**
@@ -76,26 +150,60 @@ public abstract class AbstractMilvusGrpcClient implements MilvusClient {
      * Always try to get the collection info from cache.
      * If the cache doesn't have the collection info, call describeCollection() and cache it.
      * If insert/upsert get server error, remove the cached collection info.
+     * The collection info is cached as an {@link InsertPlan} compiled from the schema.
      */
-    private DescribeCollectionResponse getCollectionInfo(String databaseName, String collectionName) {
+    private InsertPlan getCollectionInfo(String databaseName, String collectionName) {
         String key = combineCacheKey(databaseName, collectionName);
-        DescribeCollectionResponse info = cacheCollectionInfo.get(key);
+        InsertPlan info = cacheCollectionInfo.get(key);
         if (info == null) {
-            String msg = String.format("Fail to describe collection '%s'", collectionName);
-            DescribeCollectionRequest.Builder builder = DescribeCollectionRequest.newBuilder()
-                    .setCollectionName(collectionName);
-            if (StringUtils.isNotEmpty(databaseName)) {
-                builder.setDbName(databaseName);
-                msg = String.format("Fail to describe collection '%s' in database '%s'",
-                        collectionName, databaseName);
+            DescribeCollectionResponse response = blockingStub().describeCollection(
+                    buildDescribeRequest(databaseName, collectionName));
+            info = cacheCollectionInfo(key, databaseName, collectionName, response);
+        }
+
+        return info;
+    }
+
+    /**
+     * The same as getCollectionInfo() for async methods, the describeCollection() is sent by
+     * the future stub if the cache misses, no thread is blocked.
+     */
+    private ListenableFuture<InsertPlan> getCollectionInfoAsync(String databaseName, String collectionName) {
+        try {
+            String key = combineCacheKey(databaseName, collectionName);
+            InsertPlan info = cacheCollectionInfo.get(key);
+            if (info != null) {
+                return Futures.immediateFuture(info);
             }
-            DescribeCollectionRequest describeCollectionRequest = builder.build();
-            DescribeCollectionResponse response = blockingStub().describeCollection(describeCollectionRequest);
-            handleResponse(msg, response.getStatus());
-            info = response;
-            cacheCollectionInfo.put(key, info);
+            ListenableFuture<DescribeCollectionResponse> response = futureStub().describeCollection(
+                    buildDescribeRequest(databaseName, collectionName));
+            return Futures.transform(response,
+                    result -> cacheCollectionInfo(key, databaseName, collectionName, result),
+                    MoreExecutors.directExecutor());
+        } catch (Exception e) {
+            return Futures.immediateFailedFuture(e);
         }
+    }
+
+    private DescribeCollectionRequest buildDescribeRequest(String databaseName, String collectionName) {
+        DescribeCollectionRequest.Builder builder = DescribeCollectionRequest.newBuilder()
+                .setCollectionName(collectionName);
+        if (StringUtils.isNotEmpty(databaseName)) {
+            builder.setDbName(databaseName);
+        }
+        return builder.build();
+    }
 
+    private InsertPlan cacheCollectionInfo(String key, String databaseName, String collectionName,
+                                           DescribeCollectionResponse response) {
+        String msg = String.format("Fail to describe collection '%s'", collectionName);
+        if (StringUtils.isNotEmpty(databaseName)) {
+            msg = String.format("Fail to describe collection '%s' in database '%s'",
+                    collectionName, databaseName);
+        }
+        handleResponse(msg, response.getStatus());
+        InsertPlan info = new InsertPlan(new DescCollResponseWrapper(response));
+        cacheCollectionInfo.put(key, info);
         return info;
     }
 
@@ -635,6 +743,7 @@ public abstract class AbstractMilvusGrpcClient implements MilvusClient {
             Status response = blockingStub().dropCollection(dropCollectionRequest);
             handleResponse(title, response);
             cacheCollectionInfo.remove(combineCacheKey(requestParam.getDatabaseName(), requestParam.getCollectionName()));
+            invalidateResultCache(requestParam.getDatabaseName(), requestParam.getCollectionName());
             return R.success(new RpcStatus(RpcStatus.SUCCESS_MSG));
         } catch (StatusRuntimeException e) {
             logError("{} RPC failed! Exception:{}", title, e);
@@ -1550,6 +1659,30 @@ public abstract class AbstractMilvusGrpcClient implements MilvusClient {
         } catch (Exception e) {
             logError("{} failed! Exception:{}", title, e);
             return R.failed(e);
+        } finally {
+            invalidateResultCache(requestParam.getDatabaseName(), requestParam.getCollectionName());
+        }
+    }
+
+    /**
+     * Split insert/upsert data by estimated size, returns an empty list if maxRequestBytes is 0.
+     */
+    private List<FieldDataSplitter.Chunk> splitMutation(List<FieldData> fieldsData, int rowCount, long maxRequestBytes) {
+        if (maxRequestBytes <= 0) {
+            return Collections.emptyList();
+        }
+        return FieldDataSplitter.split(fieldsData, rowCount, maxRequestBytes);
+    }
+
+    private <T> T waitResult(ListenableFuture<T> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new MilvusException(cause.getMessage(), R.Status.Unknown.getCode());
         }
     }
 
@@ -1563,11 +1696,24 @@ public abstract class AbstractMilvusGrpcClient implements MilvusClient {
         String title = String.format("InsertRequest collectionName:%s", requestParam.getCollectionName());
 
         try {
-            DescribeCollectionResponse descResp = getCollectionInfo(requestParam.getDatabaseName(),
-                    requestParam.getCollectionName());
-            DescCollResponseWrapper wrapper = new DescCollResponseWrapper(descResp);
-            ParamUtils.InsertBuilderWrapper builderWraper = new ParamUtils.InsertBuilderWrapper(requestParam, wrapper);
-            MutationResult response = blockingStub().insert(builderWraper.buildInsertRequest());
+            InsertPlan plan = getCollectionInfo(requestParam.getDatabaseName(), requestParam.getCollectionName());
+            ParamUtils.InsertBuilderWrapper builderWraper = new ParamUtils.InsertBuilderWrapper(requestParam, plan);
+            InsertRequest insertRequest = builderWraper.buildInsertRequest();
+            List<FieldDataSplitter.Chunk> chunks = splitMutation(insertRequest.getFieldsDataList(),
+                    insertRequest.getNumRows(), requestParam.getMaxRequestBytes());
+            MutationResult response;
+            if (chunks.size() > 1) {
+                logDebug("{} is split into {} requests", title, chunks.size());
+                response = waitResult(MutationChunkDispatcher.dispatch(chunks,
+                        requestParam.getMaxInflightRequests(),
+                        chunk -> futureStub().insert(insertRequest.toBuilder()
+                                .clearFieldsData()
+                                .addAllFieldsData(chunk.getFieldsData())
+                                .setNumRows(chunk.getRowCount())
+                                .build())));
+            } else {
+                response = blockingStub().insert(insertRequest);
+            }
             cleanCacheIfFailed(response.getStatus(), requestParam.getDatabaseName(), requestParam.getCollectionName());
             handleResponse(title, response.getStatus());
             return R.success(response);
@@ -1577,6 +1723,8 @@ public abstract class AbstractMilvusGrpcClient implements MilvusClient {
         } catch (Exception e) {
             logError("{} failed! Exception:{}", title, e);
             return R.failed(e);
+        } finally {
+            invalidateResultCache(requestParam.getDatabaseName(), requestParam.getCollectionName());
         }
     }
 
@@ -1591,11 +1739,27 @@ public abstract class AbstractMilvusGrpcClient implements MilvusClient {
         logDebug(requestParam.toString());
         String title = String.format("InsertAsyncRequest collectionName:%s", requestParam.getCollectionName());
 
-        DescribeCollectionResponse descResp = getCollectionInfo(requestParam.getDatabaseName(),
-                requestParam.getCollectionName());
-        DescCollResponseWrapper wrapper = new DescCollResponseWrapper(descResp);
-        ParamUtils.InsertBuilderWrapper builderWraper = new ParamUtils.InsertBuilderWrapper(requestParam, wrapper);
-        ListenableFuture<MutationResult> response = futureStub().insert(builderWraper.buildInsertRequest());
+        // the schema is resolved by an async describeCollection() if the cache misses,
+        // the request is encoded on the async executor, then sent by the future stub
+        ListenableFuture<MutationResult> response = Futures.transformAsync(
+                getCollectionInfoAsync(requestParam.getDatabaseName(), requestParam.getCollectionName()),
+                plan -> {
+                    ParamUtils.InsertBuilderWrapper builderWraper = new ParamUtils.InsertBuilderWrapper(requestParam, plan);
+                    InsertRequest insertRequest = builderWraper.buildInsertRequest();
+                    List<FieldDataSplitter.Chunk> chunks = splitMutation(insertRequest.getFieldsDataList(),
+                            insertRequest.getNumRows(), requestParam.getMaxRequestBytes());
+                    if (chunks.size() > 1) {
+                        logDebug("{} is split into {} requests", title, chunks.size());
+                        return MutationChunkDispatcher.dispatch(chunks, requestParam.getMaxInflightRequests(),
+                                chunk -> futureStub().insert(insertRequest.toBuilder()
+                                        .clearFieldsData()
+                                        .addAllFieldsData(chunk.getFieldsData())
+                                        .setNumRows(chunk.getRowCount())
+                                        .build()));
+                    }
+                    return futureStub().insert(insertRequest);
+                },
+                asyncExecutor());
 
         Futures.addCallback(
                 response,
@@ -1617,6 +1781,10 @@ public abstract class AbstractMilvusGrpcClient implements MilvusClient {
                 },
                 MoreExecutors.directExecutor());
 
+        // the written collection's cached results are dropped once the write completes, succeeded or not
+        response.addListener(() -> invalidateResultCache(requestParam.getDatabaseName(),
+                requestParam.getCollectionName()), MoreExecutors.directExecutor());
+
         Function<MutationResult, R<MutationResult>> transformFunc =
                 results -> {
                     Status status = results.getStatus();
@@ -1640,11 +1808,24 @@ public abstract class AbstractMilvusGrpcClient implements MilvusClient {
         String title = String.format("UpsertRequest collectionName:%s", requestParam.getCollectionName());
 
         try {
-            DescribeCollectionResponse descResp = getCollectionInfo(requestParam.getDatabaseName(),
-                    requestParam.getCollectionName());
-            DescCollResponseWrapper wrapper = new DescCollResponseWrapper(descResp);
-            ParamUtils.InsertBuilderWrapper builderWraper = new ParamUtils.InsertBuilderWrapper(requestParam, wrapper);
-            MutationResult response = blockingStub().upsert(builderWraper.buildUpsertRequest());
+            InsertPlan plan = getCollectionInfo(requestParam.getDatabaseName(), requestParam.getCollectionName());
+            ParamUtils.InsertBuilderWrapper builderWraper = new ParamUtils.InsertBuilderWrapper(requestParam, plan);
+            UpsertRequest upsertRequest = builderWraper.buildUpsertRequest();
+            List<FieldDataSplitter.Chunk> chunks = splitMutation(upsertRequest.getFieldsDataList(),
+                    upsertRequest.getNumRows(), requestParam.getMaxRequestBytes());
+            MutationResult response;
+            if (chunks.size() > 1) {
+                logDebug("{} is split into {} requests", title, chunks.size());
+                response = waitResult(MutationChunkDispatcher.dispatch(chunks,
+                        requestParam.getMaxInflightRequests(),
+                        chunk -> futureStub().upsert(upsertRequest.toBuilder()
+                                .clearFieldsData()
+                                .addAllFieldsData(chunk.getFieldsData())
+                                .setNumRows(chunk.getRowCount())
+                                .build())));
+            } else {
+                response = blockingStub().upsert(upsertRequest);
+            }
             cleanCacheIfFailed(response.getStatus(), requestParam.getDatabaseName(), requestParam.getCollectionName());
             handleResponse(title, response.getStatus());
             return R.success(response);
@@ -1654,6 +1835,8 @@ public abstract class AbstractMilvusGrpcClient implements MilvusClient {
         } catch (Exception e) {
             logError("{} failed! Exception:{}", title, e);
             return R.failed(e);
+        } finally {
+            invalidateResultCache(requestParam.getDatabaseName(), requestParam.getCollectionName());
         }
     }
 
@@ -1667,11 +1850,27 @@ public abstract class AbstractMilvusGrpcClient implements MilvusClient {
         logDebug(requestParam.toString());
         String title = String.format("UpsertAsyncRequest collectionName:%s", requestParam.getCollectionName());
 
-        DescribeCollectionResponse descResp = getCollectionInfo(requestParam.getDatabaseName(),
-                requestParam.getCollectionName());
-        DescCollResponseWrapper wrapper = new DescCollResponseWrapper(descResp);
-        ParamUtils.InsertBuilderWrapper builderWraper = new ParamUtils.InsertBuilderWrapper(requestParam, wrapper);
-        ListenableFuture<MutationResult> response = futureStub().upsert(builderWraper.buildUpsertRequest());
+        // the schema is resolved by an async describeCollection() if the cache misses,
+        // the request is encoded on the async executor, then sent by the future stub
+        ListenableFuture<MutationResult> response = Futures.transformAsync(
+                getCollectionInfoAsync(requestParam.getDatabaseName(), requestParam.getCollectionName()),
+                plan -> {
+                    ParamUtils.InsertBuilderWrapper builderWraper = new ParamUtils.InsertBuilderWrapper(requestParam, plan);
+                    UpsertRequest upsertRequest = builderWraper.buildUpsertRequest();
+                    List<FieldDataSplitter.Chunk> chunks = splitMutation(upsertRequest.getFieldsDataList(),
+                            upsertRequest.getNumRows(), requestParam.getMaxRequestBytes());
+                    if (chunks.size() > 1) {
+                        logDebug("{} is split into {} requests", title, chunks.size());
+                        return MutationChunkDispatcher.dispatch(chunks, requestParam.getMaxInflightRequests(),
+                                chunk -> futureStub().upsert(upsertRequest.toBuilder()
+                                        .clearFieldsData()
+                                        .addAllFieldsData(chunk.getFieldsData())
+                                        .setNumRows(chunk.getRowCount())
+                                        .build()));
+                    }
+                    return futureStub().upsert(upsertRequest);
+                },
+                asyncExecutor());
 
         Futures.addCallback(
                 response,
@@ -1693,6 +1892,10 @@ public abstract class AbstractMilvusGrpcClient implements MilvusClient {
                 },
                 MoreExecutors.directExecutor());
 
+        // the written collection's cached results are dropped once the write completes, succeeded or not
+        response.addListener(() -> invalidateResultCache(requestParam.getDatabaseName(),
+                requestParam.getCollectionName()), MoreExecutors.directExecutor());
+
         Function<MutationResult, R<MutationResult>> transformFunc =
                 results -> {
                     Status status = results.getStatus();
@@ -1717,11 +1920,22 @@ public abstract class AbstractMilvusGrpcClient implements MilvusClient {
 
         try {
             SearchRequest searchRequest = ParamUtils.convertSearchParam(requestParam);
-            SearchResults response = this.blockingStub().search(searchRequest);
+            ResultCache.Lookup<SearchResults> cached = lookupResultCache(requestParam.getDatabaseName(),
+                    requestParam.getCollectionName(), searchRequest);
+            if (cached != null && cached.getResult() != null) {
+                return R.success(cached.getResult());
+            }
+
+            SearchCoalescer coalescer = searchCoalescer();
+            SearchResults response = coalescer == null ? this.blockingStub().search(searchRequest)
+                    : waitResult(coalescer.submit(searchRequest, searchTimeoutMs()));
 
             //TODO: truncate distance value by round decimal
 
             handleResponse(title, response.getStatus());
+            if (cached != null) {
+                cached.put(response);
+            }
             return R.success(response);
         } catch (StatusRuntimeException e) {
             logError("{} RPC failed! Exception:{}", title, e);
@@ -1744,7 +1958,15 @@ public abstract class AbstractMilvusGrpcClient implements MilvusClient {
         String title = String.format("SearchAsyncRequest collectionName:%s", requestParam.getCollectionName());
 
         SearchRequest searchRequest = ParamUtils.convertSearchParam(requestParam);
-        ListenableFuture<SearchResults> response = this.futureStub().search(searchRequest);
+        ResultCache.Lookup<SearchResults> cached = lookupResultCache(requestParam.getDatabaseName(),
+                requestParam.getCollectionName(), searchRequest);
+        if (cached != null && cached.getResult() != null) {
+            return Futures.immediateFuture(R.success(cached.getResult()));
+        }
+
+        SearchCoalescer coalescer = searchCoalescer();
+        ListenableFuture<SearchResults> response = coalescer == null ? this.futureStub().search(searchRequest)
+                : coalescer.submit(searchRequest, searchTimeoutMs());
 
         Futures.addCallback(
                 response,
@@ -1771,6 +1993,9 @@ public abstract class AbstractMilvusGrpcClient implements MilvusClient {
                     if (status.getCode() != 0 || status.getErrorCode() != ErrorCode.Success) {
                         return R.failed(new ServerException(status.getReason(), status.getCode(), status.getErrorCode()));
                     } else {
+                        if (cached != null) {
+                            cached.put(results);
+                        }
                         return R.success(results);
                     }
                 };
@@ -1858,6 +2083,12 @@ public abstract class AbstractMilvusGrpcClient implements MilvusClient {
 
         try {
             QueryRequest queryRequest = ParamUtils.convertQueryParam(requestParam);
+            ResultCache.Lookup<QueryResults> cached = lookupResultCache(requestParam.getDatabaseName(),
+                    requestParam.getCollectionName(), queryRequest);
+            if (cached != null && cached.getResult() != null) {
+                return R.success(cached.getResult());
+            }
+
             QueryResults response = this.blockingStub().query(queryRequest);
 
             // Keep this section to compatible with old v2.2.x versions
@@ -1870,6 +2101,9 @@ public abstract class AbstractMilvusGrpcClient implements MilvusClient {
             }
 
             handleResponse(title, response.getStatus());
+            if (cached != null) {
+                cached.put(response);
+            }
             return R.success(response);
         } catch (StatusRuntimeException e) {
             logError("{} RPC failed! Exception:{}", title, e);
@@ -1893,6 +2127,12 @@ public abstract class AbstractMilvusGrpcClient implements MilvusClient {
                 requestParam.getCollectionName(), requestParam.getExpr());
 
         QueryRequest queryRequest = ParamUtils.convertQueryParam(requestParam);
+        ResultCache.Lookup<QueryResults> cached = lookupResultCache(requestParam.getDatabaseName(),
+                requestParam.getCollectionName(), queryRequest);
+        if (cached != null && cached.getResult() != null) {
+            return Futures.immediateFuture(R.success(cached.getResult()));
+        }
+
         ListenableFuture<QueryResults> response = this.futureStub().query(queryRequest);
 
         Futures.addCallback(
@@ -1920,6 +2160,9 @@ public abstract class AbstractMilvusGrpcClient implements MilvusClient {
                     if (status.getCode() != 0 || status.getErrorCode() != ErrorCode.Success) {
                         return R.failed(new ServerException(status.getReason(), status.getCode(), status.getErrorCode()));
                     } else {
+                        if (cached != null) {
+                            cached.put(results);
+                        }
                         return R.success(results);
                     }
                 };
@@ -3122,8 +3365,7 @@ public abstract class AbstractMilvusGrpcClient implements MilvusClient {
         String title = String.format("DeleteIdsRequest collectionName:%s", requestParam.getCollectionName());
 
         try {
-            DescribeCollectionResponse descResp = getCollectionInfo("", requestParam.getCollectionName());
-            DescCollResponseWrapper wrapper = new DescCollResponseWrapper(descResp);
+            DescCollResponseWrapper wrapper = getCollectionInfo("", requestParam.getCollectionName()).getWrapper();
 
             String expr = VectorUtils.convertPksExpr(requestParam.getPrimaryIds(), wrapper);
             DeleteParam deleteParam = DeleteParam.newBuilder()
@@ -3318,6 +3560,28 @@ public abstract class AbstractMilvusGrpcClient implements MilvusClient {
         return R.success(queryIterator);
     }
 
+    @Override
+    public R<ParallelQueryIterator> parallelQueryIterator(ParallelQueryIteratorParam requestParam) {
+        QueryIteratorParam queryIteratorParam = requestParam.getQueryIteratorParam();
+        DescribeCollectionParam.Builder builder = DescribeCollectionParam.newBuilder()
+                .withDatabaseName(queryIteratorParam.getDatabaseName())
+                .withCollectionName(queryIteratorParam.getCollectionName());
+        R<DescribeCollectionResponse> descResp = describeCollection(builder.build());
+        if (descResp.getStatus() != R.Status.Success.getCode()) {
+            logError("Failed to describe collection: {}", queryIteratorParam.getCollectionName());
+            return R.failed(descResp.getException());
+        }
+        DescCollResponseWrapper descCollResponseWrapper = new DescCollResponseWrapper(descResp.getData());
+        try {
+            ParallelQueryIterator iterator = new ParallelQueryIterator(requestParam, this.blockingStub(),
+                    descCollResponseWrapper.getPrimaryField());
+            return R.success(iterator);
+        } catch (Exception e) {
+            logError("Failed to create parallel query iterator: {}", e.getMessage());
+            return R.failed(e);
+        }
+    }
+
     @Override
     public R<SearchIterator> searchIterator(SearchIteratorParam requestParam) {
         DescribeCollectionParam.Builder builder = DescribeCollectionParam.newBuilder()
@@ -3333,6 +3597,28 @@ public abstract class AbstractMilvusGrpcClient implements MilvusClient {
         return R.success(searchIterator);
     }
 
+    @Override
+    public R<BatchSearchIterator> batchSearchIterator(BatchSearchIteratorParam requestParam) {
+        SearchIteratorParam first = requestParam.getSearchIteratorParams().get(0);
+        DescribeCollectionParam.Builder builder = DescribeCollectionParam.newBuilder()
+                .withDatabaseName(first.getDatabaseName())
+                .withCollectionName(first.getCollectionName());
+        R<DescribeCollectionResponse> descResp = describeCollection(builder.build());
+        if (descResp.getStatus() != R.Status.Success.getCode()) {
+            logError("Failed to describe collection: {}", first.getCollectionName());
+            return R.failed(descResp.getException());
+        }
+        DescCollResponseWrapper descCollResponseWrapper = new DescCollResponseWrapper(descResp.getData());
+        try {
+            BatchSearchIterator iterator = new BatchSearchIterator(requestParam, this.futureStub(),
+                    descCollResponseWrapper.getPrimaryField());
+            return R.success(iterator);
+        } catch (Exception e) {
+            logError("Failed to create batch search iterator: {}", e.getMessage());
+            return R.failed(e);
+        }
+    }
+
     ///////////////////// Log Functions//////////////////////
     protected void logDebug(String msg, Object... params) {
         if (logLevel.ordinal() <= LogLevel.Debug.ordinal()) {
@@ -0,0 +1,298 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.milvus.client;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import io.milvus.exception.ClientNotConnectedException;
+import io.milvus.exception.MilvusException;
+import io.milvus.grpc.MutationResult;
+import io.milvus.param.R;
+import io.milvus.param.dml.InsertBatcherParam;
+import io.milvus.param.dml.InsertParam;
+import io.milvus.response.MutationResultWrapper;
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind batcher that coalesces small row inserts from many threads into larger insert requests
+ * for one collection/partition.
+ *
+ * A batch is sent by {@link MilvusClient#insertAsync(InsertParam)} when it reaches maxBatchRows, maxBatchBytes,
+ * or lingerMs after its first row arrived. Each caller receives a future which completes with the ids of its own rows,
+ * in the same order as the rows were added.
+ *
+ * The batcher is thread-safe. Call {@link #close()} to send the remaining rows and release the linger timer.
+ */
+public class InsertBatcher implements AutoCloseable {
+    private final MilvusClient client;
+    private final InsertBatcherParam param;
+    private final ScheduledExecutorService timer;
+
+    private final Object lock = new Object();
+    private List<JsonObject> rows = new ArrayList<>();
+    private List<Waiter> waiters = new ArrayList<>();
+    private long batchBytes = 0;
+    private ScheduledFuture<?> lingerTask;
+    private boolean closed = false;
+
+    public InsertBatcher(@NonNull MilvusClient client, @NonNull InsertBatcherParam param) {
+        this.client = client;
+        this.param = param;
+        this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "milvus-insert-batcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Adds one row to the current batch.
+     *
+     * @param row row data
+     * @return {@link ListenableFuture} of the id of this row
+     */
+    public ListenableFuture<R<List<Object>>> add(@NonNull JsonObject row) {
+        return add(Collections.singletonList(row));
+    }
+
+    /**
+     * Adds rows to the current batch. The rows are always sent together in one request.
+     *
+     * @param newRows rows data
+     * @return {@link ListenableFuture} of the ids of these rows
+     */
+    public ListenableFuture<R<List<Object>>> add(@NonNull List<JsonObject> newRows) {
+        if (newRows.isEmpty()) {
+            return Futures.immediateFuture(R.success(new ArrayList<>()));
+        }
+
+        long newBytes = 0;
+        for (JsonObject row : newRows) {
+            newBytes += estimateSize(row);
+        }
+
+        SettableFuture<R<List<Object>>> future = SettableFuture.create();
+        Batch full = null;
+        Batch overflow = null;
+        synchronized (lock) {
+            if (closed) {
+                return Futures.immediateFuture(R.failed(new ClientNotConnectedException("Insert batcher is closed")));
+            }
+
+            // send the current batch first if the new rows don't fit in it
+            if (!rows.isEmpty() && (rows.size() + newRows.size() > param.getMaxBatchRows()
+                    || batchBytes + newBytes > param.getMaxBatchBytes())) {
+                overflow = takeBatch();
+            }
+
+            if (rows.isEmpty() && param.getLingerMs() > 0) {
+                List<JsonObject> lingering = rows;
+                lingerTask = timer.schedule(() -> flushLingering(lingering),
+                        param.getLingerMs(), TimeUnit.MILLISECONDS);
+            }
+            waiters.add(new Waiter(rows.size(), newRows.size(), future));
+            rows.addAll(newRows);
+            batchBytes += newBytes;
+
+            if (rows.size() >= param.getMaxBatchRows() || batchBytes >= param.getMaxBatchBytes()) {
+                full = takeBatch();
+            }
+        }
+
+        send(overflow);
+        send(full);
+        return future;
+    }
+
+    /**
+     * Sends the current batch at once if it is not empty.
+     */
+    public void flush() {
+        Batch batch;
+        synchronized (lock) {
+            batch = takeBatch();
+        }
+        send(batch);
+    }
+
+    // the linger task may already be running when its batch is sent by size, it must not send the next batch
+    private void flushLingering(List<JsonObject> lingering) {
+        Batch batch;
+        synchronized (lock) {
+            if (rows != lingering) {
+                return; // already sent because it was full
+            }
+            batch = takeBatch();
+        }
+        send(batch);
+    }
+
+    /**
+     * Sends the remaining rows and stops the linger timer.
+     * Rows added after close are rejected with a failed result.
+     */
+    @Override
+    public void close() {
+        synchronized (lock) {
+            closed = true;
+        }
+        flush();
+        timer.shutdownNow();
+    }
+
+    // must be called with lock held
+    private Batch takeBatch() {
+        if (lingerTask != null) {
+            lingerTask.cancel(false);
+            lingerTask = null;
+        }
+        if (rows.isEmpty()) {
+            return null;
+        }
+
+        Batch batch = new Batch(rows, waiters);
+        rows = new ArrayList<>();
+        waiters = new ArrayList<>();
+        batchBytes = 0;
+        return batch;
+    }
+
+    private void send(Batch batch) {
+        if (batch == null) {
+            return;
+        }
+
+        ListenableFuture<R<MutationResult>> response;
+        try {
+            InsertParam insertParam = InsertParam.newBuilder()
+                    .withDatabaseName(param.getDatabaseName())
+                    .withCollectionName(param.getCollectionName())
+                    .withPartitionName(param.getPartitionName())
+                    .withRows(batch.rows)
+                    .build();
+            response = client.insertAsync(insertParam);
+        } catch (Exception e) {
+            batch.fail(e);
+            return;
+        }
+
+        Futures.addCallback(response, new FutureCallback<R<MutationResult>>() {
+            @Override
+            public void onSuccess(R<MutationResult> result) {
+                if (result.getStatus() != R.Status.Success.getCode()) {
+                    batch.fail(result.getException());
+                    return;
+                }
+                try {
+                    batch.complete(new MutationResultWrapper(result.getData()).getInsertIDs());
+                } catch (Exception e) {
+                    batch.fail(e);
+                }
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                batch.fail(t instanceof Exception ? (Exception) t
+                        : new MilvusException(t.getMessage(), R.Status.Unknown.getCode()));
+            }
+        }, MoreExecutors.directExecutor());
+    }
+
+    /**
+     * Roughly estimates the encoded size of a row, numbers are counted as 8 bytes.
+     */
+    private static long estimateSize(JsonElement element) {
+        if (element == null || element.isJsonNull()) {
+            return 1;
+        }
+        if (element.isJsonPrimitive()) {
+            JsonPrimitive primitive = element.getAsJsonPrimitive();
+            if (primitive.isString()) {
+                return primitive.getAsString().length();
+            }
+            return primitive.isBoolean() ? 1 : 8;
+        }
+
+        long size = 0;
+        if (element.isJsonArray()) {
+            for (JsonElement item : element.getAsJsonArray()) {
+                size += estimateSize(item);
+            }
+        } else {
+            for (Map.Entry<String, JsonElement> entry : element.getAsJsonObject().entrySet()) {
+                size += entry.getKey().length() + estimateSize(entry.getValue());
+            }
+        }
+        return size;
+    }
+
+    private static final class Waiter {
+        private final int offset;
+        private final int count;
+        private final SettableFuture<R<List<Object>>> future;
+
+        private Waiter(int offset, int count, SettableFuture<R<List<Object>>> future) {
+            this.offset = offset;
+            this.count = count;
+            this.future = future;
+        }
+    }
+
+    private static final class Batch {
+        private final List<JsonObject> rows;
+        private final List<Waiter> waiters;
+
+        private Batch(List<JsonObject> rows, List<Waiter> waiters) {
+            this.rows = rows;
+            this.waiters = waiters;
+        }
+
+        private void complete(List<?> ids) {
+            if (ids.size() != rows.size()) {
+                fail(new MilvusException(String.format("Insert returned %d ids for %d rows", ids.size(), rows.size()),
+                        R.Status.Unknown.getCode()));
+                return;
+            }
+            for (Waiter waiter : waiters) {
+                waiter.future.set(R.success(new ArrayList<>(ids.subList(waiter.offset, waiter.offset + waiter.count))));
+            }
+        }
+
+        private void fail(Exception e) {
+            for (Waiter waiter : waiters) {
+                waiter.future.set(R.failed(e));
+            }
+        }
+    }
+}
@@ -37,6 +37,8 @@ import io.milvus.param.highlevel.collection.ListCollectionsParam;
 import io.milvus.param.highlevel.dml.*;
 import io.milvus.param.highlevel.dml.response.*;
 import io.milvus.param.index.*;
+import io.milvus.orm.iterator.BatchSearchIterator;
+import io.milvus.orm.iterator.ParallelQueryIterator;
 import io.milvus.orm.iterator.QueryIterator;
 import io.milvus.orm.iterator.SearchIterator;
 import io.milvus.param.partition.*;
@@ -866,6 +868,15 @@ public interface MilvusClient {
      */
     R<QueryIterator> queryIterator(QueryIteratorParam requestParam);
 
+    /**
+     * Get a parallel queryIterator which splits the primary key space into ranges and scans them concurrently.
+     * Note that the order of the returned entities cannot be guaranteed.
+     *
+     * @param requestParam {@link ParallelQueryIteratorParam}
+     * @return {status:result code,data: ParallelQueryIterator}
+     */
+    R<ParallelQueryIterator> parallelQueryIterator(ParallelQueryIteratorParam requestParam);
+
     /**
      * Get searchIterator based on a vector field. Use expression to do filtering before search.
      *
@@ -873,4 +884,13 @@ public interface MilvusClient {
      * @return {status:result code, data: SearchIterator}
      */
     R<SearchIterator> searchIterator(SearchIteratorParam requestParam);
+
+    /**
+     * Get a batch searchIterator which iterates many target vectors of a collection together.
+     * The range searches of the target vectors are merged into multi-nq requests when their parameters line up.
+     *
+     * @param requestParam {@link BatchSearchIteratorParam}
+     * @return {status:result code, data: BatchSearchIterator}
+     */
+    R<BatchSearchIterator> batchSearchIterator(BatchSearchIteratorParam requestParam);
 }
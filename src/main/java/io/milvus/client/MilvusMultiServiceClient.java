@@ -36,6 +36,8 @@ import io.milvus.param.highlevel.collection.ListCollectionsParam;
 import io.milvus.param.highlevel.dml.*;
 import io.milvus.param.highlevel.dml.response.*;
 import io.milvus.param.index.*;
+import io.milvus.orm.iterator.BatchSearchIterator;
+import io.milvus.orm.iterator.ParallelQueryIterator;
 import io.milvus.orm.iterator.QueryIterator;
 import io.milvus.orm.iterator.SearchIterator;
 import io.milvus.param.partition.*;
@@ -701,11 +703,21 @@ public class MilvusMultiServiceClient implements MilvusClient {
         return this.clusterFactory.getMaster().getClient().queryIterator(requestParam);
     }
 
+    @Override
+    public R<ParallelQueryIterator> parallelQueryIterator(ParallelQueryIteratorParam requestParam) {
+        return this.clusterFactory.getMaster().getClient().parallelQueryIterator(requestParam);
+    }
+
     @Override
     public R<SearchIterator> searchIterator(SearchIteratorParam requestParam) {
         return this.clusterFactory.getMaster().getClient().searchIterator(requestParam);
     }
 
+    @Override
+    public R<BatchSearchIterator> batchSearchIterator(BatchSearchIteratorParam requestParam) {
+        return this.clusterFactory.getMaster().getClient().batchSearchIterator(requestParam);
+    }
+
     private <T> R<T> handleResponse(List<R<T>> response) {
         if (CollectionUtils.isNotEmpty(response)) {
             R<T> rSuccess = null;
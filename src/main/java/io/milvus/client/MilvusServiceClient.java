@@ -19,12 +19,15 @@
 
 package io.milvus.client;
 
+import com.google.common.util.concurrent.ListenableFuture;
 import io.grpc.Status;
 import io.grpc.*;
 import io.grpc.netty.shaded.io.grpc.netty.GrpcSslContexts;
 import io.grpc.netty.shaded.io.grpc.netty.NettyChannelBuilder;
 import io.grpc.netty.shaded.io.netty.handler.ssl.SslContext;
 import io.grpc.stub.MetadataUtils;
+import io.milvus.common.utils.ResultCache;
+import io.milvus.common.utils.SearchCoalescer;
 import io.milvus.exception.MilvusException;
 import io.milvus.exception.ServerException;
 import io.milvus.grpc.*;
@@ -52,6 +55,7 @@ import org.apache.commons.lang3.StringUtils;
 import java.io.File;
 import java.io.IOException;
 import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
@@ -63,11 +67,18 @@ public class MilvusServiceClient extends AbstractMilvusGrpcClient {
     private final MilvusServiceGrpc.MilvusServiceBlockingStub blockingStub;
     private final MilvusServiceGrpc.MilvusServiceFutureStub futureStub;
     private final long rpcDeadlineMs;
+    private final Executor asyncExecutor;
+    private final SearchCoalescer searchCoalescer;
+    // the copies made by withTimeout()/withRetry() share the coalescer, only the origin closes it
+    private final boolean ownsSearchCoalescer;
+    private final ResultCache resultCache;
     private long timeoutMs = 0;
     private RetryParam retryParam = RetryParam.newBuilder().build();
 
     public MilvusServiceClient(@NonNull ConnectParam connectParam) {
         this.rpcDeadlineMs = connectParam.getRpcDeadlineMs();
+        this.asyncExecutor = connectParam.getAsyncExecutor();
+        this.resultCache = connectParam.getResultCache();
 
         Metadata metadata = new Metadata();
         metadata.put(Metadata.Key.of("authorization", Metadata.ASCII_STRING_MARSHALLER), connectParam.getAuthorization());
@@ -154,6 +165,15 @@ public class MilvusServiceClient extends AbstractMilvusGrpcClient {
             throw new RuntimeException(msg);
         }
         this.timeoutMs = 0; // reset the timeout value to default
+
+        SearchCoalescerParam coalescerParam = connectParam.getSearchCoalescerParam();
+        if (coalescerParam != null) {
+            searchCoalescer = new SearchCoalescer(this::sendSearch,
+                    coalescerParam.getWindowMs(), coalescerParam.getMaxNq());
+        } else {
+            searchCoalescer = null;
+        }
+        ownsSearchCoalescer = searchCoalescer != null;
     }
 
     protected MilvusServiceClient(MilvusServiceClient src) {
@@ -161,6 +181,10 @@ public class MilvusServiceClient extends AbstractMilvusGrpcClient {
         this.blockingStub = src.blockingStub;
         this.futureStub = src.futureStub;
         this.rpcDeadlineMs = src.rpcDeadlineMs;
+        this.asyncExecutor = src.asyncExecutor;
+        this.searchCoalescer = src.searchCoalescer;
+        this.ownsSearchCoalescer = false;
+        this.resultCache = src.resultCache;
         this.timeoutMs = src.timeoutMs;
         this.logLevel = src.logLevel;
         this.retryParam = src.retryParam;
@@ -180,6 +204,36 @@ public class MilvusServiceClient extends AbstractMilvusGrpcClient {
         return this.futureStub;
     }
 
+    @Override
+    protected Executor asyncExecutor() {
+        return this.asyncExecutor;
+    }
+
+    @Override
+    protected SearchCoalescer searchCoalescer() {
+        return this.searchCoalescer;
+    }
+
+    @Override
+    protected long searchTimeoutMs() {
+        return this.timeoutMs;
+    }
+
+    @Override
+    protected ResultCache resultCache() {
+        return this.resultCache;
+    }
+
+    private ListenableFuture<SearchResults> sendSearch(SearchRequest request, long timeoutMs) {
+        MilvusServiceGrpc.MilvusServiceFutureStub stub = this.futureStub;
+        if (timeoutMs > 0) {
+            stub = stub.withDeadlineAfter(timeoutMs, TimeUnit.MILLISECONDS);
+        } else if (this.rpcDeadlineMs > 0) {
+            stub = stub.withDeadlineAfter(this.rpcDeadlineMs, TimeUnit.MILLISECONDS);
+        }
+        return stub.search(request);
+    }
+
     @Override
     protected boolean clientIsReady() {
         ConnectivityState state = channel.getState(false);
@@ -188,6 +242,9 @@ public class MilvusServiceClient extends AbstractMilvusGrpcClient {
 
     @Override
     public void close(long maxWaitSeconds) throws InterruptedException {
+        if (ownsSearchCoalescer) {
+            searchCoalescer.close();
+        }
         channel.shutdownNow();
         channel.awaitTermination(maxWaitSeconds, TimeUnit.SECONDS);
     }
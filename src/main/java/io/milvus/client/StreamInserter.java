@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.milvus.client;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.gson.JsonObject;
+import io.milvus.exception.MilvusException;
+import io.milvus.grpc.MutationResult;
+import io.milvus.param.R;
+import io.milvus.param.dml.InsertParam;
+import io.milvus.param.dml.StreamInsertParam;
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * Inserts rows from an unbounded source with bounded memory.
+ *
+ * Rows are pulled from the source batch by batch and sent by {@link MilvusClient#insertAsync(InsertParam)}.
+ * The source is not read while maxInflightBatches requests are waiting for response, so a slow server
+ * slows down the reading instead of piling up rows in memory.
+ *
+ * Push-style producers can feed it through a blocking queue iterator, or use {@link InsertBatcher}.
+ */
+public class StreamInserter {
+    private final MilvusClient client;
+    private final StreamInsertParam param;
+
+    public StreamInserter(@NonNull MilvusClient client, @NonNull StreamInsertParam param) {
+        this.client = client;
+        this.param = param;
+    }
+
+    /**
+     * Inserts all rows of a stream. The stream is consumed but not closed.
+     *
+     * @param rows source of rows
+     * @return {R} holding the total insert count
+     */
+    public R<Long> insert(@NonNull Stream<JsonObject> rows) {
+        return insert(rows.iterator());
+    }
+
+    /**
+     * Inserts all rows of an iterator, returns after all requests are done.
+     * Reading stops at the first failed request or failed read of the source, the requests in flight are still
+     * waited for and the failure tells the count of inserted rows. The rows of succeeded requests are not rolled back.
+     *
+     * @param rows source of rows
+     * @return {R} holding the total insert count
+     */
+    public R<Long> insert(@NonNull Iterator<JsonObject> rows) {
+        int maxInflight = param.getMaxInflightBatches();
+        Semaphore permits = new Semaphore(maxInflight);
+        AtomicReference<Exception> error = new AtomicReference<>();
+        long[] inserted = new long[1];
+        Set<Future<?>> inflight = ConcurrentHashMap.newKeySet();
+
+        try {
+            while (error.get() == null && rows.hasNext()) {
+                List<JsonObject> batch = new ArrayList<>(param.getBatchRows());
+                try {
+                    while (batch.size() < param.getBatchRows() && rows.hasNext()) {
+                        batch.add(rows.next());
+                    }
+                } catch (RuntimeException e) {
+                    // a failed read or conversion of the source still waits for the requests in flight below
+                    error.compareAndSet(null, e);
+                    break;
+                }
+
+                permits.acquire();
+                if (error.get() != null) {
+                    permits.release();
+                    break;
+                }
+
+                ListenableFuture<R<MutationResult>> response;
+                try {
+                    response = client.insertAsync(InsertParam.newBuilder()
+                            .withDatabaseName(param.getDatabaseName())
+                            .withCollectionName(param.getCollectionName())
+                            .withPartitionName(param.getPartitionName())
+                            .withRows(batch)
+                            .build());
+                } catch (Exception e) {
+                    error.compareAndSet(null, e);
+                    permits.release();
+                    break;
+                }
+
+                inflight.add(response);
+                Futures.addCallback(response, new FutureCallback<R<MutationResult>>() {
+                    @Override
+                    public void onSuccess(R<MutationResult> result) {
+                        inflight.remove(response);
+                        if (result.getStatus() != R.Status.Success.getCode()) {
+                            error.compareAndSet(null, result.getException());
+                        } else {
+                            synchronized (inserted) {
+                                inserted[0] += result.getData().getInsertCnt();
+                                if (param.getProgressListener() != null) {
+                                    param.getProgressListener().onProgress(inserted[0]);
+                                }
+                            }
+                        }
+                        permits.release();
+                    }
+
+                    @Override
+                    public void onFailure(Throwable t) {
+                        inflight.remove(response);
+                        error.compareAndSet(null, t instanceof Exception ? (Exception) t
+                                : new MilvusException(t.getMessage(), R.Status.Unknown.getCode()));
+                        permits.release();
+                    }
+                }, MoreExecutors.directExecutor());
+            }
+
+            // wait for the requests in flight
+            permits.acquire(maxInflight);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            error.compareAndSet(null, e);
+            // the results of these requests are not waited for, cancel them instead of leaving them unobserved
+            inflight.forEach(future -> future.cancel(true));
+        }
+
+        long total;
+        synchronized (inserted) {
+            total = inserted[0];
+        }
+        Exception e = error.get();
+        if (e != null) {
+            Integer status = (e instanceof MilvusException) ? ((MilvusException) e).getStatus() : R.Status.Unknown.getCode();
+            return R.failed(new MilvusException(String.format("Stream insert stopped after %d rows inserted: %s",
+                    total, e.getMessage()), status));
+        }
+        return R.success(total);
+    }
+}
@@ -0,0 +1,348 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.milvus.common.utils;
+
+import com.google.protobuf.CodedOutputStream;
+import io.milvus.exception.ParamException;
+import io.milvus.grpc.*;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits column-based FieldData into row ranges by estimated encoded size.
+ * The estimation is the size of the row values in protobuf encoding, the tiny per-message overhead is ignored.
+ */
+public class FieldDataSplitter {
+
+    /**
+     * A row range of the origin data.
+     */
+    @Getter
+    public static class Chunk {
+        private final int offset;
+        private final int rowCount;
+        private final List<FieldData> fieldsData;
+
+        private Chunk(int offset, int rowCount, List<FieldData> fieldsData) {
+            this.offset = offset;
+            this.rowCount = rowCount;
+            this.fieldsData = fieldsData;
+        }
+    }
+
+    /**
+     * Estimate the encoded size of each row.
+     *
+     * @param fieldsData column-based data
+     * @param rowCount row count
+     * @return <code>long[]</code> estimated size of each row
+     */
+    public static long[] estimateRowSizes(List<FieldData> fieldsData, int rowCount) {
+        long[] sizes = new long[rowCount];
+        for (FieldData fieldData : fieldsData) {
+            if (fieldData.hasVectors()) {
+                addVectorSizes(fieldData.getVectors(), sizes);
+            } else if (fieldData.hasScalars()) {
+                addScalarSizes(fieldData.getScalars(), sizes);
+            }
+        }
+        return sizes;
+    }
+
+    /**
+     * Split the data into chunks, the estimated size of each chunk is no more than maxBytes.
+     * A single row larger than maxBytes is put into a chunk by itself.
+     * If the data is small enough, returns one chunk with the origin FieldData.
+     *
+     * @param fieldsData column-based data
+     * @param rowCount row count
+     * @param maxBytes the max estimated size of a chunk
+     * @return List of {@link Chunk}
+     */
+    public static List<Chunk> split(List<FieldData> fieldsData, int rowCount, long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new ParamException("The max bytes of a chunk must be larger than zero");
+        }
+
+        List<Chunk> chunks = new ArrayList<>();
+        long[] sizes = estimateRowSizes(fieldsData, rowCount);
+        int begin = 0;
+        long chunkBytes = 0;
+        for (int i = 0; i < rowCount; ++i) {
+            if (i > begin && chunkBytes + sizes[i] > maxBytes) {
+                chunks.add(new Chunk(begin, i - begin, slice(fieldsData, begin, i)));
+                begin = i;
+                chunkBytes = 0;
+            }
+            chunkBytes += sizes[i];
+        }
+
+        if (begin == 0) {
+            chunks.add(new Chunk(0, rowCount, fieldsData));
+        } else {
+            chunks.add(new Chunk(begin, rowCount - begin, slice(fieldsData, begin, rowCount)));
+        }
+        return chunks;
+    }
+
+    /**
+     * Copy rows in range [from, to) of each FieldData.
+     *
+     * @param fieldsData column-based data
+     * @param from first row, inclusive
+     * @param to last row, exclusive
+     * @return List of FieldData
+     */
+    public static List<FieldData> slice(List<FieldData> fieldsData, int from, int to) {
+        List<FieldData> sliced = new ArrayList<>(fieldsData.size());
+        for (FieldData fieldData : fieldsData) {
+            FieldData.Builder builder = FieldData.newBuilder()
+                    .setType(fieldData.getType())
+                    .setFieldName(fieldData.getFieldName())
+                    .setFieldId(fieldData.getFieldId())
+                    .setIsDynamic(fieldData.getIsDynamic());
+            if (fieldData.hasVectors()) {
+                builder.setVectors(sliceVectors(fieldData.getVectors(), from, to));
+            } else if (fieldData.hasScalars()) {
+                builder.setScalars(sliceScalars(fieldData.getScalars(), from, to));
+            }
+            sliced.add(builder.build());
+        }
+        return sliced;
+    }
+
+    private static int bytesPerRow(VectorField vectors) {
+        switch (vectors.getDataCase()) {
+            case BINARY_VECTOR:
+                return (int) (vectors.getDim() / 8);
+            case FLOAT16_VECTOR:
+            case BFLOAT16_VECTOR:
+                return (int) (vectors.getDim() * 2);
+            default:
+                throw new ParamException("Unsupported vector type: " + vectors.getDataCase());
+        }
+    }
+
+    private static void addVectorSizes(VectorField vectors, long[] sizes) {
+        switch (vectors.getDataCase()) {
+            case FLOAT_VECTOR: {
+                long rowBytes = vectors.getDim() * (long) Float.BYTES;
+                for (int i = 0; i < sizes.length; ++i) {
+                    sizes[i] += rowBytes;
+                }
+                break;
+            }
+            case BINARY_VECTOR:
+            case FLOAT16_VECTOR:
+            case BFLOAT16_VECTOR: {
+                long rowBytes = bytesPerRow(vectors);
+                for (int i = 0; i < sizes.length; ++i) {
+                    sizes[i] += rowBytes;
+                }
+                break;
+            }
+            case SPARSE_FLOAT_VECTOR: {
+                SparseFloatArray sparse = vectors.getSparseFloatVector();
+                for (int i = 0; i < sizes.length && i < sparse.getContentsCount(); ++i) {
+                    sizes[i] += CodedOutputStream.computeBytesSizeNoTag(sparse.getContents(i)) + 1;
+                }
+                break;
+            }
+            default:
+                break;
+        }
+    }
+
+    private static void addScalarSizes(ScalarField scalars, long[] sizes) {
+        switch (scalars.getDataCase()) {
+            case BOOL_DATA:
+                for (int i = 0; i < sizes.length; ++i) {
+                    sizes[i] += 1;
+                }
+                break;
+            case INT_DATA: {
+                IntArray data = scalars.getIntData();
+                for (int i = 0; i < sizes.length && i < data.getDataCount(); ++i) {
+                    sizes[i] += CodedOutputStream.computeInt32SizeNoTag(data.getData(i));
+                }
+                break;
+            }
+            case LONG_DATA: {
+                LongArray data = scalars.getLongData();
+                for (int i = 0; i < sizes.length && i < data.getDataCount(); ++i) {
+                    sizes[i] += CodedOutputStream.computeInt64SizeNoTag(data.getData(i));
+                }
+                break;
+            }
+            case FLOAT_DATA:
+                for (int i = 0; i < sizes.length; ++i) {
+                    sizes[i] += Float.BYTES;
+                }
+                break;
+            case DOUBLE_DATA:
+                for (int i = 0; i < sizes.length; ++i) {
+                    sizes[i] += Double.BYTES;
+                }
+                break;
+            case STRING_DATA: {
+                StringArray data = scalars.getStringData();
+                for (int i = 0; i < sizes.length && i < data.getDataCount(); ++i) {
+                    sizes[i] += CodedOutputStream.computeBytesSizeNoTag(data.getDataBytes(i)) + 1;
+                }
+                break;
+            }
+            case JSON_DATA: {
+                JSONArray data = scalars.getJsonData();
+                for (int i = 0; i < sizes.length && i < data.getDataCount(); ++i) {
+                    sizes[i] += CodedOutputStream.computeBytesSizeNoTag(data.getData(i)) + 1;
+                }
+                break;
+            }
+            case BYTES_DATA: {
+                BytesArray data = scalars.getBytesData();
+                for (int i = 0; i < sizes.length && i < data.getDataCount(); ++i) {
+                    sizes[i] += CodedOutputStream.computeBytesSizeNoTag(data.getData(i)) + 1;
+                }
+                break;
+            }
+            case ARRAY_DATA: {
+                ArrayArray data = scalars.getArrayData();
+                for (int i = 0; i < sizes.length && i < data.getDataCount(); ++i) {
+                    sizes[i] += CodedOutputStream.computeMessageSizeNoTag(data.getData(i)) + 1;
+                }
+                break;
+            }
+            default:
+                break;
+        }
+    }
+
+    private static VectorField sliceVectors(VectorField vectors, int from, int to) {
+        VectorField.Builder builder = VectorField.newBuilder().setDim(vectors.getDim());
+        switch (vectors.getDataCase()) {
+            case FLOAT_VECTOR: {
+                FloatArray data = vectors.getFloatVector();
+                int dim = (int) vectors.getDim();
+                FloatArray.Builder arrayBuilder = FloatArray.newBuilder();
+                for (int i = from * dim; i < to * dim; ++i) {
+                    arrayBuilder.addData(data.getData(i));
+                }
+                return builder.setFloatVector(arrayBuilder).build();
+            }
+            case BINARY_VECTOR:
+            case FLOAT16_VECTOR:
+            case BFLOAT16_VECTOR: {
+                // substring() shares the underlying bytes, no copy
+                int rowBytes = bytesPerRow(vectors);
+                if (vectors.getDataCase() == VectorField.DataCase.BINARY_VECTOR) {
+                    return builder.setBinaryVector(vectors.getBinaryVector().substring(from * rowBytes, to * rowBytes)).build();
+                } else if (vectors.getDataCase() == VectorField.DataCase.FLOAT16_VECTOR) {
+                    return builder.setFloat16Vector(vectors.getFloat16Vector().substring(from * rowBytes, to * rowBytes)).build();
+                } else {
+                    return builder.setBfloat16Vector(vectors.getBfloat16Vector().substring(from * rowBytes, to * rowBytes)).build();
+                }
+            }
+            case SPARSE_FLOAT_VECTOR: {
+                SparseFloatArray data = vectors.getSparseFloatVector();
+                SparseFloatArray.Builder arrayBuilder = SparseFloatArray.newBuilder().setDim(data.getDim());
+                for (int i = from; i < to; ++i) {
+                    arrayBuilder.addContents(data.getContents(i));
+                }
+                return builder.setSparseFloatVector(arrayBuilder).build();
+            }
+            default:
+                throw new ParamException("Unsupported vector type: " + vectors.getDataCase());
+        }
+    }
+
+    private static ScalarField sliceScalars(ScalarField scalars, int from, int to) {
+        ScalarField.Builder builder = ScalarField.newBuilder();
+        switch (scalars.getDataCase()) {
+            case BOOL_DATA: {
+                BoolArray.Builder arrayBuilder = BoolArray.newBuilder();
+                for (int i = from; i < to; ++i) {
+                    arrayBuilder.addData(scalars.getBoolData().getData(i));
+                }
+                return builder.setBoolData(arrayBuilder).build();
+            }
+            case INT_DATA: {
+                IntArray.Builder arrayBuilder = IntArray.newBuilder();
+                for (int i = from; i < to; ++i) {
+                    arrayBuilder.addData(scalars.getIntData().getData(i));
+                }
+                return builder.setIntData(arrayBuilder).build();
+            }
+            case LONG_DATA: {
+                LongArray.Builder arrayBuilder = LongArray.newBuilder();
+                for (int i = from; i < to; ++i) {
+                    arrayBuilder.addData(scalars.getLongData().getData(i));
+                }
+                return builder.setLongData(arrayBuilder).build();
+            }
+            case FLOAT_DATA: {
+                FloatArray.Builder arrayBuilder = FloatArray.newBuilder();
+                for (int i = from; i < to; ++i) {
+                    arrayBuilder.addData(scalars.getFloatData().getData(i));
+                }
+                return builder.setFloatData(arrayBuilder).build();
+            }
+            case DOUBLE_DATA: {
+                DoubleArray.Builder arrayBuilder = DoubleArray.newBuilder();
+                for (int i = from; i < to; ++i) {
+                    arrayBuilder.addData(scalars.getDoubleData().getData(i));
+                }
+                return builder.setDoubleData(arrayBuilder).build();
+            }
+            case STRING_DATA: {
+                StringArray.Builder arrayBuilder = StringArray.newBuilder();
+                for (int i = from; i < to; ++i) {
+                    arrayBuilder.addDataBytes(scalars.getStringData().getDataBytes(i));
+                }
+                return builder.setStringData(arrayBuilder).build();
+            }
+            case JSON_DATA: {
+                JSONArray.Builder arrayBuilder = JSONArray.newBuilder();
+                for (int i = from; i < to; ++i) {
+                    arrayBuilder.addData(scalars.getJsonData().getData(i));
+                }
+                return builder.setJsonData(arrayBuilder).build();
+            }
+            case BYTES_DATA: {
+                BytesArray.Builder arrayBuilder = BytesArray.newBuilder();
+                for (int i = from; i < to; ++i) {
+                    arrayBuilder.addData(scalars.getBytesData().getData(i));
+                }
+                return builder.setBytesData(arrayBuilder).build();
+            }
+            case ARRAY_DATA: {
+                ArrayArray src = scalars.getArrayData();
+                ArrayArray.Builder arrayBuilder = ArrayArray.newBuilder().setElementType(src.getElementType());
+                for (int i = from; i < to; ++i) {
+                    arrayBuilder.addData(src.getData(i));
+                }
+                return builder.setArrayData(arrayBuilder).build();
+            }
+            default:
+                throw new ParamException("Unsupported scalar type: " + scalars.getDataCase());
+        }
+    }
+}
@@ -0,0 +1,346 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.milvus.common.utils;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.ShortBuffer;
+
+/**
+ * Conversions between float32 values and the 2-byte Float16 (IEEE 754 half precision) and
+ * BFloat16 encodings used by Float16Vector/BFloat16Vector fields.
+ * Encoded vectors are little endian, which is the layout the server expects.
+ *
+ * The batch methods are plain loops over primitive arrays without allocation so that a whole
+ * column can be encoded/decoded in one pass.
+ */
+public class Float16Utils {
+    // values read at once from a buffer without accessible array
+    private static final int DECODE_CHUNK = 1024;
+    // smallest positive subnormal of float16, 2^-24
+    private static final float FLOAT16_MIN_SUBNORMAL = 5.9604645E-8f;
+
+    private Float16Utils() {
+    }
+
+    /**
+     * Converts a float32 value to float16 bits, rounding to nearest even.
+     * Values beyond the float16 range become infinity, tiny values become (signed) zero.
+     *
+     * @param value float32 value
+     * @return <code>short</code> float16 bits
+     */
+    public static short floatToFloat16(float value) {
+        int bits = Float.floatToRawIntBits(value);
+        int sign = (bits >>> 16) & 0x8000;
+        int exp = (bits >>> 23) & 0xff;
+        int mant = bits & 0x7fffff;
+
+        if (exp == 0xff) {
+            // infinity keeps a zero mantissa, NaN keeps a non-zero mantissa
+            return (short) (sign | 0x7c00 | (mant != 0 ? 0x200 | (mant >>> 13) : 0));
+        }
+
+        int halfExp = exp - 127 + 15;
+        if (halfExp >= 0x1f) {
+            return (short) (sign | 0x7c00);
+        }
+
+        if (halfExp <= 0) {
+            if (halfExp < -10) {
+                return (short) sign;
+            }
+            // subnormal float16, shift the mantissa with its implicit leading bit
+            mant |= 0x800000;
+            int shift = 14 - halfExp;
+            int half = mant >>> shift;
+            int rem = mant & ((1 << shift) - 1);
+            int halfway = 1 << (shift - 1);
+            if (rem > halfway || (rem == halfway && (half & 1) != 0)) {
+                half++;
+            }
+            return (short) (sign | half);
+        }
+
+        int half = (halfExp << 10) | (mant >>> 13);
+        int rem = mant & 0x1fff;
+        if (rem > 0x1000 || (rem == 0x1000 && (half & 1) != 0)) {
+            // a carry from the mantissa into the exponent is still the correct rounding
+            half++;
+        }
+        return (short) (sign | half);
+    }
+
+    /**
+     * Converts float16 bits to a float32 value. The conversion is exact.
+     *
+     * @param half float16 bits
+     * @return <code>float</code> float32 value
+     */
+    public static float float16ToFloat(short half) {
+        int bits = half & 0xffff;
+        int sign = (bits & 0x8000) << 16;
+        int exp = (bits >>> 10) & 0x1f;
+        int mant = bits & 0x3ff;
+
+        if (exp == 0) {
+            float v = mant * FLOAT16_MIN_SUBNORMAL;
+            return sign != 0 ? -v : v;
+        }
+        if (exp == 0x1f) {
+            return Float.intBitsToFloat(sign | 0x7f800000 | (mant << 13));
+        }
+        return Float.intBitsToFloat(sign | ((exp + 112) << 23) | (mant << 13));
+    }
+
+    /**
+     * Converts a float32 value to bfloat16 bits, rounding to nearest even.
+     *
+     * @param value float32 value
+     * @return <code>short</code> bfloat16 bits
+     */
+    public static short floatToBFloat16(float value) {
+        int bits = Float.floatToRawIntBits(value);
+        if ((bits & 0x7fffffff) > 0x7f800000) {
+            // keep NaN quiet, rounding could otherwise turn it into infinity
+            return (short) ((bits >>> 16) | 0x40);
+        }
+        return (short) ((bits + 0x7fff + ((bits >>> 16) & 1)) >>> 16);
+    }
+
+    /**
+     * Converts bfloat16 bits to a float32 value. The conversion is exact.
+     *
+     * @param bfloat16 bfloat16 bits
+     * @return <code>float</code> float32 value
+     */
+    public static float bfloat16ToFloat(short bfloat16) {
+        return Float.intBitsToFloat((bfloat16 & 0xffff) << 16);
+    }
+
+    /**
+     * Encodes <code>count</code> floats of <code>src</code> into little endian float16 bytes of <code>dst</code>.
+     *
+     * @param src source floats
+     * @param srcOffset index of the first float in src
+     * @param dst target bytes, must have room for 2 * count bytes from dstOffset
+     * @param dstOffset index of the first byte in dst
+     * @param count number of floats to encode
+     */
+    public static void encodeFloat16(float[] src, int srcOffset, byte[] dst, int dstOffset, int count) {
+        for (int i = 0; i < count; i++) {
+            short h = floatToFloat16(src[srcOffset + i]);
+            int p = dstOffset + (i << 1);
+            dst[p] = (byte) h;
+            dst[p + 1] = (byte) (h >>> 8);
+        }
+    }
+
+    /**
+     * Encodes <code>count</code> floats of <code>src</code> into little endian bfloat16 bytes of <code>dst</code>.
+     *
+     * @param src source floats
+     * @param srcOffset index of the first float in src
+     * @param dst target bytes, must have room for 2 * count bytes from dstOffset
+     * @param dstOffset index of the first byte in dst
+     * @param count number of floats to encode
+     */
+    public static void encodeBFloat16(float[] src, int srcOffset, byte[] dst, int dstOffset, int count) {
+        for (int i = 0; i < count; i++) {
+            short h = floatToBFloat16(src[srcOffset + i]);
+            int p = dstOffset + (i << 1);
+            dst[p] = (byte) h;
+            dst[p + 1] = (byte) (h >>> 8);
+        }
+    }
+
+    /**
+     * Encodes the remaining floats of <code>src</code> into float16 bytes of <code>dst</code>.
+     * The position of src is not changed.
+     *
+     * @param src source floats
+     * @param dst target bytes, must have room for 2 * src.remaining() bytes from dstOffset
+     * @param dstOffset index of the first byte in dst
+     */
+    public static void encodeFloat16(FloatBuffer src, byte[] dst, int dstOffset) {
+        if (src.hasArray()) {
+            encodeFloat16(src.array(), src.arrayOffset() + src.position(), dst, dstOffset, src.remaining());
+            return;
+        }
+        int base = src.position();
+        int count = src.remaining();
+        for (int i = 0; i < count; i++) {
+            short h = floatToFloat16(src.get(base + i));
+            int p = dstOffset + (i << 1);
+            dst[p] = (byte) h;
+            dst[p + 1] = (byte) (h >>> 8);
+        }
+    }
+
+    /**
+     * Encodes the remaining floats of <code>src</code> into bfloat16 bytes of <code>dst</code>.
+     * The position of src is not changed.
+     *
+     * @param src source floats
+     * @param dst target bytes, must have room for 2 * src.remaining() bytes from dstOffset
+     * @param dstOffset index of the first byte in dst
+     */
+    public static void encodeBFloat16(FloatBuffer src, byte[] dst, int dstOffset) {
+        if (src.hasArray()) {
+            encodeBFloat16(src.array(), src.arrayOffset() + src.position(), dst, dstOffset, src.remaining());
+            return;
+        }
+        int base = src.position();
+        int count = src.remaining();
+        for (int i = 0; i < count; i++) {
+            short h = floatToBFloat16(src.get(base + i));
+            int p = dstOffset + (i << 1);
+            dst[p] = (byte) h;
+            dst[p + 1] = (byte) (h >>> 8);
+        }
+    }
+
+    /**
+     * Decodes <code>count</code> little endian float16 values starting at byte index <code>srcOffset</code>
+     * of <code>src</code> into <code>dst</code>. The position of src is not changed.
+     *
+     * @param src source bytes
+     * @param srcOffset absolute byte index of the first value in src
+     * @param dst target floats
+     * @param dstOffset index of the first float in dst
+     * @param count number of values to decode
+     */
+    public static void decodeFloat16(ByteBuffer src, int srcOffset, float[] dst, int dstOffset, int count) {
+        if (src.hasArray()) {
+            byte[] array = src.array();
+            int base = src.arrayOffset() + srcOffset;
+            for (int i = 0; i < count; i++) {
+                int p = base + (i << 1);
+                dst[dstOffset + i] = float16ToFloat((short) ((array[p] & 0xff) | (array[p + 1] << 8)));
+            }
+            return;
+        }
+        // e.g. the read-only view of a ByteString, read the values in bulk instead of byte by byte
+        ShortBuffer shorts = shortView(src, srcOffset);
+        short[] chunk = new short[Math.min(count, DECODE_CHUNK)];
+        for (int done = 0; done < count; ) {
+            int n = Math.min(chunk.length, count - done);
+            shorts.get(chunk, 0, n);
+            for (int i = 0; i < n; i++) {
+                dst[dstOffset + done + i] = float16ToFloat(chunk[i]);
+            }
+            done += n;
+        }
+    }
+
+    /**
+     * Decodes <code>count</code> little endian bfloat16 values starting at byte index <code>srcOffset</code>
+     * of <code>src</code> into <code>dst</code>. The position of src is not changed.
+     *
+     * @param src source bytes
+     * @param srcOffset absolute byte index of the first value in src
+     * @param dst target floats
+     * @param dstOffset index of the first float in dst
+     * @param count number of values to decode
+     */
+    public static void decodeBFloat16(ByteBuffer src, int srcOffset, float[] dst, int dstOffset, int count) {
+        if (src.hasArray()) {
+            byte[] array = src.array();
+            int base = src.arrayOffset() + srcOffset;
+            for (int i = 0; i < count; i++) {
+                int p = base + (i << 1);
+                dst[dstOffset + i] = Float.intBitsToFloat(((array[p] & 0xff) | ((array[p + 1] & 0xff) << 8)) << 16);
+            }
+            return;
+        }
+        ShortBuffer shorts = shortView(src, srcOffset);
+        short[] chunk = new short[Math.min(count, DECODE_CHUNK)];
+        for (int done = 0; done < count; ) {
+            int n = Math.min(chunk.length, count - done);
+            shorts.get(chunk, 0, n);
+            for (int i = 0; i < n; i++) {
+                dst[dstOffset + done + i] = Float.intBitsToFloat((chunk[i] & 0xffff) << 16);
+            }
+            done += n;
+        }
+    }
+
+    // little endian view of src from the absolute byte index, src itself is not changed
+    private static ShortBuffer shortView(ByteBuffer src, int srcOffset) {
+        ByteBuffer view = src.duplicate();
+        view.position(srcOffset);
+        return view.slice().order(ByteOrder.LITTLE_ENDIAN).asShortBuffer();
+    }
+
+    /**
+     * Encodes a float vector into a ByteBuffer that can be passed as a Float16Vector.
+     * The returned buffer's position is at its end, as the insert/search APIs expect.
+     *
+     * @param vector float vector
+     * @return <code>ByteBuffer</code> float16 vector
+     */
+    public static ByteBuffer toFloat16Buffer(float[] vector) {
+        byte[] bytes = new byte[vector.length * 2];
+        encodeFloat16(vector, 0, bytes, 0, vector.length);
+        ByteBuffer buf = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        buf.position(bytes.length);
+        return buf;
+    }
+
+    /**
+     * Encodes a float vector into a ByteBuffer that can be passed as a BFloat16Vector.
+     * The returned buffer's position is at its end, as the insert/search APIs expect.
+     *
+     * @param vector float vector
+     * @return <code>ByteBuffer</code> bfloat16 vector
+     */
+    public static ByteBuffer toBFloat16Buffer(float[] vector) {
+        byte[] bytes = new byte[vector.length * 2];
+        encodeBFloat16(vector, 0, bytes, 0, vector.length);
+        ByteBuffer buf = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        buf.position(bytes.length);
+        return buf;
+    }
+
+    /**
+     * Decodes a float16 vector, bytes from index 0 to the buffer's limit, into floats.
+     *
+     * @param buf float16 vector, e.g. an element returned by FieldDataWrapper.getFieldData()
+     * @return <code>float[]</code> float vector
+     */
+    public static float[] fromFloat16Buffer(ByteBuffer buf) {
+        float[] vector = new float[buf.limit() / 2];
+        decodeFloat16(buf, 0, vector, 0, vector.length);
+        return vector;
+    }
+
+    /**
+     * Decodes a bfloat16 vector, bytes from index 0 to the buffer's limit, into floats.
+     *
+     * @param buf bfloat16 vector, e.g. an element returned by FieldDataWrapper.getFieldData()
+     * @return <code>float[]</code> float vector
+     */
+    public static float[] fromBFloat16Buffer(ByteBuffer buf) {
+        float[] vector = new float[buf.limit() / 2];
+        decodeBFloat16(buf, 0, vector, 0, vector.length);
+        return vector;
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.milvus.common.utils;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import io.milvus.exception.ParamException;
+import io.milvus.grpc.*;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Sends the chunks of a large insert/upsert with a limited number of requests in flight,
+ * and merges the results into one MutationResult with ids in row order.
+ *
+ * Once a chunk fails, no more chunks are sent. The chunks already sent are not rolled back,
+ * the reason of the merged status tells how many rows have been written.
+ */
+public class MutationChunkDispatcher {
+    private final List<FieldDataSplitter.Chunk> chunks;
+    private final Function<FieldDataSplitter.Chunk, ListenableFuture<MutationResult>> sender;
+    private final MutationResult[] results;
+    private final AtomicInteger nextIndex = new AtomicInteger(0);
+    // starts from 1, released after the first batch of chunks is sent, to avoid completing too early
+    private final AtomicInteger running = new AtomicInteger(1);
+    private final SettableFuture<MutationResult> merged = SettableFuture.create();
+    // written by the callbacks of the rpc threads
+    private volatile boolean stopped = false;
+    private final AtomicReference<Throwable> error = new AtomicReference<>();
+
+    private MutationChunkDispatcher(List<FieldDataSplitter.Chunk> chunks,
+                                    Function<FieldDataSplitter.Chunk, ListenableFuture<MutationResult>> sender) {
+        this.chunks = chunks;
+        this.sender = sender;
+        this.results = new MutationResult[chunks.size()];
+    }
+
+    /**
+     * Send the chunks, at most maxInflight requests are in flight at the same time.
+     *
+     * @param chunks chunks to send, in row order
+     * @param maxInflight max number of requests in flight
+     * @param sender function to send a chunk
+     * @return a <code>ListenableFuture</code> of the merged MutationResult
+     */
+    public static ListenableFuture<MutationResult> dispatch(List<FieldDataSplitter.Chunk> chunks, int maxInflight,
+                                                            Function<FieldDataSplitter.Chunk, ListenableFuture<MutationResult>> sender) {
+        if (maxInflight <= 0) {
+            throw new ParamException("The max number of requests in flight must be larger than zero");
+        }
+        MutationChunkDispatcher dispatcher = new MutationChunkDispatcher(chunks, sender);
+        for (int i = 0; i < maxInflight && i < chunks.size(); ++i) {
+            dispatcher.sendNext();
+        }
+        // releases the initial count only, the first batch already fills the window
+        dispatcher.release();
+        return dispatcher.merged;
+    }
+
+    private void sendNext() {
+        if (stopped) {
+            return;
+        }
+        int index = nextIndex.getAndIncrement();
+        if (index >= chunks.size()) {
+            return;
+        }
+
+        running.incrementAndGet();
+        ListenableFuture<MutationResult> future;
+        try {
+            future = sender.apply(chunks.get(index));
+        } catch (Throwable t) {
+            future = Futures.immediateFailedFuture(t);
+        }
+        Futures.addCallback(future, new FutureCallback<MutationResult>() {
+            @Override
+            public void onSuccess(MutationResult result) {
+                results[index] = result;
+                if (!isSuccess(result.getStatus())) {
+                    stopped = true;
+                }
+                finishOne();
+            }
+
+            @Override
+            public void onFailure(@Nonnull Throwable t) {
+                error.compareAndSet(null, t);
+                stopped = true;
+                finishOne();
+            }
+        }, MoreExecutors.directExecutor());
+    }
+
+    private void finishOne() {
+        sendNext();
+        release();
+    }
+
+    private void release() {
+        if (running.decrementAndGet() == 0) {
+            Throwable t = error.get();
+            if (t != null) {
+                merged.setException(t);
+            } else {
+                merged.set(merge(chunks, results));
+            }
+        }
+    }
+
+    private static boolean isSuccess(Status status) {
+        return status.getCode() == 0 && status.getErrorCode() == ErrorCode.Success;
+    }
+
+    /**
+     * Merge results of chunks in row order. The ids and succ/err indexes are concatenated,
+     * the indexes are shifted by the offset of the chunk. Chunks without result are skipped.
+     * If any chunk failed, the status of the first failed chunk is returned.
+     *
+     * @param chunks chunks in row order
+     * @param results results of the chunks, null for the chunks not sent
+     * @return merged MutationResult
+     */
+    public static MutationResult merge(List<FieldDataSplitter.Chunk> chunks, MutationResult[] results) {
+        MutationResult.Builder builder = MutationResult.newBuilder();
+        LongArray.Builder intIds = null;
+        StringArray.Builder strIds = null;
+        Status failedStatus = null;
+        Status successStatus = null;
+        long insertCnt = 0, upsertCnt = 0, deleteCnt = 0, timestamp = 0, writtenRows = 0;
+        for (int i = 0; i < results.length; ++i) {
+            MutationResult result = results[i];
+            if (result == null) {
+                continue;
+            }
+            if (!isSuccess(result.getStatus())) {
+                if (failedStatus == null) {
+                    failedStatus = result.getStatus();
+                }
+                continue;
+            }
+
+            successStatus = result.getStatus();
+            writtenRows += chunks.get(i).getRowCount();
+            int offset = chunks.get(i).getOffset();
+            IDs ids = result.getIDs();
+            if (ids.hasIntId()) {
+                if (intIds == null) {
+                    intIds = LongArray.newBuilder();
+                }
+                LongArray src = ids.getIntId();
+                for (int k = 0; k < src.getDataCount(); ++k) {
+                    intIds.addData(src.getData(k));
+                }
+            } else if (ids.hasStrId()) {
+                if (strIds == null) {
+                    strIds = StringArray.newBuilder();
+                }
+                strIds.addAllData(ids.getStrId().getDataList());
+            }
+            for (int k = 0; k < result.getSuccIndexCount(); ++k) {
+                builder.addSuccIndex(result.getSuccIndex(k) + offset);
+            }
+            for (int k = 0; k < result.getErrIndexCount(); ++k) {
+                builder.addErrIndex(result.getErrIndex(k) + offset);
+            }
+            insertCnt += result.getInsertCnt();
+            upsertCnt += result.getUpsertCnt();
+            deleteCnt += result.getDeleteCnt();
+            timestamp = Math.max(timestamp, result.getTimestamp());
+        }
+
+        if (failedStatus != null) {
+            String reason = String.format("%s (%d rows of %d chunks have been written before the failure)",
+                    failedStatus.getReason(), writtenRows, chunks.size());
+            builder.setStatus(failedStatus.toBuilder().setReason(reason));
+        } else if (successStatus != null) {
+            builder.setStatus(successStatus);
+        }
+        if (intIds != null) {
+            builder.setIDs(IDs.newBuilder().setIntId(intIds));
+        } else if (strIds != null) {
+            builder.setIDs(IDs.newBuilder().setStrId(strIds));
+        }
+        return builder.setInsertCnt(insertCnt)
+                .setUpsertCnt(upsertCnt)
+                .setDeleteCnt(deleteCnt)
+                .setTimestamp(timestamp)
+                .build();
+    }
+}
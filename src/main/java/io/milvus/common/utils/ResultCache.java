@@ -0,0 +1,399 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.milvus.common.utils;
+
+import com.google.protobuf.Message;
+import io.milvus.exception.ParamException;
+import io.milvus.grpc.ConsistencyLevel;
+import io.milvus.grpc.QueryRequest;
+import io.milvus.grpc.SearchRequest;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A client side LRU cache of search/query results, bounded by the number of entries and the estimated bytes.
+ *
+ * The key is the request itself: collection, partitions, target vectors, expression, topK, output fields and
+ * search parameters, everything except the guarantee timestamp which changes on each call.
+ * Entries expire after the TTL. Only requests with an explicit consistency level other than STRONG are cached:
+ * requests using the default consistency level of the collection are never cached, since the default could be STRONG.
+ * Insert/upsert/delete/dropCollection issued through a client holding this cache invalidate the entries
+ * of that collection, writes from other clients are only seen after the entries expire.
+ *
+ * A cache instance can be shared by clients connected to the same database.
+ */
+public class ResultCache {
+    // rough overhead of an entry in the maps, added to the serialized size of the request and the result
+    private static final int ENTRY_OVERHEAD = 128;
+
+    private final int maxEntries;
+    private final long maxBytes;
+    private final long ttlNanos;
+
+    private final Object lock = new Object();
+    private final LinkedHashMap<Message, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Set<Message>> collectionKeys = new HashMap<>();
+    private final Map<String, Long> generations = new HashMap<>();
+    private long bytes = 0;
+
+    private long hits = 0;
+    private long misses = 0;
+    private long bypasses = 0;
+    private long evictions = 0;
+    private long expirations = 0;
+    private long invalidations = 0;
+
+    private ResultCache(Builder builder) {
+        this.maxEntries = builder.maxEntries;
+        this.maxBytes = builder.maxBytes;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(builder.ttlMs);
+    }
+
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    /**
+     * Looks up the result of a search/query request.
+     * Call {@link Lookup#put(Message)} with the successful result of a miss to cache it.
+     *
+     * @param collection the collection key, see {@link #collectionKey(String, String)}
+     * @param request the {@link SearchRequest} or {@link QueryRequest} to be sent
+     * @return {@link Lookup}
+     */
+    public <T extends Message> Lookup<T> lookup(String collection, Message request) {
+        Message key = toKey(request);
+        synchronized (lock) {
+            if (key == null) {
+                bypasses++;
+                return new Lookup<>(this, collection, null, 0L, null);
+            }
+
+            long generation = generations.getOrDefault(collection, 0L);
+            Entry entry = entries.get(key);
+            if (entry != null && System.nanoTime() - entry.createdAt > ttlNanos) {
+                removeEntry(key, entry);
+                expirations++;
+                entry = null;
+            }
+            if (entry == null) {
+                misses++;
+                return new Lookup<>(this, collection, key, generation, null);
+            }
+
+            hits++;
+            @SuppressWarnings("unchecked")
+            T result = (T) entry.result;
+            return new Lookup<>(this, collection, key, generation, result);
+        }
+    }
+
+    /**
+     * Removes all the entries of a collection. The results of requests that were sent before this call
+     * and returned after it are not cached.
+     *
+     * @param collection the collection key, see {@link #collectionKey(String, String)}
+     */
+    public void invalidate(String collection) {
+        synchronized (lock) {
+            generations.merge(collection, 1L, Long::sum);
+            Set<Message> keys = collectionKeys.remove(collection);
+            if (keys == null) {
+                return;
+            }
+            for (Message key : keys) {
+                Entry entry = entries.remove(key);
+                if (entry != null) {
+                    bytes -= entry.bytes;
+                    invalidations++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes all the entries.
+     */
+    public void clear() {
+        synchronized (lock) {
+            for (String collection : collectionKeys.keySet()) {
+                generations.merge(collection, 1L, Long::sum);
+            }
+            entries.clear();
+            collectionKeys.clear();
+            bytes = 0;
+        }
+    }
+
+    /**
+     * Returns the counters and the current size of this cache.
+     *
+     * @return {@link Metrics}
+     */
+    public Metrics getMetrics() {
+        synchronized (lock) {
+            return new Metrics(hits, misses, bypasses, evictions, expirations, invalidations, entries.size(), bytes);
+        }
+    }
+
+    /**
+     * Combines database name and collection name into the key used by lookup() and invalidate().
+     *
+     * @param databaseName database name, can be empty
+     * @param collectionName collection name
+     * @return the collection key
+     */
+    public static String collectionKey(String databaseName, String collectionName) {
+        return (databaseName == null ? "" : databaseName) + "|" + collectionName;
+    }
+
+    private static Message toKey(Message request) {
+        if (request instanceof SearchRequest) {
+            SearchRequest search = (SearchRequest) request;
+            if (!isCacheable(search.getUseDefaultConsistency(), search.getConsistencyLevel())) {
+                return null;
+            }
+            return search.toBuilder().clearGuaranteeTimestamp().build();
+        } else if (request instanceof QueryRequest) {
+            QueryRequest query = (QueryRequest) request;
+            if (!isCacheable(query.getUseDefaultConsistency(), query.getConsistencyLevel())) {
+                return null;
+            }
+            return query.toBuilder().clearGuaranteeTimestamp().build();
+        }
+        return null;
+    }
+
+    // the consistency level of the collection is unknown here, the request is cacheable only if
+    // its level is set explicitly
+    private static boolean isCacheable(boolean useDefaultConsistency, ConsistencyLevel level) {
+        return !useDefaultConsistency && level != ConsistencyLevel.Strong;
+    }
+
+    private void put(String collection, Message key, long generation, Message result) {
+        long size = (long) key.getSerializedSize() + result.getSerializedSize() + ENTRY_OVERHEAD;
+        if (size > maxBytes) {
+            return;
+        }
+
+        synchronized (lock) {
+            // a write has been issued since the lookup, the result could be stale
+            if (generations.getOrDefault(collection, 0L) != generation) {
+                return;
+            }
+
+            Entry old = entries.get(key);
+            if (old != null) {
+                removeEntry(key, old);
+            }
+            entries.put(key, new Entry(collection, result, size, System.nanoTime()));
+            collectionKeys.computeIfAbsent(collection, k -> new HashSet<>()).add(key);
+            bytes += size;
+
+            Iterator<Map.Entry<Message, Entry>> iter = entries.entrySet().iterator();
+            while ((entries.size() > maxEntries || bytes > maxBytes) && iter.hasNext()) {
+                Map.Entry<Message, Entry> eldest = iter.next();
+                iter.remove();
+                forgetKey(eldest.getKey(), eldest.getValue());
+                evictions++;
+            }
+        }
+    }
+
+    private void removeEntry(Message key, Entry entry) {
+        entries.remove(key);
+        forgetKey(key, entry);
+    }
+
+    private void forgetKey(Message key, Entry entry) {
+        bytes -= entry.bytes;
+        Set<Message> keys = collectionKeys.get(entry.collection);
+        if (keys != null) {
+            keys.remove(key);
+            if (keys.isEmpty()) {
+                collectionKeys.remove(entry.collection);
+            }
+        }
+    }
+
+    /**
+     * The result of {@link #lookup(String, Message)}.
+     */
+    public static final class Lookup<T extends Message> {
+        private final ResultCache cache;
+        private final String collection;
+        private final Message key;
+        private final long generation;
+        private final T result;
+
+        private Lookup(ResultCache cache, String collection, Message key, long generation, T result) {
+            this.cache = cache;
+            this.collection = collection;
+            this.key = key;
+            this.generation = generation;
+            this.result = result;
+        }
+
+        /**
+         * Returns the cached result, or null if the cache misses.
+         *
+         * @return the cached result
+         */
+        public T getResult() {
+            return result;
+        }
+
+        /**
+         * Caches the result of a miss. Only successful results should be cached.
+         *
+         * @param result the result returned by the server
+         */
+        public void put(T result) {
+            if (key != null && this.result == null) {
+                cache.put(collection, key, generation, result);
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final String collection;
+        private final Message result;
+        private final long bytes;
+        private final long createdAt;
+
+        private Entry(String collection, Message result, long bytes, long createdAt) {
+            this.collection = collection;
+            this.result = result;
+            this.bytes = bytes;
+            this.createdAt = createdAt;
+        }
+    }
+
+    @Getter
+    @ToString
+    public static final class Metrics {
+        // lookups returning a cached result
+        private final long hits;
+        // lookups of cacheable requests that found nothing
+        private final long misses;
+        // lookups of requests that are never cached, e.g. with STRONG or the default consistency level
+        private final long bypasses;
+        // entries removed to keep the cache within its bounds
+        private final long evictions;
+        // entries removed because of the TTL
+        private final long expirations;
+        // entries removed by writes to their collections
+        private final long invalidations;
+        private final int entries;
+        private final long bytes;
+
+        private Metrics(long hits, long misses, long bypasses, long evictions, long expirations,
+                        long invalidations, int entries, long bytes) {
+            this.hits = hits;
+            this.misses = misses;
+            this.bypasses = bypasses;
+            this.evictions = evictions;
+            this.expirations = expirations;
+            this.invalidations = invalidations;
+            this.entries = entries;
+            this.bytes = bytes;
+        }
+    }
+
+    /**
+     * Builder for {@link ResultCache} class.
+     */
+    public static final class Builder {
+        // maxEntries:
+        //   Max number of cached results. Default value: 1000.
+        private int maxEntries = 1000;
+
+        // maxBytes:
+        //   Max estimated bytes of the cached requests and results. Default value: 64MB.
+        private long maxBytes = 64L * 1024 * 1024;
+
+        // ttlMs:
+        //   A cached result expires after this many milliseconds. Default value: 10 seconds.
+        private long ttlMs = 10000L;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the max number of cached results. Must be larger than zero.
+         *
+         * @param maxEntries max number of entries
+         * @return <code>Builder</code>
+         */
+        public Builder withMaxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+            return this;
+        }
+
+        /**
+         * Sets the max estimated bytes of the cached requests and results. Must be larger than zero.
+         *
+         * @param maxBytes max bytes
+         * @return <code>Builder</code>
+         */
+        public Builder withMaxBytes(long maxBytes) {
+            this.maxBytes = maxBytes;
+            return this;
+        }
+
+        /**
+         * Sets how long a cached result lives, in milliseconds. Must be larger than zero.
+         *
+         * @param ttlMs time to live in milliseconds
+         * @return <code>Builder</code>
+         */
+        public Builder withTtlMs(long ttlMs) {
+            this.ttlMs = ttlMs;
+            return this;
+        }
+
+        /**
+         * Verifies parameters and creates a new {@link ResultCache} instance.
+         *
+         * @return {@link ResultCache}
+         */
+        public ResultCache build() throws ParamException {
+            if (maxEntries <= 0) {
+                throw new ParamException("Max entries of result cache must be larger than zero");
+            }
+            if (maxBytes <= 0) {
+                throw new ParamException("Max bytes of result cache must be larger than zero");
+            }
+            if (ttlMs <= 0) {
+                throw new ParamException("TTL of result cache must be larger than zero");
+            }
+
+            return new ResultCache(this);
+        }
+    }
+}
@@ -0,0 +1,419 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.milvus.common.utils;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.InvalidProtocolBufferException;
+import io.milvus.exception.ParamException;
+import io.milvus.grpc.ErrorCode;
+import io.milvus.grpc.KeyValuePair;
+import io.milvus.grpc.PlaceholderGroup;
+import io.milvus.grpc.PlaceholderValue;
+import io.milvus.grpc.SearchRequest;
+import io.milvus.grpc.SearchResults;
+import io.milvus.param.Constant;
+import io.milvus.response.SearchResultsWrapper;
+import lombok.Getter;
+import lombok.ToString;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Merges concurrent search requests which only differ in their target vectors into one multi-nq request.
+ *
+ * Requests are compatible if everything but the target vectors is equal: collection, partitions, anns field,
+ * topK, filter, search params, output fields, consistency, etc. The first request of a group waits at most
+ * windowMs for others, the group is sent earlier once it reaches maxNq target vectors. The merged results are
+ * split back to each caller by the per-query offsets of {@link SearchResultsWrapper}.
+ *
+ * Requests with group-by, or with more than maxNq target vectors, are sent directly.
+ *
+ * Requests submitted with a timeout are only merged with requests of the same timeout. The merged request is
+ * sent with the time left to the first request of the group, so no caller waits longer than its timeout.
+ */
+public class SearchCoalescer implements AutoCloseable {
+    // shared by all the coalescers, so that a coalescer which is never closed holds no thread
+    private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "milvus-search-coalescer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final BiFunction<SearchRequest, Long, ListenableFuture<SearchResults>> sender;
+    private final long windowMs;
+    private final int maxNq;
+
+    private final Object lock = new Object();
+    private final Map<GroupKey, Group> pending = new HashMap<>();
+    private boolean closed = false;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong bypassedRequests = new AtomicLong();
+    private final AtomicLong coalescedRequests = new AtomicLong();
+    private final AtomicLong mergedBatches = new AtomicLong();
+    private final AtomicLong sentRequests = new AtomicLong();
+
+    /**
+     * @param sender sends a search request, e.g. the search method of a future stub
+     * @param windowMs max time in milliseconds a request waits for others, must be larger than zero
+     * @param maxNq max number of target vectors of a merged request, must be larger than 1
+     */
+    public SearchCoalescer(Function<SearchRequest, ListenableFuture<SearchResults>> sender, long windowMs, int maxNq) {
+        this((request, timeoutMs) -> sender.apply(request), windowMs, maxNq);
+    }
+
+    /**
+     * @param sender sends a search request with a timeout in milliseconds, 0 means the default deadline of the stub
+     * @param windowMs max time in milliseconds a request waits for others, must be larger than zero
+     * @param maxNq max number of target vectors of a merged request, must be larger than 1
+     */
+    public SearchCoalescer(BiFunction<SearchRequest, Long, ListenableFuture<SearchResults>> sender,
+                           long windowMs, int maxNq) {
+        if (windowMs <= 0) {
+            throw new ParamException("Search coalescing window must be larger than zero");
+        }
+        if (maxNq <= 1) {
+            throw new ParamException("Max nq of coalesced search must be larger than 1");
+        }
+        this.sender = sender;
+        this.windowMs = windowMs;
+        this.maxNq = maxNq;
+    }
+
+    /**
+     * Sends the request alone or merged with other compatible requests.
+     *
+     * @param request search request
+     * @return {@link ListenableFuture} of the results of this request only
+     */
+    public ListenableFuture<SearchResults> submit(SearchRequest request) {
+        return submit(request, 0L);
+    }
+
+    /**
+     * Sends the request alone or merged with other compatible requests of the same timeout.
+     *
+     * @param request search request
+     * @param timeoutMs timeout in milliseconds of the request, 0 means the default deadline of the sender
+     * @return {@link ListenableFuture} of the results of this request only
+     */
+    public ListenableFuture<SearchResults> submit(SearchRequest request, long timeoutMs) {
+        requests.incrementAndGet();
+        long timeout = Math.max(timeoutMs, 0L);
+
+        PlaceholderValue placeholder = getPlaceholder(request);
+        if (placeholder == null || placeholder.getValuesCount() > maxNq || isGroupBy(request)) {
+            return sendDirectly(request, timeout);
+        }
+
+        // the key keeps the placeholder tag and type, only the target vectors are removed
+        PlaceholderValue emptyValue = placeholder.toBuilder().clearValues().build();
+        GroupKey key = new GroupKey(request.toBuilder()
+                .setPlaceholderGroup(PlaceholderGroup.newBuilder().addPlaceholders(emptyValue).build().toByteString())
+                .clearNq()
+                .build(), timeout);
+
+        Entry entry = new Entry(placeholder.getValuesList());
+        Group overflow = null;
+        Group full = null;
+        synchronized (lock) {
+            if (closed) {
+                return sendDirectly(request, timeout);
+            }
+
+            Group group = pending.get(key);
+            if (group != null && group.nq + entry.values.size() > maxNq) {
+                pending.remove(key);
+                overflow = group;
+                group = null;
+            }
+            if (group == null) {
+                group = new Group(key, emptyValue);
+                pending.put(key, group);
+                Group scheduled = group;
+                TIMER.schedule(() -> flush(scheduled), windowMs, TimeUnit.MILLISECONDS);
+            }
+            group.add(entry);
+            if (group.nq >= maxNq) {
+                pending.remove(key);
+                full = group;
+            }
+        }
+
+        send(overflow);
+        send(full);
+        return entry.future;
+    }
+
+    /**
+     * Returns the counters of this coalescer.
+     *
+     * @return {@link Metrics}
+     */
+    public Metrics getMetrics() {
+        return new Metrics(requests.get(), bypassedRequests.get(), coalescedRequests.get(),
+                mergedBatches.get(), sentRequests.get());
+    }
+
+    /**
+     * Sends the pending requests at once, without waiting for the rest of their window.
+     * Useful when the caller knows that no other request can join them.
+     */
+    public void flush() {
+        List<Group> groups;
+        synchronized (lock) {
+            groups = new ArrayList<>(pending.values());
+            pending.clear();
+        }
+        for (Group group : groups) {
+            send(group);
+        }
+    }
+
+    /**
+     * Sends the pending requests at once.
+     * Requests submitted after close are sent directly.
+     */
+    @Override
+    public void close() {
+        synchronized (lock) {
+            closed = true;
+        }
+        flush();
+    }
+
+    private void flush(Group group) {
+        synchronized (lock) {
+            if (pending.get(group.key) != group) {
+                return; // already sent because it was full
+            }
+            pending.remove(group.key);
+        }
+        send(group);
+    }
+
+    private ListenableFuture<SearchResults> sendDirectly(SearchRequest request, long timeoutMs) {
+        bypassedRequests.incrementAndGet();
+        sentRequests.incrementAndGet();
+        return sender.apply(request, timeoutMs);
+    }
+
+    private void send(Group group) {
+        if (group == null) {
+            return;
+        }
+
+        sentRequests.incrementAndGet();
+        if (group.entries.size() > 1) {
+            mergedBatches.incrementAndGet();
+            coalescedRequests.addAndGet(group.entries.size());
+        }
+
+        ListenableFuture<SearchResults> response;
+        try {
+            PlaceholderValue.Builder value = group.emptyValue.toBuilder();
+            for (Entry entry : group.entries) {
+                value.addAllValues(entry.values);
+            }
+            SearchRequest request = group.key.request.toBuilder()
+                    .setPlaceholderGroup(PlaceholderGroup.newBuilder().addPlaceholders(value).build().toByteString())
+                    .setNq(group.nq)
+                    .build();
+            response = sender.apply(request, group.remainingTimeoutMs());
+        } catch (Exception e) {
+            group.fail(e);
+            return;
+        }
+
+        Futures.addCallback(response, new FutureCallback<SearchResults>() {
+            @Override
+            public void onSuccess(SearchResults result) {
+                try {
+                    group.complete(result);
+                } catch (Exception e) {
+                    group.fail(e);
+                }
+            }
+
+            @Override
+            public void onFailure(@Nonnull Throwable t) {
+                group.fail(t);
+            }
+        }, MoreExecutors.directExecutor());
+    }
+
+    private static PlaceholderValue getPlaceholder(SearchRequest request) {
+        try {
+            PlaceholderGroup group = PlaceholderGroup.parseFrom(request.getPlaceholderGroup());
+            if (group.getPlaceholdersCount() != 1 || group.getPlaceholders(0).getValuesCount() == 0) {
+                return null;
+            }
+            return group.getPlaceholders(0);
+        } catch (InvalidProtocolBufferException e) {
+            return null;
+        }
+    }
+
+    private static boolean isGroupBy(SearchRequest request) {
+        for (KeyValuePair pair : request.getSearchParamsList()) {
+            if (Constant.GROUP_BY_FIELD.equals(pair.getKey()) && !pair.getValue().isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Counters of a {@link SearchCoalescer}.
+     */
+    @Getter
+    @ToString
+    public static final class Metrics {
+        // all the requests submitted
+        private final long requests;
+        // requests sent directly because they cannot be merged, or the coalescer is closed
+        private final long bypassedRequests;
+        // requests sent as a part of a merged request
+        private final long coalescedRequests;
+        // merged requests which hold more than one request
+        private final long mergedBatches;
+        // search rpcs actually sent
+        private final long sentRequests;
+
+        private Metrics(long requests, long bypassedRequests, long coalescedRequests,
+                        long mergedBatches, long sentRequests) {
+            this.requests = requests;
+            this.bypassedRequests = bypassedRequests;
+            this.coalescedRequests = coalescedRequests;
+            this.mergedBatches = mergedBatches;
+            this.sentRequests = sentRequests;
+        }
+    }
+
+    private static final class Entry {
+        private final List<ByteString> values;
+        private final SettableFuture<SearchResults> future = SettableFuture.create();
+
+        private Entry(List<ByteString> values) {
+            this.values = values;
+        }
+    }
+
+    private static final class GroupKey {
+        private final SearchRequest request;
+        private final long timeoutMs;
+
+        private GroupKey(SearchRequest request, long timeoutMs) {
+            this.request = request;
+            this.timeoutMs = timeoutMs;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof GroupKey)) {
+                return false;
+            }
+            GroupKey other = (GroupKey) o;
+            return timeoutMs == other.timeoutMs && request.equals(other.request);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(request, timeoutMs);
+        }
+    }
+
+    private static final class Group {
+        private final GroupKey key;
+        private final PlaceholderValue emptyValue;
+        private final long createdAt = System.nanoTime();
+        private final List<Entry> entries = new ArrayList<>();
+        private int nq = 0;
+
+        private Group(GroupKey key, PlaceholderValue emptyValue) {
+            this.key = key;
+            this.emptyValue = emptyValue;
+        }
+
+        // the first request of the group has waited the longest, its deadline applies to the merged request
+        private long remainingTimeoutMs() {
+            if (key.timeoutMs == 0) {
+                return 0L;
+            }
+            long waitedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - createdAt);
+            return Math.max(key.timeoutMs - waitedMs, 1L);
+        }
+
+        private void add(Entry entry) {
+            entries.add(entry);
+            nq += entry.values.size();
+        }
+
+        private void complete(SearchResults result) {
+            if (entries.size() == 1) {
+                entries.get(0).future.set(result);
+                return;
+            }
+            // an error status is returned to every caller as it is
+            if (result.getStatus().getCode() != 0 || result.getStatus().getErrorCode() != ErrorCode.Success
+                    || !result.hasResults()) {
+                for (Entry entry : entries) {
+                    entry.future.set(result);
+                }
+                return;
+            }
+
+            SearchResultsWrapper wrapper = new SearchResultsWrapper(result.getResults());
+            int target = 0;
+            for (Entry entry : entries) {
+                int count = entry.values.size();
+                entry.future.set(result.toBuilder()
+                        .setResults(wrapper.getResultsOfTargets(target, target + count))
+                        .build());
+                target += count;
+            }
+        }
+
+        private void fail(Throwable t) {
+            for (Entry entry : entries) {
+                entry.future.setException(t);
+            }
+        }
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.milvus.orm.iterator;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import io.milvus.common.utils.ExceptionUtils;
+import io.milvus.common.utils.SearchCoalescer;
+import io.milvus.grpc.MilvusServiceGrpc;
+import io.milvus.grpc.SearchRequest;
+import io.milvus.grpc.SearchResults;
+import io.milvus.param.collection.FieldType;
+import io.milvus.param.dml.BatchSearchIteratorParam;
+import io.milvus.param.dml.SearchIteratorParam;
+import io.milvus.response.QueryResultsWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Iterates the search results of many target vectors together. Each target vector keeps its own
+ * {@link SearchIterator}, with its own range, exclusion ids and cache. The iterators are advanced concurrently,
+ * and their search requests go through a {@link SearchCoalescer}: requests which differ only in the target vector,
+ * such as the init searches or range searches reaching the same distances, are sent as one multi-nq request.
+ * Once every running query waits for its search, no other request can join the pending ones, so they are sent
+ * at once instead of waiting for the rest of the coalescing window.
+ */
+public class BatchSearchIterator {
+    private static final Logger logger = LoggerFactory.getLogger(BatchSearchIterator.class);
+
+    private final SearchCoalescer coalescer;
+    private final ExecutorService executor;
+    private final List<SearchIterator> iterators = new ArrayList<>();
+    private final boolean[] finished;
+    private final int parallelism;
+    private boolean closed;
+
+    // queries submitted to the executor and not finished yet, and the ones among them waiting for a search
+    private final Object lock = new Object();
+    private int unfinished;
+    private int waiting;
+
+    public BatchSearchIterator(BatchSearchIteratorParam batchSearchIteratorParam,
+                               MilvusServiceGrpc.MilvusServiceFutureStub futureStub,
+                               FieldType primaryField) {
+        List<SearchIteratorParam> params = batchSearchIteratorParam.getSearchIteratorParams();
+        this.coalescer = new SearchCoalescer(futureStub::search, batchSearchIteratorParam.getCoalesceWindowMs(),
+                batchSearchIteratorParam.getMaxNq());
+        this.parallelism = batchSearchIteratorParam.getParallelism();
+        this.executor = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread thread = new Thread(r, "milvus-batch-search-iterator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.finished = new boolean[params.size()];
+
+        // the init searches are sent concurrently as well, so they are merged like the following pages
+        List<Callable<SearchIterator>> tasks = new ArrayList<>();
+        for (SearchIteratorParam param : params) {
+            tasks.add(() -> new SearchIterator(param, this::search, primaryField));
+        }
+        try {
+            for (Future<SearchIterator> future : submitAll(tasks)) {
+                iterators.add(await(future));
+            }
+        } catch (RuntimeException e) {
+            close();
+            throw e;
+        }
+        logger.debug("Batch search iterator started with {} target vectors", iterators.size());
+    }
+
+    /**
+     * Gets the next page of every target vector, in the order of the search iterator params.
+     * The page of a target vector is empty once it is exhausted.
+     *
+     * @return <code>List&lt;List&lt;RowRecord&gt;&gt;</code>
+     */
+    public List<List<QueryResultsWrapper.RowRecord>> next() {
+        List<Callable<List<QueryResultsWrapper.RowRecord>>> tasks = new ArrayList<>();
+        List<Integer> indexes = new ArrayList<>();
+        for (int i = 0; i < iterators.size(); i++) {
+            if (!finished[i]) {
+                tasks.add(iterators.get(i)::next);
+                indexes.add(i);
+            }
+        }
+
+        List<List<QueryResultsWrapper.RowRecord>> pages = new ArrayList<>(iterators.size());
+        for (int i = 0; i < iterators.size(); i++) {
+            pages.add(new ArrayList<>());
+        }
+        if (closed || tasks.isEmpty()) {
+            return pages;
+        }
+
+        List<Future<List<QueryResultsWrapper.RowRecord>>> futures = submitAll(tasks);
+        for (int i = 0; i < futures.size(); i++) {
+            int index = indexes.get(i);
+            List<QueryResultsWrapper.RowRecord> page = await(futures.get(i));
+            if (page.isEmpty()) {
+                finished[index] = true;
+            }
+            pages.set(index, page);
+        }
+        return pages;
+    }
+
+    /**
+     * Checks whether all the target vectors are exhausted.
+     *
+     * @return <code>boolean</code>
+     */
+    public boolean isFinished() {
+        for (boolean done : finished) {
+            if (!done) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the iterators of the target vectors, for example to take their checkpoints or cache metrics.
+     * Don't call their {@link SearchIterator#next()} directly, the pages would be missing from this iterator.
+     *
+     * @return <code>List&lt;SearchIterator&gt;</code>
+     */
+    public List<SearchIterator> getIterators() {
+        return Collections.unmodifiableList(iterators);
+    }
+
+    /**
+     * Gets the counters of the merged search requests.
+     *
+     * @return {@link SearchCoalescer.Metrics}
+     */
+    public SearchCoalescer.Metrics getCoalescerMetrics() {
+        return coalescer.getMetrics();
+    }
+
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        executor.shutdownNow();
+        coalescer.close();
+        iterators.forEach(SearchIterator::close);
+    }
+
+    private SearchResults search(SearchRequest request) {
+        ListenableFuture<SearchResults> future = coalescer.submit(request);
+        updateProgress(1, 0);
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            ExceptionUtils.throwUnExpectedException("Interrupted while waiting for batch search results");
+        } catch (ExecutionException e) {
+            rethrow(e.getCause());
+        } finally {
+            updateProgress(-1, 0);
+        }
+        return null;
+    }
+
+    // the queued queries only start when a running one finishes, so at most parallelism queries can search together
+    private void updateProgress(int waitingDelta, int unfinishedDelta) {
+        boolean allWaiting;
+        synchronized (lock) {
+            waiting += waitingDelta;
+            unfinished += unfinishedDelta;
+            allWaiting = waiting > 0 && waiting >= Math.min(unfinished, parallelism);
+        }
+        if (allWaiting) {
+            coalescer.flush();
+        }
+    }
+
+    private <T> List<Future<T>> submitAll(List<Callable<T>> tasks) {
+        updateProgress(0, tasks.size());
+        List<Future<T>> futures = new ArrayList<>(tasks.size());
+        for (Callable<T> task : tasks) {
+            futures.add(executor.submit(() -> {
+                try {
+                    return task.call();
+                } finally {
+                    updateProgress(0, -1);
+                }
+            }));
+        }
+        return futures;
+    }
+
+    private <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            ExceptionUtils.throwUnExpectedException("Interrupted while waiting for batch search iterator");
+        } catch (ExecutionException e) {
+            rethrow(e.getCause());
+        }
+        return null;
+    }
+
+    private static void rethrow(Throwable cause) {
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        ExceptionUtils.throwUnExpectedException("Batch search iterator failed: " + cause);
+    }
+}
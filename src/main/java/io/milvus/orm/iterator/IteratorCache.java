@@ -1,31 +1,466 @@
 package io.milvus.orm.iterator;
 
 import io.milvus.response.QueryResultsWrapper;
+import lombok.Getter;
+import lombok.ToString;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static io.milvus.param.Constant.NO_CACHE_ID;
+import static io.milvus.param.Constant.UNLIMITED;
 
+/**
+ * Rows fetched by an iterator but not returned yet.
+ * With a byte budget, rows that don't fit in memory are spilled to a temporary file in a compact binary form
+ * and read back lazily when they are taken. The order of the rows is always kept.
+ * The space of the rows taken from the spill file is reclaimed by compacting the file into a new one.
+ */
 public class IteratorCache {
+    private static final Logger logger = LoggerFactory.getLogger(IteratorCache.class);
+    // the spill file is compacted once it is larger than this and at least half of it is consumed
+    private static final long COMPACT_MIN_BYTES = 1024L * 1024;
+
     private final AtomicInteger cacheId = new AtomicInteger(0);
-    private final Map<Integer, List<QueryResultsWrapper.RowRecord>> cacheMap = new ConcurrentHashMap<>();
+    private final Map<Integer, Deque<Segment>> cacheMap = new HashMap<>();
+    private final long maxBytes;
+
+    private RandomAccessFile spillFile;
+    private File spillPath;
+    private boolean spillWarned;
+    private boolean closed;
+
+    private long residentBytes;
+    private long residentRows;
+    private long peakResidentBytes;
+    private long spilledBytes;
+    private long spilledRows;
+    private long spillFileBytes;
+    private long spillCount;
+    private long reloadCount;
 
-    public int cache(int cacheId, List<QueryResultsWrapper.RowRecord> result) {
+    public IteratorCache() {
+        this(UNLIMITED);
+    }
+
+    /**
+     * @param maxBytes budget of the rows kept in memory, -1 means no limit
+     */
+    public IteratorCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    public synchronized int cache(int cacheId, List<QueryResultsWrapper.RowRecord> result) {
         if (cacheId == NO_CACHE_ID) {
             cacheId = this.cacheId.incrementAndGet();
         }
-        cacheMap.put(cacheId, result);
+        releaseCache(cacheId);
+        cacheMap.put(cacheId, new ArrayDeque<>());
+        append(cacheId, result);
         return cacheId;
     }
 
-    public List<QueryResultsWrapper.RowRecord> fetchCache(int cacheId) {
-        return cacheMap.getOrDefault(cacheId, null);
+    /**
+     * Gets all the rows of a cache, spilled rows are read back. Prefer {@link #take(int, int)} with a byte budget.
+     */
+    public synchronized List<QueryResultsWrapper.RowRecord> fetchCache(int cacheId) {
+        Deque<Segment> segments = cacheMap.get(cacheId);
+        if (segments == null) {
+            return null;
+        }
+        List<QueryResultsWrapper.RowRecord> rows = new ArrayList<>();
+        for (Segment segment : segments) {
+            rows.addAll(segment.peek());
+        }
+        return rows;
+    }
+
+    /**
+     * Appends rows to the end of a cache, the cache is created if it doesn't exist.
+     */
+    public synchronized void append(int cacheId, List<QueryResultsWrapper.RowRecord> rows) {
+        if (closed) {
+            // a read-ahead thread may still deliver a page after the iterator is closed
+            return;
+        }
+        Deque<Segment> segments = cacheMap.computeIfAbsent(cacheId, k -> new ArrayDeque<>());
+        for (QueryResultsWrapper.RowRecord row : rows) {
+            long bytes = RowRecordCodec.estimateBytes(row);
+            // the segments keep the order, so rows return to memory once the resident rows are under the budget
+            boolean spill = maxBytes != UNLIMITED && residentBytes + bytes > maxBytes;
+            if (spill && spill(segments, row)) {
+                continue;
+            }
+            Segment last = segments.peekLast();
+            if (!(last instanceof MemorySegment)) {
+                last = new MemorySegment();
+                segments.addLast(last);
+            }
+            ((MemorySegment) last).add(row, bytes);
+        }
+    }
+
+    /**
+     * Gets the number of rows of a cache, 0 if the cache doesn't exist.
+     */
+    public synchronized int size(int cacheId) {
+        Deque<Segment> segments = cacheMap.get(cacheId);
+        if (segments == null) {
+            return 0;
+        }
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /**
+     * Removes and returns at most <code>count</code> rows from the head of a cache.
+     */
+    public synchronized List<QueryResultsWrapper.RowRecord> take(int cacheId, int count) {
+        List<QueryResultsWrapper.RowRecord> rows = new ArrayList<>();
+        Deque<Segment> segments = cacheMap.get(cacheId);
+        while (segments != null && !segments.isEmpty() && rows.size() < count) {
+            Segment segment = segments.peekFirst();
+            segment.take(count - rows.size(), rows);
+            if (segment.size() == 0) {
+                segments.pollFirst();
+            }
+        }
+        reclaimSpillFile();
+        return rows;
+    }
+
+    public synchronized void releaseCache(int cacheId) {
+        Deque<Segment> segments = cacheMap.remove(cacheId);
+        if (segments != null) {
+            segments.forEach(Segment::release);
+            reclaimSpillFile();
+        }
+    }
+
+    /**
+     * Releases all the caches and deletes the spill file.
+     */
+    public synchronized void close() {
+        closed = true;
+        new ArrayList<>(cacheMap.keySet()).forEach(this::releaseCache);
+        if (spillFile != null) {
+            try {
+                spillFile.close();
+            } catch (IOException e) {
+                logger.warn("Failed to close iterator spill file {}", spillPath, e);
+            }
+            if (!spillPath.delete()) {
+                logger.warn("Failed to delete iterator spill file {}", spillPath);
+            }
+            spillFile = null;
+            spillPath = null;
+            spillFileBytes = 0;
+        }
+    }
+
+    public synchronized Metrics getMetrics() {
+        return new Metrics(maxBytes, residentBytes, residentRows, peakResidentBytes, spilledBytes, spilledRows,
+                spillFileBytes, spillCount, reloadCount);
+    }
+
+    private boolean spill(Deque<Segment> segments, QueryResultsWrapper.RowRecord row) {
+        try {
+            byte[] data = RowRecordCodec.encode(row);
+            if (spillFile == null) {
+                spillPath = File.createTempFile("milvus-iterator-cache", ".bin");
+                spillFile = new RandomAccessFile(spillPath, "rw");
+                spillFileBytes = 0;
+            }
+            long offset = spillFileBytes;
+            spillFile.seek(offset);
+            spillFile.write(data);
+            spillFileBytes += data.length;
+
+            Segment last = segments.peekLast();
+            if (!(last instanceof SpillSegment)) {
+                last = new SpillSegment();
+                segments.addLast(last);
+            }
+            ((SpillSegment) last).add(offset, data.length);
+            return true;
+        } catch (IOException e) {
+            // keep the row in memory, the budget is exceeded but no row is lost
+            if (!spillWarned) {
+                spillWarned = true;
+                logger.warn("Failed to spill iterator cache, rows are kept in memory: {}", e.getMessage());
+            }
+            return false;
+        }
+    }
+
+    private void reclaimSpillFile() {
+        if (spillFile == null) {
+            return;
+        }
+        try {
+            if (spilledRows == 0) {
+                spillFile.setLength(0);
+                spillFileBytes = 0;
+            } else if (spillFileBytes >= COMPACT_MIN_BYTES && spillFileBytes >= spilledBytes * 2) {
+                compactSpillFile();
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to reclaim iterator spill file {}", spillPath, e);
+        }
+    }
+
+    /**
+     * Copies the rows not taken yet to a new spill file and deletes the old one.
+     * The segments are moved only after all the rows are copied, a failure leaves them on the old file.
+     */
+    private void compactSpillFile() throws IOException {
+        List<SpillSegment> spillSegments = new ArrayList<>();
+        for (Deque<Segment> segments : cacheMap.values()) {
+            for (Segment segment : segments) {
+                if (segment instanceof SpillSegment) {
+                    spillSegments.add((SpillSegment) segment);
+                }
+            }
+        }
+
+        File newPath = File.createTempFile("milvus-iterator-cache", ".bin");
+        RandomAccessFile newFile = null;
+        List<long[]> newOffsets = new ArrayList<>(spillSegments.size());
+        long newBytes = 0;
+        try {
+            newFile = new RandomAccessFile(newPath, "rw");
+            for (SpillSegment segment : spillSegments) {
+                long[] offsets = segment.copyTo(newFile, newBytes);
+                newOffsets.add(offsets);
+                newBytes = newFile.getFilePointer();
+            }
+        } catch (IOException e) {
+            if (newFile != null) {
+                newFile.close();
+            }
+            if (!newPath.delete()) {
+                logger.warn("Failed to delete iterator spill file {}", newPath);
+            }
+            throw e;
+        }
+
+        for (int i = 0; i < spillSegments.size(); i++) {
+            spillSegments.get(i).moveTo(newOffsets.get(i));
+        }
+        try {
+            spillFile.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close iterator spill file {}", spillPath, e);
+        }
+        if (!spillPath.delete()) {
+            logger.warn("Failed to delete iterator spill file {}", spillPath);
+        }
+        logger.debug("Compacted iterator spill file from {} to {} bytes", spillFileBytes, newBytes);
+        spillFile = newFile;
+        spillPath = newPath;
+        spillFileBytes = newBytes;
+    }
+
+    private interface Segment {
+        int size();
+
+        List<QueryResultsWrapper.RowRecord> peek();
+
+        void take(int count, List<QueryResultsWrapper.RowRecord> rows);
+
+        void release();
+    }
+
+    private final class MemorySegment implements Segment {
+        private final Deque<QueryResultsWrapper.RowRecord> rows = new ArrayDeque<>();
+        private final Deque<Long> sizes = new ArrayDeque<>();
+
+        void add(QueryResultsWrapper.RowRecord row, long bytes) {
+            rows.addLast(row);
+            sizes.addLast(bytes);
+            residentBytes += bytes;
+            residentRows++;
+            peakResidentBytes = Math.max(peakResidentBytes, residentBytes);
+        }
+
+        @Override
+        public int size() {
+            return rows.size();
+        }
+
+        @Override
+        public List<QueryResultsWrapper.RowRecord> peek() {
+            return new ArrayList<>(rows);
+        }
+
+        @Override
+        public void take(int count, List<QueryResultsWrapper.RowRecord> out) {
+            for (int i = 0; i < count && !rows.isEmpty(); i++) {
+                out.add(rows.pollFirst());
+                residentBytes -= sizes.pollFirst();
+                residentRows--;
+            }
+        }
+
+        @Override
+        public void release() {
+            take(rows.size(), new ArrayList<>());
+        }
     }
 
-    public void releaseCache(int cacheId) {
-        cacheMap.remove(cacheId);
+    private final class SpillSegment implements Segment {
+        // rows are written back to back, so a run of rows is read with a single call
+        private long[] offsets = new long[16];
+        private int[] lengths = new int[16];
+        private int head;
+        private int tail;
+
+        void add(long offset, int length) {
+            if (tail == offsets.length) {
+                int capacity = Math.max(16, (tail - head) * 2);
+                long[] newOffsets = new long[capacity];
+                int[] newLengths = new int[capacity];
+                System.arraycopy(offsets, head, newOffsets, 0, tail - head);
+                System.arraycopy(lengths, head, newLengths, 0, tail - head);
+                offsets = newOffsets;
+                lengths = newLengths;
+                tail -= head;
+                head = 0;
+            }
+            offsets[tail] = offset;
+            lengths[tail] = length;
+            tail++;
+            spilledBytes += length;
+            spilledRows++;
+            spillCount++;
+        }
+
+        @Override
+        public int size() {
+            return tail - head;
+        }
+
+        @Override
+        public List<QueryResultsWrapper.RowRecord> peek() {
+            return read(head, tail);
+        }
+
+        @Override
+        public void take(int count, List<QueryResultsWrapper.RowRecord> out) {
+            int end = Math.min(tail, head + count);
+            out.addAll(read(head, end));
+            for (int i = head; i < end; i++) {
+                spilledBytes -= lengths[i];
+                spilledRows--;
+            }
+            reloadCount += end - head;
+            head = end;
+        }
+
+        @Override
+        public void release() {
+            for (int i = head; i < tail; i++) {
+                spilledBytes -= lengths[i];
+                spilledRows--;
+            }
+            head = tail;
+        }
+
+        /**
+         * Writes the rows not taken yet back to back at the given position of another file.
+         *
+         * @return the offsets of the rows in the other file
+         */
+        long[] copyTo(RandomAccessFile target, long position) throws IOException {
+            long[] newOffsets = new long[tail - head];
+            if (head == tail) {
+                return newOffsets;
+            }
+            long start = offsets[head];
+            long end = offsets[tail - 1] + lengths[tail - 1];
+            byte[] data = new byte[(int) (end - start)];
+            spillFile.seek(start);
+            spillFile.readFully(data);
+            target.seek(position);
+            for (int i = head; i < tail; i++) {
+                newOffsets[i - head] = position;
+                target.write(data, (int) (offsets[i] - start), lengths[i]);
+                position += lengths[i];
+            }
+            return newOffsets;
+        }
+
+        void moveTo(long[] newOffsets) {
+            int count = tail - head;
+            System.arraycopy(newOffsets, 0, offsets, 0, count);
+            System.arraycopy(lengths, head, lengths, 0, count);
+            head = 0;
+            tail = count;
+        }
+
+        private List<QueryResultsWrapper.RowRecord> read(int from, int to) {
+            List<QueryResultsWrapper.RowRecord> rows = new ArrayList<>(to - from);
+            if (from >= to) {
+                return rows;
+            }
+            long start = offsets[from];
+            long end = offsets[to - 1] + lengths[to - 1];
+            byte[] data = new byte[(int) (end - start)];
+            try {
+                spillFile.seek(start);
+                spillFile.readFully(data);
+                for (int i = from; i < to; i++) {
+                    rows.add(RowRecordCodec.decode(data, (int) (offsets[i] - start), lengths[i]));
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to read iterator spill file " + spillPath, e);
+            }
+            return rows;
+        }
+    }
+
+    /**
+     * Residency of an {@link IteratorCache}: rows and estimated bytes held in memory and in the spill file.
+     */
+    @Getter
+    @ToString
+    public static class Metrics {
+        private final long maxBytes;
+        private final long residentBytes;
+        private final long residentRows;
+        private final long peakResidentBytes;
+        private final long spilledBytes;
+        private final long spilledRows;
+        // size of the spill file, including the rows taken but not reclaimed yet
+        private final long spillFileBytes;
+        // rows written to the spill file and read back since the cache was created
+        private final long spillCount;
+        private final long reloadCount;
+
+        Metrics(long maxBytes, long residentBytes, long residentRows, long peakResidentBytes,
+                long spilledBytes, long spilledRows, long spillFileBytes, long spillCount, long reloadCount) {
+            this.maxBytes = maxBytes;
+            this.residentBytes = residentBytes;
+            this.residentRows = residentRows;
+            this.peakResidentBytes = peakResidentBytes;
+            this.spilledBytes = spilledBytes;
+            this.spilledRows = spilledRows;
+            this.spillFileBytes = spillFileBytes;
+            this.spillCount = spillCount;
+            this.reloadCount = reloadCount;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.milvus.orm.iterator;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonPrimitive;
+
+/**
+ * JSON helpers shared by the iterator checkpoints.
+ */
+final class IteratorCheckpoints {
+    private IteratorCheckpoints() {
+    }
+
+    static JsonElement idToJson(Object id) {
+        if (id == null) {
+            return JsonNull.INSTANCE;
+        }
+        if (id instanceof String) {
+            return new JsonPrimitive((String) id);
+        }
+        return new JsonPrimitive((Long) id);
+    }
+
+    static Object idFromJson(JsonElement element) {
+        if (element == null || element.isJsonNull()) {
+            return null;
+        }
+        JsonPrimitive primitive = element.getAsJsonPrimitive();
+        if (primitive.isString()) {
+            return primitive.getAsString();
+        }
+        // parsed from the literal digits, no precision loss for large int64 keys
+        return primitive.getAsLong();
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.milvus.orm.iterator;
+
+import io.milvus.common.utils.ExceptionUtils;
+import io.milvus.response.QueryResultsWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Read-ahead buffer shared by {@link QueryIterator} and {@link SearchIterator}.
+ * A single daemon thread keeps pulling pages from the iterator while the caller consumes
+ * the previous ones. At most <code>depth</code> pages are buffered, and no new page is fetched
+ * while the buffered pages hold more than <code>maxBytes</code> (estimated from the wire size).
+ * The fetching thread owns all the iterator state, the caller only takes finished pages.
+ */
+class IteratorPrefetcher {
+    private static final Logger logger = LoggerFactory.getLogger(IteratorPrefetcher.class);
+    // how long close() waits for the fetching thread to stop
+    private static final long CLOSE_TIMEOUT_MS = 10000L;
+
+    interface PageSource {
+        List<QueryResultsWrapper.RowRecord> fetchPage();
+
+        long estimateBytes(List<QueryResultsWrapper.RowRecord> page);
+    }
+
+    private static final class Page {
+        private final List<QueryResultsWrapper.RowRecord> rows;
+        private final long bytes;
+
+        private Page(List<QueryResultsWrapper.RowRecord> rows, long bytes) {
+            this.rows = rows;
+            this.bytes = bytes;
+        }
+    }
+
+    private final PageSource source;
+    private final int depth;
+    private final long maxBytes;
+    private final Thread worker;
+
+    private final Object lock = new Object();
+    private final Deque<Page> pages = new ArrayDeque<>();
+    private long bufferedBytes;
+    private boolean exhausted;
+    private boolean closed;
+    private RuntimeException failure;
+
+    IteratorPrefetcher(PageSource source, int depth, long maxBytes, String name) {
+        this.source = source;
+        this.depth = depth;
+        this.maxBytes = maxBytes;
+        this.worker = new Thread(this::run, name);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Takes the next page, waiting for the fetching thread if nothing is buffered yet.
+     * Once the iterator is exhausted an empty list is returned, a fetch failure is rethrown to the caller.
+     */
+    List<QueryResultsWrapper.RowRecord> take() {
+        synchronized (lock) {
+            while (pages.isEmpty() && !exhausted && failure == null && !closed) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    ExceptionUtils.throwUnExpectedException("Interrupted while waiting for prefetched page");
+                }
+            }
+            Page page = pages.pollFirst();
+            if (page != null) {
+                bufferedBytes -= page.bytes;
+                lock.notifyAll();
+                return page.rows;
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Stops the fetching thread and waits for it, so that the iterator state it owns can be released
+     * by the caller afterwards. The wait is bounded, a thread stuck in a call is left behind as a daemon.
+     */
+    void close() {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            pages.clear();
+            bufferedBytes = 0;
+            lock.notifyAll();
+        }
+        // a blocking gRPC call observes the interrupt and cancels the in-flight request
+        worker.interrupt();
+        if (Thread.currentThread() == worker) {
+            return;
+        }
+        try {
+            worker.join(CLOSE_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (worker.isAlive()) {
+            logger.warn("Prefetch thread {} didn't stop in {} ms", worker.getName(), CLOSE_TIMEOUT_MS);
+        }
+    }
+
+    private void run() {
+        while (true) {
+            synchronized (lock) {
+                // always allow one buffered page, otherwise a single oversized page would stall the iterator
+                while (!closed && (pages.size() >= depth || (!pages.isEmpty() && bufferedBytes >= maxBytes))) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (closed) {
+                    return;
+                }
+            }
+
+            List<QueryResultsWrapper.RowRecord> rows;
+            long bytes;
+            try {
+                rows = source.fetchPage();
+                bytes = source.estimateBytes(rows);
+            } catch (RuntimeException e) {
+                synchronized (lock) {
+                    if (!closed) {
+                        logger.error("Failed to prefetch iterator page", e);
+                        failure = e;
+                    }
+                    lock.notifyAll();
+                }
+                return;
+            }
+
+            synchronized (lock) {
+                if (closed) {
+                    return;
+                }
+                if (rows.isEmpty()) {
+                    exhausted = true;
+                } else {
+                    pages.addLast(new Page(rows, bytes));
+                    bufferedBytes += bytes;
+                }
+                lock.notifyAll();
+                if (exhausted) {
+                    return;
+                }
+            }
+        }
+    }
+}
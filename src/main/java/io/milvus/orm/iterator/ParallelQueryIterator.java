@@ -0,0 +1,222 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.milvus.orm.iterator;
+
+import io.milvus.common.utils.ExceptionUtils;
+import io.milvus.grpc.MilvusServiceGrpc;
+import io.milvus.param.collection.FieldType;
+import io.milvus.param.dml.ParallelQueryIteratorParam;
+import io.milvus.param.dml.QueryIteratorParam;
+import io.milvus.response.QueryResultsWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Scans a collection with several {@link QueryIterator}s, each one walking its own primary key range.
+ * The split iterators can be consumed independently through {@link #getSplits()}, for example one per
+ * worker thread, or merged into one unordered stream through {@link #next()}. Don't mix the two styles
+ * on the same instance.
+ */
+public class ParallelQueryIterator {
+    private static final Logger logger = LoggerFactory.getLogger(ParallelQueryIterator.class);
+
+    private final ParallelQueryIteratorParam parallelQueryIteratorParam;
+    private final List<String> splitExprs;
+    private final List<QueryIterator> splits = new ArrayList<>();
+
+    private final Object lock = new Object();
+    private ExecutorService executor;
+    private BlockingQueue<List<QueryResultsWrapper.RowRecord>> mergedPages;
+    private final AtomicInteger runningSplits = new AtomicInteger(0);
+    private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+    private boolean finished;
+    private boolean closed;
+
+    // end-of-stream marker for the merged queue, compared by reference
+    private final List<QueryResultsWrapper.RowRecord> endOfStream = Collections.emptyList();
+
+    public ParallelQueryIterator(ParallelQueryIteratorParam parallelQueryIteratorParam,
+                                 MilvusServiceGrpc.MilvusServiceBlockingStub blockingStub,
+                                 FieldType primaryField) {
+        this.parallelQueryIteratorParam = parallelQueryIteratorParam;
+        QueryIteratorParam queryIteratorParam = parallelQueryIteratorParam.getQueryIteratorParam();
+
+        PrimaryKeySplitter splitter = new PrimaryKeySplitter(queryIteratorParam, blockingStub, primaryField);
+        List<Object> points;
+        if (parallelQueryIteratorParam.getSplitPoints().isEmpty()) {
+            points = splitter.probe(parallelQueryIteratorParam.getSplitCount());
+        } else {
+            points = splitter.normalize(parallelQueryIteratorParam.getSplitPoints());
+        }
+        this.splitExprs = Collections.unmodifiableList(splitter.rangeExprs(points));
+
+        try {
+            for (String splitExpr : splitExprs) {
+                splits.add(new QueryIterator(splitParam(queryIteratorParam, splitExpr), blockingStub, primaryField));
+            }
+        } catch (RuntimeException e) {
+            // the caller gets no instance to close, release the splits already created
+            splits.forEach(QueryIterator::close);
+            throw e;
+        }
+        logger.debug("Parallel query iterator splits: {}", splitExprs);
+    }
+
+    /**
+     * Gets the iterators of the primary key ranges, in ascending key order.
+     *
+     * @return <code>List&lt;QueryIterator&gt;</code>
+     */
+    public List<QueryIterator> getSplits() {
+        return Collections.unmodifiableList(splits);
+    }
+
+    /**
+     * Gets the filter expressions used by the split iterators, in the same order as {@link #getSplits()}.
+     *
+     * @return <code>List&lt;String&gt;</code>
+     */
+    public List<String> getSplitExprs() {
+        return splitExprs;
+    }
+
+    /**
+     * Gets the next page of the merged stream. The splits are scanned concurrently on the first call,
+     * pages of different splits are interleaved in arrival order. Returns an empty list once all splits are exhausted.
+     *
+     * @return <code>List&lt;RowRecord&gt;</code>
+     */
+    public List<QueryResultsWrapper.RowRecord> next() {
+        BlockingQueue<List<QueryResultsWrapper.RowRecord>> pages;
+        synchronized (lock) {
+            if (finished || closed) {
+                return new ArrayList<>();
+            }
+            if (executor == null) {
+                startMerge();
+            }
+            pages = mergedPages;
+        }
+
+        List<QueryResultsWrapper.RowRecord> page;
+        try {
+            page = pages.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            ExceptionUtils.throwUnExpectedException("Interrupted while waiting for parallel query page");
+            return new ArrayList<>();
+        }
+
+        if (page == endOfStream) {
+            synchronized (lock) {
+                finished = true;
+            }
+            RuntimeException e = failure.get();
+            if (e != null) {
+                throw e;
+            }
+            return new ArrayList<>();
+        }
+        return page;
+    }
+
+    public void close() {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+        }
+        splits.forEach(QueryIterator::close);
+    }
+
+    private void startMerge() {
+        int parallelism = Math.min(parallelQueryIteratorParam.getParallelism(), splits.size());
+        mergedPages = new ArrayBlockingQueue<>(parallelQueryIteratorParam.getMergeQueueDepth());
+        executor = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread thread = new Thread(r, "milvus-parallel-query");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        runningSplits.set(splits.size());
+        for (QueryIterator split : splits) {
+            executor.execute(() -> drain(split));
+        }
+        executor.shutdown();
+    }
+
+    private void drain(QueryIterator split) {
+        try {
+            while (failure.get() == null) {
+                List<QueryResultsWrapper.RowRecord> page = split.next();
+                if (page.isEmpty()) {
+                    break;
+                }
+                mergedPages.put(page);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (RuntimeException e) {
+            if (failure.compareAndSet(null, e)) {
+                logger.error("Parallel query split failed", e);
+            }
+        }
+
+        if (runningSplits.decrementAndGet() == 0 || failure.get() != null) {
+            // a failure ends the stream right away, the other splits stop at their next page
+            try {
+                mergedPages.put(endOfStream);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static QueryIteratorParam splitParam(QueryIteratorParam queryIteratorParam, String splitExpr) {
+        return QueryIteratorParam.newBuilder()
+                .withDatabaseName(queryIteratorParam.getDatabaseName())
+                .withCollectionName(queryIteratorParam.getCollectionName())
+                .withPartitionNames(queryIteratorParam.getPartitionNames())
+                .withOutFields(queryIteratorParam.getOutFields())
+                .withConsistencyLevel(queryIteratorParam.getConsistencyLevel())
+                .withExpr(splitExpr)
+                .withBatchSize(queryIteratorParam.getBatchSize())
+                .withIgnoreGrowing(queryIteratorParam.isIgnoreGrowing())
+                .withPrefetchDepth(queryIteratorParam.getPrefetchDepth())
+                .withPrefetchMaxBytes(queryIteratorParam.getPrefetchMaxBytes())
+                .withCacheMaxBytes(queryIteratorParam.getCacheMaxBytes())
+                .build();
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.milvus.orm.iterator;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Set of primary keys used by the iterators to drop hits already returned.
+ * Int64 keys are kept in an open addressing table of primitive longs, no boxing per key.
+ */
+class PrimaryKeySet {
+    private static final long EMPTY = 0L;
+
+    private long[] table = new long[16];
+    private int longCount;
+    // 0 is the marker of empty slots, so it's tracked apart
+    private boolean containsZero;
+    private final Set<String> strings = new HashSet<>();
+
+    boolean add(Object key) {
+        if (key instanceof String) {
+            return strings.add((String) key);
+        }
+        long value = (Long) key;
+        if (value == EMPTY) {
+            if (containsZero) {
+                return false;
+            }
+            containsZero = true;
+            return true;
+        }
+        if ((longCount + 1) * 2 > table.length) {
+            rehash(table.length * 2);
+        }
+        int index = indexOf(table, value);
+        if (table[index] == value) {
+            return false;
+        }
+        table[index] = value;
+        longCount++;
+        return true;
+    }
+
+    boolean contains(Object key) {
+        if (key instanceof String) {
+            return strings.contains(key);
+        }
+        long value = (Long) key;
+        if (value == EMPTY) {
+            return containsZero;
+        }
+        return table[indexOf(table, value)] == value;
+    }
+
+    int size() {
+        return longCount + (containsZero ? 1 : 0) + strings.size();
+    }
+
+    void clear() {
+        if (longCount > 0) {
+            table = new long[16];
+            longCount = 0;
+        }
+        containsZero = false;
+        strings.clear();
+    }
+
+    private void rehash(int capacity) {
+        long[] newTable = new long[capacity];
+        for (long value : table) {
+            if (value != EMPTY) {
+                newTable[indexOf(newTable, value)] = value;
+            }
+        }
+        table = newTable;
+    }
+
+    // linear probing, returns the slot holding the value or the empty slot where it belongs
+    private static int indexOf(long[] table, long value) {
+        int mask = table.length - 1;
+        long hash = value * 0x9E3779B97F4A7C15L;
+        int index = (int) (hash ^ (hash >>> 32)) & mask;
+        while (table[index] != EMPTY && table[index] != value) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+}
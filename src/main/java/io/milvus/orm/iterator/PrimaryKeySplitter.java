@@ -0,0 +1,251 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.milvus.orm.iterator;
+
+import io.milvus.exception.ParamException;
+import io.milvus.grpc.DataType;
+import io.milvus.grpc.MilvusServiceGrpc;
+import io.milvus.grpc.QueryRequest;
+import io.milvus.grpc.QueryResults;
+import io.milvus.param.ParamUtils;
+import io.milvus.param.collection.FieldType;
+import io.milvus.param.dml.QueryIteratorParam;
+import io.milvus.param.dml.QueryParam;
+import io.milvus.response.QueryResultsWrapper;
+import io.milvus.v2.utils.RpcUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Computes primary key range boundaries for {@link ParallelQueryIterator}.
+ * The smallest key is the first row of a limit-1 query, the largest key is located by a binary search
+ * of limit-1 probes, then the key space in between is divided evenly. VarChar keys are mapped to
+ * numbers by their first {@value #STRING_WIDTH} printable ASCII characters. The boundaries only
+ * affect the balance between splits: every key belongs to exactly one range whatever the boundaries are.
+ */
+class PrimaryKeySplitter {
+    private static final Logger logger = LoggerFactory.getLogger(PrimaryKeySplitter.class);
+
+    private static final int STRING_WIDTH = 8;
+    private static final char STRING_MIN_CHAR = ' ';
+    private static final char STRING_MAX_CHAR = '~';
+    private static final int STRING_RADIX = STRING_MAX_CHAR - STRING_MIN_CHAR + 1;
+
+    private final QueryIteratorParam queryIteratorParam;
+    private final MilvusServiceGrpc.MilvusServiceBlockingStub blockingStub;
+    private final FieldType primaryField;
+    private final RpcUtils rpcUtils;
+    private int probeCount;
+
+    PrimaryKeySplitter(QueryIteratorParam queryIteratorParam,
+                       MilvusServiceGrpc.MilvusServiceBlockingStub blockingStub,
+                       FieldType primaryField) {
+        this.queryIteratorParam = queryIteratorParam;
+        this.blockingStub = blockingStub;
+        this.primaryField = primaryField;
+        this.rpcUtils = new RpcUtils();
+    }
+
+    /**
+     * Probes the collection and returns at most <code>splitCount - 1</code> ascending boundaries.
+     */
+    List<Object> probe(int splitCount) {
+        if (splitCount <= 1) {
+            return new ArrayList<>();
+        }
+        Object min = firstKey(queryIteratorParam.getExpr());
+        if (min == null) {
+            return new ArrayList<>();
+        }
+
+        List<Object> points;
+        if (primaryField.getDataType() == DataType.VarChar) {
+            points = probeStringPoints((String) min, splitCount);
+        } else {
+            points = probeLongPoints((Long) min, splitCount);
+        }
+        logger.debug("Probed {} split points with {} queries: {}", points.size(), probeCount, points);
+        return points;
+    }
+
+    /**
+     * Sorts the user given boundaries and checks they match the primary key type.
+     */
+    List<Object> normalize(List<Object> points) {
+        List<Object> sorted = new ArrayList<>();
+        for (Object point : points) {
+            boolean isString = point instanceof String;
+            if (isString != (primaryField.getDataType() == DataType.VarChar)) {
+                String msg = String.format("Split point %s doesn't match the primary key type %s",
+                        point, primaryField.getDataType().name());
+                throw new ParamException(msg);
+            }
+            if (!sorted.contains(point)) {
+                sorted.add(point);
+            }
+        }
+        sorted.sort((a, b) -> a instanceof String ? ((String) a).compareTo((String) b) : Long.compare((Long) a, (Long) b));
+        return sorted;
+    }
+
+    /**
+     * Builds the filter expressions of the ranges between the boundaries.
+     * The first range has no lower bound and the last one has no upper bound.
+     */
+    List<String> rangeExprs(List<Object> points) {
+        List<String> exprs = new ArrayList<>();
+        for (int i = 0; i <= points.size(); i++) {
+            List<String> conditions = new ArrayList<>();
+            if (i > 0) {
+                conditions.add(primaryField.getName() + " >= " + literal(points.get(i - 1)));
+            }
+            if (i < points.size()) {
+                conditions.add(primaryField.getName() + " < " + literal(points.get(i)));
+            }
+            exprs.add(combine(queryIteratorParam.getExpr(), String.join(" and ", conditions)));
+        }
+        return exprs;
+    }
+
+    private List<Object> probeLongPoints(long min, int splitCount) {
+        long lo = min;
+        long hi = Long.MAX_VALUE;
+        while (lo < hi) {
+            // overflow-free ceiling of (lo + hi) / 2
+            long mid = (lo | hi) - ((lo ^ hi) >> 1);
+            Object key = firstKey(combine(queryIteratorParam.getExpr(), primaryField.getName() + " >= " + mid));
+            if (key == null) {
+                hi = mid - 1;
+            } else {
+                lo = (Long) key;
+            }
+        }
+
+        List<BigInteger> codes = divide(BigInteger.valueOf(min), BigInteger.valueOf(lo), splitCount);
+        List<Object> points = new ArrayList<>();
+        codes.forEach(code -> points.add(code.longValue()));
+        return points;
+    }
+
+    private List<Object> probeStringPoints(String min, int splitCount) {
+        long lo = encode(min);
+        long hi = BigInteger.valueOf(STRING_RADIX).pow(STRING_WIDTH).longValue() - 1;
+        while (lo < hi) {
+            long mid = lo + (hi - lo + 1) / 2;
+            Object key = firstKey(combine(queryIteratorParam.getExpr(),
+                    primaryField.getName() + " >= " + literal(decode(mid))));
+            if (key == null) {
+                hi = mid - 1;
+            } else {
+                lo = Math.max(mid, encode((String) key));
+            }
+        }
+
+        List<BigInteger> codes = divide(BigInteger.valueOf(encode(min)), BigInteger.valueOf(lo), splitCount);
+        List<Object> points = new ArrayList<>();
+        codes.forEach(code -> points.add(decode(code.longValue())));
+        return points;
+    }
+
+    private static List<BigInteger> divide(BigInteger min, BigInteger max, int splitCount) {
+        BigInteger span = max.subtract(min).add(BigInteger.ONE);
+        List<BigInteger> points = new ArrayList<>();
+        for (int i = 1; i < splitCount; i++) {
+            BigInteger point = min.add(span.multiply(BigInteger.valueOf(i)).divide(BigInteger.valueOf(splitCount)));
+            // drop empty ranges when the key space is narrower than the split count
+            if (point.compareTo(min) > 0 && (points.isEmpty() || point.compareTo(points.get(points.size() - 1)) > 0)) {
+                points.add(point);
+            }
+        }
+        return points;
+    }
+
+    // the mapping is monotonic: a <= b implies encode(a) <= encode(b), and encode(decode(n)) == n
+    private static long encode(String key) {
+        long code = 0;
+        for (int i = 0; i < STRING_WIDTH; i++) {
+            int digit = 0;
+            if (i < key.length()) {
+                char c = key.charAt(i);
+                digit = Math.min(Math.max(c, STRING_MIN_CHAR), STRING_MAX_CHAR) - STRING_MIN_CHAR;
+            }
+            code = code * STRING_RADIX + digit;
+        }
+        return code;
+    }
+
+    private static String decode(long code) {
+        char[] chars = new char[STRING_WIDTH];
+        for (int i = STRING_WIDTH - 1; i >= 0; i--) {
+            chars[i] = (char) (STRING_MIN_CHAR + code % STRING_RADIX);
+            code /= STRING_RADIX;
+        }
+        return new String(chars);
+    }
+
+    private String literal(Object value) {
+        if (value instanceof String) {
+            return "\"" + ((String) value).replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+        }
+        return value.toString();
+    }
+
+    private static String combine(String expr, String condition) {
+        if (StringUtils.isEmpty(condition)) {
+            return expr;
+        }
+        if (StringUtils.isEmpty(expr)) {
+            return condition;
+        }
+        return "(" + expr + ") and " + condition;
+    }
+
+    private Object firstKey(String expr) {
+        QueryParam queryParam = QueryParam.newBuilder()
+                .withDatabaseName(queryIteratorParam.getDatabaseName())
+                .withCollectionName(queryIteratorParam.getCollectionName())
+                .withConsistencyLevel(queryIteratorParam.getConsistencyLevel())
+                .withPartitionNames(queryIteratorParam.getPartitionNames())
+                .withOutFields(Collections.singletonList(primaryField.getName()))
+                .withExpr(expr)
+                .withLimit(1L)
+                .withIgnoreGrowing(queryIteratorParam.isIgnoreGrowing())
+                .build();
+
+        QueryRequest queryRequest = ParamUtils.convertQueryParam(queryParam);
+        QueryResults response = blockingStub.query(queryRequest);
+        probeCount++;
+
+        String title = String.format("QueryRequest collectionName:%s", queryIteratorParam.getCollectionName());
+        rpcUtils.handleResponse(title, response.getStatus());
+
+        List<QueryResultsWrapper.RowRecord> rows = new QueryResultsWrapper(response).getRowRecords();
+        if (rows.isEmpty()) {
+            return null;
+        }
+        return rows.get(0).get(primaryField.getName());
+    }
+}
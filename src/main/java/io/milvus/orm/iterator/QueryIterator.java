@@ -19,6 +19,7 @@
 
 package io.milvus.orm.iterator;
 
+import io.milvus.exception.ParamException;
 import io.milvus.grpc.DataType;
 import io.milvus.grpc.MilvusServiceGrpc;
 import io.milvus.grpc.QueryRequest;
@@ -31,6 +32,7 @@ import io.milvus.response.QueryResultsWrapper;
 import io.milvus.v2.utils.RpcUtils;
 import org.apache.commons.lang3.StringUtils;
 
+import java.util.Collections;
 import java.util.List;
 
 import static io.milvus.param.Constant.NO_CACHE_ID;
@@ -50,11 +52,16 @@ public class QueryIterator {
     private int cacheIdInUse;
     private long returnedCount;
     private final RpcUtils rpcUtils;
+    private long rowBytes;
+    // position of the last page handed to the caller, the cursor above may run ahead of it when prefetching
+    private Object deliveredId;
+    private long deliveredCount;
+    private IteratorPrefetcher prefetcher;
 
     public QueryIterator(QueryIteratorParam queryIteratorParam,
                          MilvusServiceGrpc.MilvusServiceBlockingStub blockingStub,
                          FieldType primaryField) {
-        this.iteratorCache = new IteratorCache();
+        this.iteratorCache = new IteratorCache(queryIteratorParam.getCacheMaxBytes());
         this.blockingStub = blockingStub;
         this.primaryField = primaryField;
         this.queryIteratorParam = queryIteratorParam;
@@ -65,7 +72,28 @@ public class QueryIterator {
         this.offset = queryIteratorParam.getOffset();
         this.rpcUtils = new RpcUtils();
 
-        seek();
+        QueryIteratorCheckpoint checkpoint = queryIteratorParam.getCheckpoint();
+        if (checkpoint != null) {
+            resume(checkpoint);
+        } else {
+            seek();
+        }
+        this.deliveredId = nextId;
+        this.deliveredCount = returnedCount;
+        if (queryIteratorParam.getPrefetchDepth() > 0) {
+            prefetcher = new IteratorPrefetcher(new IteratorPrefetcher.PageSource() {
+                @Override
+                public List<QueryResultsWrapper.RowRecord> fetchPage() {
+                    return nextPage();
+                }
+
+                @Override
+                public long estimateBytes(List<QueryResultsWrapper.RowRecord> page) {
+                    return page.size() * rowBytes;
+                }
+            }, queryIteratorParam.getPrefetchDepth(), queryIteratorParam.getPrefetchMaxBytes(),
+                    "milvus-query-iterator-prefetch");
+        }
     }
 
     private void seek() {
@@ -75,18 +103,50 @@ public class QueryIterator {
             return;
         }
 
-        List<QueryResultsWrapper.RowRecord> res = getQueryResultsWrapper(expr, 0L, offset);
+        // only the primary keys are needed to locate the cursor
+        List<QueryResultsWrapper.RowRecord> res = getQueryResultsWrapper(expr, 0L, offset,
+                Collections.singletonList(primaryField.getName()));
         updateCursor(res.subList(0, (int) offset));
         offset = 0;
     }
 
+    private void resume(QueryIteratorCheckpoint checkpoint) {
+        Object lastId = checkpoint.getLastId();
+        boolean isVarChar = primaryField.getDataType() == DataType.VarChar;
+        if (lastId != null && (lastId instanceof String) != isVarChar) {
+            String msg = String.format("Checkpoint primary key %s doesn't match the primary key type %s",
+                    lastId, primaryField.getDataType().name());
+            throw new ParamException(msg);
+        }
+        this.cacheIdInUse = NO_CACHE_ID;
+        this.nextId = lastId;
+        this.returnedCount = checkpoint.getReturnedCount();
+        this.offset = 0;
+    }
+
     public List<QueryResultsWrapper.RowRecord> next() {
-        List<QueryResultsWrapper.RowRecord> cachedRes = iteratorCache.fetchCache(cacheIdInUse);
+        List<QueryResultsWrapper.RowRecord> ret = prefetcher != null ? prefetcher.take() : nextPage();
+        if (!ret.isEmpty()) {
+            deliveredId = ret.get(ret.size() - 1).get(primaryField.getName());
+            deliveredCount += ret.size();
+        }
+        return ret;
+    }
+
+    /**
+     * Gets the position after the last page returned by {@link #next()}.
+     * A new iterator built with this checkpoint continues from the next row with a single query.
+     *
+     * @return {@link QueryIteratorCheckpoint}
+     */
+    public QueryIteratorCheckpoint getCheckpoint() {
+        return new QueryIteratorCheckpoint(queryIteratorParam.getCollectionName(), deliveredId, deliveredCount);
+    }
+
+    private List<QueryResultsWrapper.RowRecord> nextPage() {
         List<QueryResultsWrapper.RowRecord> ret;
-        if (isResSufficient(cachedRes)) {
-            ret = cachedRes.subList(0, batchSize);
-            List<QueryResultsWrapper.RowRecord> retToCache = cachedRes.subList(batchSize, cachedRes.size());
-            iteratorCache.cache(cacheIdInUse, retToCache);
+        if (isResSufficient(iteratorCache.size(cacheIdInUse))) {
+            ret = iteratorCache.take(cacheIdInUse, batchSize);
         } else {
             iteratorCache.releaseCache(cacheIdInUse);
             String currentExpr = setupNextExpr();
@@ -101,7 +161,19 @@ public class QueryIterator {
     }
 
     public void close() {
-        iteratorCache.releaseCache(cacheIdInUse);
+        if (prefetcher != null) {
+            prefetcher.close();
+        }
+        iteratorCache.close();
+    }
+
+    /**
+     * Gets the residency of the rows fetched ahead of the caller and kept by the iterator.
+     *
+     * @return {@link IteratorCache.Metrics}
+     */
+    public IteratorCache.Metrics getCacheMetrics() {
+        return iteratorCache.getMetrics();
     }
 
     private void updateCursor(List<QueryResultsWrapper.RowRecord> res) {
@@ -148,17 +220,22 @@ public class QueryIterator {
         return currentExpr + " and " + filteredPKStr;
     }
 
-    private boolean isResSufficient(List<QueryResultsWrapper.RowRecord> ret) {
-        return ret != null && ret.size() >= batchSize;
+    private boolean isResSufficient(int cachedCount) {
+        return cachedCount >= batchSize;
     }
 
     private List<QueryResultsWrapper.RowRecord> getQueryResultsWrapper(String expr, long offset, long limit) {
+        return getQueryResultsWrapper(expr, offset, limit, queryIteratorParam.getOutFields());
+    }
+
+    private List<QueryResultsWrapper.RowRecord> getQueryResultsWrapper(String expr, long offset, long limit,
+                                                                      List<String> outFields) {
         QueryParam queryParam = QueryParam.newBuilder()
                 .withDatabaseName(queryIteratorParam.getDatabaseName())
                 .withCollectionName(queryIteratorParam.getCollectionName())
                 .withConsistencyLevel(queryIteratorParam.getConsistencyLevel())
                 .withPartitionNames(queryIteratorParam.getPartitionNames())
-                .withOutFields(queryIteratorParam.getOutFields())
+                .withOutFields(outFields)
                 .withExpr(expr)
                 .withOffset(offset)
                 .withLimit(limit)
@@ -172,6 +249,10 @@ public class QueryIterator {
         rpcUtils.handleResponse(title, response.getStatus());
 
         QueryResultsWrapper queryWrapper = new QueryResultsWrapper(response);
-        return queryWrapper.getRowRecords();
+        List<QueryResultsWrapper.RowRecord> rows = queryWrapper.getRowRecords();
+        if (!rows.isEmpty()) {
+            rowBytes = response.getSerializedSize() / rows.size();
+        }
+        return rows;
     }
 }
@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.milvus.orm.iterator;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import io.milvus.exception.ParamException;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.io.Serializable;
+
+/**
+ * Position of a {@link QueryIterator}: the primary key of the last row handed to the caller and the number
+ * of rows returned so far. Pass it to {@link io.milvus.param.dml.QueryIteratorParam.Builder#withCheckpoint}
+ * to resume the iteration right after that row without rescanning.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+public class QueryIteratorCheckpoint implements Serializable {
+    private static final long serialVersionUID = 4213705367841207735L;
+
+    private final String collectionName;
+    // Long for Int64 primary key, String for VarChar primary key, null if no row was returned
+    private final Object lastId;
+    private final long returnedCount;
+
+    QueryIteratorCheckpoint(String collectionName, Object lastId, long returnedCount) {
+        this.collectionName = collectionName;
+        this.lastId = lastId;
+        this.returnedCount = returnedCount;
+    }
+
+    /**
+     * Converts the checkpoint to a JSON string, numeric primary keys are kept exact.
+     *
+     * @return <code>String</code>
+     */
+    public String toJson() {
+        JsonObject json = new JsonObject();
+        json.addProperty("collectionName", collectionName);
+        json.add("lastId", IteratorCheckpoints.idToJson(lastId));
+        json.addProperty("returnedCount", returnedCount);
+        return json.toString();
+    }
+
+    /**
+     * Restores a checkpoint from the string produced by {@link #toJson()}.
+     *
+     * @param json JSON string
+     * @return {@link QueryIteratorCheckpoint}
+     */
+    public static QueryIteratorCheckpoint fromJson(String json) {
+        try {
+            JsonObject obj = JsonParser.parseString(json).getAsJsonObject();
+            return new QueryIteratorCheckpoint(obj.get("collectionName").getAsString(),
+                    IteratorCheckpoints.idFromJson(obj.get("lastId")),
+                    obj.get("returnedCount").getAsLong());
+        } catch (Exception e) {
+            throw new ParamException("Illegal query iterator checkpoint: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,269 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.milvus.orm.iterator;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import io.milvus.response.QueryResultsWrapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Compact binary form of {@link QueryResultsWrapper.RowRecord} used by {@link IteratorCache} to spill rows,
+ * and the in-memory size estimate used for its byte budget.
+ * Every value is written as a one byte tag followed by its payload, covering the types produced by the
+ * result wrappers: numbers, booleans, strings, binary/float16 vectors, float vectors, arrays, sparse vectors and JSON.
+ */
+final class RowRecordCodec {
+    private static final byte TAG_NULL = 0;
+    private static final byte TAG_LONG = 1;
+    private static final byte TAG_INT = 2;
+    private static final byte TAG_SHORT = 3;
+    private static final byte TAG_BYTE = 4;
+    private static final byte TAG_FLOAT = 5;
+    private static final byte TAG_DOUBLE = 6;
+    private static final byte TAG_BOOL = 7;
+    private static final byte TAG_STRING = 8;
+    private static final byte TAG_BYTES = 9;
+    private static final byte TAG_LIST = 10;
+    private static final byte TAG_SORTED_MAP = 11;
+    private static final byte TAG_JSON = 12;
+
+    // rough JVM footprints: object header plus boxed payload, references and per-entry overhead of HashMap
+    private static final long OBJECT_BYTES = 16;
+    private static final long RECORD_BYTES = 64;
+    private static final long ENTRY_BYTES = 40;
+
+    private RowRecordCodec() {
+    }
+
+    /**
+     * Encodes a record, throws {@link IOException} if a value type is not supported.
+     */
+    static byte[] encode(QueryResultsWrapper.RowRecord record) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        Map<String, Object> values = record.getFieldValues();
+        out.writeInt(values.size());
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            writeString(out, entry.getKey());
+            writeValue(out, entry.getValue());
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    static QueryResultsWrapper.RowRecord decode(byte[] data, int offset, int length) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data, offset, length));
+        QueryResultsWrapper.RowRecord record = new QueryResultsWrapper.RowRecord();
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            String key = readString(in);
+            record.put(key, readValue(in));
+        }
+        return record;
+    }
+
+    static long estimateBytes(QueryResultsWrapper.RowRecord record) {
+        long bytes = RECORD_BYTES;
+        for (Map.Entry<String, Object> entry : record.getFieldValues().entrySet()) {
+            bytes += ENTRY_BYTES + estimateString(entry.getKey()) + estimateValue(entry.getValue());
+        }
+        return bytes;
+    }
+
+    private static long estimateString(String value) {
+        return OBJECT_BYTES * 2 + 2L * value.length();
+    }
+
+    private static long estimateValue(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof String) {
+            return estimateString((String) value);
+        }
+        if (value instanceof ByteBuffer) {
+            return OBJECT_BYTES * 3 + ((ByteBuffer) value).capacity();
+        }
+        if (value instanceof List) {
+            long bytes = OBJECT_BYTES * 2;
+            for (Object element : (List<?>) value) {
+                bytes += 8 + estimateValue(element);
+            }
+            return bytes;
+        }
+        if (value instanceof Map) {
+            long bytes = OBJECT_BYTES * 3;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                bytes += ENTRY_BYTES + estimateValue(entry.getKey()) + estimateValue(entry.getValue());
+            }
+            return bytes;
+        }
+        if (value instanceof JsonElement) {
+            // parsed JSON trees are several times larger than their text
+            return OBJECT_BYTES + 8L * value.toString().length();
+        }
+        return OBJECT_BYTES;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(TAG_NULL);
+        } else if (value instanceof Long) {
+            out.writeByte(TAG_LONG);
+            out.writeLong((Long) value);
+        } else if (value instanceof Integer) {
+            out.writeByte(TAG_INT);
+            out.writeInt((Integer) value);
+        } else if (value instanceof Short) {
+            out.writeByte(TAG_SHORT);
+            out.writeShort((Short) value);
+        } else if (value instanceof Byte) {
+            out.writeByte(TAG_BYTE);
+            out.writeByte((Byte) value);
+        } else if (value instanceof Float) {
+            out.writeByte(TAG_FLOAT);
+            out.writeFloat((Float) value);
+        } else if (value instanceof Double) {
+            out.writeByte(TAG_DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (value instanceof Boolean) {
+            out.writeByte(TAG_BOOL);
+            out.writeBoolean((Boolean) value);
+        } else if (value instanceof String) {
+            out.writeByte(TAG_STRING);
+            writeString(out, (String) value);
+        } else if (value instanceof ByteBuffer) {
+            // keep the whole buffer with its position and byte order, the wrappers hand out buffers positioned at the end
+            ByteBuffer buffer = ((ByteBuffer) value).duplicate();
+            out.writeByte(TAG_BYTES);
+            out.writeBoolean(buffer.order() == ByteOrder.LITTLE_ENDIAN);
+            out.writeInt(buffer.position());
+            out.writeInt(buffer.limit());
+            out.writeInt(buffer.capacity());
+            buffer.clear();
+            byte[] bytes = new byte[buffer.capacity()];
+            buffer.get(bytes);
+            out.write(bytes);
+        } else if (value instanceof List) {
+            List<?> list = (List<?>) value;
+            out.writeByte(TAG_LIST);
+            out.writeInt(list.size());
+            for (Object element : list) {
+                writeValue(out, element);
+            }
+        } else if (value instanceof SortedMap) {
+            SortedMap<?, ?> map = (SortedMap<?, ?>) value;
+            out.writeByte(TAG_SORTED_MAP);
+            out.writeInt(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                writeValue(out, entry.getKey());
+                writeValue(out, entry.getValue());
+            }
+        } else if (value instanceof JsonElement) {
+            out.writeByte(TAG_JSON);
+            writeString(out, value.toString());
+        } else {
+            throw new IOException("Unsupported value type: " + value.getClass().getName());
+        }
+    }
+
+    private static Object readValue(DataInputStream in) throws IOException {
+        byte tag = in.readByte();
+        switch (tag) {
+            case TAG_NULL:
+                return null;
+            case TAG_LONG:
+                return in.readLong();
+            case TAG_INT:
+                return in.readInt();
+            case TAG_SHORT:
+                return in.readShort();
+            case TAG_BYTE:
+                return in.readByte();
+            case TAG_FLOAT:
+                return in.readFloat();
+            case TAG_DOUBLE:
+                return in.readDouble();
+            case TAG_BOOL:
+                return in.readBoolean();
+            case TAG_STRING:
+                return readString(in);
+            case TAG_BYTES: {
+                boolean littleEndian = in.readBoolean();
+                int position = in.readInt();
+                int limit = in.readInt();
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                buffer.order(littleEndian ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+                buffer.limit(limit);
+                buffer.position(position);
+                return buffer;
+            }
+            case TAG_LIST: {
+                int size = in.readInt();
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(readValue(in));
+                }
+                return list;
+            }
+            case TAG_SORTED_MAP: {
+                int size = in.readInt();
+                SortedMap<Object, Object> map = new TreeMap<>();
+                for (int i = 0; i < size; i++) {
+                    Object key = readValue(in);
+                    map.put(key, readValue(in));
+                }
+                return map;
+            }
+            case TAG_JSON:
+                return JsonParser.parseString(readString(in));
+            default:
+                throw new IOException("Unknown value tag: " + tag);
+        }
+    }
+}
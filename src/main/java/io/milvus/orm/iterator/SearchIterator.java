@@ -13,6 +13,7 @@ import io.milvus.grpc.SearchRequest;
 import io.milvus.grpc.SearchResults;
 import io.milvus.param.MetricType;
 import io.milvus.param.ParamUtils;
+import io.milvus.param.SparseVector;
 import io.milvus.param.collection.FieldType;
 import io.milvus.param.dml.SearchIteratorParam;
 import io.milvus.param.dml.SearchParam;
@@ -24,10 +25,14 @@ import org.slf4j.LoggerFactory;
 
 import java.nio.ByteBuffer;
 import java.text.DecimalFormat;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.SortedMap;
+import java.util.function.Function;
 
 import static io.milvus.param.Constant.DEFAULT_SEARCH_EXTENSION_RATE;
 import static io.milvus.param.Constant.EF;
@@ -42,7 +47,7 @@ import static io.milvus.param.Constant.UNLIMITED;
 public class SearchIterator {
     private static final Logger logger = LoggerFactory.getLogger(SearchIterator.class);
     private final IteratorCache iteratorCache;
-    private final MilvusServiceGrpc.MilvusServiceBlockingStub blockingStub;
+    private final Function<SearchRequest, SearchResults> searcher;
     private final FieldType primaryField;
 
     private final SearchIteratorParam searchIteratorParam;
@@ -50,6 +55,7 @@ public class SearchIterator {
     private final int topK;
     private final String expr;
     private final String metricType;
+    private final int excludedIdsStep;
 
     private int cacheId;
     private boolean initSuccess;
@@ -57,32 +63,96 @@ public class SearchIterator {
     private float width;
     private float tailBand;
 
-    private List<Object> filteredIds;
+    // all the hits returned at the boundary distance, only the first excludedIdsStep are put into the expression,
+    // the others wait in pendingIds until the server keeps returning them
+    private final PrimaryKeySet tieIds = new PrimaryKeySet();
+    private List<Object> filteredIds = Lists.newArrayList();
+    private final Deque<Object> pendingIds = new ArrayDeque<>();
     private Float filteredDistance = null;
+    private long suppressedCount;
     private Map<String, Object> params;
     private final RpcUtils rpcUtils;
+    private long hitBytes;
+    // position of the last page handed to the caller, the range above may run ahead of it when prefetching
+    private long deliveredCount;
+    private Float deliveredTail;
+    private final List<Object> deliveredTailIds = Lists.newArrayList();
+    private IteratorPrefetcher prefetcher;
 
     public SearchIterator(SearchIteratorParam searchIteratorParam,
                           MilvusServiceGrpc.MilvusServiceBlockingStub blockingStub,
                           FieldType primaryField) {
-        this.iteratorCache = new IteratorCache();
+        this(searchIteratorParam, blockingStub::search, primaryField);
+    }
+
+    // the searcher sends the search requests, the batch search iterator routes them through a coalescer
+    SearchIterator(SearchIteratorParam searchIteratorParam,
+                   Function<SearchRequest, SearchResults> searcher,
+                   FieldType primaryField) {
+        this.iteratorCache = new IteratorCache(searchIteratorParam.getCacheMaxBytes());
         this.searchIteratorParam = searchIteratorParam;
-        this.blockingStub = blockingStub;
+        this.searcher = searcher;
         this.primaryField = primaryField;
         this.metricType = searchIteratorParam.getMetricType();
 
         this.batchSize = (int) searchIteratorParam.getBatchSize();
         this.expr = searchIteratorParam.getExpr();
         this.topK = searchIteratorParam.getTopK();
+        this.excludedIdsStep = searchIteratorParam.getExcludedIdsStep();
         this.rpcUtils = new RpcUtils();
 
         initParams();
         checkForSpecialIndexParam();
         checkRmRangeSearchParameters();
-        initSearchIterator();
+        SearchIteratorCheckpoint checkpoint = searchIteratorParam.getCheckpoint();
+        if (checkpoint != null && checkpoint.getTailBand() != null) {
+            resumeSearchIterator(checkpoint);
+        } else {
+            initSearchIterator();
+        }
+        if (initSuccess && searchIteratorParam.getPrefetchDepth() > 0) {
+            prefetcher = new IteratorPrefetcher(new IteratorPrefetcher.PageSource() {
+                @Override
+                public List<QueryResultsWrapper.RowRecord> fetchPage() {
+                    return nextPage();
+                }
+
+                @Override
+                public long estimateBytes(List<QueryResultsWrapper.RowRecord> page) {
+                    return page.size() * hitBytes;
+                }
+            }, searchIteratorParam.getPrefetchDepth(), searchIteratorParam.getPrefetchMaxBytes(),
+                    "milvus-search-iterator-prefetch");
+        }
     }
 
     public List<QueryResultsWrapper.RowRecord> next() {
+        List<QueryResultsWrapper.RowRecord> ret = prefetcher != null ? prefetcher.take() : nextPage();
+        for (QueryResultsWrapper.RowRecord record : ret) {
+            float distance = getDistance(record);
+            if (deliveredTail == null || deliveredTail != distance) {
+                deliveredTail = distance;
+                deliveredTailIds.clear();
+            }
+            deliveredTailIds.add(record.get("id"));
+        }
+        deliveredCount += ret.size();
+        return ret;
+    }
+
+    /**
+     * Gets the position after the last page returned by {@link #next()}.
+     * A new iterator built with this checkpoint continues with a range search from the last returned distance,
+     * excluding the hits already returned at that distance.
+     *
+     * @return {@link SearchIteratorCheckpoint}
+     */
+    public SearchIteratorCheckpoint getCheckpoint() {
+        return new SearchIteratorCheckpoint(searchIteratorParam.getCollectionName(), deliveredCount,
+                deliveredTail, width, deliveredTailIds);
+    }
+
+    private List<QueryResultsWrapper.RowRecord> nextPage() {
         // 0. check reached limit
         if (!initSuccess || checkReachedLimit()) {
             return Lists.newArrayList();
@@ -114,6 +184,8 @@ public class SearchIterator {
         // 3. if all result has return, clear the filteredIds
         if (retPage.isEmpty()) {
             filteredIds.clear();
+            tieIds.clear();
+            pendingIds.clear();
         }
 
         returnedCount += retLen;
@@ -121,7 +193,29 @@ public class SearchIterator {
     }
 
     public void close() {
-        iteratorCache.releaseCache(cacheId);
+        if (prefetcher != null) {
+            prefetcher.close();
+        }
+        iteratorCache.close();
+    }
+
+    /**
+     * Gets the residency of the hits fetched ahead of the caller and kept by the iterator.
+     *
+     * @return {@link IteratorCache.Metrics}
+     */
+    public IteratorCache.Metrics getCacheMetrics() {
+        return iteratorCache.getMetrics();
+    }
+
+    /**
+     * Gets the number of hits dropped because they had been returned already.
+     * Such hits come back from the server when the ties on the boundary distance outnumber the exclusion list.
+     *
+     * @return <code>long</code>
+     */
+    public long getSuppressedDuplicateCount() {
+        return suppressedCount;
     }
 
     private void initParams() {
@@ -155,7 +249,7 @@ public class SearchIterator {
 
     private void initSearchIterator() {
         SearchResultsWrapper searchResultsWrapper = executeNextSearch(params, expr, false);
-        List<QueryResultsWrapper.RowRecord> result = searchResultsWrapper.getRowRecords(0);
+        List<QueryResultsWrapper.RowRecord> result = dropDuplicatedHits(searchResultsWrapper.getRowRecords(0));
         if (CollectionUtils.isNullOrEmpty(result)) {
             String msg = "Cannot init search iterator because init page contains no matched rows, " +
                     "please check the radius and range_filter set up by searchParams";
@@ -168,10 +262,36 @@ public class SearchIterator {
         cacheId = iteratorCache.cache(NO_CACHE_ID, result);
 
         setUpRangeParameters(result);
-        updateFilteredIds(searchResultsWrapper);
         initSuccess = true;
     }
 
+    private void resumeSearchIterator(SearchIteratorCheckpoint checkpoint) {
+        boolean isVarChar = primaryField.getDataType() == DataType.VarChar;
+        for (Object id : checkpoint.getFilteredIds()) {
+            if ((id instanceof String) != isVarChar) {
+                String msg = String.format("Checkpoint id %s doesn't match the primary key type %s",
+                        id, primaryField.getDataType().name());
+                throw new ParamException(msg);
+            }
+        }
+
+        tailBand = checkpoint.getTailBand();
+        width = checkpoint.getWidth() == 0.0 ? 0.05f : checkpoint.getWidth();
+        filteredDistance = tailBand;
+        for (Object id : checkpoint.getFilteredIds()) {
+            addTieId(id);
+        }
+        returnedCount = (int) checkpoint.getReturnedCount();
+
+        deliveredCount = checkpoint.getReturnedCount();
+        deliveredTail = tailBand;
+        deliveredTailIds.addAll(checkpoint.getFilteredIds());
+
+        cacheId = iteratorCache.cache(NO_CACHE_ID, Lists.newArrayList());
+        initSuccess = true;
+        logger.debug("resume searchIterator from width:{} tail_band:{} returned_count:{}", width, tailBand, returnedCount);
+    }
+
     private void setUpRangeParameters(List<QueryResultsWrapper.RowRecord> page) {
         updateWidth(page);
         QueryResultsWrapper.RowRecord lastHit = page.get(page.size() - 1);
@@ -181,40 +301,68 @@ public class SearchIterator {
         System.out.println(msg);
     }
 
-    private void updateFilteredIds(SearchResultsWrapper searchResultsWrapper) {
-        List<SearchResultsWrapper.IDScore> idScores = searchResultsWrapper.getIDScore(0);
-        if (CollectionUtils.isNullOrEmpty(idScores)) {
-            return;
+    private List<QueryResultsWrapper.RowRecord> dropDuplicatedHits(List<QueryResultsWrapper.RowRecord> hits) {
+        List<QueryResultsWrapper.RowRecord> page = new ArrayList<>(hits.size());
+        for (QueryResultsWrapper.RowRecord hit : hits) {
+            if (filteredDistance != null && getDistance(hit) == filteredDistance && tieIds.contains(hit.get("id"))) {
+                suppressedCount++;
+                continue;
+            }
+            page.add(hit);
         }
-
-        SearchResultsWrapper.IDScore lastHit = idScores.get(idScores.size() - 1);
-        if (lastHit == null) {
-            return;
+        if (page.isEmpty()) {
+            return page;
         }
 
-        if (filteredDistance == null || lastHit.getScore() != filteredDistance) {
+        float lastDistance = getDistance(page.get(page.size() - 1));
+        if (filteredDistance == null || lastDistance != filteredDistance) {
             // distance has changed, clear filter_ids array
+            tieIds.clear();
             filteredIds = Lists.newArrayList();
+            pendingIds.clear();
             // renew the distance for filtering
-            filteredDistance = lastHit.getScore();
+            filteredDistance = lastDistance;
         }
 
         // update filter ids to avoid returning result repeatedly
-        for (SearchResultsWrapper.IDScore hit : idScores) {
-            if (hit.getScore() == lastHit.getScore()) {
-                if (primaryField.getDataType() == DataType.VarChar) {
-                    filteredIds.add(hit.getStrID());
-                } else {
-                    filteredIds.add(hit.getLongID());
-                }
+        for (QueryResultsWrapper.RowRecord hit : page) {
+            if (getDistance(hit) == lastDistance) {
+                addTieId(hit.get("id"));
             }
         }
+        return page;
+    }
 
-        if (filteredIds.size() > MAX_FILTERED_IDS_COUNT_ITERATION) {
+    private void addTieId(Object id) {
+        if (tieIds.contains(id)) {
+            return;
+        }
+        if (tieIds.size() >= MAX_FILTERED_IDS_COUNT_ITERATION) {
             String msg = String.format("filtered ids length has accumulated to more than %s, " +
                     "there is a danger of overly memory consumption", MAX_FILTERED_IDS_COUNT_ITERATION);
             ExceptionUtils.throwUnExpectedException(msg);
         }
+        tieIds.add(id);
+        if (filteredIds.size() < excludedIdsStep) {
+            filteredIds.add(id);
+        } else {
+            pendingIds.add(id);
+        }
+    }
+
+    // moves the next ties returned already into the expression, returns false if all of them are there
+    private boolean excludeMoreTies() {
+        if (pendingIds.isEmpty()) {
+            return false;
+        }
+        int step = excludedIdsStep > 0 ? excludedIdsStep : batchSize;
+        for (int i = 0; i < step && !pendingIds.isEmpty(); i++) {
+            filteredIds.add(pendingIds.poll());
+        }
+        String msg = String.format("Hits tied on distance %s repeat, extend the exclusion list to %s ids",
+                filteredDistance, filteredIds.size());
+        logger.debug(msg);
+        return true;
     }
 
     private SearchResultsWrapper executeNextSearch(Map<String, Object> params, String nextExpr, boolean toExtendBatch) {
@@ -238,11 +386,18 @@ public class SearchIterator {
         fillVectorsByPlType(searchParamBuilder);
 
         SearchRequest searchRequest = ParamUtils.convertSearchParam(searchParamBuilder.build());
-        SearchResults response = blockingStub.search(searchRequest);
+        SearchResults response = searcher.apply(searchRequest);
 
         String title = String.format("SearchRequest collectionName:%s", searchIteratorParam.getCollectionName());
         rpcUtils.handleResponse(title, response.getStatus());
 
+        long hits = 0;
+        for (long topk : response.getResults().getTopksList()) {
+            hits += topk;
+        }
+        if (hits > 0) {
+            hitBytes = response.getSerializedSize() / hits;
+        }
         return new SearchResultsWrapper(response.getResults());
     }
 
@@ -261,7 +416,11 @@ public class SearchIterator {
                 searchParamBuilder.withBFloat16Vectors((List<ByteBuffer>) searchIteratorParam.getVectors());
                 break;
             case SparseFloatVector:
-                searchParamBuilder.withSparseFloatVectors((List<SortedMap<Long, Float>>) searchIteratorParam.getVectors());
+                if (searchIteratorParam.getVectors().get(0) instanceof SparseVector) {
+                    searchParamBuilder.withSparseVectors((List<SparseVector>) searchIteratorParam.getVectors());
+                } else {
+                    searchParamBuilder.withSparseFloatVectors((List<SortedMap<Long, Float>>) searchIteratorParam.getVectors());
+                }
                 break;
             default:
                 searchParamBuilder.withVectors(searchIteratorParam.getVectors());
@@ -327,23 +486,18 @@ public class SearchIterator {
     }
 
     private boolean isCacheEnough(int count) {
-        List<QueryResultsWrapper.RowRecord> cachedPage = iteratorCache.fetchCache(cacheId);
-        return cachedPage != null && cachedPage.size() >= count;
+        return iteratorCache.size(cacheId) >= count;
     }
 
     private List<QueryResultsWrapper.RowRecord> extractPageFromCache(int count) {
-        List<QueryResultsWrapper.RowRecord> cachedPage = iteratorCache.fetchCache(cacheId);
-        if (cachedPage == null || cachedPage.size() < count) {
+        int cachedCount = iteratorCache.size(cacheId);
+        if (cachedCount < count) {
             String msg = String.format("Wrong, try to extract %s result from cache, more than %s there must be sth wrong with code",
-                    count, cachedPage == null ? 0 : cachedPage.size());
+                    count, cachedCount);
             throw new ParamException(msg);
         }
 
-        List<QueryResultsWrapper.RowRecord> retPageRes = cachedPage.subList(0, count);
-        List<QueryResultsWrapper.RowRecord> leftCachePage = cachedPage.subList(count, cachedPage.size());
-
-        iteratorCache.cache(cacheId, leftCachePage);
-        return retPageRes;
+        return iteratorCache.take(cacheId, count);
     }
 
     private List<QueryResultsWrapper.RowRecord> trySearchFill() {
@@ -356,8 +510,12 @@ public class SearchIterator {
             String nextExpr = filteredDuplicatedResultExpr(expr);
             SearchResultsWrapper searchResultsWrapper = executeNextSearch(nextParams, nextExpr, true);
 
-            updateFilteredIds(searchResultsWrapper);
-            List<QueryResultsWrapper.RowRecord> newPage = searchResultsWrapper.getRowRecords(0);
+            List<QueryResultsWrapper.RowRecord> hits = searchResultsWrapper.getRowRecords(0);
+            List<QueryResultsWrapper.RowRecord> newPage = dropDuplicatedHits(hits);
+            if (newPage.isEmpty() && !hits.isEmpty() && excludeMoreTies()) {
+                // only returned ties came back, retry the same range with more of them excluded
+                continue;
+            }
 
             tryTime++;
             if (!newPage.isEmpty()) {
@@ -439,14 +597,8 @@ public class SearchIterator {
             throw new ParamException("Cannot push None page into cache");
         }
 
-        List<QueryResultsWrapper.RowRecord> cachedPage = iteratorCache.fetchCache(cacheId);
-        if (cachedPage == null) {
-            iteratorCache.cache(cacheId, page);
-            cachedPage = page;
-        } else {
-            cachedPage.addAll(page);
-        }
-        return cachedPage.size();
+        iteratorCache.append(cacheId, page);
+        return iteratorCache.size(cacheId);
     }
 
     private float getDistance(QueryResultsWrapper.RowRecord record) {
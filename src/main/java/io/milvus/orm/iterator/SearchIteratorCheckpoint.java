@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.milvus.orm.iterator;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import io.milvus.exception.ParamException;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Position of a {@link SearchIterator}: the distance of the last hit handed to the caller, the ids already
+ * returned at exactly that distance, the current range width and the number of hits returned so far.
+ * Pass it to {@link io.milvus.param.dml.SearchIteratorParam.Builder#withCheckpoint} to resume the iteration
+ * with a range search starting from that distance, the init search is skipped.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+public class SearchIteratorCheckpoint implements Serializable {
+    private static final long serialVersionUID = -2740945061753870398L;
+
+    private final String collectionName;
+    private final long returnedCount;
+    // null if no hit was returned
+    private final Float tailBand;
+    private final float width;
+    private final List<Object> filteredIds;
+
+    SearchIteratorCheckpoint(String collectionName, long returnedCount, Float tailBand, float width,
+                             List<Object> filteredIds) {
+        this.collectionName = collectionName;
+        this.returnedCount = returnedCount;
+        this.tailBand = tailBand;
+        this.width = width;
+        this.filteredIds = Collections.unmodifiableList(new ArrayList<>(filteredIds));
+    }
+
+    /**
+     * Converts the checkpoint to a JSON string, numeric primary keys are kept exact.
+     *
+     * @return <code>String</code>
+     */
+    public String toJson() {
+        JsonObject json = new JsonObject();
+        json.addProperty("collectionName", collectionName);
+        json.addProperty("returnedCount", returnedCount);
+        json.addProperty("tailBand", tailBand);
+        json.addProperty("width", width);
+        JsonArray ids = new JsonArray();
+        filteredIds.forEach(id -> ids.add(IteratorCheckpoints.idToJson(id)));
+        json.add("filteredIds", ids);
+        return json.toString();
+    }
+
+    /**
+     * Restores a checkpoint from the string produced by {@link #toJson()}.
+     *
+     * @param json JSON string
+     * @return {@link SearchIteratorCheckpoint}
+     */
+    public static SearchIteratorCheckpoint fromJson(String json) {
+        try {
+            JsonObject obj = JsonParser.parseString(json).getAsJsonObject();
+            JsonElement tailBand = obj.get("tailBand");
+            List<Object> filteredIds = new ArrayList<>();
+            obj.getAsJsonArray("filteredIds").forEach(id -> filteredIds.add(IteratorCheckpoints.idFromJson(id)));
+            return new SearchIteratorCheckpoint(obj.get("collectionName").getAsString(),
+                    obj.get("returnedCount").getAsLong(),
+                    tailBand == null || tailBand.isJsonNull() ? null : tailBand.getAsFloat(),
+                    obj.get("width").getAsFloat(),
+                    filteredIds);
+        } catch (Exception e) {
+            throw new ParamException("Illegal search iterator checkpoint: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,583 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.milvus.orm.mapper;
+
+import com.google.common.primitives.Floats;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import io.milvus.exception.ParamException;
+import io.milvus.param.Constant;
+import io.milvus.param.InsertPlan;
+import io.milvus.param.dml.InsertParam;
+import io.milvus.response.FieldDataWrapper;
+import io.milvus.response.QueryResultsWrapper;
+import io.milvus.response.SearchResultsWrapper;
+import lombok.NonNull;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps entity objects to insert columns and query/search results to entity objects, without building
+ * JsonObject rows or RowRecord maps.
+ *
+ * The member fields of a class are resolved once and their accessors are cached as method handles.
+ * Primitive fields are read into primitive arrays (long[], int[], float[], double[]), and float[] fields
+ * into a float[][] column, so the insert path doesn't box these values.
+ *
+ * To build entities from results, the class must have a no-argument constructor, or a constructor taking
+ * all the mapped fields in declaration order, such as the canonical constructor of a record. Final fields
+ * can only be filled through the latter. Result values which are not collection fields are looked up in
+ * the dynamic field, and {@link #toFields(List, InsertPlan)} packs them into the dynamic field on insert.
+ */
+public final class RowMapper<T> {
+    private static final ConcurrentHashMap<Class<?>, RowMapper<?>> MAPPERS = new ConcurrentHashMap<>();
+    private static final Gson GSON = new Gson();
+
+    private final Class<T> clazz;
+    private final MethodHandle constructor;
+    // takes the values of all accessors as an Object[], used when there is no no-argument constructor
+    private final MethodHandle fieldsConstructor;
+    private final List<Accessor> accessors = new ArrayList<>();
+
+    private RowMapper(Class<T> clazz) {
+        this.clazz = clazz;
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+        MethodHandle ctor = null;
+        try {
+            Constructor<T> declared = clazz.getDeclaredConstructor();
+            declared.setAccessible(true);
+            ctor = lookup.unreflectConstructor(declared).asType(MethodType.methodType(Object.class));
+        } catch (NoSuchMethodException | IllegalAccessException | RuntimeException ignored) {
+            // the mapper can still be used for insert
+        }
+        this.constructor = ctor;
+
+        for (Class<?> c = clazz; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()) {
+                    continue;
+                }
+                accessors.add(new Accessor(lookup, field));
+            }
+        }
+        if (accessors.isEmpty()) {
+            throw new ParamException("No field can be mapped in class " + clazz.getName());
+        }
+
+        MethodHandle fieldsCtor = null;
+        if (ctor == null) {
+            Class<?>[] types = new Class<?>[accessors.size()];
+            for (int k = 0; k < types.length; k++) {
+                types[k] = accessors.get(k).type;
+            }
+            try {
+                Constructor<T> declared = clazz.getDeclaredConstructor(types);
+                declared.setAccessible(true);
+                fieldsCtor = lookup.unreflectConstructor(declared)
+                        .asType(MethodType.genericMethodType(types.length))
+                        .asSpreader(Object[].class, types.length);
+            } catch (NoSuchMethodException | IllegalAccessException | RuntimeException ignored) {
+                // the mapper can still be used for insert
+            }
+        }
+        this.fieldsConstructor = fieldsCtor;
+    }
+
+    /**
+     * Gets the mapper of a class. The mapper is created at the first call and cached.
+     *
+     * @param clazz entity class
+     * @return {@link RowMapper}
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> RowMapper<T> of(@NonNull Class<T> clazz) {
+        return (RowMapper<T>) MAPPERS.computeIfAbsent(clazz, RowMapper::new);
+    }
+
+    /**
+     * Reads the entities into column data for {@link InsertParam.Builder#withFields(List)}.
+     * Every insertable member becomes a column. Columns which are not in the collection schema are ignored
+     * by the insert, use {@link #toFields(List, InsertPlan)} to keep them in the dynamic field.
+     *
+     * @param entities entity objects
+     * @return a list of {@link InsertParam.Field}
+     */
+    public List<InsertParam.Field> toFields(@NonNull List<? extends T> entities) {
+        if (entities.isEmpty()) {
+            throw new ParamException("Entities cannot be empty");
+        }
+
+        List<InsertParam.Field> fields = new ArrayList<>(accessors.size());
+        try {
+            for (Accessor accessor : accessors) {
+                if (accessor.insertable) {
+                    fields.add(accessor.readColumn(entities));
+                }
+            }
+        } catch (ParamException e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new ParamException("Failed to read entities of " + clazz.getName() + ": " + t.getMessage());
+        }
+        return fields;
+    }
+
+    /**
+     * Reads the entities into column data for a collection.
+     * Members which are collection fields become columns. If the collection has dynamic field enabled,
+     * the other members are packed into the dynamic field column, otherwise a {@link ParamException}
+     * is thrown for them.
+     *
+     * @param entities entity objects
+     * @param plan {@link InsertPlan} of the collection
+     * @return a list of {@link InsertParam.Field}
+     */
+    public List<InsertParam.Field> toFields(@NonNull List<? extends T> entities, @NonNull InsertPlan plan) {
+        if (entities.isEmpty()) {
+            throw new ParamException("Entities cannot be empty");
+        }
+
+        Map<String, Integer> fieldIndex = plan.getFieldIndex();
+        List<Accessor> dynamicAccessors = new ArrayList<>();
+        for (Accessor accessor : accessors) {
+            if (accessor.insertable && !fieldIndex.containsKey(accessor.name)) {
+                if (!plan.isDynamicFieldEnabled()) {
+                    throw new ParamException(String.format("Field '%s' of %s is not in the collection schema",
+                            accessor.name, clazz.getName()));
+                }
+                dynamicAccessors.add(accessor);
+            }
+        }
+
+        List<InsertParam.Field> fields = new ArrayList<>(accessors.size());
+        try {
+            for (Accessor accessor : accessors) {
+                if (accessor.insertable && fieldIndex.containsKey(accessor.name)) {
+                    fields.add(accessor.readColumn(entities));
+                }
+            }
+            if (!dynamicAccessors.isEmpty()) {
+                List<JsonObject> dynamicValues = new ArrayList<>(entities.size());
+                for (T entity : entities) {
+                    JsonObject dynamicRow = new JsonObject();
+                    for (Accessor accessor : dynamicAccessors) {
+                        Object value = accessor.read(entity);
+                        if (value != null) {
+                            dynamicRow.add(accessor.name,
+                                    value instanceof JsonElement ? (JsonElement) value : GSON.toJsonTree(value));
+                        }
+                    }
+                    dynamicValues.add(dynamicRow);
+                }
+                fields.add(new InsertParam.Field(Constant.DYNAMIC_FIELD_NAME, dynamicValues));
+            }
+        } catch (ParamException e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new ParamException("Failed to read entities of " + clazz.getName() + ": " + t.getMessage());
+        }
+        return fields;
+    }
+
+    /**
+     * Builds entities from query results.
+     *
+     * @param results {@link QueryResultsWrapper}
+     * @return a list of entity objects
+     */
+    public List<T> fromQuery(@NonNull QueryResultsWrapper results) {
+        int rowCount = (int) results.getRowCount();
+        List<List<?>> columns = new ArrayList<>(accessors.size());
+        boolean needDynamic = false;
+        for (Accessor accessor : accessors) {
+            List<?> column = null;
+            try {
+                column = results.getFieldWrapper(accessor.name).getFieldData();
+            } catch (ParamException ignored) {
+                needDynamic = true;
+            }
+            columns.add(column);
+        }
+
+        List<?> dynamic = null;
+        if (needDynamic) {
+            try {
+                dynamic = results.getDynamicWrapper().getFieldData();
+            } catch (ParamException ignored) {
+                // fields neither returned nor in dynamic field are left as default values
+            }
+        }
+        return buildEntities(rowCount, columns, dynamic);
+    }
+
+    /**
+     * Builds entities from the results of one target vector of a search.
+     * The entities are in the same order as {@link SearchResultsWrapper#getIDScore(int)}.
+     *
+     * @param results {@link SearchResultsWrapper}
+     * @param indexOfTarget which target vector the results belong to
+     * @return a list of entity objects
+     */
+    public List<T> fromSearch(@NonNull SearchResultsWrapper results, int indexOfTarget) {
+        int rowCount = -1;
+        List<List<?>> columns = new ArrayList<>(accessors.size());
+        boolean needDynamic = false;
+        for (Accessor accessor : accessors) {
+            List<?> column = null;
+            try {
+                column = results.getFieldData(accessor.name, indexOfTarget);
+                rowCount = column.size();
+            } catch (ParamException ignored) {
+                needDynamic = true;
+            }
+            columns.add(column);
+        }
+
+        List<?> dynamic = null;
+        if (needDynamic) {
+            try {
+                dynamic = results.getFieldData(Constant.DYNAMIC_FIELD_NAME, indexOfTarget);
+                rowCount = dynamic.size();
+            } catch (ParamException ignored) {
+                // fields neither returned nor in dynamic field are left as default values
+            }
+        }
+        if (rowCount < 0) {
+            rowCount = results.getIDScore(indexOfTarget).size();
+        }
+        return buildEntities(rowCount, columns, dynamic);
+    }
+
+    private List<T> buildEntities(int rowCount, List<List<?>> columns, List<?> dynamic) {
+        if (constructor == null && fieldsConstructor == null) {
+            throw new ParamException("Class " + clazz.getName() + " has neither an accessible no-argument " +
+                    "constructor nor a constructor taking all its fields");
+        }
+
+        List<T> entities = new ArrayList<>(rowCount);
+        try {
+            Object[] values = new Object[accessors.size()];
+            for (int i = 0; i < rowCount; i++) {
+                JsonObject dynamicRow = null;
+                for (int k = 0; k < accessors.size(); k++) {
+                    Accessor accessor = accessors.get(k);
+                    List<?> column = columns.get(k);
+                    Object value = null;
+                    if (column != null) {
+                        value = column.get(i);
+                    } else if (dynamic != null) {
+                        if (dynamicRow == null) {
+                            JsonElement element = FieldDataWrapper.ParseJSONObject(dynamic.get(i));
+                            dynamicRow = element.isJsonObject() ? element.getAsJsonObject() : new JsonObject();
+                        }
+                        JsonElement element = dynamicRow.get(accessor.name);
+                        if (element != null && !element.isJsonNull()) {
+                            value = FieldDataWrapper.ValueOfJSONElement(element);
+                        }
+                    }
+                    values[k] = value;
+                }
+
+                T entity;
+                if (constructor != null) {
+                    entity = clazz.cast(constructor.invokeExact());
+                    for (int k = 0; k < accessors.size(); k++) {
+                        accessors.get(k).write(entity, values[k]);
+                    }
+                } else {
+                    for (int k = 0; k < accessors.size(); k++) {
+                        values[k] = accessors.get(k).convert(values[k]);
+                    }
+                    entity = clazz.cast(fieldsConstructor.invokeExact(values));
+                }
+                entities.add(entity);
+            }
+        } catch (ParamException e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new ParamException("Failed to build entities of " + clazz.getName() + ": " + t.getMessage());
+        }
+        return entities;
+    }
+
+    private enum Kind {
+        LONG, INT, SHORT, BYTE, FLOAT, DOUBLE, FLOAT_VECTOR, OBJECT
+    }
+
+    private static final class Accessor {
+        private final String name;
+        private final boolean insertable;
+        private final Class<?> type;
+        private final Kind kind;
+        // value passed to a constructor when the result has no value of the field
+        private final Object defaultValue;
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+
+        private Accessor(MethodHandles.Lookup lookup, Field field) {
+            MilvusField annotation = field.getAnnotation(MilvusField.class);
+            this.name = (annotation == null || annotation.name().isEmpty()) ? field.getName() : annotation.name();
+            this.insertable = annotation == null || annotation.insert();
+            this.type = field.getType();
+
+            if (type == long.class) {
+                kind = Kind.LONG;
+            } else if (type == int.class) {
+                kind = Kind.INT;
+            } else if (type == short.class) {
+                kind = Kind.SHORT;
+            } else if (type == byte.class) {
+                kind = Kind.BYTE;
+            } else if (type == float.class) {
+                kind = Kind.FLOAT;
+            } else if (type == double.class) {
+                kind = Kind.DOUBLE;
+            } else if (type == float[].class) {
+                kind = Kind.FLOAT_VECTOR;
+            } else {
+                kind = Kind.OBJECT;
+            }
+            this.defaultValue = type.isPrimitive() ? Array.get(Array.newInstance(type, 1), 0) : null;
+
+            // getters of primitive fields keep their return types, others return Object
+            Class<?> getterType = (type.isPrimitive() && type != boolean.class && type != char.class) ? type : Object.class;
+            try {
+                field.setAccessible(true);
+                this.getter = lookup.unreflectGetter(field)
+                        .asType(MethodType.methodType(kind == Kind.OBJECT ? Object.class : getterType, Object.class));
+                MethodHandle set = null;
+                if (!Modifier.isFinal(field.getModifiers())) {
+                    set = lookup.unreflectSetter(field)
+                            .asType(MethodType.methodType(void.class, Object.class,
+                                    kind == Kind.OBJECT ? Object.class : getterType));
+                }
+                this.setter = set;
+            } catch (IllegalAccessException | RuntimeException e) {
+                throw new ParamException(String.format("Field '%s' of %s is not accessible: %s",
+                        field.getName(), field.getDeclaringClass().getName(), e.getMessage()));
+            }
+        }
+
+        private InsertParam.Field readColumn(List<?> entities) throws Throwable {
+            int count = entities.size();
+            switch (kind) {
+                case LONG: {
+                    long[] values = new long[count];
+                    for (int i = 0; i < count; i++) {
+                        values[i] = (long) getter.invokeExact((Object) entities.get(i));
+                    }
+                    return new InsertParam.Field(name, values);
+                }
+                case INT: {
+                    int[] values = new int[count];
+                    for (int i = 0; i < count; i++) {
+                        values[i] = (int) getter.invokeExact((Object) entities.get(i));
+                    }
+                    return new InsertParam.Field(name, values);
+                }
+                case SHORT: {
+                    int[] values = new int[count];
+                    for (int i = 0; i < count; i++) {
+                        values[i] = (short) getter.invokeExact((Object) entities.get(i));
+                    }
+                    return new InsertParam.Field(name, values);
+                }
+                case BYTE: {
+                    int[] values = new int[count];
+                    for (int i = 0; i < count; i++) {
+                        values[i] = (byte) getter.invokeExact((Object) entities.get(i));
+                    }
+                    return new InsertParam.Field(name, values);
+                }
+                case FLOAT: {
+                    float[] values = new float[count];
+                    for (int i = 0; i < count; i++) {
+                        values[i] = (float) getter.invokeExact((Object) entities.get(i));
+                    }
+                    return new InsertParam.Field(name, values);
+                }
+                case DOUBLE: {
+                    double[] values = new double[count];
+                    for (int i = 0; i < count; i++) {
+                        values[i] = (double) getter.invokeExact((Object) entities.get(i));
+                    }
+                    return new InsertParam.Field(name, values);
+                }
+                case FLOAT_VECTOR: {
+                    float[][] values = new float[count][];
+                    for (int i = 0; i < count; i++) {
+                        values[i] = (float[]) (Object) getter.invokeExact((Object) entities.get(i));
+                    }
+                    return new InsertParam.Field(name, values);
+                }
+                default: {
+                    List<Object> values = new ArrayList<>(count);
+                    for (int i = 0; i < count; i++) {
+                        values.add((Object) getter.invokeExact((Object) entities.get(i)));
+                    }
+                    return new InsertParam.Field(name, values);
+                }
+            }
+        }
+
+        private Object read(Object entity) throws Throwable {
+            switch (kind) {
+                case LONG:
+                    return (long) getter.invokeExact(entity);
+                case INT:
+                    return (int) getter.invokeExact(entity);
+                case SHORT:
+                    return (short) getter.invokeExact(entity);
+                case BYTE:
+                    return (byte) getter.invokeExact(entity);
+                case FLOAT:
+                    return (float) getter.invokeExact(entity);
+                case DOUBLE:
+                    return (double) getter.invokeExact(entity);
+                case FLOAT_VECTOR:
+                    return (float[]) (Object) getter.invokeExact(entity);
+                default:
+                    return (Object) getter.invokeExact(entity);
+            }
+        }
+
+        private Object convert(Object value) {
+            if (value == null) {
+                return defaultValue;
+            }
+
+            switch (kind) {
+                case LONG:
+                    return toNumber(value).longValue();
+                case INT:
+                    return toNumber(value).intValue();
+                case SHORT:
+                    return toNumber(value).shortValue();
+                case BYTE:
+                    return toNumber(value).byteValue();
+                case FLOAT:
+                    return toNumber(value).floatValue();
+                case DOUBLE:
+                    return toNumber(value).doubleValue();
+                case FLOAT_VECTOR:
+                    return toFloatVector(value);
+                default:
+                    return convertObject(value);
+            }
+        }
+
+        private void write(Object entity, Object value) throws Throwable {
+            if (setter == null || value == null) {
+                return;
+            }
+
+            switch (kind) {
+                case LONG:
+                    setter.invokeExact(entity, toNumber(value).longValue());
+                    break;
+                case INT:
+                    setter.invokeExact(entity, toNumber(value).intValue());
+                    break;
+                case SHORT:
+                    setter.invokeExact(entity, toNumber(value).shortValue());
+                    break;
+                case BYTE:
+                    setter.invokeExact(entity, toNumber(value).byteValue());
+                    break;
+                case FLOAT:
+                    setter.invokeExact(entity, toNumber(value).floatValue());
+                    break;
+                case DOUBLE:
+                    setter.invokeExact(entity, toNumber(value).doubleValue());
+                    break;
+                case FLOAT_VECTOR:
+                    setter.invokeExact(entity, (Object) toFloatVector(value));
+                    break;
+                default:
+                    setter.invokeExact(entity, convertObject(value));
+                    break;
+            }
+        }
+
+        private Number toNumber(Object value) {
+            if (value instanceof Number) {
+                return (Number) value;
+            }
+            throw new ParamException(String.format("Value of '%s' is not a number: %s", name, value));
+        }
+
+        private float[] toFloatVector(Object value) {
+            if (!(value instanceof Collection)) {
+                throw new ParamException(String.format("Value of '%s' is not a float vector", name));
+            }
+            @SuppressWarnings("unchecked")
+            Collection<? extends Number> vector = (Collection<? extends Number>) value;
+            return Floats.toArray(vector);
+        }
+
+        private Object convertObject(Object value) {
+            Class<?> target = type.isPrimitive() ? (type == boolean.class ? Boolean.class : Character.class) : type;
+            if (target.isInstance(value)) {
+                return value;
+            }
+
+            if (value instanceof Number) {
+                Number number = (Number) value;
+                if (target == Long.class) {
+                    return number.longValue();
+                } else if (target == Integer.class) {
+                    return number.intValue();
+                } else if (target == Short.class) {
+                    return number.shortValue();
+                } else if (target == Byte.class) {
+                    return number.byteValue();
+                } else if (target == Float.class) {
+                    return number.floatValue();
+                } else if (target == Double.class) {
+                    return number.doubleValue();
+                }
+            }
+
+            // JSON field values are returned as strings
+            if (JsonElement.class.isAssignableFrom(target) && (value instanceof String || value instanceof byte[])) {
+                JsonElement element = FieldDataWrapper.ParseJSONObject(value);
+                if (target.isInstance(element)) {
+                    return element;
+                }
+            }
+
+            throw new ParamException(String.format("Value of '%s' cannot be assigned to %s: %s",
+                    name, target.getSimpleName(), value.getClass().getSimpleName()));
+        }
+    }
+}
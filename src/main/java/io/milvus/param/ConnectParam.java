@@ -19,7 +19,9 @@
 
 package io.milvus.param;
 
+import io.milvus.common.utils.ResultCache;
 import io.milvus.exception.ParamException;
+import io.milvus.param.dml.SearchCoalescerParam;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.ToString;
@@ -27,6 +29,8 @@ import org.apache.commons.lang3.StringUtils;
 
 import java.nio.charset.StandardCharsets;
 import java.util.Base64;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
 
@@ -58,6 +62,11 @@ public class ConnectParam {
     private final String serverPemPath;
     private final String serverName;
     private final String userName;
+    @ToString.Exclude
+    private final Executor asyncExecutor;
+    private final SearchCoalescerParam searchCoalescerParam;
+    @ToString.Exclude
+    private final ResultCache resultCache;
 
     protected ConnectParam(@NonNull Builder builder) {
         this.host = builder.host;
@@ -79,6 +88,9 @@ public class ConnectParam {
         this.serverPemPath = builder.serverPemPath;
         this.serverName = builder.serverName;
         this.userName = builder.userName;
+        this.asyncExecutor = builder.asyncExecutor;
+        this.searchCoalescerParam = builder.searchCoalescerParam;
+        this.resultCache = builder.resultCache;
     }
 
     public static Builder newBuilder() {
@@ -109,6 +121,12 @@ public class ConnectParam {
 
         protected boolean secure = false;
         private long idleTimeoutMs = TimeUnit.MILLISECONDS.convert(24, TimeUnit.HOURS);
+        // encodes requests of insertAsync()/upsertAsync(), the client doesn't shut it down
+        private Executor asyncExecutor = ForkJoinPool.commonPool();
+        // merges concurrent compatible searches into multi-nq requests, disabled if null
+        private SearchCoalescerParam searchCoalescerParam;
+        // caches results of search()/query(), disabled if null
+        private ResultCache resultCache;
         private String authorization = Base64.getEncoder().encodeToString("root:milvus".getBytes(StandardCharsets.UTF_8));
 
         // username/password is encoded into authorization, this member is to keep the origin username for MilvusServiceClient.connect()
@@ -263,6 +281,43 @@ public class ConnectParam {
             return this;
         }
 
+        /**
+         * Sets the executor to encode requests of the async methods, so that the caller thread is never blocked
+         * by encoding. Default value is ForkJoinPool.commonPool(). The client doesn't shut down the executor.
+         *
+         * @param asyncExecutor executor for async methods
+         * @return <code>Builder</code>
+         */
+        public Builder withAsyncExecutor(@NonNull Executor asyncExecutor) {
+            this.asyncExecutor = asyncExecutor;
+            return this;
+        }
+
+        /**
+         * Enables search coalescing: concurrent search/searchAsync calls which only differ in their target vectors
+         * are merged into one multi-nq request within a small time window. Disabled by default.
+         *
+         * @param searchCoalescerParam window and max nq of coalescing
+         * @return <code>Builder</code>
+         */
+        public Builder withSearchCoalescing(@NonNull SearchCoalescerParam searchCoalescerParam) {
+            this.searchCoalescerParam = searchCoalescerParam;
+            return this;
+        }
+
+        /**
+         * Enables the client side cache of search/query results. Disabled by default.
+         * Insert/upsert/delete/dropCollection through this client invalidate the cached results of the collection.
+         * Only requests with an explicit consistency level other than STRONG are cached.
+         *
+         * @param resultCache the cache, see {@link ResultCache#newBuilder()}
+         * @return <code>Builder</code>
+         */
+        public Builder withResultCache(@NonNull ResultCache resultCache) {
+            this.resultCache = resultCache;
+            return this;
+        }
+
         /**
          * Sets the username and password for this connection
          * @param username current user
@@ -0,0 +1,262 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.milvus.param;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import io.milvus.exception.ParamException;
+import io.milvus.grpc.DataType;
+import io.milvus.grpc.FieldData;
+import io.milvus.param.collection.FieldType;
+import io.milvus.param.dml.InsertParam;
+import io.milvus.response.DescCollResponseWrapper;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NonNull;
+import org.apache.commons.collections4.CollectionUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Insert/upsert plan compiled from a collection schema.
+ * The schema fields are converted once, and the lookup table, type error messages and dynamic field policy
+ * are prepared for all the requests of the collection. A plan is immutable, it is cached together with the
+ * collection schema and shared by concurrent requests.
+ */
+@Getter
+public class InsertPlan {
+    private static final FieldType DYNAMIC_FIELD_TYPE = FieldType.newBuilder()
+            .withName(Constant.DYNAMIC_FIELD_NAME)
+            .withDataType(DataType.JSON)
+            .withIsDynamic(true)
+            .build();
+
+    private final DescCollResponseWrapper wrapper;
+    private final List<FieldType> fields;
+    private final FieldType primaryField;
+    private final boolean partitionKeyEnabled;
+    private final boolean dynamicFieldEnabled;
+
+    // field name to index of fields
+    private final Map<String, Integer> fieldIndex;
+    // error message of each field for row insert, formatted once
+    @Getter(AccessLevel.NONE)
+    private final String[] typeErrorMsgs;
+
+    public InsertPlan(@NonNull DescCollResponseWrapper wrapper) {
+        this.wrapper = wrapper;
+        this.fields = Collections.unmodifiableList(wrapper.getFields());
+        this.dynamicFieldEnabled = wrapper.getEnableDynamicField();
+
+        Map<String, Integer> index = new HashMap<>();
+        this.typeErrorMsgs = new String[fields.size()];
+        FieldType primary = null;
+        boolean partitionKey = false;
+        for (int i = 0; i < fields.size(); i++) {
+            FieldType fieldType = fields.get(i);
+            index.put(fieldType.getName(), i);
+            typeErrorMsgs[i] = ParamUtils.getTypeErrorMsgForRowInsert(fieldType);
+            if (fieldType.isPrimaryKey()) {
+                primary = fieldType;
+            }
+            if (fieldType.isPartitionKey()) {
+                partitionKey = true;
+            }
+        }
+        this.fieldIndex = Collections.unmodifiableMap(index);
+        this.primaryField = primary;
+        this.partitionKeyEnabled = partitionKey;
+    }
+
+    /**
+     * Checks the partition name of a request.
+     * Return null if the partition name should not be set since the collection has partition key.
+     *
+     * @param collectionName collection name of the request
+     * @param partitionName partition name of the request
+     * @return the partition name to be set, or null
+     */
+    public String resolvePartitionName(String collectionName, String partitionName) {
+        if (partitionKeyEnabled) {
+            if (partitionName != null && !partitionName.isEmpty()) {
+                String msg = String.format("Collection %s has partition key, not allow to specify partition name",
+                        collectionName);
+                throw new ParamException(msg);
+            }
+            return null;
+        }
+        return partitionName;
+    }
+
+    /**
+     * Currently, not allow to upsert for collection whose primary key is auto-generated.
+     *
+     * @param collectionName collection name of the request
+     */
+    public void checkUpsert(String collectionName) {
+        if (primaryField != null && primaryField.isAutoID()) {
+            throw new ParamException(String.format("Upsert don't support autoID==True, collection: %s",
+                    collectionName));
+        }
+    }
+
+    /**
+     * Verifies the column data or row data and converts them to grpc FieldData.
+     * The output order is consisted with the collection schema, the dynamic field is the last one.
+     *
+     * @param rows row data, used when columnFields is empty
+     * @param columnFields column data
+     * @return a list of grpc FieldData
+     */
+    public List<FieldData> genFieldsData(List<JsonObject> rows, List<InsertParam.Field> columnFields) {
+        return genFieldsData(rows, columnFields, true);
+    }
+
+    /**
+     * Verifies the column data or row data and converts them to grpc FieldData.
+     *
+     * @param rows row data, used when columnFields is empty
+     * @param columnFields column data
+     * @param jsonNullAsMissing whether a JsonNull value of a row is treated as a missing field
+     * @return a list of grpc FieldData
+     */
+    public List<FieldData> genFieldsData(List<JsonObject> rows, List<InsertParam.Field> columnFields,
+                                         boolean jsonNullAsMissing) {
+        if (CollectionUtils.isNotEmpty(columnFields)) {
+            return genColumnFieldsData(columnFields);
+        }
+        return genRowFieldsData(rows, jsonNullAsMissing);
+    }
+
+    /**
+     * Verifies the column data by collection schema and converts them to grpc FieldData.
+     *
+     * @param columnFields column data
+     * @return a list of grpc FieldData
+     */
+    public List<FieldData> genColumnFieldsData(@NonNull List<InsertParam.Field> columnFields) {
+        Map<String, InsertParam.Field> inputs = new HashMap<>();
+        for (InsertParam.Field field : columnFields) {
+            inputs.putIfAbsent(field.getName(), field);
+        }
+
+        List<FieldData> fieldsData = new ArrayList<>(fields.size() + 1);
+        for (FieldType fieldType : fields) {
+            InsertParam.Field field = inputs.get(fieldType.getName());
+            if (field == null) {
+                if (!fieldType.isAutoID()) {
+                    throw new ParamException(String.format("The field: %s is not provided.", fieldType.getName()));
+                }
+                continue;
+            }
+            if (fieldType.isAutoID()) {
+                String msg = String.format("The primary key: %s is auto generated, no need to input.",
+                        fieldType.getName());
+                throw new ParamException(msg);
+            }
+            ParamUtils.checkFieldData(fieldType, field);
+            fieldsData.add(ParamUtils.genFieldData(fieldType, field));
+        }
+
+        if (dynamicFieldEnabled) {
+            InsertParam.Field field = inputs.get(Constant.DYNAMIC_FIELD_NAME);
+            if (field != null) {
+                ParamUtils.checkFieldData(DYNAMIC_FIELD_TYPE, field);
+                fieldsData.add(ParamUtils.genFieldData(DYNAMIC_FIELD_TYPE, field.getValues(), true));
+            }
+        }
+        return fieldsData;
+    }
+
+    /**
+     * Verifies the row data by collection schema and converts them to grpc FieldData.
+     * Each column is accumulated in a list pre-sized by the row count.
+     *
+     * @param rows row data
+     * @return a list of grpc FieldData
+     */
+    public List<FieldData> genRowFieldsData(@NonNull List<JsonObject> rows) {
+        return genRowFieldsData(rows, true);
+    }
+
+    /**
+     * Verifies the row data by collection schema and converts them to grpc FieldData.
+     * The V1 client treats a JsonNull value as a missing field, the V2 client passes it to the type check.
+     *
+     * @param rows row data
+     * @param jsonNullAsMissing whether a JsonNull value is treated as a missing field
+     * @return a list of grpc FieldData
+     */
+    public List<FieldData> genRowFieldsData(@NonNull List<JsonObject> rows, boolean jsonNullAsMissing) {
+        if (rows.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        int rowCount = rows.size();
+        List<List<Object>> columns = new ArrayList<>(fields.size());
+        for (FieldType fieldType : fields) {
+            columns.add(fieldType.isAutoID() ? null : new ArrayList<>(rowCount));
+        }
+        List<Object> dynamicColumn = dynamicFieldEnabled ? new ArrayList<>(rowCount) : null;
+
+        for (JsonObject row : rows) {
+            for (int i = 0; i < fields.size(); i++) {
+                FieldType fieldType = fields.get(i);
+                JsonElement rowFieldData = row.get(fieldType.getName());
+                if (rowFieldData != null && !(jsonNullAsMissing && rowFieldData.isJsonNull())) {
+                    if (fieldType.isAutoID()) {
+                        String msg = String.format("The primary key: %s is auto generated, no need to input.",
+                                fieldType.getName());
+                        throw new ParamException(msg);
+                    }
+                    columns.get(i).add(ParamUtils.checkFieldValue(fieldType, rowFieldData, typeErrorMsgs[i]));
+                } else if (!fieldType.isAutoID()) {
+                    String msg = String.format("The field: %s is not provided.", fieldType.getName());
+                    throw new ParamException(msg);
+                }
+            }
+
+            // the keys which are not schema fields are put into dynamic field
+            if (dynamicColumn != null) {
+                JsonObject dynamicField = new JsonObject();
+                for (Map.Entry<String, JsonElement> entry : row.entrySet()) {
+                    if (!fieldIndex.containsKey(entry.getKey())) {
+                        dynamicField.add(entry.getKey(), entry.getValue());
+                    }
+                }
+                dynamicColumn.add(dynamicField);
+            }
+        }
+
+        List<FieldData> fieldsData = new ArrayList<>(fields.size() + 1);
+        for (int i = 0; i < fields.size(); i++) {
+            if (columns.get(i) != null) {
+                fieldsData.add(ParamUtils.genFieldData(fields.get(i), columns.get(i)));
+            }
+        }
+        if (dynamicColumn != null) {
+            fieldsData.add(ParamUtils.genFieldData(DYNAMIC_FIELD_TYPE, dynamicColumn, true));
+        }
+        return fieldsData;
+    }
+}
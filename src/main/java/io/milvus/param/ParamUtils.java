@@ -22,7 +22,11 @@ package io.milvus.param;
 import com.google.gson.*;
 import com.google.gson.reflect.TypeToken;
 import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.UnsafeByteOperations;
+import com.google.protobuf.WireFormat;
 import io.milvus.common.clientenum.ConsistencyLevelEnum;
+import io.milvus.common.utils.Float16Utils;
 import io.milvus.common.utils.JacksonUtils;
 import io.milvus.exception.ParamException;
 import io.milvus.grpc.*;
@@ -37,8 +41,10 @@ import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.collections4.MapUtils;
 import org.apache.commons.lang3.StringUtils;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -47,6 +53,9 @@ import java.util.stream.Collectors;
  */
 public class ParamUtils {
     private static final Gson GSON_INSTANCE = new Gson();
+    private static final java.lang.reflect.Type FLOAT_LIST_TYPE = new TypeToken<List<Float>>() {}.getType();
+    private static final java.lang.reflect.Type BYTE_ARRAY_TYPE = new TypeToken<byte[]>() {}.getType();
+    private static final java.lang.reflect.Type SPARSE_VECTOR_TYPE = new TypeToken<SortedMap<Long, Float>>() {}.getType();
 
     private static HashMap<DataType, String> getTypeErrorMsgForColumnInsert() {
         final HashMap<DataType, String> typeErrMsg = new HashMap<>();
@@ -63,9 +72,9 @@ public class ParamUtils {
         typeErrMsg.put(DataType.Array, "Type mismatch for field '%s': Array field value type must be List<Object>, each object type must be element_type, and the array length must be shorter than max_capacity.");
         typeErrMsg.put(DataType.FloatVector, "Type mismatch for field '%s': Float vector field's value type must be List<Float>.");
         typeErrMsg.put(DataType.BinaryVector, "Type mismatch for field '%s': Binary vector field's value type must be ByteBuffer.");
-        typeErrMsg.put(DataType.Float16Vector, "Type mismatch for field '%s': Float16 vector field's value type must be ByteBuffer.");
-        typeErrMsg.put(DataType.BFloat16Vector, "Type mismatch for field '%s': BFloat16 vector field's value type must be ByteBuffer.");
-        typeErrMsg.put(DataType.SparseFloatVector, "Type mismatch for field '%s': SparseFloatVector vector field's value type must be SortedMap<Long, Float>.");
+        typeErrMsg.put(DataType.Float16Vector, "Type mismatch for field '%s': Float16 vector field's value type must be ByteBuffer or float[].");
+        typeErrMsg.put(DataType.BFloat16Vector, "Type mismatch for field '%s': BFloat16 vector field's value type must be ByteBuffer or float[].");
+        typeErrMsg.put(DataType.SparseFloatVector, "Type mismatch for field '%s': SparseFloatVector vector field's value type must be SortedMap<Long, Float> or SparseVector.");
         return typeErrMsg;
     }
 
@@ -90,11 +99,78 @@ public class ParamUtils {
         return typeErrMsg;
     }
 
+    /**
+     * Formats the type error message of a field for row insert.
+     */
+    static String getTypeErrorMsgForRowInsert(FieldType fieldSchema) {
+        String msg = getTypeErrorMsgForRowInsert().get(fieldSchema.getDataType());
+        if (msg == null) {
+            msg = "Type mismatch for field '%s': the field type is illegal.";
+        }
+        return String.format(msg, fieldSchema.getName());
+    }
+
     public static void checkFieldData(FieldType fieldSchema, InsertParam.Field fieldData) {
+        if (fieldData.isPrimitive()) {
+            checkPrimitiveFieldData(fieldSchema, fieldData);
+            return;
+        }
         List<?> values = fieldData.getValues();
         checkFieldData(fieldSchema, values, false);
     }
 
+    private static void checkPrimitiveFieldData(FieldType fieldSchema, InsertParam.Field fieldData) {
+        Object values = fieldData.getPrimitiveValues();
+        DataType dataType = fieldSchema.getDataType();
+        boolean matched;
+        switch (dataType) {
+            case Int64:
+                matched = values instanceof long[];
+                break;
+            case Int32:
+            case Int16:
+            case Int8:
+                matched = values instanceof int[];
+                break;
+            case Float:
+                matched = (values instanceof float[]) && fieldData.getDimension() == 0;
+                break;
+            case Double:
+                matched = values instanceof double[];
+                break;
+            case FloatVector:
+            case Float16Vector:
+            case BFloat16Vector:
+                // float16/bfloat16 vectors are encoded from float32 values by genFieldData()
+                matched = (values instanceof float[][]) || fieldData.getDimension() > 0;
+                break;
+            default:
+                matched = false;
+                break;
+        }
+        if (!matched) {
+            String msg = "Type mismatch for field '%s': primitive array is not applicable for %s field.";
+            throw new ParamException(String.format(msg, fieldSchema.getName(), dataType.name()));
+        }
+
+        if (dataType == DataType.FloatVector || dataType == DataType.Float16Vector || dataType == DataType.BFloat16Vector) {
+            int dim = fieldSchema.getDimension();
+            if (values instanceof float[][]) {
+                float[][] vectors = (float[][]) values;
+                for (int i = 0; i < vectors.length; ++i) {
+                    int realDim = (vectors[i] == null) ? 0 : vectors[i].length;
+                    if (realDim != dim) {
+                        String msg = "Incorrect dimension for field '%s': the no.%d vector's dimension: %d is not equal to field's dimension: %d";
+                        throw new ParamException(String.format(msg, fieldSchema.getName(), i, realDim, dim));
+                    }
+                }
+            } else if (fieldData.getDimension() != dim) {
+                String msg = "Incorrect dimension for field '%s': the vectors dimension: %d is not equal to field's dimension: %d";
+                throw new ParamException(String.format(msg, fieldSchema.getName(), fieldData.getDimension(), dim));
+            }
+        }
+    }
+
     private static int calculateBinVectorDim(DataType dataType, int byteCount) {
         if (dataType == DataType.BinaryVector) {
             return byteCount*8; // for BinaryVector, each byte is 8 dimensions
@@ -147,14 +223,17 @@ public class ParamUtils {
                 int dim = fieldSchema.getDimension();
                 for (int i = 0; i < values.size(); ++i) {
                     Object value  = values.get(i);
-                    // is ByteBuffer?
-                    if (!(value instanceof ByteBuffer)) {
+                    // float16/bfloat16 vectors also accept float[], encoded by genVectorField()
+                    int real_dim;
+                    if (value instanceof ByteBuffer) {
+                        real_dim = calculateBinVectorDim(dataType, ((ByteBuffer)value).position());
+                    } else if (value instanceof float[] && dataType != DataType.BinaryVector) {
+                        real_dim = ((float[])value).length;
+                    } else {
                         throw new ParamException(String.format(errMsgs.get(dataType), fieldSchema.getName()));
                     }
 
                     // check dimension
-                    ByteBuffer v = (ByteBuffer)value;
-                    int real_dim = calculateBinVectorDim(dataType, v.position());
                     if (real_dim != dim) {
                         String msg = "Incorrect dimension for field '%s': the no.%d vector's dimension: %d is not equal to field's dimension: %d";
                         throw new ParamException(String.format(msg, fieldSchema.getName(), i, real_dim, dim));
@@ -164,6 +243,13 @@ public class ParamUtils {
             }
             case SparseFloatVector:
                 for (Object value : values) {
+                    if (value instanceof SparseVector) {
+                        if (((SparseVector) value).size() == 0) { // not allow empty value for sparse vector
+                            String msg = "Not allow empty SparseVector for sparse vector field '%s'";
+                            throw new ParamException(String.format(msg, fieldSchema.getName()));
+                        }
+                        continue;
+                    }
                     if (!(value instanceof SortedMap)) {
                         throw new ParamException(String.format(errMsgs.get(dataType), fieldSchema.getName()));
                     }
@@ -253,17 +339,28 @@ public class ParamUtils {
     }
 
     public static Object checkFieldValue(FieldType fieldSchema, JsonElement value) {
-        HashMap<DataType, String> errMsgs = getTypeErrorMsgForRowInsert();
+        return checkFieldValue(fieldSchema, value, getTypeErrorMsgForRowInsert(fieldSchema));
+    }
+
+    /**
+     * Verifies a row value by the field schema and converts it for genFieldData().
+     *
+     * @param fieldSchema field schema
+     * @param value row value
+     * @param typeErrorMsg the formatted error message if the value type mismatches
+     * @return the converted value
+     */
+    public static Object checkFieldValue(FieldType fieldSchema, JsonElement value, String typeErrorMsg) {
         DataType dataType = fieldSchema.getDataType();
 
         switch (dataType) {
             case FloatVector: {
                 if (!(value.isJsonArray())) {
-                    throw new ParamException(String.format(errMsgs.get(dataType), fieldSchema.getName()));
+                    throw new ParamException(typeErrorMsg);
                 }
                 int dim = fieldSchema.getDimension();
                 try {
-                    List<Float> vector = GSON_INSTANCE.fromJson(value, new TypeToken<List<Float>>() {}.getType());
+                    List<Float> vector = GSON_INSTANCE.fromJson(value, FLOAT_LIST_TYPE);
                     if (vector.size() != dim) {
                         String msg = "Incorrect dimension for field '%s': dimension: %d is not equal to field's dimension: %d";
                         throw new ParamException(String.format(msg, fieldSchema.getName(), vector.size(), dim));
@@ -278,11 +375,11 @@ public class ParamUtils {
             case Float16Vector:
             case BFloat16Vector: {
                 if (!(value.isJsonArray())) {
-                    throw new ParamException(String.format(errMsgs.get(dataType), fieldSchema.getName()));
+                    throw new ParamException(typeErrorMsg);
                 }
                 int dim = fieldSchema.getDimension();
                 try {
-                    byte[] v = GSON_INSTANCE.fromJson(value, new TypeToken<byte[]>() {}.getType());
+                    byte[] v = GSON_INSTANCE.fromJson(value, BYTE_ARRAY_TYPE);
                     int real_dim = calculateBinVectorDim(dataType, v.length);
                     if (real_dim != dim) {
                         String msg = "Incorrect dimension for field '%s': dimension: %d is not equal to field's dimension: %d";
@@ -296,46 +393,46 @@ public class ParamUtils {
             }
             case SparseFloatVector:
                 if (!(value.isJsonObject())) {
-                    throw new ParamException(String.format(errMsgs.get(dataType), fieldSchema.getName()));
+                    throw new ParamException(typeErrorMsg);
                 }
                 try {
                     // return SortedMap<Long, Float> for genFieldData()
-                    return GSON_INSTANCE.fromJson(value, new TypeToken<SortedMap<Long, Float>>() {}.getType());
+                    return GSON_INSTANCE.fromJson(value, SPARSE_VECTOR_TYPE);
                 } catch (JsonSyntaxException e) {
                     throw new ParamException(String.format("Unable to convert JsonObject to SortedMap<Long, Float> for field '%s'. Reason: %s",
                             fieldSchema.getName(), e.getCause().getMessage()));
                 }
             case Int64:
                 if (!(value.isJsonPrimitive())) {
-                    throw new ParamException(String.format(errMsgs.get(dataType), fieldSchema.getName()));
+                    throw new ParamException(typeErrorMsg);
                 }
                 return value.getAsLong(); // return long for genFieldData()
             case Int32:
             case Int16:
             case Int8:
                 if (!(value.isJsonPrimitive())) {
-                    throw new ParamException(String.format(errMsgs.get(dataType), fieldSchema.getName()));
+                    throw new ParamException(typeErrorMsg);
                 }
                 return value.getAsInt(); // return int for genFieldData()
             case Bool:
                 if (!(value.isJsonPrimitive())) {
-                    throw new ParamException(String.format(errMsgs.get(dataType), fieldSchema.getName()));
+                    throw new ParamException(typeErrorMsg);
                 }
                 return value.getAsBoolean(); // return boolean for genFieldData()
             case Float:
                 if (!(value.isJsonPrimitive())) {
-                    throw new ParamException(String.format(errMsgs.get(dataType), fieldSchema.getName()));
+                    throw new ParamException(typeErrorMsg);
                 }
                 return value.getAsFloat(); // return float for genFieldData()
             case Double:
                 if (!(value.isJsonPrimitive())) {
-                    throw new ParamException(String.format(errMsgs.get(dataType), fieldSchema.getName()));
+                    throw new ParamException(typeErrorMsg);
                 }
                 return value.getAsDouble(); // return double for genFieldData()
             case VarChar:
             case String:
                 if (!(value.isJsonPrimitive())) {
-                    throw new ParamException(String.format(errMsgs.get(dataType), fieldSchema.getName()));
+                    throw new ParamException(typeErrorMsg);
                 }
                 JsonPrimitive p = value.getAsJsonPrimitive();
                 if (!p.isString()) {
@@ -344,19 +441,19 @@ public class ParamUtils {
 
                 String str = p.getAsString();
                 if (str.length() > fieldSchema.getMaxLength()) {
-                    throw new ParamException(String.format(errMsgs.get(dataType), fieldSchema.getName()));
+                    throw new ParamException(typeErrorMsg);
                 }
                 return str; // return String for genFieldData()
             case JSON:
                 return value; // return JsonElement for genFieldData()
             case Array:
                 if (!(value.isJsonArray())) {
-                    throw new ParamException(String.format(errMsgs.get(dataType), fieldSchema.getName()));
+                    throw new ParamException(typeErrorMsg);
                 }
 
                 List<Object> array = convertJsonArray(value.getAsJsonArray(), fieldSchema.getElementType(), fieldSchema.getName());
                 if (array.size() > fieldSchema.getMaxCapacity()) {
-                    throw new ParamException(String.format(errMsgs.get(dataType), fieldSchema.getName()));
+                    throw new ParamException(typeErrorMsg);
                 }
                 return array; // return List<Object> for genFieldData()
             default:
@@ -416,12 +513,29 @@ public class ParamUtils {
         }
     }
 
+    /**
+     * Verify the column data by collection schema and convert them to grpc FieldData.
+     * The output order is consisted with the collection schema, the dynamic field is the last one.
+     *
+     * @param plan insert plan compiled from the schema of the collection, usually the cached one
+     * @param fields column data
+     * @return List of FieldData
+     */
+    public static List<FieldData> genColumnFieldsData(InsertPlan plan, List<InsertParam.Field> fields) {
+        return plan.genColumnFieldsData(fields);
+    }
+
     public static class InsertBuilderWrapper {
         private InsertRequest.Builder insertBuilder;
         private UpsertRequest.Builder upsertBuilder;
 
         public InsertBuilderWrapper(@NonNull InsertParam requestParam,
                                     DescCollResponseWrapper wrapper) {
+            this(requestParam, new InsertPlan(wrapper));
+        }
+
+        public InsertBuilderWrapper(@NonNull InsertParam requestParam,
+                                    @NonNull InsertPlan plan) {
             String collectionName = requestParam.getCollectionName();
 
             // generate insert request builder
@@ -433,19 +547,18 @@ public class ParamUtils {
             if (StringUtils.isNotEmpty(requestParam.getDatabaseName())) {
                 insertBuilder.setDbName(requestParam.getDatabaseName());
             }
-            fillFieldsData(requestParam, wrapper);
+            fillFieldsData(requestParam, plan);
         }
 
         public InsertBuilderWrapper(@NonNull UpsertParam requestParam,
                                     DescCollResponseWrapper wrapper) {
-            String collectionName = requestParam.getCollectionName();
+            this(requestParam, new InsertPlan(wrapper));
+        }
 
-            // currently, not allow to upsert for collection whose primary key is auto-generated
-            FieldType pk = wrapper.getPrimaryField();
-            if (pk.isAutoID()) {
-                throw new ParamException(String.format("Upsert don't support autoID==True, collection: %s",
-                        requestParam.getCollectionName()));
-            }
+        public InsertBuilderWrapper(@NonNull UpsertParam requestParam,
+                                    @NonNull InsertPlan plan) {
+            String collectionName = requestParam.getCollectionName();
+            plan.checkUpsert(collectionName);
 
             // generate upsert request builder
             MsgBase msgBase = MsgBase.newBuilder().setMsgType(MsgType.Insert).build();
@@ -456,7 +569,7 @@ public class ParamUtils {
             if (StringUtils.isNotEmpty(requestParam.getDatabaseName())) {
                 upsertBuilder.setDbName(requestParam.getDatabaseName());
             }
-            fillFieldsData(requestParam, wrapper);
+            fillFieldsData(requestParam, plan);
         }
 
         private void addFieldsData(io.milvus.grpc.FieldData value) {
@@ -475,136 +588,16 @@ public class ParamUtils {
             }
         }
 
-        private void fillFieldsData(InsertParam requestParam, DescCollResponseWrapper wrapper) {
+        private void fillFieldsData(InsertParam requestParam, InsertPlan plan) {
             // set partition name only when there is no partition key field
-            String partitionName = requestParam.getPartitionName();
-            boolean isPartitionKeyEnabled = false;
-            for (FieldType fieldType : wrapper.getFields()) {
-                if (fieldType.isPartitionKey()) {
-                    isPartitionKeyEnabled = true;
-                    break;
-                }
-            }
-            if (isPartitionKeyEnabled) {
-                if (partitionName != null && !partitionName.isEmpty()) {
-                    String msg = String.format("Collection %s has partition key, not allow to specify partition name",
-                            requestParam.getCollectionName());
-                    throw new ParamException(msg);
-                }
-            } else if (partitionName != null) {
+            String partitionName = plan.resolvePartitionName(requestParam.getCollectionName(),
+                    requestParam.getPartitionName());
+            if (partitionName != null) {
                 this.setPartitionName(partitionName);
             }
 
             // convert insert data
-            List<InsertParam.Field> columnFields = requestParam.getFields();
-            List<JsonObject> rowFields = requestParam.getRows();
-
-            if (CollectionUtils.isNotEmpty(columnFields)) {
-                checkAndSetColumnData(wrapper, columnFields);
-            } else {
-                checkAndSetRowData(wrapper, rowFields);
-            }
-        }
-
-        private void checkAndSetColumnData(DescCollResponseWrapper wrapper, List<InsertParam.Field> fields) {
-            List<FieldType> fieldTypes = wrapper.getFields();
-
-            // gen fieldData
-            // make sure the field order must be consisted with collection schema
-            for (FieldType fieldType : fieldTypes) {
-                boolean found = false;
-                for (InsertParam.Field field : fields) {
-                    if (field.getName().equals(fieldType.getName())) {
-                        if (fieldType.isAutoID()) {
-                            String msg = String.format("The primary key: %s is auto generated, no need to input.",
-                                    fieldType.getName());
-                            throw new ParamException(msg);
-                        }
-                        checkFieldData(fieldType, field);
-
-                        found = true;
-                        this.addFieldsData(genFieldData(fieldType, field.getValues()));
-                        break;
-                    }
-
-                }
-                if (!found && !fieldType.isAutoID()) {
-                    throw new ParamException(String.format("The field: %s is not provided.", fieldType.getName()));
-                }
-            }
-
-            // deal with dynamicField
-            if (wrapper.getEnableDynamicField()) {
-                for (InsertParam.Field field : fields) {
-                    if (field.getName().equals(Constant.DYNAMIC_FIELD_NAME)) {
-                        FieldType dynamicType = FieldType.newBuilder()
-                                .withName(Constant.DYNAMIC_FIELD_NAME)
-                                .withDataType(DataType.JSON)
-                                .withIsDynamic(true)
-                                .build();
-                        checkFieldData(dynamicType, field);
-                        this.addFieldsData(genFieldData(dynamicType, field.getValues(), true));
-                        break;
-                    }
-                }
-            }
-        }
-
-        private void checkAndSetRowData(DescCollResponseWrapper wrapper, List<JsonObject> rows) {
-            List<FieldType> fieldTypes = wrapper.getFields();
-
-            Map<String, InsertDataInfo> nameInsertInfo = new HashMap<>();
-            InsertDataInfo insertDynamicDataInfo = InsertDataInfo.builder().fieldType(
-                    FieldType.newBuilder()
-                            .withName(Constant.DYNAMIC_FIELD_NAME)
-                            .withDataType(DataType.JSON)
-                            .withIsDynamic(true)
-                            .build())
-                    .data(new LinkedList<>()).build();
-            for (JsonObject row : rows) {
-                for (FieldType fieldType : fieldTypes) {
-                    String fieldName = fieldType.getName();
-                    InsertDataInfo insertDataInfo = nameInsertInfo.getOrDefault(fieldName, InsertDataInfo.builder()
-                            .fieldType(fieldType).data(new LinkedList<>()).build());
-
-                    // check normalField
-                    JsonElement rowFieldData = row.get(fieldName);
-                    if (rowFieldData != null && !rowFieldData.isJsonNull()) {
-                        if (fieldType.isAutoID()) {
-                            String msg = String.format("The primary key: %s is auto generated, no need to input.", fieldName);
-                            throw new ParamException(msg);
-                        }
-                        Object fieldValue = checkFieldValue(fieldType, rowFieldData);
-                        insertDataInfo.getData().add(fieldValue);
-                        nameInsertInfo.put(fieldName, insertDataInfo);
-                    } else {
-                        // check if autoId
-                        if (!fieldType.isAutoID()) {
-                            String msg = String.format("The field: %s is not provided.", fieldType.getName());
-                            throw new ParamException(msg);
-                        }
-                    }
-                }
-
-                // deal with dynamicField
-                if (wrapper.getEnableDynamicField()) {
-                    JsonObject dynamicField = new JsonObject();
-                    for (String rowFieldName : row.keySet()) {
-                        if (!nameInsertInfo.containsKey(rowFieldName)) {
-                            dynamicField.add(rowFieldName, row.get(rowFieldName));
-                        }
-                    }
-                    insertDynamicDataInfo.getData().add(dynamicField);
-                }
-            }
-
-            for (String fieldNameKey : nameInsertInfo.keySet()) {
-                InsertDataInfo insertDataInfo = nameInsertInfo.get(fieldNameKey);
-                this.addFieldsData(genFieldData(insertDataInfo.getFieldType(), insertDataInfo.getData()));
-            }
-            if (wrapper.getEnableDynamicField()) {
-                this.addFieldsData(genFieldData(insertDynamicDataInfo.getFieldType(), insertDynamicDataInfo.getData(), Boolean.TRUE));
-            }
+            plan.genFieldsData(requestParam.getRows(), requestParam.getFields()).forEach(this::addFieldsData);
         }
 
         public InsertRequest buildInsertRequest() {
@@ -622,37 +615,48 @@ public class ParamUtils {
         }
     }
 
+    /**
+     * Serialize target vectors into a PlaceholderGroup.
+     * Float vectors can be List of Float, float[] or FloatBuffer, binary/float16/bfloat16 vectors are ByteBuffer,
+     * sparse vectors are SortedMap of Long/Float or SparseVector.
+     * The total size is computed first and the vectors are written into one array, no intermediate copy.
+     *
+     * @param vectors target vectors
+     * @param placeType force specify the placeholder type, or PlaceholderType.None to detect by vector type
+     * @return <code>ByteString</code> serialized PlaceholderGroup
+     */
     @SuppressWarnings("unchecked")
     public static ByteString convertPlaceholder(List<?> vectors, PlaceholderType placeType) throws ParamException {
         PlaceholderType plType = PlaceholderType.None;
-        List<ByteString> byteStrings = new ArrayList<>();
-        for (Object vector : vectors) {
+        int[] sizes = new int[vectors.size()];
+        SparseVector[] sparseVectors = new SparseVector[vectors.size()];
+        for (int i = 0; i < vectors.size(); ++i) {
+            Object vector = vectors.get(i);
             if (vector instanceof List) {
                 plType = PlaceholderType.FloatVector;
-                List<Float> list = (List<Float>) vector;
-                ByteBuffer buf = ByteBuffer.allocate(Float.BYTES * list.size());
-                buf.order(ByteOrder.LITTLE_ENDIAN);
-                list.forEach(buf::putFloat);
-
-                byte[] array = buf.array();
-                ByteString bs = ByteString.copyFrom(array);
-                byteStrings.add(bs);
+                sizes[i] = Float.BYTES * ((List<?>) vector).size();
+            } else if (vector instanceof float[]) {
+                plType = PlaceholderType.FloatVector;
+                sizes[i] = Float.BYTES * ((float[]) vector).length;
+            } else if (vector instanceof FloatBuffer) {
+                plType = PlaceholderType.FloatVector;
+                sizes[i] = Float.BYTES * ((FloatBuffer) vector).remaining();
             } else if (vector instanceof ByteBuffer) {
                 plType = PlaceholderType.BinaryVector;
-                ByteBuffer buf = (ByteBuffer) vector;
-                byte[] array = buf.array();
-                ByteString bs = ByteString.copyFrom(array);
-                byteStrings.add(bs);
+                sizes[i] = ((ByteBuffer) vector).capacity();
             } else if (vector instanceof SortedMap) {
                 plType = PlaceholderType.SparseFloatVector;
-                SortedMap<Long, Float> map = (SortedMap<Long, Float>) vector;
-                ByteString bs = genSparseFloatBytes(map);
-                byteStrings.add(bs);
+                sparseVectors[i] = SparseVector.fromMap((SortedMap<Long, Float>) vector);
+                sizes[i] = sparseVectors[i].getEncodedSize();
+            } else if (vector instanceof SparseVector) {
+                plType = PlaceholderType.SparseFloatVector;
+                sparseVectors[i] = (SparseVector) vector;
+                sizes[i] = sparseVectors[i].getEncodedSize();
             } else {
                 String msg = "Search target vector type is illegal." +
-                        " Only allow List<Float> for FloatVector," +
+                        " Only allow List<Float>/float[]/FloatBuffer for FloatVector," +
                         " ByteBuffer for BinaryVector/Float16Vector/BFloat16Vector," +
-                        " List<SortedMap<Long, Float>> for SparseFloatVector.";
+                        " List<SortedMap<Long, Float>> or List<SparseVector> for SparseFloatVector.";
                 throw new ParamException(msg);
             }
         }
@@ -662,17 +666,67 @@ public class ParamUtils {
             plType = placeType;
         }
 
-        PlaceholderValue.Builder pldBuilder = PlaceholderValue.newBuilder()
-                .setTag(Constant.VECTOR_TAG)
-                .setType(plType);
-        byteStrings.forEach(pldBuilder::addValues);
+        // the output is the same as PlaceholderGroup.toByteString()
+        int valueSize = CodedOutputStream.computeStringSize(PlaceholderValue.TAG_FIELD_NUMBER, Constant.VECTOR_TAG);
+        if (plType != PlaceholderType.None) {
+            valueSize += CodedOutputStream.computeEnumSize(PlaceholderValue.TYPE_FIELD_NUMBER, plType.getNumber());
+        }
+        for (int size : sizes) {
+            valueSize += CodedOutputStream.computeTagSize(PlaceholderValue.VALUES_FIELD_NUMBER)
+                    + CodedOutputStream.computeUInt32SizeNoTag(size) + size;
+        }
+        int totalSize = CodedOutputStream.computeTagSize(PlaceholderGroup.PLACEHOLDERS_FIELD_NUMBER)
+                + CodedOutputStream.computeUInt32SizeNoTag(valueSize) + valueSize;
+
+        byte[] bytes = new byte[totalSize];
+        CodedOutputStream output = CodedOutputStream.newInstance(bytes);
+        try {
+            output.writeTag(PlaceholderGroup.PLACEHOLDERS_FIELD_NUMBER, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            output.writeUInt32NoTag(valueSize);
+            output.writeString(PlaceholderValue.TAG_FIELD_NUMBER, Constant.VECTOR_TAG);
+            if (plType != PlaceholderType.None) {
+                output.writeEnum(PlaceholderValue.TYPE_FIELD_NUMBER, plType.getNumber());
+            }
 
-        PlaceholderValue plv = pldBuilder.build();
-        PlaceholderGroup placeholderGroup = PlaceholderGroup.newBuilder()
-                .addPlaceholders(plv)
-                .build();
+            for (int i = 0; i < vectors.size(); ++i) {
+                output.writeTag(PlaceholderValue.VALUES_FIELD_NUMBER, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+                output.writeUInt32NoTag(sizes[i]);
 
-        return placeholderGroup.toByteString();
+                // writeFloatNoTag() is little endian, which is required by milvus
+                Object vector = vectors.get(i);
+                if (vector instanceof List) {
+                    for (Object v : (List<?>) vector) {
+                        output.writeFloatNoTag((Float) v);
+                    }
+                } else if (vector instanceof float[]) {
+                    for (float v : (float[]) vector) {
+                        output.writeFloatNoTag(v);
+                    }
+                } else if (vector instanceof FloatBuffer) {
+                    FloatBuffer buf = ((FloatBuffer) vector).duplicate();
+                    while (buf.hasRemaining()) {
+                        output.writeFloatNoTag(buf.get());
+                    }
+                } else if (vector instanceof ByteBuffer) {
+                    // writes the whole content regardless of position/limit, heap or direct
+                    output.writeRawBytes((ByteBuffer) vector);
+                } else {
+                    // pairs of little endian uint32 index and float32 value
+                    SparseVector sparse = sparseVectors[i];
+                    int[] indices = sparse.getIndices();
+                    float[] values = sparse.getValues();
+                    for (int k = 0; k < indices.length; ++k) {
+                        output.writeFixed32NoTag(indices[k]);
+                        output.writeFloatNoTag(values[k]);
+                    }
+                }
+            }
+            output.checkNoSpaceLeft();
+        } catch (IOException | ClassCastException e) {
+            throw new ParamException("Failed to serialize target vectors: " + e.getMessage());
+        }
+
+        return UnsafeByteOperations.unsafeWrap(bytes);
     }
 
     @SuppressWarnings("unchecked")
@@ -948,6 +1002,125 @@ public class ParamUtils {
         return genFieldData(fieldType, objects, Boolean.FALSE);
     }
 
+    public static FieldData genFieldData(FieldType fieldType, InsertParam.Field field) {
+        if (!field.isPrimitive()) {
+            return genFieldData(fieldType, field.getValues(), Boolean.FALSE);
+        }
+
+        DataType dataType = fieldType.getDataType();
+        FieldData.Builder builder = FieldData.newBuilder().setFieldName(fieldType.getName()).setType(dataType);
+        Object values = field.getPrimitiveValues();
+        if (dataType == DataType.FloatVector) {
+            int dim = (values instanceof float[][]) ? fieldType.getDimension() : field.getDimension();
+            VectorField vectorField = VectorField.newBuilder()
+                    .setDim(dim)
+                    .setFloatVector(genFloatArray(values))
+                    .build();
+            return builder.setVectors(vectorField).build();
+        } else if (dataType == DataType.Float16Vector || dataType == DataType.BFloat16Vector) {
+            int dim = (values instanceof float[][]) ? fieldType.getDimension() : field.getDimension();
+            ByteString bytes = genFloat16Bytes(dataType, values);
+            VectorField.Builder vectorBuilder = VectorField.newBuilder().setDim(dim);
+            if (dataType == DataType.Float16Vector) {
+                vectorBuilder.setFloat16Vector(bytes);
+            } else {
+                vectorBuilder.setBfloat16Vector(bytes);
+            }
+            return builder.setVectors(vectorBuilder).build();
+        }
+
+        ScalarField.Builder scalarBuilder = ScalarField.newBuilder();
+        if (values instanceof long[]) {
+            LongArray.Builder arrayBuilder = LongArray.newBuilder();
+            for (long v : (long[]) values) {
+                arrayBuilder.addData(v);
+            }
+            scalarBuilder.setLongData(arrayBuilder);
+        } else if (values instanceof int[]) {
+            IntArray.Builder arrayBuilder = IntArray.newBuilder();
+            for (int v : (int[]) values) {
+                arrayBuilder.addData(v);
+            }
+            scalarBuilder.setIntData(arrayBuilder);
+        } else if (values instanceof double[]) {
+            DoubleArray.Builder arrayBuilder = DoubleArray.newBuilder();
+            for (double v : (double[]) values) {
+                arrayBuilder.addData(v);
+            }
+            scalarBuilder.setDoubleData(arrayBuilder);
+        } else if (values instanceof float[]) {
+            scalarBuilder.setFloatData(genFloatArray(values));
+        } else {
+            throw new ParamException("Illegal primitive values for field: " + fieldType.getName());
+        }
+        return builder.setScalars(scalarBuilder).build();
+    }
+
+    private static FloatArray genFloatArray(Object values) {
+        // addData(float) appends to the primitive list directly, no boxing
+        FloatArray.Builder builder = FloatArray.newBuilder();
+        if (values instanceof float[][]) {
+            for (float[] vector : (float[][]) values) {
+                for (float v : vector) {
+                    builder.addData(v);
+                }
+            }
+        } else if (values instanceof float[]) {
+            for (float v : (float[]) values) {
+                builder.addData(v);
+            }
+        } else if (values instanceof FloatBuffer) {
+            FloatBuffer buf = ((FloatBuffer) values).duplicate();
+            while (buf.hasRemaining()) {
+                builder.addData(buf.get());
+            }
+        } else {
+            throw new ParamException("Illegal primitive values for FloatVector field");
+        }
+        return builder.build();
+    }
+
+    private static void encodeFloat16(DataType dataType, float[] src, int srcOffset, byte[] dst, int dstOffset, int count) {
+        if (dataType == DataType.Float16Vector) {
+            Float16Utils.encodeFloat16(src, srcOffset, dst, dstOffset, count);
+        } else {
+            Float16Utils.encodeBFloat16(src, srcOffset, dst, dstOffset, count);
+        }
+    }
+
+    private static ByteString genFloat16Bytes(DataType dataType, Object values) {
+        // encode all the vectors into one contiguous array, the array is owned by the ByteString afterwards
+        byte[] bytes;
+        if (values instanceof float[][]) {
+            float[][] vectors = (float[][]) values;
+            int total = 0;
+            for (float[] vector : vectors) {
+                total += vector.length;
+            }
+            bytes = new byte[total * 2];
+            int offset = 0;
+            for (float[] vector : vectors) {
+                encodeFloat16(dataType, vector, 0, bytes, offset, vector.length);
+                offset += vector.length * 2;
+            }
+        } else if (values instanceof float[]) {
+            float[] flat = (float[]) values;
+            bytes = new byte[flat.length * 2];
+            encodeFloat16(dataType, flat, 0, bytes, 0, flat.length);
+        } else if (values instanceof FloatBuffer) {
+            FloatBuffer buf = (FloatBuffer) values;
+            bytes = new byte[buf.remaining() * 2];
+            if (dataType == DataType.Float16Vector) {
+                Float16Utils.encodeFloat16(buf, bytes, 0);
+            } else {
+                Float16Utils.encodeBFloat16(buf, bytes, 0);
+            }
+        } else {
+            throw new ParamException("Illegal primitive values for " + dataType.name() + " field");
+        }
+        return UnsafeByteOperations.unsafeWrap(bytes);
+    }
+
     public static FieldData genFieldData(FieldType fieldType, List<?> objects, boolean isDynamic) {
         if (objects == null) {
             throw new ParamException("Cannot generate FieldData from null object");
@@ -987,22 +1160,29 @@ public class ParamUtils {
         } else if (dataType == DataType.BinaryVector ||
                 dataType == DataType.Float16Vector ||
                 dataType == DataType.BFloat16Vector) {
-            ByteBuffer totalBuf = null;
+            byte[] total = null;
+            int bytesPerVector = 0;
+            int offset = 0;
             int dim = 0;
-            // each object is ByteBuffer
+            // each object is ByteBuffer, or float[] for float16/bfloat16 which is encoded here
             for (Object object : objects) {
-                ByteBuffer buf = (ByteBuffer) object;
-                if (totalBuf == null) {
-                    totalBuf = ByteBuffer.allocate(buf.limit() * objects.size());
-                    totalBuf.put(buf.array());
-                    dim = calculateBinVectorDim(dataType, buf.limit());
+                if (total == null) {
+                    bytesPerVector = (object instanceof float[]) ? ((float[]) object).length * 2 : ((ByteBuffer) object).limit();
+                    total = new byte[bytesPerVector * objects.size()];
+                    dim = calculateBinVectorDim(dataType, bytesPerVector);
+                }
+                if (object instanceof float[]) {
+                    float[] vector = (float[]) object;
+                    encodeFloat16(dataType, vector, 0, total, offset, vector.length);
                 } else {
-                    totalBuf.put(buf.array());
+                    ByteBuffer buf = (ByteBuffer) object;
+                    System.arraycopy(buf.array(), buf.arrayOffset(), total, offset, bytesPerVector);
                 }
+                offset += bytesPerVector;
             }
 
-            assert totalBuf != null;
-            ByteString byteString = ByteString.copyFrom(totalBuf.array());
+            assert total != null;
+            ByteString byteString = UnsafeByteOperations.unsafeWrap(total);
             if (dataType == DataType.BinaryVector) {
                 return VectorField.newBuilder().setDim(dim).setBinaryVector(byteString).build();
             } else if (dataType == DataType.Float16Vector) {
@@ -1018,43 +1198,21 @@ public class ParamUtils {
         throw new ParamException("Illegal vector dataType:" + dataType);
     }
 
-    private static ByteString genSparseFloatBytes(SortedMap<Long, Float> sparse) {
-        ByteBuffer buf = ByteBuffer.allocate((Integer.BYTES + Float.BYTES) * sparse.size());
-        buf.order(ByteOrder.LITTLE_ENDIAN); // Milvus uses little endian by default
-        for (Map.Entry<Long, Float> entry : sparse.entrySet()) {
-            long k = entry.getKey();
-            if (k < 0 || k >= (long)Math.pow(2.0, 32.0)-1) {
-                throw new ParamException("Sparse vector index must be positive and less than 2^32-1");
-            }
-            // here we construct a binary from the long key
-            ByteBuffer lBuf = ByteBuffer.allocate(Long.BYTES);
-            lBuf.order(ByteOrder.LITTLE_ENDIAN);
-            lBuf.putLong(k);
-            // the server requires a binary of unsigned int, append the first 4 bytes
-            buf.put(lBuf.array(), 0, 4);
-
-            float v = entry.getValue();
-            if (Float.isNaN(v) || Float.isInfinite(v)) {
-                throw new ParamException("Sparse vector value cannot be NaN or Infinite");
-            }
-            buf.putFloat(entry.getValue());
-        }
-
-        return ByteString.copyFrom(buf.array());
-    }
-
     private static SparseFloatArray genSparseFloatArray(List<?> objects) {
         int dim = 0; // the real dim is unknown, set the max size as dim
         SparseFloatArray.Builder builder = SparseFloatArray.newBuilder();
-        // each object must be SortedMap<Long, Float>, which is already validated by checkFieldData()
+        // each object must be SortedMap<Long, Float> or SparseVector, which is already validated by checkFieldData()
         for (Object object : objects) {
-            if (!(object instanceof SortedMap)) {
-                throw new ParamException("SparseFloatVector vector field's value type must be SortedMap");
+            SparseVector sparse;
+            if (object instanceof SparseVector) {
+                sparse = (SparseVector) object;
+            } else if (object instanceof SortedMap) {
+                sparse = SparseVector.fromMap((SortedMap<Long, Float>) object);
+            } else {
+                throw new ParamException("SparseFloatVector vector field's value type must be SortedMap or SparseVector");
             }
-            SortedMap<Long, Float> sparse = (SortedMap<Long, Float>) object;
             dim = Math.max(dim, sparse.size());
-            ByteString byteString = genSparseFloatBytes(sparse);
-            builder.addContents(byteString);
+            builder.addContents(sparse.encode());
         }
 
         return builder.setDim(dim).build();
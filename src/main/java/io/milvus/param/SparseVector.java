@@ -0,0 +1,236 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.milvus.param;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
+import io.milvus.exception.IllegalResponseException;
+import io.milvus.exception.ParamException;
+import lombok.NonNull;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Compact sparse float vector, an alternative of SortedMap[Long, Float] for insert, search and results.
+ *
+ * The indices are unsigned 32-bit integers stored in an int array in ascending order,
+ * the values are stored in a float array of the same length. The arrays are not copied, don't modify them
+ * after the vector is created.
+ *
+ * A sparse vector is encoded as pairs of little endian uint32 index and float32 value, 8 bytes per element,
+ * which is the binary format of the server.
+ */
+public final class SparseVector {
+    // the max index is 2^32-2, 0xFFFFFFFF is reserved by the server
+    private static final int INVALID_INDEX = -1;
+
+    private final int[] indices;
+    private final float[] values;
+
+    /**
+     * Creates a sparse vector. Indices must be in ascending order as unsigned integers, values must be finite.
+     *
+     * @param indices unsigned 32-bit indices
+     * @param values values of the indices
+     */
+    public SparseVector(@NonNull int[] indices, @NonNull float[] values) {
+        this(indices, values, false);
+    }
+
+    // decoded data is trusted, the validation is skipped
+    private SparseVector(int[] indices, float[] values, boolean trusted) {
+        if (!trusted) {
+            validate(indices, values);
+        }
+        this.indices = indices;
+        this.values = values;
+    }
+
+    private static void validate(int[] indices, float[] values) {
+        if (indices.length != values.length) {
+            throw new ParamException(String.format("Sparse vector indices count %d is not equal to values count %d",
+                    indices.length, values.length));
+        }
+        for (int i = 0; i < indices.length; i++) {
+            if (indices[i] == INVALID_INDEX) {
+                throw new ParamException("Sparse vector index must be positive and less than 2^32-1");
+            }
+            if (i > 0 && Integer.compareUnsigned(indices[i - 1], indices[i]) >= 0) {
+                throw new ParamException("Sparse vector indices must be in ascending order without duplication");
+            }
+            if (Float.isNaN(values[i]) || Float.isInfinite(values[i])) {
+                throw new ParamException("Sparse vector value cannot be NaN or Infinite");
+            }
+        }
+    }
+
+    /**
+     * Converts a SortedMap[Long, Float] to a sparse vector.
+     *
+     * @param sparse sparse vector as SortedMap
+     * @return {@link SparseVector}
+     */
+    public static SparseVector fromMap(@NonNull SortedMap<Long, Float> sparse) {
+        int[] indices = new int[sparse.size()];
+        float[] values = new float[sparse.size()];
+        int i = 0;
+        for (Map.Entry<Long, Float> entry : sparse.entrySet()) {
+            long k = entry.getKey();
+            if (k < 0 || k >= 0xFFFFFFFFL) {
+                throw new ParamException("Sparse vector index must be positive and less than 2^32-1");
+            }
+            indices[i] = (int) k;
+            values[i] = entry.getValue();
+            i++;
+        }
+        return new SparseVector(indices, values);
+    }
+
+    /**
+     * Converts to a SortedMap[Long, Float].
+     *
+     * @return SortedMap of the sparse vector
+     */
+    public SortedMap<Long, Float> toMap() {
+        SortedMap<Long, Float> sparse = new TreeMap<>();
+        for (int i = 0; i < indices.length; i++) {
+            sparse.put(Integer.toUnsignedLong(indices[i]), values[i]);
+        }
+        return sparse;
+    }
+
+    /**
+     * Number of non-zero elements.
+     *
+     * @return <code>int</code>
+     */
+    public int size() {
+        return indices.length;
+    }
+
+    /**
+     * Gets the indices array, the indices are unsigned, use {@link #getIndex(int)} to get a long value.
+     *
+     * @return <code>int[]</code>
+     */
+    public int[] getIndices() {
+        return indices;
+    }
+
+    public float[] getValues() {
+        return values;
+    }
+
+    public long getIndex(int i) {
+        return Integer.toUnsignedLong(indices[i]);
+    }
+
+    public float getValue(int i) {
+        return values[i];
+    }
+
+    /**
+     * Size of the binary format in bytes.
+     *
+     * @return <code>int</code>
+     */
+    public int getEncodedSize() {
+        return (Integer.BYTES + Float.BYTES) * indices.length;
+    }
+
+    /**
+     * Writes the binary format into an array.
+     *
+     * @param dst target array
+     * @param offset start position in the target array
+     */
+    public void encodeTo(byte[] dst, int offset) {
+        ByteBuffer buf = ByteBuffer.wrap(dst, offset, getEncodedSize()).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < indices.length; i++) {
+            buf.putInt(indices[i]);
+            buf.putFloat(values[i]);
+        }
+    }
+
+    /**
+     * Encodes to the binary format.
+     *
+     * @return <code>ByteString</code>
+     */
+    public ByteString encode() {
+        byte[] bytes = new byte[getEncodedSize()];
+        encodeTo(bytes, 0);
+        return UnsafeByteOperations.unsafeWrap(bytes);
+    }
+
+    /**
+     * Decodes a sparse vector from the binary format, without copying the bytes.
+     *
+     * @param bytes binary of a sparse vector
+     * @return {@link SparseVector}
+     */
+    public static SparseVector decode(@NonNull ByteString bytes) {
+        if (bytes.size() % (Integer.BYTES + Float.BYTES) != 0) {
+            throw new IllegalResponseException("Illegal sparse vector binary size: " + bytes.size());
+        }
+        ByteBuffer buf = bytes.asReadOnlyByteBuffer().order(ByteOrder.LITTLE_ENDIAN);
+        int count = bytes.size() / (Integer.BYTES + Float.BYTES);
+        int[] indices = new int[count];
+        float[] values = new float[count];
+        for (int i = 0; i < count; i++) {
+            indices[i] = buf.getInt();
+            values[i] = buf.getFloat();
+        }
+        return new SparseVector(indices, values, true);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof SparseVector)) {
+            return false;
+        }
+        SparseVector other = (SparseVector) obj;
+        return Arrays.equals(indices, other.indices) && Arrays.equals(values, other.values);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(indices) + Arrays.hashCode(values);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("SparseVector{");
+        for (int i = 0; i < indices.length; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(getIndex(i)).append('=').append(values[i]);
+        }
+        return sb.append('}').toString();
+    }
+}
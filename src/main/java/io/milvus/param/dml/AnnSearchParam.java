@@ -23,6 +23,7 @@ import io.milvus.exception.ParamException;
 import io.milvus.grpc.PlaceholderType;
 import io.milvus.param.MetricType;
 import io.milvus.param.ParamUtils;
+import io.milvus.param.SparseVector;
 
 import lombok.Getter;
 import lombok.NonNull;
@@ -193,6 +194,19 @@ public class AnnSearchParam {
             return this;
         }
 
+        /**
+         * Sets the target vectors to search on SparseFloatVector field, as compact {@link SparseVector}s.
+         *
+         * @param vectors target vectors to search
+         * @return <code>Builder</code>
+         */
+        public Builder withSparseVectors(@NonNull List<SparseVector> vectors) {
+            this.vectors = vectors;
+            this.NQ = (long) vectors.size();
+            this.plType = PlaceholderType.SparseFloatVector;
+            return this;
+        }
+
 
         /**
          * Sets the search parameters specific to the index type.
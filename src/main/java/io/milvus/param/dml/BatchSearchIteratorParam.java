@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.milvus.param.dml;
+
+import io.milvus.exception.ParamException;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Parameters for <code>batchSearchIterator</code> interface.
+ * Each target vector is iterated by its own {@link io.milvus.orm.iterator.SearchIterator}, their range searches
+ * are sent together as one multi-nq request whenever everything but the target vectors is equal.
+ */
+@Getter
+@ToString
+public class BatchSearchIteratorParam {
+    // the default thread count is capped, each thread waits on the merged rpc of its query
+    private static final int DEFAULT_MAX_PARALLELISM = 256;
+
+    private final List<SearchIteratorParam> searchIteratorParams;
+    private final int parallelism;
+    private final long coalesceWindowMs;
+    private final int maxNq;
+
+    private BatchSearchIteratorParam(@NonNull Builder builder) {
+        this.searchIteratorParams = builder.searchIteratorParams;
+        this.parallelism = builder.parallelism == null
+                ? Math.min(builder.searchIteratorParams.size(), DEFAULT_MAX_PARALLELISM) : builder.parallelism;
+        this.coalesceWindowMs = builder.coalesceWindowMs;
+        this.maxNq = builder.maxNq;
+    }
+
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    /**
+     * Builder for {@link BatchSearchIteratorParam} class.
+     */
+    public static class Builder {
+        private final List<SearchIteratorParam> searchIteratorParams = new ArrayList<>();
+
+        // by default each query gets its own thread, up to 256 threads
+        private Integer parallelism = null;
+
+        // a range search waits at most this long for the same search of other queries
+        // the merged request is sent at once when it reaches maxNq target vectors, or when every running query waits
+        private Long coalesceWindowMs = 10L;
+        private Integer maxNq = 1024;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the searches to iterate, one per target vector. All of them must search the same collection.
+         * Range searches are merged only if their filter and search parameters are equal, set
+         * <code>withExcludedIdsStep(0)</code> so the filter doesn't carry the primary keys of each query.
+         *
+         * @param searchIteratorParams list of {@link SearchIteratorParam}
+         * @return <code>Builder</code>
+         */
+        public Builder withSearchIteratorParams(@NonNull List<SearchIteratorParam> searchIteratorParams) {
+            this.searchIteratorParams.clear();
+            this.searchIteratorParams.addAll(searchIteratorParams);
+            return this;
+        }
+
+        /**
+         * Adds a search to iterate.
+         *
+         * @param searchIteratorParam {@link SearchIteratorParam}
+         * @return <code>Builder</code>
+         */
+        public Builder addSearchIteratorParam(@NonNull SearchIteratorParam searchIteratorParam) {
+            this.searchIteratorParams.add(searchIteratorParam);
+            return this;
+        }
+
+        /**
+         * Sets the number of queries advanced at the same time. A merged request holds at most this
+         * number of queries. Default value is the number of queries, up to 256.
+         *
+         * @param parallelism number of threads
+         * @return <code>Builder</code>
+         */
+        public Builder withParallelism(@NonNull Integer parallelism) {
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * Sets the time in milliseconds a range search waits for the same search of other queries. Default value is 10.
+         * The pending searches are sent earlier once every running query waits for one, for example when the
+         * queries search different distances and cannot be merged.
+         *
+         * @param coalesceWindowMs window in milliseconds
+         * @return <code>Builder</code>
+         */
+        public Builder withCoalesceWindowMs(@NonNull Long coalesceWindowMs) {
+            this.coalesceWindowMs = coalesceWindowMs;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of target vectors of a merged request. Default value is 1024.
+         *
+         * @param maxNq max number of target vectors
+         * @return <code>Builder</code>
+         */
+        public Builder withMaxNq(@NonNull Integer maxNq) {
+            this.maxNq = maxNq;
+            return this;
+        }
+
+        /**
+         * Verifies parameters and creates a new {@link BatchSearchIteratorParam} instance.
+         *
+         * @return {@link BatchSearchIteratorParam}
+         */
+        public BatchSearchIteratorParam build() throws ParamException {
+            if (searchIteratorParams.isEmpty()) {
+                throw new ParamException("Search iterator params cannot be empty");
+            }
+
+            SearchIteratorParam first = searchIteratorParams.get(0);
+            for (SearchIteratorParam param : searchIteratorParams) {
+                if (!Objects.equals(param.getDatabaseName(), first.getDatabaseName())
+                        || !param.getCollectionName().equals(first.getCollectionName())) {
+                    throw new ParamException("All the searches of a batch search iterator must target the same collection");
+                }
+            }
+
+            if (parallelism != null && parallelism <= 0) {
+                throw new ParamException("Parallelism must be larger than zero");
+            }
+
+            if (coalesceWindowMs <= 0) {
+                throw new ParamException("Coalesce window must be larger than zero");
+            }
+
+            if (maxNq <= 1) {
+                throw new ParamException("Max nq must be larger than 1");
+            }
+            return new BatchSearchIteratorParam(this);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.milvus.param.dml;
+
+import io.milvus.exception.ParamException;
+import io.milvus.param.ParamUtils;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+
+/**
+ * Parameters for {@link io.milvus.client.InsertBatcher}.
+ */
+@Getter
+@ToString
+public class InsertBatcherParam {
+    private final String databaseName;
+    private final String collectionName;
+    private final String partitionName;
+    private final int maxBatchRows;
+    private final long maxBatchBytes;
+    private final long lingerMs;
+
+    private InsertBatcherParam(@NonNull Builder builder) {
+        this.databaseName = builder.databaseName;
+        this.collectionName = builder.collectionName;
+        this.partitionName = builder.partitionName;
+        this.maxBatchRows = builder.maxBatchRows;
+        this.maxBatchBytes = builder.maxBatchBytes;
+        this.lingerMs = builder.lingerMs;
+    }
+
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    /**
+     * Builder for {@link InsertBatcherParam} class.
+     */
+    public static final class Builder {
+        private String databaseName;
+        private String collectionName;
+        private String partitionName = "";
+
+        // maxBatchRows:
+        //   A batch is sent once it holds this many rows. Default value: 1000 rows.
+        private int maxBatchRows = 1000;
+
+        // maxBatchBytes:
+        //   A batch is sent once the estimated size of its rows reaches this value. Default value: 4 MB.
+        private long maxBatchBytes = 4L * 1024 * 1024;
+
+        // lingerMs:
+        //   A non-empty batch is sent at the latest this many milliseconds after its first row arrived.
+        //   Default value: 10 milliseconds.
+        private long lingerMs = 10L;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the database name. database name can be nil.
+         *
+         * @param databaseName database name
+         * @return <code>Builder</code>
+         */
+        public Builder withDatabaseName(String databaseName) {
+            this.databaseName = databaseName;
+            return this;
+        }
+
+        /**
+         * Sets the target collection name. Collection name cannot be empty or null.
+         *
+         * @param collectionName collection name
+         * @return <code>Builder</code>
+         */
+        public Builder withCollectionName(@NonNull String collectionName) {
+            this.collectionName = collectionName;
+            return this;
+        }
+
+        /**
+         * Sets the target partition name (Optional).
+         *
+         * @param partitionName partition name
+         * @return <code>Builder</code>
+         */
+        public Builder withPartitionName(@NonNull String partitionName) {
+            this.partitionName = partitionName;
+            return this;
+        }
+
+        /**
+         * Sets the max number of rows in one batch. Must be larger than zero.
+         *
+         * @param maxBatchRows max number of rows
+         * @return <code>Builder</code>
+         */
+        public Builder withMaxBatchRows(int maxBatchRows) {
+            this.maxBatchRows = maxBatchRows;
+            return this;
+        }
+
+        /**
+         * Sets the max estimated size in bytes of one batch. Must be larger than zero.
+         *
+         * @param maxBatchBytes max size in bytes
+         * @return <code>Builder</code>
+         */
+        public Builder withMaxBatchBytes(long maxBatchBytes) {
+            this.maxBatchBytes = maxBatchBytes;
+            return this;
+        }
+
+        /**
+         * Sets how long a batch waits for more rows before it is sent, in milliseconds.
+         * Zero means a batch is only sent when it is full or flushed explicitly.
+         *
+         * @param lingerMs linger time in milliseconds
+         * @return <code>Builder</code>
+         */
+        public Builder withLingerMs(long lingerMs) {
+            this.lingerMs = lingerMs;
+            return this;
+        }
+
+        /**
+         * Verifies parameters and creates a new {@link InsertBatcherParam} instance.
+         *
+         * @return {@link InsertBatcherParam}
+         */
+        public InsertBatcherParam build() throws ParamException {
+            ParamUtils.CheckNullEmptyString(collectionName, "Collection name");
+
+            if (maxBatchRows <= 0) {
+                throw new ParamException("Max batch rows must be larger than zero");
+            }
+            if (maxBatchBytes <= 0) {
+                throw new ParamException("Max batch bytes must be larger than zero");
+            }
+            if (lingerMs < 0) {
+                throw new ParamException("Linger time cannot be negative");
+            }
+
+            return new InsertBatcherParam(this);
+        }
+    }
+}
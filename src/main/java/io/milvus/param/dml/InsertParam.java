@@ -19,6 +19,11 @@
 
 package io.milvus.param.dml;
 
+import com.google.common.collect.Lists;
+import com.google.common.primitives.Doubles;
+import com.google.common.primitives.Floats;
+import com.google.common.primitives.Ints;
+import com.google.common.primitives.Longs;
 import com.google.gson.JsonObject;
 import io.milvus.exception.ParamException;
 import io.milvus.param.ParamUtils;
@@ -28,6 +33,8 @@ import lombok.NonNull;
 import lombok.ToString;
 import org.apache.commons.collections4.CollectionUtils;
 
+import java.nio.FloatBuffer;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -43,6 +50,8 @@ public class InsertParam {
     protected final String collectionName;
     protected final String partitionName;
     protected final int rowCount;
+    protected final long maxRequestBytes;
+    protected final int maxInflightRequests;
 
     protected InsertParam(@NonNull Builder builder) {
         this.databaseName = builder.databaseName;
@@ -51,6 +60,8 @@ public class InsertParam {
         this.fields = builder.fields;
         this.rowCount = builder.rowCount;
         this.rows = builder.rows;
+        this.maxRequestBytes = builder.maxRequestBytes;
+        this.maxInflightRequests = builder.maxInflightRequests;
     }
 
     public static Builder newBuilder() {
@@ -67,6 +78,8 @@ public class InsertParam {
         protected List<InsertParam.Field> fields;
         protected List<JsonObject> rows;
         protected int rowCount;
+        protected long maxRequestBytes = 0;
+        protected int maxInflightRequests = 1;
 
         protected Builder() {
         }
@@ -149,6 +162,34 @@ public class InsertParam {
             return this;
         }
 
+        /**
+         * Sets the max estimated encoded size of one request (Optional).
+         * If the data is larger than this value, the rows are split into several requests by size,
+         * and the results are merged into one MutationResult with ids in row order.
+         * Default value is 0, the data is sent by one request.
+         *
+         * Note: if a request fails, no more requests are sent, the rows of sent requests are not rolled back.
+         *
+         * @param maxRequestBytes max size in bytes, 0 means no split
+         * @return <code>Builder</code>
+         */
+        public Builder withMaxRequestBytes(long maxRequestBytes) {
+            this.maxRequestBytes = maxRequestBytes;
+            return this;
+        }
+
+        /**
+         * Sets the max number of split requests in flight at the same time (Optional). Default value is 1.
+         * Only takes effect when the data is split by withMaxRequestBytes().
+         *
+         * @param maxInflightRequests max number of requests in flight
+         * @return <code>Builder</code>
+         */
+        public Builder withMaxInflightRequests(int maxInflightRequests) {
+            this.maxInflightRequests = maxInflightRequests;
+            return this;
+        }
+
         /**
          * Verifies parameters and creates a new {@link InsertParam} instance.
          *
@@ -157,6 +198,13 @@ public class InsertParam {
         public InsertParam build() throws ParamException {
             ParamUtils.CheckNullEmptyString(collectionName, "Collection name");
 
+            if (maxRequestBytes < 0) {
+                throw new ParamException("Max request bytes cannot be negative");
+            }
+            if (maxInflightRequests <= 0) {
+                throw new ParamException("Max inflight requests must be larger than zero");
+            }
+
             if (CollectionUtils.isEmpty(fields) && CollectionUtils.isEmpty(rows)) {
                 throw new ParamException("Fields and Rows are empty, use withFields() or withRows() to input data.");
             }
@@ -170,7 +218,7 @@ public class InsertParam {
                     throw new ParamException("Field cannot be null." +
                             " If the field is auto-id, just ignore it from withFields()");
                 }
-                count = fields.get(0).getValues().size();
+                count = fields.get(0).getRowCount();
                 checkFields(count);
             } else {
                 count = rows.size();
@@ -196,7 +244,11 @@ public class InsertParam {
 
                 ParamUtils.CheckNullEmptyString(field.getName(), "Field name");
 
-                if (field.getValues() == null || field.getValues().isEmpty()) {
+                if (!field.isPrimitive() && field.getValues() == null) {
+                    throw new ParamException("Field value cannot be empty." +
+                            " If the field is auto-id, just ignore it from withFields()");
+                }
+                if (field.getRowCount() == 0) {
                     throw new ParamException("Field value cannot be empty." +
                             " If the field is auto-id, just ignore it from withFields()");
                 }
@@ -204,7 +256,7 @@ public class InsertParam {
 
             // check row count
             for (InsertParam.Field field : fields) {
-                if (field.getValues().size() != count) {
+                if (field.getRowCount() != count) {
                     throw new ParamException("Row count of fields must be equal");
                 }
             }
@@ -238,6 +290,7 @@ public class InsertParam {
      * If dataType is Varchar, values is List of String;
      * If dataType is FloatVector, values is List of List Float;
      * If dataType is BinaryVector/Float16Vector/BFloat16Vector, values is List of ByteBuffer;
+     * If dataType is Float16Vector/BFloat16Vector, values can also be List of float[], the sdk encodes them;
      * If dataType is SparseFloatVector, values is List of SortedMap[Long, Float];
      * If dataType is Array, values can be List of List Boolean/Integer/Short/Long/Float/Double/String;
      * If dataType is JSON, values is List of gson.JsonObject;
@@ -246,16 +299,121 @@ public class InsertParam {
      * If dataType is Int8/Int16/Int32, values is List of Integer or Short
      * (why? because the rpc proto only support int32/int64 type, actually Int8/Int16/Int32 use int32 type to encode/decode)
      *
+     * For large numeric columns, the primitive-array constructors avoid boxing each value:
+     * Int64 accepts long[], Int32/Int16/Int8 accepts int[], Float accepts float[], Double accepts double[],
+     * FloatVector accepts float[][] (one array per row), or a flat row-major float[]/FloatBuffer with dimension.
+     * Float16Vector/BFloat16Vector accept the same float32 arrays, which are encoded to 2 bytes per value.
+     * The primitive data is encoded directly into the rpc message, the array must not be modified before
+     * the insert call returns.
      */
-    @lombok.Builder
     @ToString
     public static class Field {
         private final String name;
         private final List<?> values;
+        @ToString.Exclude
+        private final Object primitiveValues;
+        private final int dimension;
+        private final int rowCount;
 
+        @lombok.Builder
         public Field(String name, List<?> values) {
             this.name = name;
             this.values = values;
+            this.primitiveValues = null;
+            this.dimension = 0;
+            this.rowCount = (values == null) ? 0 : values.size();
+        }
+
+        /**
+         * Column of Int64 field.
+         *
+         * @param name field name
+         * @param values <code>long[]</code> values
+         */
+        public Field(String name, @NonNull long[] values) {
+            this(name, values, 0, values.length);
+        }
+
+        /**
+         * Column of Int32/Int16/Int8 field.
+         *
+         * @param name field name
+         * @param values <code>int[]</code> values
+         */
+        public Field(String name, @NonNull int[] values) {
+            this(name, values, 0, values.length);
+        }
+
+        /**
+         * Column of Float field.
+         *
+         * @param name field name
+         * @param values <code>float[]</code> values
+         */
+        public Field(String name, @NonNull float[] values) {
+            this(name, values, 0, values.length);
+        }
+
+        /**
+         * Column of Double field.
+         *
+         * @param name field name
+         * @param values <code>double[]</code> values
+         */
+        public Field(String name, @NonNull double[] values) {
+            this(name, values, 0, values.length);
+        }
+
+        /**
+         * Column of FloatVector/Float16Vector/BFloat16Vector field, each <code>float[]</code> is a vector.
+         *
+         * @param name field name
+         * @param vectors <code>float[][]</code> vectors
+         */
+        public Field(String name, @NonNull float[][] vectors) {
+            this(name, vectors, (vectors.length > 0 && vectors[0] != null) ? vectors[0].length : 0, vectors.length);
+        }
+
+        /**
+         * Column of FloatVector/Float16Vector/BFloat16Vector field, the vectors are stored row by row in a flat array.
+         *
+         * @param name field name
+         * @param vectors flat <code>float[]</code>, the length must be a multiple of dimension
+         * @param dimension dimension of the vectors
+         */
+        public Field(String name, @NonNull float[] vectors, int dimension) {
+            this(name, vectors, dimension, flatRowCount(vectors.length, dimension));
+        }
+
+        /**
+         * Column of FloatVector/Float16Vector/BFloat16Vector field, the vectors are stored row by row in a buffer.
+         * The remaining floats of the buffer are inserted, the position of the buffer is not changed.
+         *
+         * @param name field name
+         * @param vectors <code>FloatBuffer</code>, the remaining count must be a multiple of dimension
+         * @param dimension dimension of the vectors
+         */
+        public Field(String name, @NonNull FloatBuffer vectors, int dimension) {
+            this(name, vectors.duplicate(), dimension, flatRowCount(vectors.remaining(), dimension));
+        }
+
+        private Field(String name, Object primitiveValues, int dimension, int rowCount) {
+            this.name = name;
+            this.values = null;
+            this.primitiveValues = primitiveValues;
+            this.dimension = dimension;
+            this.rowCount = rowCount;
+        }
+
+        private static int flatRowCount(int length, int dimension) {
+            if (dimension <= 0) {
+                throw new ParamException("Dimension must be larger than zero");
+            }
+            if (length % dimension != 0) {
+                String msg = String.format("Float count %d cannot be evenly divided by dimension %d", length, dimension);
+                throw new ParamException(msg);
+            }
+            return length / dimension;
         }
 
         /**
@@ -269,11 +427,69 @@ public class InsertParam {
 
         /**
          * Return data of the field, in column-base.
+         * For a field constructed from primitive array, the returned list is a boxed view of the array.
          *
          * @return <code>List</code>
          */
         public List<?> getValues() {
-            return values;
+            if (primitiveValues == null) {
+                return values;
+            }
+
+            if (primitiveValues instanceof long[]) {
+                return Longs.asList((long[]) primitiveValues);
+            } else if (primitiveValues instanceof int[]) {
+                return Ints.asList((int[]) primitiveValues);
+            } else if (primitiveValues instanceof double[]) {
+                return Doubles.asList((double[]) primitiveValues);
+            } else if (primitiveValues instanceof float[][]) {
+                return Lists.transform(Arrays.asList((float[][]) primitiveValues), Floats::asList);
+            } else if (primitiveValues instanceof float[]) {
+                List<Float> floats = Floats.asList((float[]) primitiveValues);
+                return (dimension > 0) ? Lists.partition(floats, dimension) : floats;
+            } else {
+                FloatBuffer buf = ((FloatBuffer) primitiveValues).duplicate();
+                float[] floats = new float[buf.remaining()];
+                buf.get(floats);
+                return Lists.partition(Floats.asList(floats), dimension);
+            }
+        }
+
+        /**
+         * Return the primitive data of the field, null if the field is constructed from List.
+         * The object could be long[], int[], float[], double[], float[][] or FloatBuffer.
+         *
+         * @return <code>Object</code>
+         */
+        public Object getPrimitiveValues() {
+            return primitiveValues;
+        }
+
+        /**
+         * Return true if the field is constructed from primitive array.
+         *
+         * @return <code>boolean</code>
+         */
+        public boolean isPrimitive() {
+            return primitiveValues != null;
+        }
+
+        /**
+         * Return dimension of primitive vectors, zero for scalar field.
+         *
+         * @return <code>int</code>
+         */
+        public int getDimension() {
+            return dimension;
+        }
+
+        /**
+         * Return row count of the field.
+         *
+         * @return <code>int</code>
+         */
+        public int getRowCount() {
+            return rowCount;
         }
     }
 }
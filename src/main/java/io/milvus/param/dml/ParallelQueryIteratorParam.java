@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.milvus.param.dml;
+
+import io.milvus.exception.ParamException;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.milvus.param.Constant.UNLIMITED;
+
+/**
+ * Parameters for <code>parallelQueryIterator</code> interface.
+ * The primary key space is split into ranges, and each range is walked by its own {@link io.milvus.orm.iterator.QueryIterator}.
+ */
+@Getter
+@ToString
+public class ParallelQueryIteratorParam {
+    private final QueryIteratorParam queryIteratorParam;
+    private final int splitCount;
+    private final List<Object> splitPoints;
+    private final int parallelism;
+    private final int mergeQueueDepth;
+
+    private ParallelQueryIteratorParam(@NonNull Builder builder) {
+        this.queryIteratorParam = builder.queryIteratorParam;
+        this.splitPoints = builder.splitPoints;
+        this.splitCount = builder.splitPoints.isEmpty() ? builder.splitCount : builder.splitPoints.size() + 1;
+        this.parallelism = builder.parallelism == null ? this.splitCount : builder.parallelism;
+        this.mergeQueueDepth = builder.mergeQueueDepth;
+    }
+
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    /**
+     * Builder for {@link ParallelQueryIteratorParam} class.
+     */
+    public static class Builder {
+        private QueryIteratorParam queryIteratorParam;
+        private Integer splitCount = 4;
+        private final List<Object> splitPoints = new ArrayList<>();
+
+        // by default each split gets its own thread in the merged stream
+        private Integer parallelism = null;
+
+        // the merged stream holds at most this number of pages waiting for the caller
+        private Integer mergeQueueDepth = 8;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the query to scan. The collection, expression, output fields and batch size are applied to every split.
+         * The offset and limit are not supported by parallel scan.
+         *
+         * @param queryIteratorParam {@link QueryIteratorParam}
+         * @return <code>Builder</code>
+         */
+        public Builder withQueryIteratorParam(@NonNull QueryIteratorParam queryIteratorParam) {
+            this.queryIteratorParam = queryIteratorParam;
+            return this;
+        }
+
+        /**
+         * Sets the number of primary key ranges. The boundaries are probed from the collection:
+         * the key space between the smallest and the largest primary key is divided evenly.
+         * Default value is 4. Ignored if split points are specified.
+         *
+         * @param splitCount number of ranges
+         * @return <code>Builder</code>
+         */
+        public Builder withSplitCount(@NonNull Integer splitCount) {
+            this.splitCount = splitCount;
+            return this;
+        }
+
+        /**
+         * Specifies the range boundaries explicitly (Optional). Values must be <code>Long</code> for Int64
+         * primary key and <code>String</code> for VarChar primary key. N points make N+1 ranges.
+         *
+         * @param splitPoints range boundaries
+         * @return <code>Builder</code>
+         */
+        public Builder withSplitPoints(@NonNull List<?> splitPoints) {
+            this.splitPoints.clear();
+            this.splitPoints.addAll(splitPoints);
+            return this;
+        }
+
+        /**
+         * Sets the number of threads used by the merged stream. Default value is the number of splits.
+         *
+         * @param parallelism number of threads
+         * @return <code>Builder</code>
+         */
+        public Builder withParallelism(@NonNull Integer parallelism) {
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * Sets the number of pages buffered by the merged stream. Default value is 8.
+         *
+         * @param mergeQueueDepth number of buffered pages
+         * @return <code>Builder</code>
+         */
+        public Builder withMergeQueueDepth(@NonNull Integer mergeQueueDepth) {
+            this.mergeQueueDepth = mergeQueueDepth;
+            return this;
+        }
+
+        /**
+         * Verifies parameters and creates a new {@link ParallelQueryIteratorParam} instance.
+         *
+         * @return {@link ParallelQueryIteratorParam}
+         */
+        public ParallelQueryIteratorParam build() throws ParamException {
+            if (queryIteratorParam == null) {
+                throw new ParamException("Query iterator param cannot be null");
+            }
+
+            if (queryIteratorParam.getOffset() != 0 || queryIteratorParam.getLimit() != UNLIMITED) {
+                throw new ParamException("Offset and limit are not supported by parallel query iterator");
+            }
+
+            if (queryIteratorParam.getCheckpoint() != null) {
+                throw new ParamException("Checkpoint is not supported by parallel query iterator, resume the splits instead");
+            }
+
+            if (splitPoints.isEmpty() && splitCount <= 0) {
+                throw new ParamException("Split count must be larger than zero");
+            }
+
+            for (Object point : splitPoints) {
+                if (!(point instanceof Long) && !(point instanceof String)) {
+                    throw new ParamException("Split point must be Long or String");
+                }
+            }
+
+            if (parallelism != null && parallelism <= 0) {
+                throw new ParamException("Parallelism must be larger than zero");
+            }
+
+            if (mergeQueueDepth <= 0) {
+                throw new ParamException("Merge queue depth must be larger than zero");
+            }
+            return new ParallelQueryIteratorParam(this);
+        }
+    }
+}
@@ -22,6 +22,7 @@ package io.milvus.param.dml;
 import com.google.common.collect.Lists;
 import io.milvus.common.clientenum.ConsistencyLevelEnum;
 import io.milvus.exception.ParamException;
+import io.milvus.orm.iterator.QueryIteratorCheckpoint;
 import io.milvus.param.Constant;
 import io.milvus.param.ParamUtils;
 import lombok.Getter;
@@ -55,6 +56,10 @@ public class QueryIteratorParam {
     private final boolean ignoreGrowing;
 
     private final long batchSize;
+    private final int prefetchDepth;
+    private final long prefetchMaxBytes;
+    private final long cacheMaxBytes;
+    private final QueryIteratorCheckpoint checkpoint;
 
     private QueryIteratorParam(@NonNull Builder builder) {
         this.databaseName = builder.databaseName;
@@ -71,6 +76,10 @@ public class QueryIteratorParam {
         this.ignoreGrowing = builder.ignoreGrowing;
 
         this.batchSize = builder.batchSize;
+        this.prefetchDepth = builder.prefetchDepth;
+        this.prefetchMaxBytes = builder.prefetchMaxBytes;
+        this.cacheMaxBytes = builder.cacheMaxBytes;
+        this.checkpoint = builder.checkpoint;
     }
 
     public static Builder newBuilder() {
@@ -95,6 +104,16 @@ public class QueryIteratorParam {
         private Boolean ignoreGrowing = Boolean.FALSE;
         private Long batchSize = 1000L;
 
+        // read-ahead is off by default, each next() call issues its own rpc
+        // when enabled, the buffered pages are capped by both depth and estimated bytes
+        private Integer prefetchDepth = 0;
+        private Long prefetchMaxBytes = 64L * 1024 * 1024;
+
+        // rows fetched ahead of the caller are kept in memory without limit by default
+        // with a budget, the overflow is spilled to a temporary file
+        private Long cacheMaxBytes = (long) UNLIMITED;
+        private QueryIteratorCheckpoint checkpoint = null;
+
         private Builder() {
         }
 
@@ -239,6 +258,57 @@ public class QueryIteratorParam {
             return this;
         }
 
+        /**
+         * Enables read-ahead: the iterator fetches up to <code>prefetchDepth</code> upcoming batches
+         * in a background thread while the caller is consuming the current one.
+         * Default value is 0, no read-ahead.
+         *
+         * @param prefetchDepth the maximum number of batches buffered ahead of the caller
+         * @return <code>Builder</code>
+         */
+        public Builder withPrefetchDepth(@NonNull Integer prefetchDepth) {
+            this.prefetchDepth = prefetchDepth;
+            return this;
+        }
+
+        /**
+         * Sets the memory cap of the read-ahead buffer, the background thread stops fetching
+         * while the buffered batches exceed this size. At least one batch is always buffered.
+         * Default value is 64MB. Only take effect when the prefetch depth is larger than 0.
+         *
+         * @param prefetchMaxBytes the maximum estimated bytes of buffered batches
+         * @return <code>Builder</code>
+         */
+        public Builder withPrefetchMaxBytes(@NonNull Long prefetchMaxBytes) {
+            this.prefetchMaxBytes = prefetchMaxBytes;
+            return this;
+        }
+
+        /**
+         * Sets the memory budget of the rows fetched by the iterator but not returned yet, estimated per row.
+         * Rows beyond the budget are spilled to a temporary file and read back when they are returned.
+         * Default value is -1, no limit.
+         *
+         * @param cacheMaxBytes the maximum estimated bytes of cached rows kept in memory
+         * @return <code>Builder</code>
+         */
+        public Builder withCacheMaxBytes(@NonNull Long cacheMaxBytes) {
+            this.cacheMaxBytes = cacheMaxBytes;
+            return this;
+        }
+
+        /**
+         * Resumes the iteration from a checkpoint taken by {@link io.milvus.orm.iterator.QueryIterator#getCheckpoint()} (Optional).
+         * The iterator continues right after the last returned row, the offset must be 0.
+         *
+         * @param checkpoint {@link QueryIteratorCheckpoint}
+         * @return <code>Builder</code>
+         */
+        public Builder withCheckpoint(@NonNull QueryIteratorCheckpoint checkpoint) {
+            this.checkpoint = checkpoint;
+            return this;
+        }
+
         /**
          * Verifies parameters and creates a new {@link QueryIteratorParam} instance.
          *
@@ -271,6 +341,27 @@ public class QueryIteratorParam {
             if (batchSize > MAX_BATCH_SIZE) {
                 throw new ParamException(String.format("batch size cannot be larger than %s", MAX_BATCH_SIZE));
             }
+
+            if (checkpoint != null && !checkpoint.getCollectionName().equals(collectionName)) {
+                throw new ParamException("The checkpoint belongs to another collection: " + checkpoint.getCollectionName());
+            }
+
+            if (checkpoint != null && offset != 0) {
+                throw new ParamException("The offset cannot be used together with a checkpoint");
+            }
+
+            if (cacheMaxBytes != UNLIMITED && cacheMaxBytes <= 0) {
+                throw new ParamException("The cache max bytes must be greater than 0");
+            }
+
+            if (prefetchDepth < 0) {
+                throw new ParamException("The prefetch depth cannot be less than 0");
+            }
+
+            if (prefetchMaxBytes <= 0) {
+                throw new ParamException("The prefetch max bytes must be greater than 0");
+            }
+
             return new QueryIteratorParam(this);
         }
     }
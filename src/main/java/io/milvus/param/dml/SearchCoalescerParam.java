@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.milvus.param.dml;
+
+import io.milvus.exception.ParamException;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+
+/**
+ * Parameters of search coalescing, see {@link io.milvus.common.utils.SearchCoalescer}.
+ */
+@Getter
+@ToString
+public class SearchCoalescerParam {
+    private final long windowMs;
+    private final int maxNq;
+
+    private SearchCoalescerParam(@NonNull Builder builder) {
+        this.windowMs = builder.windowMs;
+        this.maxNq = builder.maxNq;
+    }
+
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    /**
+     * Builder for {@link SearchCoalescerParam} class.
+     */
+    public static final class Builder {
+        // windowMs:
+        //   A search request waits at most this many milliseconds for other compatible requests.
+        //   Default value: 2 milliseconds.
+        private long windowMs = 2L;
+
+        // maxNq:
+        //   A merged request holds at most this many target vectors. Default value: 64.
+        private int maxNq = 64;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets how long a search request waits for other compatible requests, in milliseconds.
+         * Must be larger than zero.
+         *
+         * @param windowMs window in milliseconds
+         * @return <code>Builder</code>
+         */
+        public Builder withWindowMs(long windowMs) {
+            this.windowMs = windowMs;
+            return this;
+        }
+
+        /**
+         * Sets the max number of target vectors of a merged search request. Must be larger than 1.
+         *
+         * @param maxNq max number of target vectors
+         * @return <code>Builder</code>
+         */
+        public Builder withMaxNq(int maxNq) {
+            this.maxNq = maxNq;
+            return this;
+        }
+
+        /**
+         * Verifies parameters and creates a new {@link SearchCoalescerParam} instance.
+         *
+         * @return {@link SearchCoalescerParam}
+         */
+        public SearchCoalescerParam build() throws ParamException {
+            if (windowMs <= 0) {
+                throw new ParamException("Search coalescing window must be larger than zero");
+            }
+            if (maxNq <= 1) {
+                throw new ParamException("Max nq of coalesced search must be larger than 1");
+            }
+
+            return new SearchCoalescerParam(this);
+        }
+    }
+}
@@ -22,10 +22,12 @@ package io.milvus.param.dml;
 import com.google.common.collect.Lists;
 import io.milvus.common.clientenum.ConsistencyLevelEnum;
 import io.milvus.exception.ParamException;
+import io.milvus.orm.iterator.SearchIteratorCheckpoint;
 import io.milvus.grpc.PlaceholderType;
 import io.milvus.param.Constant;
 import io.milvus.param.MetricType;
 import io.milvus.param.ParamUtils;
+import io.milvus.param.SparseVector;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.ToString;
@@ -64,6 +66,11 @@ public class SearchIteratorParam {
     private final PlaceholderType plType;
 
     private final long batchSize;
+    private final int prefetchDepth;
+    private final long prefetchMaxBytes;
+    private final long cacheMaxBytes;
+    private final int excludedIdsStep;
+    private final SearchIteratorCheckpoint checkpoint;
 
     private SearchIteratorParam(@NonNull Builder builder) {
         this.databaseName = builder.databaseName;
@@ -87,6 +94,11 @@ public class SearchIteratorParam {
         this.plType = builder.plType;
         
         this.batchSize = builder.batchSize;
+        this.prefetchDepth = builder.prefetchDepth;
+        this.prefetchMaxBytes = builder.prefetchMaxBytes;
+        this.cacheMaxBytes = builder.cacheMaxBytes;
+        this.excludedIdsStep = builder.excludedIdsStep;
+        this.checkpoint = builder.checkpoint;
     }
 
     public static Builder newBuilder() {
@@ -123,6 +135,20 @@ public class SearchIteratorParam {
 
         private Long batchSize = 1000L;
 
+        // read-ahead is off by default, each next() call issues its own rpc
+        // when enabled, the buffered pages are capped by both depth and estimated bytes
+        private Integer prefetchDepth = 0;
+        private Long prefetchMaxBytes = 64L * 1024 * 1024;
+
+        // rows fetched ahead of the caller are kept in memory without limit by default
+        // with a budget, the overflow is spilled to a temporary file
+        private Long cacheMaxBytes = (long) UNLIMITED;
+
+        // hits tied on the boundary distance are excluded by a "pk not in [...]" filter which starts with this many
+        // keys, ties beyond it are deduplicated locally and added by this many keys when they keep coming back
+        private Integer excludedIdsStep = 1024;
+        private SearchIteratorCheckpoint checkpoint = null;
+
         Builder() {
         }
 
@@ -337,6 +363,19 @@ public class SearchIteratorParam {
             return this;
         }
 
+        /**
+         * Sets the target vectors to search on SparseFloatVector field, as compact {@link SparseVector}s.
+         *
+         * @param vectors target vectors to search
+         * @return <code>Builder</code>
+         */
+        public Builder withSparseVectors(@NonNull List<SparseVector> vectors) {
+            this.vectors = vectors;
+            this.NQ = (long) vectors.size();
+            this.plType = PlaceholderType.SparseFloatVector;
+            return this;
+        }
+
         /**
          * Specifies the decimal place of the returned results.
          *
@@ -397,6 +436,75 @@ public class SearchIteratorParam {
             return this;
         }
 
+        /**
+         * Enables read-ahead: the iterator fetches up to <code>prefetchDepth</code> upcoming batches
+         * in a background thread while the caller is consuming the current one.
+         * Default value is 0, no read-ahead.
+         *
+         * @param prefetchDepth the maximum number of batches buffered ahead of the caller
+         * @return <code>Builder</code>
+         */
+        public Builder withPrefetchDepth(@NonNull Integer prefetchDepth) {
+            this.prefetchDepth = prefetchDepth;
+            return this;
+        }
+
+        /**
+         * Sets the memory cap of the read-ahead buffer, the background thread stops fetching
+         * while the buffered batches exceed this size. At least one batch is always buffered.
+         * Default value is 64MB. Only take effect when the prefetch depth is larger than 0.
+         *
+         * @param prefetchMaxBytes the maximum estimated bytes of buffered batches
+         * @return <code>Builder</code>
+         */
+        public Builder withPrefetchMaxBytes(@NonNull Long prefetchMaxBytes) {
+            this.prefetchMaxBytes = prefetchMaxBytes;
+            return this;
+        }
+
+        /**
+         * Sets the memory budget of the rows fetched by the iterator but not returned yet, estimated per row.
+         * Rows beyond the budget are spilled to a temporary file and read back when they are returned.
+         * Default value is -1, no limit.
+         *
+         * @param cacheMaxBytes the maximum estimated bytes of cached rows kept in memory
+         * @return <code>Builder</code>
+         */
+        public Builder withCacheMaxBytes(@NonNull Long cacheMaxBytes) {
+            this.cacheMaxBytes = cacheMaxBytes;
+            return this;
+        }
+
+        /**
+         * Sets how many primary keys of the hits already returned at the boundary distance are put into the filter
+         * expression at a time. The filter starts with this many keys, further ties are fetched again and dropped
+         * by the iterator. When a round returns only such ties, this many more keys are added and the round is
+         * retried, so no tie is skipped but each step costs one more search rpc.
+         * The expression is not bounded by this value: with dense ties it grows up to all the ties of one distance,
+         * and the iterator fails if they exceed {@link io.milvus.param.Constant#MAX_FILTERED_IDS_COUNT_ITERATION}.
+         * Default value is 1024, 0 keeps the keys out of the filter until the ties repeat, then adds batchSize
+         * keys at a time.
+         *
+         * @param excludedIdsStep number of primary keys added to the filter at a time
+         * @return <code>Builder</code>
+         */
+        public Builder withExcludedIdsStep(@NonNull Integer excludedIdsStep) {
+            this.excludedIdsStep = excludedIdsStep;
+            return this;
+        }
+
+        /**
+         * Resumes the iteration from a checkpoint taken by {@link io.milvus.orm.iterator.SearchIterator#getCheckpoint()} (Optional).
+         * The iterator continues with a range search from the last returned distance instead of the init search.
+         *
+         * @param checkpoint {@link SearchIteratorCheckpoint}
+         * @return <code>Builder</code>
+         */
+        public Builder withCheckpoint(@NonNull SearchIteratorCheckpoint checkpoint) {
+            this.checkpoint = checkpoint;
+            return this;
+        }
+
         /**
          * Verifies parameters and creates a new {@link SearchIteratorParam} instance.
          *
@@ -422,6 +530,26 @@ public class SearchIteratorParam {
                 throw new ParamException("must specify metricType for search iterator");
             }
 
+            if (checkpoint != null && !checkpoint.getCollectionName().equals(collectionName)) {
+                throw new ParamException("The checkpoint belongs to another collection: " + checkpoint.getCollectionName());
+            }
+
+            if (cacheMaxBytes != UNLIMITED && cacheMaxBytes <= 0) {
+                throw new ParamException("The cache max bytes must be greater than 0");
+            }
+
+            if (excludedIdsStep < 0) {
+                throw new ParamException("The excluded ids step cannot be less than 0");
+            }
+
+            if (prefetchDepth < 0) {
+                throw new ParamException("The prefetch depth cannot be less than 0");
+            }
+
+            if (prefetchMaxBytes <= 0) {
+                throw new ParamException("The prefetch max bytes must be greater than 0");
+            }
+
             verifyVectors(vectors);
             return new SearchIteratorParam(this);
         }
@@ -447,6 +575,11 @@ public class SearchIteratorParam {
             if (vectors.size() > 1) {
                 throw new ParamException("Not support search iteration over multiple vectors at present");
             }
+        } else if (vectors.get(0) instanceof SparseVector) {
+            // SparseFloatVector
+            if (vectors.size() > 1) {
+                throw new ParamException("Not support search iteration over multiple vectors at present");
+            }
         } else if (vectors.get(0) instanceof SortedMap) {
             // SparseFloatVector
             if (vectors.size() > 1) {
@@ -465,7 +598,7 @@ public class SearchIteratorParam {
             String msg = "Search target vector type is illegal." +
                     " Only allow List<Float> for FloatVector," +
                     " ByteBuffer for BinaryVector/Float16Vector/BFloat16Vector," +
-                    " List<SortedMap<Long, Float>> for SparseFloatVector.";
+                    " List<SortedMap<Long, Float>> or List<SparseVector> for SparseFloatVector.";
             throw new ParamException(msg);
         }
     }
@@ -26,6 +26,7 @@ import io.milvus.grpc.PlaceholderType;
 import io.milvus.param.Constant;
 import io.milvus.param.MetricType;
 import io.milvus.param.ParamUtils;
+import io.milvus.param.SparseVector;
 
 import lombok.Getter;
 import lombok.NonNull;
@@ -329,6 +330,19 @@ public class SearchParam {
             return this;
         }
 
+        /**
+         * Sets the target vectors to search on SparseFloatVector field, as compact {@link SparseVector}s.
+         *
+         * @param vectors target vectors to search
+         * @return <code>Builder</code>
+         */
+        public Builder withSparseVectors(@NonNull List<SparseVector> vectors) {
+            this.vectors = vectors;
+            this.NQ = (long) vectors.size();
+            this.plType = PlaceholderType.SparseFloatVector;
+            return this;
+        }
+
         /**
          * Specifies the decimal place of the returned results.
          *
@@ -435,6 +449,13 @@ public class SearchParam {
                     throw new ParamException("Target vector dimension must be equal");
                 }
             }
+        } else if (vectors.get(0) instanceof SparseVector) {
+            // SparseFloatVector, the SparseVector is validated by its constructor
+            for (Object vector : vectors) {
+                if (!(vector instanceof SparseVector)) {
+                    throw new ParamException("Target vectors must be all SparseVector");
+                }
+            }
         } else if (vectors.get(0) instanceof SortedMap) {
             // SparseFloatVector
             // TODO: here only check the first element, potential risk
@@ -449,7 +470,7 @@ public class SearchParam {
             String msg = "Search target vector type is illegal." +
                     " Only allow List<Float> for FloatVector," +
                     " ByteBuffer for BinaryVector/Float16Vector/BFloat16Vector," +
-                    " List<SortedMap<Long, Float>> for SparseFloatVector.";
+                    " List<SortedMap<Long, Float>> or List<SparseVector> for SparseFloatVector.";
             throw new ParamException(msg);
         }
     }
@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.milvus.param.dml;
+
+import io.milvus.exception.ParamException;
+import io.milvus.param.ParamUtils;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+
+/**
+ * Parameters for {@link io.milvus.client.StreamInserter}.
+ */
+@Getter
+@ToString
+public class StreamInsertParam {
+    private final String databaseName;
+    private final String collectionName;
+    private final String partitionName;
+    private final int batchRows;
+    private final int maxInflightBatches;
+    @ToString.Exclude
+    private final ProgressListener progressListener;
+
+    private StreamInsertParam(@NonNull Builder builder) {
+        this.databaseName = builder.databaseName;
+        this.collectionName = builder.collectionName;
+        this.partitionName = builder.partitionName;
+        this.batchRows = builder.batchRows;
+        this.maxInflightBatches = builder.maxInflightBatches;
+        this.progressListener = builder.progressListener;
+    }
+
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    /**
+     * Receives the number of rows inserted so far, after each batch is done.
+     * It is called from the rpc callback threads, one call at a time.
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        void onProgress(long insertedRows);
+    }
+
+    /**
+     * Builder for {@link StreamInsertParam} class.
+     */
+    public static final class Builder {
+        private String databaseName;
+        private String collectionName;
+        private String partitionName = "";
+
+        // batchRows:
+        //   Number of rows read from the source for one insert request. Default value: 1000 rows.
+        private int batchRows = 1000;
+
+        // maxInflightBatches:
+        //   Max number of insert requests waiting for response. The source is not read while this
+        //   limit is reached, so at most batchRows * (maxInflightBatches + 1) rows are held in memory.
+        //   Default value: 2.
+        private int maxInflightBatches = 2;
+
+        private ProgressListener progressListener;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the database name. database name can be nil.
+         *
+         * @param databaseName database name
+         * @return <code>Builder</code>
+         */
+        public Builder withDatabaseName(String databaseName) {
+            this.databaseName = databaseName;
+            return this;
+        }
+
+        /**
+         * Sets the target collection name. Collection name cannot be empty or null.
+         *
+         * @param collectionName collection name
+         * @return <code>Builder</code>
+         */
+        public Builder withCollectionName(@NonNull String collectionName) {
+            this.collectionName = collectionName;
+            return this;
+        }
+
+        /**
+         * Sets the target partition name (Optional).
+         *
+         * @param partitionName partition name
+         * @return <code>Builder</code>
+         */
+        public Builder withPartitionName(@NonNull String partitionName) {
+            this.partitionName = partitionName;
+            return this;
+        }
+
+        /**
+         * Sets the number of rows sent by one insert request. Must be larger than zero.
+         *
+         * @param batchRows number of rows
+         * @return <code>Builder</code>
+         */
+        public Builder withBatchRows(int batchRows) {
+            this.batchRows = batchRows;
+            return this;
+        }
+
+        /**
+         * Sets the max number of insert requests waiting for response. Must be larger than zero.
+         *
+         * @param maxInflightBatches max number of requests in flight
+         * @return <code>Builder</code>
+         */
+        public Builder withMaxInflightBatches(int maxInflightBatches) {
+            this.maxInflightBatches = maxInflightBatches;
+            return this;
+        }
+
+        /**
+         * Sets a listener to receive the progress (Optional).
+         *
+         * @param progressListener {@link ProgressListener}
+         * @return <code>Builder</code>
+         */
+        public Builder withProgressListener(ProgressListener progressListener) {
+            this.progressListener = progressListener;
+            return this;
+        }
+
+        /**
+         * Verifies parameters and creates a new {@link StreamInsertParam} instance.
+         *
+         * @return {@link StreamInsertParam}
+         */
+        public StreamInsertParam build() throws ParamException {
+            ParamUtils.CheckNullEmptyString(collectionName, "Collection name");
+
+            if (batchRows <= 0) {
+                throw new ParamException("Batch rows must be larger than zero");
+            }
+            if (maxInflightBatches <= 0) {
+                throw new ParamException("Max inflight batches must be larger than zero");
+            }
+
+            return new StreamInsertParam(this);
+        }
+    }
+}
@@ -126,6 +126,30 @@ public class UpsertParam extends InsertParam {
             return this;
         }
 
+        /**
+         * Sets the max estimated encoded size of one request (Optional).
+         * If the data is larger than this value, the rows are split into several requests by size.
+         * Default value is 0, the data is sent by one request.
+         *
+         * @param maxRequestBytes max size in bytes, 0 means no split
+         * @return <code>Builder</code>
+         */
+        public Builder withMaxRequestBytes(long maxRequestBytes) {
+            super.withMaxRequestBytes(maxRequestBytes);
+            return this;
+        }
+
+        /**
+         * Sets the max number of split requests in flight at the same time (Optional). Default value is 1.
+         *
+         * @param maxInflightRequests max number of requests in flight
+         * @return <code>Builder</code>
+         */
+        public Builder withMaxInflightRequests(int maxInflightRequests) {
+            super.withMaxInflightRequests(maxInflightRequests);
+            return this;
+        }
+
         /**
          * Verifies parameters and creates a new {@link UpsertParam} instance.
          *
@@ -23,17 +23,20 @@ import com.google.gson.*;
 import com.google.protobuf.ProtocolStringList;
 import io.milvus.exception.ParamException;
 import io.milvus.grpc.*;
+import io.milvus.common.utils.Float16Utils;
 import io.milvus.exception.IllegalResponseException;
 
 import io.milvus.param.ParamUtils;
+import io.milvus.param.SparseVector;
 import lombok.NonNull;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.SortedMap;
-import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.stream.Collectors;
 
 import com.google.protobuf.ByteString;
@@ -42,9 +45,15 @@ import static io.milvus.grpc.DataType.JSON;
 
 /**
  * Utility class to wrap response of <code>query/search</code> interface.
+ * The decoded column and parsed JSON rows are cached, a wrapper can be read by many threads.
  */
 public class FieldDataWrapper {
     private final FieldData fieldData;
+    // the column decoded by getFieldData(), so that valueByIdx() doesn't decode the whole column for each row
+    // threads racing on the first call may decode it twice, the lists are equal and one of them is kept
+    private volatile List<?> decodedData;
+    // the JSON rows parsed by get()/getAsXXX(), so that each row is parsed once for all its keys
+    private volatile AtomicReferenceArray<JsonElement> parsedJson;
 
     public FieldDataWrapper(@NonNull FieldData fieldData) {
         this.fieldData = fieldData;
@@ -162,6 +171,261 @@ public class FieldDataWrapper {
         }
     }
 
+    /**
+     * Decodes a FloatVector/Float16Vector/BFloat16Vector field into one float array.
+     * The vectors are stored row by row, the i-th vector starts from index i * dim.
+     * Float16/BFloat16 values are converted to float32 in one pass, without the per-row ByteBuffer
+     * returned by getFieldData(). A Float field is decoded into one value per row.
+     *
+     * Throws {@link IllegalResponseException} if the field is not a float/float16/bfloat16 vector or float field.
+     *
+     * @return <code>float[]</code> row-major vectors
+     */
+    public float[] toFloatArray() throws IllegalResponseException {
+        return toFloatArray(0, (int) getRowCount());
+    }
+
+    /**
+     * Decodes rows in range [fromRow, toRow) of a FloatVector/Float16Vector/BFloat16Vector/Float field
+     * into one float array, see {@link #toFloatArray()}.
+     * Throws {@link ParamException} if the range is illegal.
+     *
+     * @param fromRow index of the first row, inclusive
+     * @param toRow index of the last row, exclusive
+     * @return <code>float[]</code> row-major values
+     */
+    public float[] toFloatArray(int fromRow, int toRow) throws IllegalResponseException, ParamException {
+        DataType dt = fieldData.getType();
+        switch (dt) {
+            case Float: {
+                FloatArray data = fieldData.getScalars().getFloatData();
+                checkRange(fromRow, toRow, data.getDataCount());
+                float[] result = new float[toRow - fromRow];
+                for (int i = 0; i < result.length; ++i) {
+                    result[i] = data.getData(fromRow + i);
+                }
+                return result;
+            }
+            case FloatVector: {
+                int dim = getDim();
+                FloatArray data = fieldData.getVectors().getFloatVector();
+                checkRange(fromRow, toRow, (int) getRowCount());
+                float[] result = new float[(toRow - fromRow) * dim];
+                int offset = fromRow * dim;
+                for (int i = 0; i < result.length; ++i) {
+                    result[i] = data.getData(offset + i);
+                }
+                return result;
+            }
+            case Float16Vector:
+            case BFloat16Vector: {
+                int dim = getDim();
+                ByteString data = (dt == DataType.Float16Vector) ?
+                        fieldData.getVectors().getFloat16Vector() : fieldData.getVectors().getBfloat16Vector();
+                checkDim(dt, data, dim);
+                checkRange(fromRow, toRow, data.size() / (dim * 2));
+                // the read-only view shares the bytes of the ByteString, no intermediate copy
+                ByteBuffer buf = data.asReadOnlyByteBuffer();
+                float[] result = new float[(toRow - fromRow) * dim];
+                int offset = buf.position() + fromRow * dim * 2;
+                if (dt == DataType.Float16Vector) {
+                    Float16Utils.decodeFloat16(buf, offset, result, 0, result.length);
+                } else {
+                    Float16Utils.decodeBFloat16(buf, offset, result, 0, result.length);
+                }
+                return result;
+            }
+            default:
+                throw new IllegalResponseException("Only FloatVector/Float16Vector/BFloat16Vector/Float field can be decoded to float array");
+        }
+    }
+
+    /**
+     * Decodes rows in range [fromRow, toRow) of an Int64 field into a long array, without boxing.
+     * Throws {@link IllegalResponseException} if the field is not an Int64 field.
+     * Throws {@link ParamException} if the range is illegal.
+     *
+     * @param fromRow index of the first row, inclusive
+     * @param toRow index of the last row, exclusive
+     * @return <code>long[]</code>
+     */
+    public long[] toLongArray(int fromRow, int toRow) throws IllegalResponseException, ParamException {
+        if (fieldData.getType() != DataType.Int64) {
+            throw new IllegalResponseException("Only Int64 field can be decoded to long array");
+        }
+        LongArray data = fieldData.getScalars().getLongData();
+        checkRange(fromRow, toRow, data.getDataCount());
+        long[] result = new long[toRow - fromRow];
+        for (int i = 0; i < result.length; ++i) {
+            result[i] = data.getData(fromRow + i);
+        }
+        return result;
+    }
+
+    /**
+     * Decodes rows in range [fromRow, toRow) of an Int32/Int16/Int8 field into an int array, without boxing.
+     * Throws {@link IllegalResponseException} if the field is not an Int32/Int16/Int8 field.
+     * Throws {@link ParamException} if the range is illegal.
+     *
+     * @param fromRow index of the first row, inclusive
+     * @param toRow index of the last row, exclusive
+     * @return <code>int[]</code>
+     */
+    public int[] toIntArray(int fromRow, int toRow) throws IllegalResponseException, ParamException {
+        DataType dt = fieldData.getType();
+        if (dt != DataType.Int32 && dt != DataType.Int16 && dt != DataType.Int8) {
+            throw new IllegalResponseException("Only Int32/Int16/Int8 field can be decoded to int array");
+        }
+        IntArray data = fieldData.getScalars().getIntData();
+        checkRange(fromRow, toRow, data.getDataCount());
+        int[] result = new int[toRow - fromRow];
+        for (int i = 0; i < result.length; ++i) {
+            result[i] = data.getData(fromRow + i);
+        }
+        return result;
+    }
+
+    /**
+     * Decodes rows in range [fromRow, toRow) of a Double field into a double array, without boxing.
+     * Throws {@link IllegalResponseException} if the field is not a Double field.
+     * Throws {@link ParamException} if the range is illegal.
+     *
+     * @param fromRow index of the first row, inclusive
+     * @param toRow index of the last row, exclusive
+     * @return <code>double[]</code>
+     */
+    public double[] toDoubleArray(int fromRow, int toRow) throws IllegalResponseException, ParamException {
+        if (fieldData.getType() != DataType.Double) {
+            throw new IllegalResponseException("Only Double field can be decoded to double array");
+        }
+        DoubleArray data = fieldData.getScalars().getDoubleData();
+        checkRange(fromRow, toRow, data.getDataCount());
+        double[] result = new double[toRow - fromRow];
+        for (int i = 0; i < result.length; ++i) {
+            result[i] = data.getData(fromRow + i);
+        }
+        return result;
+    }
+
+    /**
+     * Decodes rows in range [fromRow, toRow) of a Bool field into a boolean array, without boxing.
+     * Throws {@link IllegalResponseException} if the field is not a Bool field.
+     * Throws {@link ParamException} if the range is illegal.
+     *
+     * @param fromRow index of the first row, inclusive
+     * @param toRow index of the last row, exclusive
+     * @return <code>boolean[]</code>
+     */
+    public boolean[] toBooleanArray(int fromRow, int toRow) throws IllegalResponseException, ParamException {
+        if (fieldData.getType() != DataType.Bool) {
+            throw new IllegalResponseException("Only Bool field can be decoded to boolean array");
+        }
+        BoolArray data = fieldData.getScalars().getBoolData();
+        checkRange(fromRow, toRow, data.getDataCount());
+        boolean[] result = new boolean[toRow - fromRow];
+        for (int i = 0; i < result.length; ++i) {
+            result[i] = data.getData(fromRow + i);
+        }
+        return result;
+    }
+
+    /**
+     * Returns rows in range [fromRow, toRow) of a VarChar field. The list is a view of the response, not a copy.
+     * Throws {@link IllegalResponseException} if the field is not a VarChar field.
+     * Throws {@link ParamException} if the range is illegal.
+     *
+     * @param fromRow index of the first row, inclusive
+     * @param toRow index of the last row, exclusive
+     * @return <code>List<String></code>
+     */
+    public List<String> toStringList(int fromRow, int toRow) throws IllegalResponseException, ParamException {
+        DataType dt = fieldData.getType();
+        if (dt != DataType.VarChar && dt != DataType.String) {
+            throw new IllegalResponseException("Only VarChar field can be decoded to string list");
+        }
+        ProtocolStringList data = fieldData.getScalars().getStringData().getDataList();
+        checkRange(fromRow, toRow, data.size());
+        return data.subList(fromRow, toRow);
+    }
+
+    /**
+     * Returns a FloatVector/Float16Vector/BFloat16Vector/Float field as one FloatBuffer over {@link #toFloatArray()}.
+     * The i-th vector starts from index i * dim. protobuf doesn't expose the primitive array of a repeated float,
+     * so a FloatVector field is copied once in bulk, without boxing.
+     *
+     * @return <code>FloatBuffer</code> row-major vectors
+     */
+    public FloatBuffer toFloatBuffer() throws IllegalResponseException {
+        return FloatBuffer.wrap(toFloatArray());
+    }
+
+    /**
+     * Returns a read-only view of all the vectors of a BinaryVector/Float16Vector/BFloat16Vector field.
+     * The bytes are shared with the response, nothing is copied. Float16/BFloat16 views are little endian.
+     * Throws {@link IllegalResponseException} if the field is not a binary/float16/bfloat16 vector field.
+     *
+     * @return <code>ByteBuffer</code> row-major vectors, the i-th vector starts from i * getBytesPerVector()
+     */
+    public ByteBuffer toByteBuffer() throws IllegalResponseException {
+        return orderOf(vectorByteString().asReadOnlyByteBuffer());
+    }
+
+    /**
+     * Returns a read-only view of one vector of a BinaryVector/Float16Vector/BFloat16Vector field.
+     * The bytes are shared with the response, nothing is copied. Float16/BFloat16 views are little endian.
+     * Unlike the ByteBuffers returned by getFieldData(), the position of the view is 0.
+     * Throws {@link IllegalResponseException} if the field is not a binary/float16/bfloat16 vector field.
+     * Throws {@link ParamException} if the row is illegal.
+     *
+     * @param row which row
+     * @return <code>ByteBuffer</code>
+     */
+    public ByteBuffer getVectorBytes(int row) throws IllegalResponseException, ParamException {
+        ByteString data = vectorByteString();
+        int bytePerVec = getBytesPerVector();
+        checkRange(row, row + 1, data.size() / bytePerVec);
+        // substring() may share the backing array, slice() moves the offset of the view to position 0,
+        // the byte order is reset by slice() so it is set afterwards
+        ByteBuffer view = data.substring(row * bytePerVec, (row + 1) * bytePerVec).asReadOnlyByteBuffer().slice();
+        return orderOf(view);
+    }
+
+    /**
+     * Gets the byte size of one vector of a BinaryVector/Float16Vector/BFloat16Vector field.
+     * Throws {@link IllegalResponseException} if the field is not a binary/float16/bfloat16 vector field.
+     *
+     * @return <code>int</code>
+     */
+    public int getBytesPerVector() throws IllegalResponseException {
+        return checkDim(fieldData.getType(), vectorByteString(), getDim());
+    }
+
+    private ByteString vectorByteString() throws IllegalResponseException {
+        switch (fieldData.getType()) {
+            case BinaryVector:
+                return fieldData.getVectors().getBinaryVector();
+            case Float16Vector:
+                return fieldData.getVectors().getFloat16Vector();
+            case BFloat16Vector:
+                return fieldData.getVectors().getBfloat16Vector();
+            default:
+                throw new IllegalResponseException("Only BinaryVector/Float16Vector/BFloat16Vector field has byte vectors");
+        }
+    }
+
+    private ByteBuffer orderOf(ByteBuffer buf) {
+        if (fieldData.getType() != DataType.BinaryVector) {
+            buf.order(ByteOrder.LITTLE_ENDIAN);
+        }
+        return buf;
+    }
+
+    private static void checkRange(int fromRow, int toRow, int rowCount) throws ParamException {
+        if (fromRow < 0 || fromRow > toRow || toRow > rowCount) {
+            throw new ParamException(String.format("Illegal row range [%d, %d) of %d rows", fromRow, toRow, rowCount));
+        }
+    }
+
     /**
      * Returns the field data according to its type:
      *      FloatVector field returns List of List Float,
@@ -179,9 +443,55 @@ public class FieldDataWrapper {
      *
      * Throws {@link IllegalResponseException} if the field type is illegal.
      *
+     * The column is decoded once and cached by this wrapper. Each call returns a new list,
+     * ByteBuffers are returned as duplicates so that their positions are not shared between calls.
+     *
      * @return <code>List</code>
      */
     public List<?> getFieldData() throws IllegalResponseException {
+        List<?> data = getDecodedData();
+        return copyOf(data, 0, data.size());
+    }
+
+    /**
+     * Gets the values of the rows from fromIndex (inclusive) to toIndex (exclusive),
+     * in the types described by {@link #getFieldData()}. Only these rows are copied from the cached column.
+     *
+     * Throws {@link IllegalResponseException} if the column has less than toIndex rows.
+     *
+     * @param fromIndex index of the first row
+     * @param toIndex index after the last row
+     * @return <code>List</code>
+     */
+    public List<?> getFieldData(int fromIndex, int toIndex) throws IllegalResponseException {
+        List<?> data = getDecodedData();
+        if (toIndex > data.size()) {
+            throw new IllegalResponseException("Field data row count is wrong");
+        }
+        return copyOf(data, fromIndex, toIndex);
+    }
+
+    private static List<?> copyOf(List<?> data, int fromIndex, int toIndex) {
+        if (!(data instanceof ArrayList)) {
+            return data.subList(fromIndex, toIndex); // unmodifiable lists of the protobuf
+        }
+        List<Object> copy = new ArrayList<>(toIndex - fromIndex);
+        for (Object value : data.subList(fromIndex, toIndex)) {
+            copy.add(value instanceof ByteBuffer ? ((ByteBuffer) value).duplicate() : value);
+        }
+        return copy;
+    }
+
+    private List<?> getDecodedData() throws IllegalResponseException {
+        List<?> data = decodedData;
+        if (data == null) {
+            data = decodeFieldData();
+            decodedData = data;
+        }
+        return data;
+    }
+
+    private List<?> decodeFieldData() throws IllegalResponseException {
         DataType dt = fieldData.getType();
         switch (dt) {
             case FloatVector: {
@@ -217,8 +527,11 @@ public class FieldDataWrapper {
                 int count = data.size()/bytePerVec;
                 List<ByteBuffer> packData = new ArrayList<>();
                 for (int i = 0; i < count; ++i) {
-                    ByteBuffer bf = ByteBuffer.allocate(bytePerVec);
-                    bf.put(data.substring(i * bytePerVec, (i + 1) * bytePerVec).toByteArray());
+                    // copy straight into the buffer's array, the position is moved to the end as before
+                    byte[] bytes = new byte[bytePerVec];
+                    data.copyTo(bytes, i * bytePerVec, 0, bytePerVec);
+                    ByteBuffer bf = ByteBuffer.wrap(bytes);
+                    bf.position(bytePerVec);
                     packData.add(bf);
                 }
                 return packData;
@@ -227,33 +540,9 @@ public class FieldDataWrapper {
                 // in Java sdk, each sparse vector is pairs of long+float
                 // in server side, each sparse vector is stored as uint+float (8 bytes)
                 // don't use sparseArray.getDim() because the dim is the max index of each rows
-                SparseFloatArray sparseArray = fieldData.getVectors().getSparseFloatVector();
                 List<SortedMap<Long, Float>> packData = new ArrayList<>();
-                for (int i = 0; i < sparseArray.getContentsCount(); ++i) {
-                    ByteString bs = sparseArray.getContents(i);
-                    ByteBuffer bf = ByteBuffer.wrap(bs.toByteArray());
-                    bf.order(ByteOrder.LITTLE_ENDIAN);
-                    SortedMap<Long, Float> sparse = new TreeMap<>();
-                    long num = bf.limit()/8; // each uint+float pair is 8 bytes
-                    for (long j = 0; j < num; j++) {
-                        // here we convert an uint 4-bytes to a long value
-                        ByteBuffer pBuf = ByteBuffer.allocate(Long.BYTES);
-                        pBuf.order(ByteOrder.LITTLE_ENDIAN);
-                        int offset = 8*(int)j;
-                        byte[] aa = bf.array();
-                        for (int k = offset; k < offset + 4; k++) {
-                            pBuf.put(aa[k]); // fill the first 4 bytes with the unit bytes
-                        }
-                        pBuf.putInt(0); // fill the last 4 bytes to zero
-                        pBuf.rewind(); // reset position to head
-                        long k = pBuf.getLong(); // this is the long value converted from the uint
-
-                        // here we get the float value as normal
-                        bf.position(offset+4); // position offsets 4 bytes since they were converted to long
-                        float v = bf.getFloat(); // this is the float value
-                        sparse.put(k, v);
-                    }
-                    packData.add(sparse);
+                for (SparseVector sparse : getSparseVectors()) {
+                    packData.add(sparse.toMap());
                 }
                 return packData;
             }
@@ -307,6 +596,25 @@ public class FieldDataWrapper {
         }
     }
 
+    /**
+     * Returns the data of a SparseFloatVector field as compact {@link SparseVector}s,
+     * each vector is decoded by one pass over its binary without boxing.
+     * Throws {@link IllegalResponseException} if the field is not a SparseFloatVector field.
+     *
+     * @return List of SparseVector
+     */
+    public List<SparseVector> getSparseVectors() throws IllegalResponseException {
+        if (fieldData.getType() != DataType.SparseFloatVector) {
+            throw new IllegalResponseException("Only SparseFloatVector type support this operation");
+        }
+        SparseFloatArray sparseArray = fieldData.getVectors().getSparseFloatVector();
+        List<SparseVector> vectors = new ArrayList<>(sparseArray.getContentsCount());
+        for (ByteString bs : sparseArray.getContentsList()) {
+            vectors.add(SparseVector.decode(bs));
+        }
+        return vectors;
+    }
+
     public Integer getAsInt(int index, String paramName) throws IllegalResponseException {
         if (isJsonField()) {
             String result = getAsString(index, paramName);
@@ -366,16 +674,32 @@ public class FieldDataWrapper {
     }
 
     public Object valueByIdx(int index) throws ParamException {
-        List<?> data = getFieldData();
+        List<?> data = getDecodedData();
         if (index < 0 || index >= data.size()) {
             throw new ParamException(String.format("Value index %d out of range %d", index, data.size()));
         }
-        return data.get(index);
+        Object value = data.get(index);
+        return value instanceof ByteBuffer ? ((ByteBuffer) value).duplicate() : value;
     }
 
     private JsonElement parseObjectData(int index) {
         Object object = valueByIdx(index);
-        return ParseJSONObject(object);
+        AtomicReferenceArray<JsonElement> parsed = parsedJson;
+        if (parsed == null) {
+            synchronized (this) {
+                parsed = parsedJson;
+                if (parsed == null) {
+                    parsed = new AtomicReferenceArray<>(getDecodedData().size());
+                    parsedJson = parsed;
+                }
+            }
+        }
+        JsonElement element = parsed.get(index);
+        if (element == null) {
+            element = ParseJSONObject(object);
+            parsed.set(index, element);
+        }
+        return element;
     }
 
     public static JsonElement ParseJSONObject(Object object) {
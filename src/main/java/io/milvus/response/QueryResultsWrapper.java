@@ -51,7 +51,7 @@ public class QueryResultsWrapper extends RowRecordWrapper {
         List<FieldData> fields = results.getFieldsDataList();
         for (FieldData field : fields) {
             if (fieldName.compareTo(field.getFieldName()) == 0) {
-                return new FieldDataWrapper(field);
+                return getWrapper(field);
             }
         }
 
@@ -95,7 +95,7 @@ public class QueryResultsWrapper extends RowRecordWrapper {
     public long getRowCount() {
         List<FieldData> fields = results.getFieldsDataList();
         for (FieldData field : fields) {
-            FieldDataWrapper wrapper = new FieldDataWrapper(field);
+            FieldDataWrapper wrapper = getWrapper(field);
             return wrapper.getRowCount();
         }
 
@@ -159,6 +159,15 @@ public class QueryResultsWrapper extends RowRecordWrapper {
             return obj;
         }
 
+        /**
+         * Gets all the key-value pairs of this record.
+         *
+         * @return <code>Map&lt;String, Object&gt;</code> a read-only view of the record
+         */
+        public Map<String, Object> getFieldValues() {
+            return Collections.unmodifiableMap(fieldValues);
+        }
+
         /**
          * Constructs a <code>String</code> by {@link QueryResultsWrapper.RowRecord} instance.
          *
@@ -20,6 +20,7 @@
 package io.milvus.response;
 
 import com.google.gson.*;
+import io.milvus.common.utils.FieldDataSplitter;
 import io.milvus.exception.IllegalResponseException;
 import io.milvus.exception.ParamException;
 import io.milvus.grpc.*;
@@ -54,7 +55,7 @@ public class SearchResultsWrapper extends RowRecordWrapper {
         List<FieldData> fields = results.getFieldsDataList();
         for (FieldData field : fields) {
             if (fieldName.compareTo(field.getFieldName()) == 0) {
-                return new FieldDataWrapper(field);
+                return getWrapper(field);
             }
         }
 
@@ -117,7 +118,7 @@ public class SearchResultsWrapper extends RowRecordWrapper {
         for (int i = 0; i < results.getFieldsDataCount(); ++i) {
             FieldData data = results.getFieldsData(i);
             if (fieldName.compareTo(data.getFieldName()) == 0) {
-                wrapper = new FieldDataWrapper(data);
+                wrapper = getWrapper(data);
             }
         }
 
@@ -129,12 +130,7 @@ public class SearchResultsWrapper extends RowRecordWrapper {
         long offset = position.getOffset();
         long k = position.getK();
 
-        List<?> allData = wrapper.getFieldData();
-        if (offset + k > allData.size()) {
-            throw new IllegalResponseException("Field data row count is wrong");
-        }
-
-        return allData.subList((int)offset, (int)offset + (int)k);
+        return wrapper.getFieldData((int)offset, (int)offset + (int)k);
     }
 
     /**
@@ -195,10 +191,10 @@ public class SearchResultsWrapper extends RowRecordWrapper {
             FieldDataWrapper dynamicField = null;
             for (FieldData field : fields) {
                 if (field.getIsDynamic()) {
-                    dynamicField = new FieldDataWrapper(field);
+                    dynamicField = getWrapper(field);
                 }
                 if (outputKey.equals(field.getFieldName())) {
-                    FieldDataWrapper wrapper = new FieldDataWrapper(field);
+                    FieldDataWrapper wrapper = getWrapper(field);
                     for (int n = 0; n < k; ++n) {
                         if ((offset + n) >= wrapper.getRowCount()) {
                             throw new ParamException("Illegal values length of output fields");
@@ -230,6 +226,49 @@ public class SearchResultsWrapper extends RowRecordWrapper {
         return idScores;
     }
 
+    /**
+     * Gets the results of target vectors in range [fromTarget, toTarget) as a new SearchResultData,
+     * the same as the server returns for a search of these target vectors only.
+     * Throws {@link ParamException} if the range is illegal.
+     *
+     * @param fromTarget index of the first target vector, inclusive
+     * @param toTarget index of the last target vector, exclusive
+     * @return {@link SearchResultData}
+     */
+    public SearchResultData getResultsOfTargets(int fromTarget, int toTarget) throws ParamException {
+        if (fromTarget >= toTarget) {
+            throw new ParamException(String.format("Illegal range of targets: [%d, %d)", fromTarget, toTarget));
+        }
+        Position first = getOffsetByIndex(fromTarget);
+        Position last = getOffsetByIndex(toTarget - 1);
+        int from = (int) first.getOffset();
+        int to = (int) (last.getOffset() + last.getK());
+
+        SearchResultData.Builder builder = results.toBuilder()
+                .setNumQueries(toTarget - fromTarget)
+                .clearTopks()
+                .clearScores()
+                .clearFieldsData();
+        if (results.getTopksCount() > 0) {
+            builder.addAllTopks(results.getTopksList().subList(fromTarget, toTarget));
+        }
+        if (to > results.getScoresCount()) {
+            throw new IllegalResponseException("Result scores is illegal");
+        }
+        builder.addAllScores(results.getScoresList().subList(from, to));
+
+        IDs ids = results.getIds();
+        if (ids.hasIntId()) {
+            builder.setIds(IDs.newBuilder().setIntId(LongArray.newBuilder()
+                    .addAllData(ids.getIntId().getDataList().subList(from, to))));
+        } else if (ids.hasStrId()) {
+            builder.setIds(IDs.newBuilder().setStrId(StringArray.newBuilder()
+                    .addAllData(ids.getStrId().getDataList().subList(from, to))));
+        }
+        builder.addAllFieldsData(FieldDataSplitter.slice(results.getFieldsDataList(), from, to));
+        return builder.build();
+    }
+
     @Getter
     private static final class Position {
         private final long offset;
@@ -26,12 +26,28 @@ import io.milvus.response.FieldDataWrapper;
 import io.milvus.response.QueryResultsWrapper;
 
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 public abstract class RowRecordWrapper {
+    // one wrapper for each field, so that a column is decoded once for all the rows
+    private final Map<FieldData, FieldDataWrapper> wrappers = new IdentityHashMap<>();
 
     public abstract List<QueryResultsWrapper.RowRecord> getRowRecords();
 
+    /**
+     * Gets the cached {@link FieldDataWrapper} of a field of this result.
+     *
+     * @param field a field of getFieldDataList()
+     * @return {@link FieldDataWrapper}
+     */
+    protected FieldDataWrapper getWrapper(FieldData field) {
+        synchronized (wrappers) {
+            return wrappers.computeIfAbsent(field, FieldDataWrapper::new);
+        }
+    }
+
     /**
      * Get the dynamic field. Only available when a collection's dynamic field is enabled.
      * Throws {@link ParamException} if the dynamic field doesn't exist.
@@ -42,7 +58,7 @@ public abstract class RowRecordWrapper {
         List<FieldData> fields = getFieldDataList();
         for (FieldData field : fields) {
             if (field.getIsDynamic()) {
-                return new FieldDataWrapper(field);
+                return getWrapper(field);
             }
         }
 
@@ -60,7 +76,7 @@ public abstract class RowRecordWrapper {
             boolean isField = false;
             for (FieldData field : getFieldDataList()) {
                 if (outputKey.equals(field.getFieldName())) {
-                    FieldDataWrapper wrapper = new FieldDataWrapper(field);
+                    FieldDataWrapper wrapper = getWrapper(field);
                     if (index < 0 || index >= wrapper.getRowCount()) {
                         throw new ParamException("Index out of range");
                     }
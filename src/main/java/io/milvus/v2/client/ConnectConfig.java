@@ -19,12 +19,14 @@
 
 package io.milvus.v2.client;
 
+import io.milvus.common.utils.ResultCache;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NonNull;
 import lombok.experimental.SuperBuilder;
 
 import java.net.URI;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
 @Data
@@ -46,6 +48,24 @@ public class ConnectConfig {
     private boolean keepAliveWithoutCalls = false;
     @Builder.Default
     private long rpcDeadlineMs = 0; // Disabling deadline
+    // deadlines of each operation type, applied to each call when it starts, 0 means using rpcDeadlineMs
+    // search: search/hybridSearch, query: query/get, insert: insert/upsert/delete, ddl: all the other calls
+    // a request can override them by its deadlineMs
+    @Builder.Default
+    private long searchDeadlineMs = 0;
+    @Builder.Default
+    private long queryDeadlineMs = 0;
+    @Builder.Default
+    private long insertDeadlineMs = 0;
+    @Builder.Default
+    private long ddlDeadlineMs = 0;
+    // concurrent search/searchAsync calls which only differ in their target vectors are merged into one
+    // multi-nq request if they arrive within this window, 0 means search coalescing is disabled
+    @Builder.Default
+    private long searchCoalesceWindowMs = 0;
+    // max number of target vectors of a merged search request
+    @Builder.Default
+    private int searchCoalesceMaxNq = 64;
 
     private String clientKeyPath;
     private String clientPemPath;
@@ -57,6 +77,15 @@ public class ConnectConfig {
     @Builder.Default
     private long idleTimeoutMs = TimeUnit.MILLISECONDS.convert(24, TimeUnit.HOURS);
 
+    // executor to encode requests and decode results of the *Async methods, ForkJoinPool.commonPool() if not set
+    // the client doesn't shut it down
+    private Executor asyncExecutor;
+
+    // client side cache of search/query results, see ResultCache.newBuilder(), disabled if not set
+    // insert/upsert/delete/dropCollection through this client invalidate the cached results of the collection
+    // only requests with an explicit consistency level other than STRONG are cached
+    private ResultCache resultCache;
+
     public String getHost() {
         URI uri = URI.create(this.uri);
         return uri.getHost();
@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.milvus.v2.client;
+
+import io.grpc.*;
+import io.grpc.stub.AbstractStub;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies a deadline to each call when the call starts, so that a deadline never expires before the call is made.
+ * The deadline of a call is chosen in this order:
+ *      the per-request value set by {@link #withDeadline(AbstractStub, long)},
+ *      the value of the operation type in {@link ConnectConfig}: search/query/insert/ddl,
+ *      the default rpcDeadlineMs of {@link ConnectConfig}.
+ * Zero means no deadline.
+ */
+public class DeadlineInterceptor implements ClientInterceptor {
+    static final CallOptions.Key<Long> DEADLINE_MS = CallOptions.Key.createWithDefault("milvus.deadlineMs", 0L);
+
+    private final long searchDeadlineMs;
+    private final long queryDeadlineMs;
+    private final long insertDeadlineMs;
+    private final long ddlDeadlineMs;
+
+    public DeadlineInterceptor(ConnectConfig connectConfig) {
+        long defaultMs = connectConfig.getRpcDeadlineMs();
+        this.searchDeadlineMs = pick(connectConfig.getSearchDeadlineMs(), defaultMs);
+        this.queryDeadlineMs = pick(connectConfig.getQueryDeadlineMs(), defaultMs);
+        this.insertDeadlineMs = pick(connectConfig.getInsertDeadlineMs(), defaultMs);
+        this.ddlDeadlineMs = pick(connectConfig.getDdlDeadlineMs(), defaultMs);
+    }
+
+    private static long pick(long value, long defaultValue) {
+        return value > 0 ? value : defaultValue;
+    }
+
+    /**
+     * Returns a stub whose calls use the given deadline instead of the configured one.
+     * The stub is returned unchanged if deadlineMs is not larger than zero.
+     *
+     * @param stub gRPC stub
+     * @param deadlineMs deadline in milliseconds of each call
+     * @return the stub
+     */
+    public static <S extends AbstractStub<S>> S withDeadline(S stub, long deadlineMs) {
+        if (deadlineMs <= 0) {
+            return stub;
+        }
+        return stub.withOption(DEADLINE_MS, deadlineMs);
+    }
+
+    long getDeadlineMs(String methodName) {
+        if (methodName == null) {
+            return ddlDeadlineMs;
+        }
+        switch (methodName) {
+            case "Search":
+            case "HybridSearch":
+                return searchDeadlineMs;
+            case "Query":
+                return queryDeadlineMs;
+            case "Insert":
+            case "Upsert":
+            case "Delete":
+                return insertDeadlineMs;
+            default:
+                return ddlDeadlineMs;
+        }
+    }
+
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(
+            MethodDescriptor<ReqT, RespT> method, CallOptions callOptions, Channel next) {
+        // an explicit deadline of the caller is kept
+        if (callOptions.getDeadline() == null) {
+            long deadlineMs = callOptions.getOption(DEADLINE_MS);
+            if (deadlineMs <= 0) {
+                deadlineMs = getDeadlineMs(method.getBareMethodName());
+            }
+            if (deadlineMs > 0) {
+                callOptions = callOptions.withDeadlineAfter(deadlineMs, TimeUnit.MILLISECONDS);
+            }
+        }
+        return next.newCall(method, callOptions);
+    }
+}
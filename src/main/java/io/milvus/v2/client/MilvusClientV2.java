@@ -21,6 +21,8 @@ package io.milvus.v2.client;
 
 import io.grpc.ManagedChannel;
 import io.milvus.grpc.MilvusServiceGrpc;
+import io.milvus.common.utils.ResultCache;
+import io.milvus.common.utils.SearchCoalescer;
 import io.milvus.v2.service.collection.CollectionService;
 import io.milvus.v2.service.collection.request.*;
 import io.milvus.v2.service.collection.response.DescribeCollectionResp;
@@ -53,6 +55,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.TimeUnit;
 
 public class MilvusClientV2 {
@@ -60,6 +65,8 @@ public class MilvusClientV2 {
     private ManagedChannel channel;
     @Setter
     private MilvusServiceGrpc.MilvusServiceBlockingStub blockingStub;
+    @Setter
+    private MilvusServiceGrpc.MilvusServiceFutureStub futureStub;
     private final ClientUtils clientUtils = new ClientUtils();
     private final CollectionService collectionService = new CollectionService();
     private final IndexService indexService = new IndexService();
@@ -69,6 +76,7 @@ public class MilvusClientV2 {
     private final RoleService roleService = new RoleService();
     private final UtilityService utilityService = new UtilityService();
     private ConnectConfig connectConfig;
+    private SearchCoalescer searchCoalescer;
 
     /**
      * Creates a Milvus client instance.
@@ -96,12 +104,25 @@ public class MilvusClientV2 {
         }
         channel = clientUtils.getChannel(connectConfig);
 
+        // deadlines are applied to each call by the interceptor, a deadline set on the stub here
+        // would be fixed at connect time and expire for all the later calls
+        DeadlineInterceptor deadlineInterceptor = new DeadlineInterceptor(connectConfig);
+        blockingStub = MilvusServiceGrpc.newBlockingStub(channel).withInterceptors(deadlineInterceptor);
+        futureStub = MilvusServiceGrpc.newFutureStub(channel).withInterceptors(deadlineInterceptor);
         if (connectConfig.getRpcDeadlineMs() > 0) {
-            blockingStub =  MilvusServiceGrpc.newBlockingStub(channel).withWaitForReady()
-                    .withDeadlineAfter(connectConfig.getRpcDeadlineMs(), TimeUnit.MILLISECONDS);
-        }else {
-            blockingStub = MilvusServiceGrpc.newBlockingStub(channel);
+            blockingStub = blockingStub.withWaitForReady();
+            futureStub = futureStub.withWaitForReady();
+        }
+
+        if (connectConfig.getSearchCoalesceWindowMs() > 0) {
+            // the sender reads the futureStub field so that a stub replaced by setFutureStub() is used
+            searchCoalescer = new SearchCoalescer(
+                    (r, deadlineMs) -> DeadlineInterceptor.withDeadline(this.futureStub, deadlineMs).search(r),
+                    connectConfig.getSearchCoalesceWindowMs(), connectConfig.getSearchCoalesceMaxNq());
+            vectorService.setSearchCoalescer(searchCoalescer);
         }
+        vectorService.setResultCache(connectConfig.getResultCache());
+        vectorService.setDatabaseName(connectConfig.getDbName());
 
         if (connectConfig.getDbName() != null) {
             // check if database exists
@@ -118,6 +139,11 @@ public class MilvusClientV2 {
         clientUtils.checkDatabaseExist(this.blockingStub, dbName);
         try {
             this.connectConfig.setDbName(dbName);
+            // the cache is kept by the config and survives the reconnection
+            ResultCache resultCache = this.connectConfig.getResultCache();
+            if (resultCache != null) {
+                resultCache.clear();
+            }
             this.close(3);
             this.connect(this.connectConfig);
         }catch (InterruptedException e){
@@ -158,6 +184,10 @@ public class MilvusClientV2 {
      */
     public void dropCollection(DropCollectionReq request) {
         collectionService.dropCollection(this.blockingStub, request);
+        ResultCache resultCache = connectConfig == null ? null : connectConfig.getResultCache();
+        if (resultCache != null) {
+            resultCache.invalidate(ResultCache.collectionKey(connectConfig.getDbName(), request.getCollectionName()));
+        }
     }
     /**
      * Checks whether a collection exists in Milvus.
@@ -320,6 +350,79 @@ public class MilvusClientV2 {
         return vectorService.hybridSearch(this.blockingStub, request);
     }
 
+    /**
+     * Inserts vectors into a collection in Milvus asynchronously.
+     * The rows are encoded on the async executor of {@link ConnectConfig}, the caller thread is not blocked.
+     *
+     * @param request insert request
+     * @return CompletableFuture of InsertResp
+     */
+    public CompletableFuture<InsertResp> insertAsync(InsertReq request) {
+        return vectorService.insertAsync(this.futureStub, request, getAsyncExecutor());
+    }
+    /**
+     * Upsert vectors into a collection in Milvus asynchronously.
+     *
+     * @param request upsert request
+     * @return CompletableFuture of UpsertResp
+     */
+    public CompletableFuture<UpsertResp> upsertAsync(UpsertReq request) {
+        return vectorService.upsertAsync(this.futureStub, request, getAsyncExecutor());
+    }
+    /**
+     * Deletes vectors in a collection in Milvus asynchronously.
+     *
+     * @param request delete request
+     * @return CompletableFuture of DeleteResp
+     */
+    public CompletableFuture<DeleteResp> deleteAsync(DeleteReq request) {
+        return vectorService.deleteAsync(this.futureStub, request, getAsyncExecutor());
+    }
+    /**
+     * Gets vectors in a collection in Milvus asynchronously.
+     *
+     * @param request get request
+     * @return CompletableFuture of GetResp
+     */
+    public CompletableFuture<GetResp> getAsync(GetReq request) {
+        return vectorService.getAsync(this.futureStub, request, getAsyncExecutor());
+    }
+    /**
+     * Queries vectors in a collection in Milvus asynchronously.
+     *
+     * @param request query request
+     * @return CompletableFuture of QueryResp
+     */
+    public CompletableFuture<QueryResp> queryAsync(QueryReq request) {
+        return vectorService.queryAsync(this.futureStub, request, getAsyncExecutor());
+    }
+    /**
+     * Searches vectors in a collection in Milvus asynchronously.
+     * The results are decoded on the async executor of {@link ConnectConfig}.
+     *
+     * @param request search request
+     * @return CompletableFuture of SearchResp
+     */
+    public CompletableFuture<SearchResp> searchAsync(SearchReq request) {
+        return vectorService.searchAsync(this.futureStub, request, getAsyncExecutor());
+    }
+    /**
+     * Conducts multi vector similarity search with a ranker for rearrangement asynchronously.
+     *
+     * @param request search request
+     * @return CompletableFuture of SearchResp
+     */
+    public CompletableFuture<SearchResp> hybridSearchAsync(HybridSearchReq request) {
+        return vectorService.hybridSearchAsync(this.futureStub, request, getAsyncExecutor());
+    }
+
+    private Executor getAsyncExecutor() {
+        if (connectConfig != null && connectConfig.getAsyncExecutor() != null) {
+            return connectConfig.getAsyncExecutor();
+        }
+        return ForkJoinPool.commonPool();
+    }
+
     // Partition Operations
     /**
      * Creates a partition in a collection in Milvus.
@@ -522,12 +625,37 @@ public class MilvusClientV2 {
         return utilityService.describeAlias(this.blockingStub, request);
     }
 
+    /**
+     * Returns counters of the search coalescer, or null if search coalescing is disabled.
+     *
+     * @return {@link SearchCoalescer.Metrics}
+     */
+    public SearchCoalescer.Metrics getSearchCoalescerMetrics() {
+        SearchCoalescer coalescer = this.searchCoalescer;
+        return coalescer == null ? null : coalescer.getMetrics();
+    }
+
+    /**
+     * Returns counters of the result cache, or null if result caching is disabled.
+     *
+     * @return {@link ResultCache.Metrics}
+     */
+    public ResultCache.Metrics getResultCacheMetrics() {
+        ResultCache resultCache = connectConfig == null ? null : connectConfig.getResultCache();
+        return resultCache == null ? null : resultCache.getMetrics();
+    }
+
     /**
      * close client
      *
      * @param maxWaitSeconds max wait seconds
      */
     public void close(long maxWaitSeconds) throws InterruptedException {
+        if (searchCoalescer != null) {
+            vectorService.setSearchCoalescer(null);
+            searchCoalescer.close();
+            searchCoalescer = null;
+        }
         if(channel!= null){
             channel.shutdownNow();
             channel.awaitTermination(maxWaitSeconds, TimeUnit.SECONDS);
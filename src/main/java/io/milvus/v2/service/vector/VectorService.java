@@ -19,9 +19,21 @@
 
 package io.milvus.v2.service.vector;
 
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.protobuf.Message;
+import io.milvus.common.utils.FieldDataSplitter;
+import io.milvus.common.utils.MutationChunkDispatcher;
+import io.milvus.common.utils.ResultCache;
+import io.milvus.common.utils.SearchCoalescer;
 import io.milvus.exception.ParamException;
 import io.milvus.grpc.*;
+import io.milvus.param.InsertPlan;
 import io.milvus.response.DescCollResponseWrapper;
+import io.milvus.v2.client.DeadlineInterceptor;
 import io.milvus.v2.exception.ErrorCode;
 import io.milvus.v2.exception.MilvusClientException;
 import io.milvus.v2.service.BaseService;
@@ -36,40 +48,210 @@ import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 public class VectorService extends BaseService {
+    // sends the chunks of large insert/upsert requests, the dispatcher limits the chunks in flight per request
+    private static final ListeningExecutorService MUTATION_EXECUTOR = MoreExecutors.listeningDecorator(
+            Executors.newCachedThreadPool(r -> {
+                Thread thread = new Thread(r, "milvus-mutation-chunk");
+                thread.setDaemon(true);
+                return thread;
+            }));
+
     Logger logger = LoggerFactory.getLogger(VectorService.class);
     public CollectionService collectionService = new CollectionService();
     public IndexService indexService = new IndexService();
-    private ConcurrentHashMap<String, DescribeCollectionResponse> cacheCollectionInfo = new ConcurrentHashMap<>();
+    private ConcurrentHashMap<String, InsertPlan> cacheCollectionInfo = new ConcurrentHashMap<>();
+    // merges concurrent search requests, null if search coalescing is disabled
+    private volatile SearchCoalescer searchCoalescer;
+
+    // caches results of search/query, null if result caching is disabled
+    private volatile ResultCache resultCache;
+    // the database of the connection, the v2 requests don't carry it
+    private volatile String databaseName;
+
+    public void setSearchCoalescer(SearchCoalescer searchCoalescer) {
+        this.searchCoalescer = searchCoalescer;
+    }
+
+    public void setResultCache(ResultCache resultCache) {
+        this.resultCache = resultCache;
+    }
+
+    public void setDatabaseName(String databaseName) {
+        this.databaseName = databaseName;
+    }
+
+    /**
+     * Returns the cached result of the request, or calls the sender and caches its result if it succeeds.
+     */
+    private <T extends Message> T callWithResultCache(String collectionName, Message request, Supplier<T> sender,
+                                                      Function<T, Status> statusOf) {
+        ResultCache cache = this.resultCache;
+        if (cache == null) {
+            return sender.get();
+        }
+        String database = this.databaseName;
+        ResultCache.Lookup<T> cached = cache.lookup(ResultCache.collectionKey(database, collectionName),
+                withDatabase(request, database));
+        if (cached.getResult() != null) {
+            return cached.getResult();
+        }
+        T response = sender.get();
+        if (isSuccess(statusOf.apply(response))) {
+            cached.put(response);
+        }
+        return response;
+    }
+
+    /**
+     * Asynchronous version of callWithResultCache().
+     */
+    private <T extends Message> CompletableFuture<T> callWithResultCacheAsync(String collectionName, Message request,
+                                                                            Supplier<CompletableFuture<T>> sender,
+                                                                            Function<T, Status> statusOf) {
+        ResultCache cache = this.resultCache;
+        if (cache == null) {
+            return sender.get();
+        }
+        String database = this.databaseName;
+        ResultCache.Lookup<T> cached = cache.lookup(ResultCache.collectionKey(database, collectionName),
+                withDatabase(request, database));
+        if (cached.getResult() != null) {
+            return CompletableFuture.completedFuture(cached.getResult());
+        }
+        return sender.get().thenApply(response -> {
+            if (isSuccess(statusOf.apply(response))) {
+                cached.put(response);
+            }
+            return response;
+        });
+    }
+
+    private void invalidateResultCache(String collectionName) {
+        ResultCache cache = this.resultCache;
+        if (cache != null) {
+            cache.invalidate(ResultCache.collectionKey(this.databaseName, collectionName));
+        }
+    }
+
+    // the same request on another database must not hit the cached results, so the database is put into the key
+    private static Message withDatabase(Message request, String databaseName) {
+        String database = databaseName == null ? "" : databaseName;
+        if (request instanceof SearchRequest) {
+            return ((SearchRequest) request).toBuilder().setDbName(database).build();
+        }
+        if (request instanceof QueryRequest) {
+            return ((QueryRequest) request).toBuilder().setDbName(database).build();
+        }
+        return request;
+    }
+
+    private static boolean isSuccess(Status status) {
+        return status.getCode() == 0 && status.getErrorCode() == io.milvus.grpc.ErrorCode.Success;
+    }
+
+    /**
+     * Sends the search request through the coalescer if it is enabled. The request is only merged with requests of
+     * the same deadline, and the merged request is sent with the time left to the first of them.
+     */
+    private ListenableFuture<SearchResults> sendSearch(MilvusServiceGrpc.MilvusServiceFutureStub futureStub,
+                                                       SearchReq request, SearchRequest searchRequest) {
+        SearchCoalescer coalescer = this.searchCoalescer;
+        if (coalescer != null) {
+            return coalescer.submit(searchRequest, request.getDeadlineMs());
+        }
+        return DeadlineInterceptor.withDeadline(futureStub, request.getDeadlineMs()).search(searchRequest);
+    }
+
+    private SearchResults sendSearch(MilvusServiceGrpc.MilvusServiceBlockingStub blockingStub,
+                                     SearchReq request, SearchRequest searchRequest) {
+        SearchCoalescer coalescer = this.searchCoalescer;
+        if (coalescer == null) {
+            return DeadlineInterceptor.withDeadline(blockingStub, request.getDeadlineMs()).search(searchRequest);
+        }
+        try {
+            return coalescer.submit(searchRequest, request.getDeadlineMs()).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MilvusClientException(ErrorCode.CLIENT_ERROR, e.getMessage());
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new MilvusClientException(ErrorCode.CLIENT_ERROR, cause.getMessage());
+        }
+    }
 
     /**
      * This method is for insert/upsert requests to reduce the rpc call of describeCollection()
      * Always try to get the collection info from cache.
      * If the cache doesn't have the collection info, call describeCollection() and cache it.
      * If insert/upsert get server error, remove the cached collection info.
+     * The collection info is cached as an {@link InsertPlan} compiled from the schema.
      */
-    private DescribeCollectionResponse getCollectionInfo(MilvusServiceGrpc.MilvusServiceBlockingStub blockingStub,
-                                                         String databaseName, String collectionName) {
+    private InsertPlan getCollectionInfo(MilvusServiceGrpc.MilvusServiceBlockingStub blockingStub,
+                                         String databaseName, String collectionName) {
         String key = combineCacheKey(databaseName, collectionName);
-        DescribeCollectionResponse info = cacheCollectionInfo.get(key);
+        InsertPlan info = cacheCollectionInfo.get(key);
         if (info == null) {
-            String msg = String.format("Fail to describe collection '%s'", collectionName);
-            DescribeCollectionRequest.Builder builder = DescribeCollectionRequest.newBuilder()
-                    .setCollectionName(collectionName);
-            if (StringUtils.isNotEmpty(databaseName)) {
-                builder.setDbName(databaseName);
-                msg = String.format("Fail to describe collection '%s' in database '%s'",
-                        collectionName, databaseName);
+            DescribeCollectionResponse response = blockingStub.describeCollection(
+                    buildDescribeRequest(databaseName, collectionName));
+            info = cacheCollectionInfo(key, databaseName, collectionName, response);
+        }
+
+        return info;
+    }
+
+    /**
+     * The same as getCollectionInfo(), the describeCollection() is sent by the future stub if the cache misses.
+     */
+    private CompletableFuture<InsertPlan> getCollectionInfoAsync(MilvusServiceGrpc.MilvusServiceFutureStub futureStub,
+                                                                 String databaseName, String collectionName) {
+        try {
+            String key = combineCacheKey(databaseName, collectionName);
+            InsertPlan info = cacheCollectionInfo.get(key);
+            if (info != null) {
+                return CompletableFuture.completedFuture(info);
             }
-            DescribeCollectionRequest describeCollectionRequest = builder.build();
-            DescribeCollectionResponse response = blockingStub.describeCollection(describeCollectionRequest);
-            new RpcUtils().handleResponse(msg, response.getStatus());
-            info = response;
-            cacheCollectionInfo.put(key, info);
+            return toCompletableFuture(futureStub.describeCollection(buildDescribeRequest(databaseName, collectionName)))
+                    .thenApply(response -> cacheCollectionInfo(key, databaseName, collectionName, response));
+        } catch (Exception e) {
+            return failedFuture(e);
+        }
+    }
+
+    private DescribeCollectionRequest buildDescribeRequest(String databaseName, String collectionName) {
+        DescribeCollectionRequest.Builder builder = DescribeCollectionRequest.newBuilder()
+                .setCollectionName(collectionName);
+        if (StringUtils.isNotEmpty(databaseName)) {
+            builder.setDbName(databaseName);
         }
+        return builder.build();
+    }
 
+    private InsertPlan cacheCollectionInfo(String key, String databaseName, String collectionName,
+                                           DescribeCollectionResponse response) {
+        String msg = String.format("Fail to describe collection '%s'", collectionName);
+        if (StringUtils.isNotEmpty(databaseName)) {
+            msg = String.format("Fail to describe collection '%s' in database '%s'",
+                    collectionName, databaseName);
+        }
+        new RpcUtils().handleResponse(msg, response.getStatus());
+        InsertPlan info = new InsertPlan(new DescCollResponseWrapper(response));
+        cacheCollectionInfo.put(key, info);
         return info;
     }
 
@@ -97,24 +279,67 @@ public class VectorService extends BaseService {
     }
 
     public InsertResp insert(MilvusServiceGrpc.MilvusServiceBlockingStub blockingStub, InsertReq request) {
-        String title = String.format("InsertRequest collectionName:%s", request.getCollectionName());
+        // TODO: set the database name
+        InsertPlan plan = getCollectionInfo(blockingStub, "", request.getCollectionName());
+        InsertRequest insertRequest = dataUtils.convertGrpcInsertRequest(request, plan);
+        MilvusServiceGrpc.MilvusServiceBlockingStub stub = DeadlineInterceptor.withDeadline(blockingStub, request.getDeadlineMs());
+        MutationResult response;
+        try {
+            response = sendMutation(insertRequest.getFieldsDataList(), insertRequest.getNumRows(),
+                    request.getMaxRequestBytes(), request.getMaxInflightRequests(),
+                    chunk -> stub.insert(chunkOf(insertRequest, chunk)),
+                    () -> stub.insert(insertRequest));
+        } finally {
+            invalidateResultCache(request.getCollectionName());
+        }
+        return toInsertResp(request, response);
+    }
 
+    public UpsertResp upsert(MilvusServiceGrpc.MilvusServiceBlockingStub blockingStub, UpsertReq request) {
         // TODO: set the database name
-        DescribeCollectionResponse descResp = getCollectionInfo(blockingStub, "", request.getCollectionName());
-        MutationResult response = blockingStub.insert(dataUtils.convertGrpcInsertRequest(request, new DescCollResponseWrapper(descResp)));
+        InsertPlan plan = getCollectionInfo(blockingStub, "", request.getCollectionName());
+        UpsertRequest upsertRequest = dataUtils.convertGrpcUpsertRequest(request, plan);
+        MilvusServiceGrpc.MilvusServiceBlockingStub stub = DeadlineInterceptor.withDeadline(blockingStub, request.getDeadlineMs());
+        MutationResult response;
+        try {
+            response = sendMutation(upsertRequest.getFieldsDataList(), upsertRequest.getNumRows(),
+                    request.getMaxRequestBytes(), request.getMaxInflightRequests(),
+                    chunk -> stub.upsert(chunkOf(upsertRequest, chunk)),
+                    () -> stub.upsert(upsertRequest));
+        } finally {
+            invalidateResultCache(request.getCollectionName());
+        }
+        return toUpsertResp(request, response);
+    }
+
+    private static InsertRequest chunkOf(InsertRequest insertRequest, FieldDataSplitter.Chunk chunk) {
+        return insertRequest.toBuilder()
+                .clearFieldsData()
+                .addAllFieldsData(chunk.getFieldsData())
+                .setNumRows(chunk.getRowCount())
+                .build();
+    }
+
+    private static UpsertRequest chunkOf(UpsertRequest upsertRequest, FieldDataSplitter.Chunk chunk) {
+        return upsertRequest.toBuilder()
+                .clearFieldsData()
+                .addAllFieldsData(chunk.getFieldsData())
+                .setNumRows(chunk.getRowCount())
+                .build();
+    }
+
+    private InsertResp toInsertResp(InsertReq request, MutationResult response) {
+        String title = String.format("InsertRequest collectionName:%s", request.getCollectionName());
         cleanCacheIfFailed(response.getStatus(), "", request.getCollectionName());
         rpcUtils.handleResponse(title, response.getStatus());
         return InsertResp.builder()
                 .InsertCnt(response.getInsertCnt())
+                .primaryKeys(getPrimaryKeys(response))
                 .build();
     }
 
-    public UpsertResp upsert(MilvusServiceGrpc.MilvusServiceBlockingStub blockingStub, UpsertReq request) {
+    private UpsertResp toUpsertResp(UpsertReq request, MutationResult response) {
         String title = String.format("UpsertRequest collectionName:%s", request.getCollectionName());
-
-        // TODO: set the database name
-        DescribeCollectionResponse descResp = getCollectionInfo(blockingStub, "", request.getCollectionName());
-        MutationResult response = blockingStub.upsert(dataUtils.convertGrpcUpsertRequest(request, new DescCollResponseWrapper(descResp)));
         cleanCacheIfFailed(response.getStatus(), "", request.getCollectionName());
         rpcUtils.handleResponse(title, response.getStatus());
         return UpsertResp.builder()
@@ -122,78 +347,139 @@ public class VectorService extends BaseService {
                 .build();
     }
 
-    public QueryResp query(MilvusServiceGrpc.MilvusServiceBlockingStub milvusServiceBlockingStub, QueryReq request) {
-        String title = String.format("QueryRequest collectionName:%s", request.getCollectionName());
-        if (request.getFilter() == null && request.getIds() == null) {
-            throw new MilvusClientException(ErrorCode.INVALID_PARAMS, "filter and ids can't be null at the same time");
-        } else if (request.getFilter() != null && request.getIds() != null) {
-            throw new MilvusClientException(ErrorCode.INVALID_PARAMS, "filter and ids can't be set at the same time");
+    /**
+     * Send the insert/upsert data by one request, or split it by size and send the chunks
+     * with at most maxInflight requests at the same time.
+     */
+    private MutationResult sendMutation(List<FieldData> fieldsData, int rowCount, long maxRequestBytes, int maxInflight,
+                                        Function<FieldDataSplitter.Chunk, MutationResult> chunkSender,
+                                        Supplier<MutationResult> sender) {
+        if (maxRequestBytes <= 0) {
+            return sender.get();
+        }
+        List<FieldDataSplitter.Chunk> chunks = FieldDataSplitter.split(fieldsData, rowCount, maxRequestBytes);
+        if (chunks.size() == 1) {
+            return sender.get();
         }
+        if (maxInflight <= 0) {
+            throw new MilvusClientException(ErrorCode.INVALID_PARAMS, "maxInflightRequests must be larger than zero");
+        }
+
+        logger.debug("Split {} rows into {} requests", rowCount, chunks.size());
+        try {
+            return MutationChunkDispatcher.dispatch(chunks, maxInflight,
+                    chunk -> MUTATION_EXECUTOR.submit(() -> chunkSender.apply(chunk))).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MilvusClientException(ErrorCode.CLIENT_ERROR, e.getMessage());
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new MilvusClientException(ErrorCode.CLIENT_ERROR, cause.getMessage());
+        }
+    }
+
+    private static List<Object> getPrimaryKeys(MutationResult response) {
+        List<Object> primaryKeys = new ArrayList<>();
+        if (response.getIDs().hasIntId()) {
+            primaryKeys.addAll(response.getIDs().getIntId().getDataList());
+        } else if (response.getIDs().hasStrId()) {
+            primaryKeys.addAll(response.getIDs().getStrId().getDataList());
+        }
+        return primaryKeys;
+    }
+
+    public QueryResp query(MilvusServiceGrpc.MilvusServiceBlockingStub milvusServiceBlockingStub, QueryReq request) {
+        checkQueryReq(request);
 
         DescribeCollectionResp descR = collectionService.describeCollection(milvusServiceBlockingStub, DescribeCollectionReq.builder().collectionName(request.getCollectionName()).build());
 
         if (request.getIds() != null && request.getFilter() == null) {
             request.setFilter(vectorUtils.getExprById(descR.getPrimaryFieldName(), request.getIds()));
         }
-        QueryResults response = milvusServiceBlockingStub.query(vectorUtils.ConvertToGrpcQueryRequest(request));
-        rpcUtils.handleResponse(title, response.getStatus());
+        QueryRequest queryRequest = vectorUtils.ConvertToGrpcQueryRequest(request);
+        QueryResults response = callWithResultCache(request.getCollectionName(), queryRequest,
+                () -> DeadlineInterceptor.withDeadline(milvusServiceBlockingStub, request.getDeadlineMs())
+                        .query(queryRequest),
+                QueryResults::getStatus);
+        return toQueryResp(request, response);
+    }
+
+    private static void checkQueryReq(QueryReq request) {
+        if (request.getFilter() == null && request.getIds() == null) {
+            throw new MilvusClientException(ErrorCode.INVALID_PARAMS, "filter and ids can't be null at the same time");
+        } else if (request.getFilter() != null && request.getIds() != null) {
+            throw new MilvusClientException(ErrorCode.INVALID_PARAMS, "filter and ids can't be set at the same time");
+        }
+    }
 
+    private QueryResp toQueryResp(QueryReq request, QueryResults response) {
+        String title = String.format("QueryRequest collectionName:%s", request.getCollectionName());
+        rpcUtils.handleResponse(title, response.getStatus());
         return QueryResp.builder()
-                .queryResults(convertUtils.getEntities(response))
+                .columns(new QueryResultColumns(response))
                 .build();
-
     }
 
     public SearchResp search(MilvusServiceGrpc.MilvusServiceBlockingStub milvusServiceBlockingStub, SearchReq request) {
-        String title = String.format("SearchRequest collectionName:%s", request.getCollectionName());
-
         //checkCollectionExist(milvusServiceBlockingStub, request.getCollectionName());
 
         SearchRequest searchRequest = vectorUtils.ConvertToGrpcSearchRequest(request);
 
-        SearchResults response = milvusServiceBlockingStub.search(searchRequest);
-
-        rpcUtils.handleResponse(title, response.getStatus());
-
-        return SearchResp.builder()
-                .searchResults(convertUtils.getEntities(response))
-                .build();
+        SearchResults response = callWithResultCache(request.getCollectionName(), searchRequest,
+                () -> sendSearch(milvusServiceBlockingStub, request, searchRequest), SearchResults::getStatus);
+        return toSearchResp(String.format("SearchRequest collectionName:%s", request.getCollectionName()), response);
     }
 
     public SearchResp hybridSearch(MilvusServiceGrpc.MilvusServiceBlockingStub milvusServiceBlockingStub, HybridSearchReq request) {
-        String title = String.format("HybridSearchRequest collectionName:%s", request.getCollectionName());
-
         //checkCollectionExist(milvusServiceBlockingStub, request.getCollectionName());
 
         HybridSearchRequest searchRequest = vectorUtils.ConvertToGrpcHybridSearchRequest(request);
 
-        SearchResults response = milvusServiceBlockingStub.hybridSearch(searchRequest);
+        SearchResults response = DeadlineInterceptor.withDeadline(milvusServiceBlockingStub, request.getDeadlineMs())
+                .hybridSearch(searchRequest);
+        return toSearchResp(String.format("HybridSearchRequest collectionName:%s", request.getCollectionName()), response);
+    }
 
+    private SearchResp toSearchResp(String title, SearchResults response) {
         rpcUtils.handleResponse(title, response.getStatus());
-
         return SearchResp.builder()
-                .searchResults(convertUtils.getEntities(response))
+                .columns(new SearchResultColumns(response.getResults()))
                 .build();
     }
 
     public DeleteResp delete(MilvusServiceGrpc.MilvusServiceBlockingStub milvusServiceBlockingStub, DeleteReq request) {
-        String title = String.format("DeleteRequest collectionName:%s", request.getCollectionName());
-
         if (request.getFilter() != null && request.getIds() != null) {
             throw new MilvusClientException(ErrorCode.INVALID_PARAMS, "filter and ids can't be set at the same time");
         }
 
-        DescribeCollectionResponse descResp = getCollectionInfo(milvusServiceBlockingStub, "", request.getCollectionName());
-        DescribeCollectionResp respR = CollectionService.convertDescCollectionResp(descResp);
+        InsertPlan plan = getCollectionInfo(milvusServiceBlockingStub, "", request.getCollectionName());
+        DeleteRequest deleteRequest = buildDeleteRequest(request, plan);
+        MutationResult response;
+        try {
+            response = DeadlineInterceptor.withDeadline(milvusServiceBlockingStub, request.getDeadlineMs())
+                    .delete(deleteRequest);
+        } finally {
+            invalidateResultCache(request.getCollectionName());
+        }
+        return toDeleteResp(request, response);
+    }
+
+    private DeleteRequest buildDeleteRequest(DeleteReq request, InsertPlan plan) {
         if (request.getFilter() == null) {
-            request.setFilter(vectorUtils.getExprById(respR.getPrimaryFieldName(), request.getIds()));
+            request.setFilter(vectorUtils.getExprById(plan.getWrapper().getPrimaryField().getName(), request.getIds()));
         }
-        DeleteRequest deleteRequest = DeleteRequest.newBuilder()
+        return DeleteRequest.newBuilder()
                 .setCollectionName(request.getCollectionName())
                 .setPartitionName(request.getPartitionName())
                 .setExpr(request.getFilter())
                 .build();
-        MutationResult response = milvusServiceBlockingStub.delete(deleteRequest);
+    }
+
+    private DeleteResp toDeleteResp(DeleteReq request, MutationResult response) {
+        String title = String.format("DeleteRequest collectionName:%s", request.getCollectionName());
         rpcUtils.handleResponse(title, response.getStatus());
         return DeleteResp.builder()
                 .deleteCnt(response.getDeleteCnt())
@@ -206,6 +492,7 @@ public class VectorService extends BaseService {
         QueryReq queryReq = QueryReq.builder()
                 .collectionName(request.getCollectionName())
                 .ids(request.getIds())
+                .deadlineMs(request.getDeadlineMs())
                 .build();
         if (request.getOutputFields() != null) {
             queryReq.setOutputFields(request.getOutputFields());
@@ -217,4 +504,235 @@ public class VectorService extends BaseService {
                 .getResults(queryResp.getQueryResults())
                 .build();
     }
+
+    /**
+     * Asynchronous version of insert(). The rows are encoded on the executor, the rpc is sent by the future stub.
+     */
+    public CompletableFuture<InsertResp> insertAsync(MilvusServiceGrpc.MilvusServiceFutureStub futureStub,
+                                                     InsertReq request, Executor executor) {
+        InflightCalls calls = new InflightCalls();
+        MilvusServiceGrpc.MilvusServiceFutureStub stub = DeadlineInterceptor.withDeadline(futureStub, request.getDeadlineMs());
+        return calls.bind(getCollectionInfoAsync(futureStub, "", request.getCollectionName())
+                .thenApplyAsync(plan -> dataUtils.convertGrpcInsertRequest(request, plan), executor)
+                .thenCompose(insertRequest -> sendMutationAsync(insertRequest.getFieldsDataList(),
+                        insertRequest.getNumRows(), request.getMaxRequestBytes(), request.getMaxInflightRequests(),
+                        chunk -> stub.insert(chunkOf(insertRequest, chunk)),
+                        () -> stub.insert(insertRequest), calls))
+                .whenComplete((response, t) -> invalidateResultCache(request.getCollectionName()))
+                .thenApplyAsync(response -> toInsertResp(request, response), executor));
+    }
+
+    /**
+     * Asynchronous version of upsert(). The rows are encoded on the executor, the rpc is sent by the future stub.
+     */
+    public CompletableFuture<UpsertResp> upsertAsync(MilvusServiceGrpc.MilvusServiceFutureStub futureStub,
+                                                     UpsertReq request, Executor executor) {
+        InflightCalls calls = new InflightCalls();
+        MilvusServiceGrpc.MilvusServiceFutureStub stub = DeadlineInterceptor.withDeadline(futureStub, request.getDeadlineMs());
+        return calls.bind(getCollectionInfoAsync(futureStub, "", request.getCollectionName())
+                .thenApplyAsync(plan -> dataUtils.convertGrpcUpsertRequest(request, plan), executor)
+                .thenCompose(upsertRequest -> sendMutationAsync(upsertRequest.getFieldsDataList(),
+                        upsertRequest.getNumRows(), request.getMaxRequestBytes(), request.getMaxInflightRequests(),
+                        chunk -> stub.upsert(chunkOf(upsertRequest, chunk)),
+                        () -> stub.upsert(upsertRequest), calls))
+                .whenComplete((response, t) -> invalidateResultCache(request.getCollectionName()))
+                .thenApplyAsync(response -> toUpsertResp(request, response), executor));
+    }
+
+    /**
+     * Asynchronous version of sendMutation(), the chunks are sent by the future stub without extra threads.
+     */
+    private CompletableFuture<MutationResult> sendMutationAsync(List<FieldData> fieldsData, int rowCount,
+                                                                long maxRequestBytes, int maxInflight,
+                                                                Function<FieldDataSplitter.Chunk, ListenableFuture<MutationResult>> chunkSender,
+                                                                Supplier<ListenableFuture<MutationResult>> sender,
+                                                                InflightCalls calls) {
+        if (maxRequestBytes <= 0) {
+            return toCompletableFuture(sender.get(), calls);
+        }
+        List<FieldDataSplitter.Chunk> chunks = FieldDataSplitter.split(fieldsData, rowCount, maxRequestBytes);
+        if (chunks.size() == 1) {
+            return toCompletableFuture(sender.get(), calls);
+        }
+        if (maxInflight <= 0) {
+            throw new MilvusClientException(ErrorCode.INVALID_PARAMS, "maxInflightRequests must be larger than zero");
+        }
+
+        logger.debug("Split {} rows into {} requests", rowCount, chunks.size());
+        return toCompletableFuture(MutationChunkDispatcher.dispatch(chunks, maxInflight,
+                chunk -> calls.track(chunkSender.apply(chunk))));
+    }
+
+    /**
+     * Asynchronous version of query(). If the request is by ids, the primary key name comes from the
+     * cached collection info, so that no blocking describeCollection() is called.
+     */
+    public CompletableFuture<QueryResp> queryAsync(MilvusServiceGrpc.MilvusServiceFutureStub futureStub,
+                                                   QueryReq request, Executor executor) {
+        try {
+            checkQueryReq(request);
+        } catch (MilvusClientException e) {
+            return failedFuture(e);
+        }
+
+        InflightCalls calls = new InflightCalls();
+        CompletableFuture<QueryReq> prepared = CompletableFuture.completedFuture(request);
+        if (request.getFilter() == null) {
+            prepared = getCollectionInfoAsync(futureStub, "", request.getCollectionName())
+                    .thenApply(plan -> {
+                        request.setFilter(vectorUtils.getExprById(plan.getWrapper().getPrimaryField().getName(), request.getIds()));
+                        return request;
+                    });
+        }
+        return calls.bind(prepared
+                .thenApplyAsync(vectorUtils::ConvertToGrpcQueryRequest, executor)
+                .thenCompose(queryRequest -> callWithResultCacheAsync(request.getCollectionName(), queryRequest,
+                        () -> toCompletableFuture(
+                                DeadlineInterceptor.withDeadline(futureStub, request.getDeadlineMs()).query(queryRequest),
+                                calls),
+                        QueryResults::getStatus))
+                .thenApplyAsync(response -> toQueryResp(request, response), executor));
+    }
+
+    /**
+     * Asynchronous version of search(). The request is encoded and the results are decoded on the executor.
+     */
+    public CompletableFuture<SearchResp> searchAsync(MilvusServiceGrpc.MilvusServiceFutureStub futureStub,
+                                                     SearchReq request, Executor executor) {
+        String title = String.format("SearchRequest collectionName:%s", request.getCollectionName());
+        InflightCalls calls = new InflightCalls();
+        return calls.bind(CompletableFuture.supplyAsync(() -> vectorUtils.ConvertToGrpcSearchRequest(request), executor)
+                .thenCompose(searchRequest -> callWithResultCacheAsync(request.getCollectionName(), searchRequest,
+                        () -> toCompletableFuture(sendSearch(futureStub, request, searchRequest), calls),
+                        SearchResults::getStatus))
+                .thenApplyAsync(response -> toSearchResp(title, response), executor));
+    }
+
+    /**
+     * Asynchronous version of hybridSearch(). The request is encoded and the results are decoded on the executor.
+     */
+    public CompletableFuture<SearchResp> hybridSearchAsync(MilvusServiceGrpc.MilvusServiceFutureStub futureStub,
+                                                           HybridSearchReq request, Executor executor) {
+        String title = String.format("HybridSearchRequest collectionName:%s", request.getCollectionName());
+        InflightCalls calls = new InflightCalls();
+        return calls.bind(CompletableFuture.supplyAsync(() -> vectorUtils.ConvertToGrpcHybridSearchRequest(request), executor)
+                .thenCompose(searchRequest -> toCompletableFuture(
+                        DeadlineInterceptor.withDeadline(futureStub, request.getDeadlineMs()).hybridSearch(searchRequest),
+                        calls))
+                .thenApplyAsync(response -> toSearchResp(title, response), executor));
+    }
+
+    /**
+     * Asynchronous version of delete().
+     */
+    public CompletableFuture<DeleteResp> deleteAsync(MilvusServiceGrpc.MilvusServiceFutureStub futureStub,
+                                                     DeleteReq request, Executor executor) {
+        if (request.getFilter() != null && request.getIds() != null) {
+            return failedFuture(new MilvusClientException(ErrorCode.INVALID_PARAMS, "filter and ids can't be set at the same time"));
+        }
+
+        InflightCalls calls = new InflightCalls();
+        return calls.bind(getCollectionInfoAsync(futureStub, "", request.getCollectionName())
+                .thenApplyAsync(plan -> buildDeleteRequest(request, plan), executor)
+                .thenCompose(deleteRequest -> toCompletableFuture(
+                        DeadlineInterceptor.withDeadline(futureStub, request.getDeadlineMs()).delete(deleteRequest),
+                        calls))
+                .whenComplete((response, t) -> invalidateResultCache(request.getCollectionName()))
+                .thenApplyAsync(response -> toDeleteResp(request, response), executor));
+    }
+
+    /**
+     * Asynchronous version of get().
+     */
+    public CompletableFuture<GetResp> getAsync(MilvusServiceGrpc.MilvusServiceFutureStub futureStub,
+                                               GetReq request, Executor executor) {
+        QueryReq queryReq = QueryReq.builder()
+                .collectionName(request.getCollectionName())
+                .ids(request.getIds())
+                .deadlineMs(request.getDeadlineMs())
+                .build();
+        if (request.getOutputFields() != null) {
+            queryReq.setOutputFields(request.getOutputFields());
+        }
+        return queryAsync(futureStub, queryReq, executor)
+                .thenApply(queryResp -> GetResp.builder()
+                        .getResults(queryResp.getQueryResults())
+                        .build());
+    }
+
+    /**
+     * Adapts a gRPC future to a CompletableFuture. Cancelling the returned future cancels the rpc.
+     * The rpc future is tracked by the calls, so that cancelling the future returned to the user,
+     * which is at the end of a chain and doesn't cancel the upstream stages, also cancels the rpc.
+     */
+    private static <T> CompletableFuture<T> toCompletableFuture(ListenableFuture<T> future, InflightCalls calls) {
+        return toCompletableFuture(calls.track(future));
+    }
+
+    /**
+     * Adapts a gRPC future to a CompletableFuture. Cancelling the returned future cancels the rpc.
+     */
+    private static <T> CompletableFuture<T> toCompletableFuture(ListenableFuture<T> future) {
+        CompletableFuture<T> result = new CompletableFuture<T>() {
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                future.cancel(mayInterruptIfRunning);
+                return super.cancel(mayInterruptIfRunning);
+            }
+        };
+        Futures.addCallback(future, new FutureCallback<T>() {
+            @Override
+            public void onSuccess(T value) {
+                result.complete(value);
+            }
+
+            @Override
+            public void onFailure(@Nonnull Throwable t) {
+                result.completeExceptionally(t);
+            }
+        }, MoreExecutors.directExecutor());
+        return result;
+    }
+
+    private static <T> CompletableFuture<T> failedFuture(Throwable t) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        result.completeExceptionally(t);
+        return result;
+    }
+
+    /**
+     * The rpc futures started by one asynchronous call. A CompletableFuture chain doesn't propagate
+     * cancellation to the upstream stages, so the future returned to the user is bound to the calls,
+     * and cancelling it cancels the rpcs in flight and the ones started later by the pending stages.
+     */
+    private static final class InflightCalls {
+        private final List<Future<?>> futures = new ArrayList<>();
+        private boolean cancelled = false;
+
+        synchronized <T> ListenableFuture<T> track(ListenableFuture<T> future) {
+            if (cancelled) {
+                future.cancel(true);
+            } else {
+                futures.add(future);
+            }
+            return future;
+        }
+
+        synchronized void cancel() {
+            cancelled = true;
+            for (Future<?> future : futures) {
+                future.cancel(true);
+            }
+            futures.clear();
+        }
+
+        <T> CompletableFuture<T> bind(CompletableFuture<T> result) {
+            result.whenComplete((response, t) -> {
+                if (result.isCancelled()) {
+                    cancel();
+                }
+            });
+            return result;
+        }
+    }
 }
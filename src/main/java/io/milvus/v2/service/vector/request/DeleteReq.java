@@ -33,4 +33,6 @@ public class DeleteReq {
     private String partitionName = "";
     private String filter;
     private List<Object> ids;
+    // deadline of this request in milliseconds, overrides the deadline of ConnectConfig if larger than zero
+    private long deadlineMs;
 }
@@ -33,4 +33,6 @@ public class GetReq {
     private String partitionName = "";
     private List<Object> ids;
     private List<String> outputFields;
+    // deadline of this request in milliseconds, overrides the deadline of ConnectConfig if larger than zero
+    private long deadlineMs;
 }
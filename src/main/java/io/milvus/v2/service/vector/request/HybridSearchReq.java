@@ -41,4 +41,6 @@ public class HybridSearchReq
     @Builder.Default
     private int roundDecimal = -1;
     private ConsistencyLevel consistencyLevel;
+    // deadline of this request in milliseconds, overrides the deadline of ConnectConfig if larger than zero
+    private long deadlineMs;
 }
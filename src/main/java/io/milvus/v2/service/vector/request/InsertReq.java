@@ -20,6 +20,7 @@
 package io.milvus.v2.service.vector.request;
 
 import com.google.gson.JsonObject;
+import io.milvus.param.dml.InsertParam;
 import lombok.Builder;
 import lombok.Data;
 import lombok.experimental.SuperBuilder;
@@ -29,8 +30,6 @@ import java.util.List;
 @Data
 @SuperBuilder
 public class InsertReq {
-    //private List<> fields;
-
     /**
      * Sets the row data to insert. The rows list cannot be empty.
      *
@@ -55,7 +54,28 @@ public class InsertReq {
      *
      */
     private List<JsonObject> data;
+    /**
+     * Sets the column data to insert, only one of data or fields is allowed to be non-empty.
+     * Primitive-array columns(long[], int[], float[], double[], float[][], FloatBuffer) are encoded without boxing.
+     *
+     * @see InsertParam.Field
+     */
+    private List<InsertParam.Field> fields;
     private String collectionName;
     @Builder.Default
     private String partitionName = "";
+    /**
+     * The max estimated encoded size of one request, 0 means no split.
+     * If the data is larger than this value, the rows are split into several requests by size,
+     * and the results are merged in row order.
+     */
+    @Builder.Default
+    private long maxRequestBytes = 0;
+    /**
+     * The max number of split requests in flight at the same time.
+     */
+    @Builder.Default
+    private int maxInflightRequests = 1;
+    // deadline of this request in milliseconds, overrides the deadline of ConnectConfig if larger than zero
+    private long deadlineMs;
 }
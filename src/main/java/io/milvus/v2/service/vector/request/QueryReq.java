@@ -42,4 +42,6 @@ public class QueryReq {
     private ConsistencyLevel consistencyLevel = ConsistencyLevel.BOUNDED;
     private long offset;
     private long limit;
+    // deadline of this request in milliseconds, overrides the deadline of ConnectConfig if larger than zero
+    private long deadlineMs;
 }
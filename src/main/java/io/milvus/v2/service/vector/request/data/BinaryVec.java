@@ -23,6 +23,10 @@ import io.milvus.grpc.PlaceholderType;
 
 import java.nio.ByteBuffer;
 
+/**
+ * Binary vector for search.
+ * The ByteBuffer is serialized to the request directly, heap or direct buffer are both allowed.
+ */
 public class BinaryVec implements BaseVector {
     private final ByteBuffer data;
 
@@ -22,20 +22,24 @@ package io.milvus.v2.service.vector.request.data;
 
 import io.milvus.grpc.PlaceholderType;
 
-import java.util.ArrayList;
+import java.nio.FloatBuffer;
 import java.util.List;
 
+/**
+ * Float vector for search.
+ * The input data is kept as it is, float[] and FloatBuffer are serialized to the request without boxing or copying.
+ */
 public class FloatVec implements BaseVector {
-    private final List<Float> data;
+    private final Object data;
 
     public FloatVec(List<Float> data) {
         this.data = data;
     }
     public FloatVec(float[] data) {
-        this.data = new ArrayList<>();
-        for (float f : data) {
-            this.data.add(f);
-        }
+        this.data = data;
+    }
+    public FloatVec(FloatBuffer data) {
+        this.data = data;
     }
 
     @Override
@@ -43,6 +47,11 @@ public class FloatVec implements BaseVector {
         return PlaceholderType.FloatVector;
     }
 
+    /**
+     * Return the input data, it could be List of Float, float[] or FloatBuffer.
+     *
+     * @return <code>Object</code>
+     */
     @Override
     public Object getData() {
         return this.data;
@@ -20,16 +20,22 @@
 package io.milvus.v2.service.vector.request.data;
 
 import io.milvus.grpc.PlaceholderType;
+import io.milvus.param.SparseVector;
 
 import java.util.SortedMap;
 
 public class SparseFloatVec implements BaseVector {
-    private final SortedMap<Long, Float> data;
+    // SortedMap<Long, Float> or SparseVector
+    private final Object data;
 
     public SparseFloatVec(SortedMap<Long, Float> data) {
         this.data = data;
     }
 
+    public SparseFloatVec(SparseVector data) {
+        this.data = data;
+    }
+
     @Override
     public PlaceholderType getPlaceholderType() {
         return PlaceholderType.SparseFloatVector;
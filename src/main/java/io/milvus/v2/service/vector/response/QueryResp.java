@@ -20,6 +20,8 @@
 package io.milvus.v2.service.vector.response;
 
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import lombok.experimental.SuperBuilder;
 
 import java.util.List;
@@ -29,6 +31,23 @@ import java.util.Map;
 @SuperBuilder
 public class QueryResp {
     private List<QueryResult> queryResults;
+    // column view of the results returned by the server, queryResults is built from it on the first call
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private QueryResultColumns columns;
+
+    /**
+     * Gets the per-row results. They are converted from the columns on the first call,
+     * read {@link #getColumns()} instead to avoid creating an object for each row.
+     *
+     * @return <code>List<QueryResult></code>
+     */
+    public List<QueryResult> getQueryResults() {
+        if (queryResults == null && columns != null) {
+            queryResults = columns.toQueryResults();
+        }
+        return queryResults;
+    }
 
     @Data
     @SuperBuilder
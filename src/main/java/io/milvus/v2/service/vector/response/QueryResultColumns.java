@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.milvus.v2.service.vector.response;
+
+import io.milvus.exception.ParamException;
+import io.milvus.grpc.QueryResults;
+import io.milvus.response.FieldDataWrapper;
+import io.milvus.response.QueryResultsWrapper;
+import io.milvus.v2.utils.ConvertUtils;
+import lombok.NonNull;
+
+import java.util.List;
+
+/**
+ * Column accessors over the query results returned by the server.
+ * The protobuf is read in place: scalar fields are decoded into primitive arrays,
+ * no per-row object is created unless {@link #toQueryResults()} is called.
+ */
+public class QueryResultColumns {
+    private final QueryResults results;
+    // caches the decoded columns of the output fields
+    private final QueryResultsWrapper wrapper;
+
+    public QueryResultColumns(@NonNull QueryResults results) {
+        this.results = results;
+        this.wrapper = new QueryResultsWrapper(results);
+    }
+
+    /**
+     * Gets the row count of the results.
+     *
+     * @return <code>int</code>
+     */
+    public int getRowCount() {
+        return (int) wrapper.getRowCount();
+    }
+
+    /**
+     * Gets {@link FieldDataWrapper} of an output field. The wrapper is cached, its column is decoded once.
+     * Throws {@link ParamException} if the field doesn't exist.
+     *
+     * @param fieldName output field name
+     * @return {@link FieldDataWrapper}
+     */
+    public FieldDataWrapper getFieldWrapper(@NonNull String fieldName) throws ParamException {
+        return wrapper.getFieldWrapper(fieldName);
+    }
+
+    /**
+     * Gets the values of an Int64 output field.
+     *
+     * @param fieldName output field name
+     * @return <code>long[]</code>
+     */
+    public long[] getLongColumn(@NonNull String fieldName) {
+        return getFieldWrapper(fieldName).toLongArray(0, getRowCount());
+    }
+
+    /**
+     * Gets the values of an Int32/Int16/Int8 output field.
+     *
+     * @param fieldName output field name
+     * @return <code>int[]</code>
+     */
+    public int[] getIntColumn(@NonNull String fieldName) {
+        return getFieldWrapper(fieldName).toIntArray(0, getRowCount());
+    }
+
+    /**
+     * Gets the values of a Float output field, or the row-major vectors of a
+     * FloatVector/Float16Vector/BFloat16Vector output field.
+     *
+     * @param fieldName output field name
+     * @return <code>float[]</code>
+     */
+    public float[] getFloatColumn(@NonNull String fieldName) {
+        return getFieldWrapper(fieldName).toFloatArray(0, getRowCount());
+    }
+
+    /**
+     * Gets the values of a Double output field.
+     *
+     * @param fieldName output field name
+     * @return <code>double[]</code>
+     */
+    public double[] getDoubleColumn(@NonNull String fieldName) {
+        return getFieldWrapper(fieldName).toDoubleArray(0, getRowCount());
+    }
+
+    /**
+     * Gets the values of a Bool output field.
+     *
+     * @param fieldName output field name
+     * @return <code>boolean[]</code>
+     */
+    public boolean[] getBooleanColumn(@NonNull String fieldName) {
+        return getFieldWrapper(fieldName).toBooleanArray(0, getRowCount());
+    }
+
+    /**
+     * Gets the values of a VarChar output field. The list is a view of the response.
+     *
+     * @param fieldName output field name
+     * @return <code>List<String></code>
+     */
+    public List<String> getStringColumn(@NonNull String fieldName) {
+        return getFieldWrapper(fieldName).toStringList(0, getRowCount());
+    }
+
+    /**
+     * Gets the values of any output field, in the types described by {@link FieldDataWrapper#getFieldData()}.
+     *
+     * @param fieldName output field name
+     * @return <code>List<?></code>
+     */
+    public List<?> getColumn(@NonNull String fieldName) {
+        return getFieldWrapper(fieldName).getFieldData();
+    }
+
+    /**
+     * Converts all the rows into per-row objects with entity maps.
+     *
+     * @return <code>List<QueryResp.QueryResult></code>
+     */
+    public List<QueryResp.QueryResult> toQueryResults() {
+        return new ConvertUtils().getEntities(results);
+    }
+}
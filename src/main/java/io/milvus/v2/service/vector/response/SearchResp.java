@@ -20,6 +20,8 @@
 package io.milvus.v2.service.vector.response;
 
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import lombok.experimental.SuperBuilder;
 
 import java.util.List;
@@ -29,6 +31,23 @@ import java.util.Map;
 @SuperBuilder
 public class SearchResp {
     private List<List<SearchResult>> searchResults;
+    // column view of the results returned by the server, searchResults is built from it on the first call
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private SearchResultColumns columns;
+
+    /**
+     * Gets the per-hit results. They are converted from the columns on the first call,
+     * read {@link #getColumns()} instead to avoid creating an object for each hit.
+     *
+     * @return <code>List<List<SearchResult>></code>
+     */
+    public List<List<SearchResult>> getSearchResults() {
+        if (searchResults == null && columns != null) {
+            searchResults = columns.toSearchResults();
+        }
+        return searchResults;
+    }
 
     @Data
     @SuperBuilder
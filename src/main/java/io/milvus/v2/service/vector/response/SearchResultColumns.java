@@ -0,0 +1,254 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.milvus.v2.service.vector.response;
+
+import io.milvus.exception.IllegalResponseException;
+import io.milvus.exception.ParamException;
+import io.milvus.grpc.IDs;
+import io.milvus.grpc.LongArray;
+import io.milvus.grpc.SearchResultData;
+import io.milvus.response.FieldDataWrapper;
+import io.milvus.response.SearchResultsWrapper;
+import io.milvus.v2.utils.ConvertUtils;
+import lombok.NonNull;
+
+import java.util.List;
+
+/**
+ * Column accessors over the search results returned by the server.
+ * The protobuf is read in place: ids, scores and scalar fields of a target vector are decoded into
+ * primitive arrays, no per-hit object is created unless {@link #toSearchResults()} is called.
+ */
+public class SearchResultColumns {
+    private final SearchResultData results;
+    // caches the decoded columns of the output fields
+    private final SearchResultsWrapper wrapper;
+    // offsets[i] is the index of the first hit of the i-th target vector, offsets[nq] is the total count
+    private final int[] offsets;
+
+    public SearchResultColumns(@NonNull SearchResultData results) {
+        this.results = results;
+        this.wrapper = new SearchResultsWrapper(results);
+
+        int nq = (int) results.getNumQueries();
+        int topksCount = results.getTopksCount();
+        if (topksCount > 0 && topksCount < nq) {
+            throw new IllegalResponseException("Result topks count is wrong");
+        }
+        offsets = new int[nq + 1];
+        for (int i = 0; i < nq; ++i) {
+            // if the server didn't return separate topK, use same topK value
+            long k = topksCount > 0 ? results.getTopks(i) : results.getTopK();
+            offsets[i + 1] = offsets[i] + (int) k;
+        }
+        if (nq > 0 && offsets[nq] > results.getScoresCount()) {
+            throw new IllegalResponseException("Result scores count is wrong");
+        }
+    }
+
+    /**
+     * Gets the number of target vectors.
+     *
+     * @return <code>int</code>
+     */
+    public int getNumQueries() {
+        return offsets.length - 1;
+    }
+
+    /**
+     * Gets the number of hits of a target vector.
+     * Throws {@link ParamException} if the indexOfTarget is illegal.
+     *
+     * @param indexOfTarget which target vector the result belongs to
+     * @return <code>int</code>
+     */
+    public int getHitCount(int indexOfTarget) throws ParamException {
+        checkTarget(indexOfTarget);
+        return offsets[indexOfTarget + 1] - offsets[indexOfTarget];
+    }
+
+    /**
+     * Gets the Int64 primary keys of the hits of a target vector.
+     * Throws {@link ParamException} if the indexOfTarget is illegal or the primary key is not Int64.
+     *
+     * @param indexOfTarget which target vector the result belongs to
+     * @return <code>long[]</code>
+     */
+    public long[] getLongIds(int indexOfTarget) throws ParamException {
+        checkTarget(indexOfTarget);
+        IDs ids = results.getIds();
+        if (!ids.hasIntId()) {
+            throw new ParamException("The primary key is not Int64, use getStrIds()");
+        }
+        LongArray data = ids.getIntId();
+        int from = offsets[indexOfTarget];
+        long[] result = new long[offsets[indexOfTarget + 1] - from];
+        for (int i = 0; i < result.length; ++i) {
+            result[i] = data.getData(from + i);
+        }
+        return result;
+    }
+
+    /**
+     * Gets the VarChar primary keys of the hits of a target vector. The list is a view of the response.
+     * Throws {@link ParamException} if the indexOfTarget is illegal or the primary key is not VarChar.
+     *
+     * @param indexOfTarget which target vector the result belongs to
+     * @return <code>List<String></code>
+     */
+    public List<String> getStrIds(int indexOfTarget) throws ParamException {
+        checkTarget(indexOfTarget);
+        IDs ids = results.getIds();
+        if (!ids.hasStrId()) {
+            throw new ParamException("The primary key is not VarChar, use getLongIds()");
+        }
+        return ids.getStrId().getDataList().subList(offsets[indexOfTarget], offsets[indexOfTarget + 1]);
+    }
+
+    /**
+     * Gets the distances/scores of the hits of a target vector.
+     * Throws {@link ParamException} if the indexOfTarget is illegal.
+     *
+     * @param indexOfTarget which target vector the result belongs to
+     * @return <code>float[]</code>
+     */
+    public float[] getScores(int indexOfTarget) throws ParamException {
+        checkTarget(indexOfTarget);
+        int from = offsets[indexOfTarget];
+        float[] result = new float[offsets[indexOfTarget + 1] - from];
+        for (int i = 0; i < result.length; ++i) {
+            result[i] = results.getScores(from + i);
+        }
+        return result;
+    }
+
+    /**
+     * Gets {@link FieldDataWrapper} of an output field, it holds the hits of all the target vectors.
+     * The wrapper is cached, its column is decoded once.
+     * Throws {@link ParamException} if the field doesn't exist.
+     *
+     * @param fieldName output field name
+     * @return {@link FieldDataWrapper}
+     */
+    public FieldDataWrapper getFieldWrapper(@NonNull String fieldName) throws ParamException {
+        return wrapper.getFieldWrapper(fieldName);
+    }
+
+    /**
+     * Gets the values of an Int64 output field for the hits of a target vector.
+     *
+     * @param fieldName output field name
+     * @param indexOfTarget which target vector the result belongs to
+     * @return <code>long[]</code>
+     */
+    public long[] getLongColumn(@NonNull String fieldName, int indexOfTarget) {
+        checkTarget(indexOfTarget);
+        return getFieldWrapper(fieldName).toLongArray(offsets[indexOfTarget], offsets[indexOfTarget + 1]);
+    }
+
+    /**
+     * Gets the values of an Int32/Int16/Int8 output field for the hits of a target vector.
+     *
+     * @param fieldName output field name
+     * @param indexOfTarget which target vector the result belongs to
+     * @return <code>int[]</code>
+     */
+    public int[] getIntColumn(@NonNull String fieldName, int indexOfTarget) {
+        checkTarget(indexOfTarget);
+        return getFieldWrapper(fieldName).toIntArray(offsets[indexOfTarget], offsets[indexOfTarget + 1]);
+    }
+
+    /**
+     * Gets the values of a Float output field, or the row-major vectors of a FloatVector/Float16Vector/BFloat16Vector
+     * output field, for the hits of a target vector.
+     *
+     * @param fieldName output field name
+     * @param indexOfTarget which target vector the result belongs to
+     * @return <code>float[]</code>
+     */
+    public float[] getFloatColumn(@NonNull String fieldName, int indexOfTarget) {
+        checkTarget(indexOfTarget);
+        return getFieldWrapper(fieldName).toFloatArray(offsets[indexOfTarget], offsets[indexOfTarget + 1]);
+    }
+
+    /**
+     * Gets the values of a Double output field for the hits of a target vector.
+     *
+     * @param fieldName output field name
+     * @param indexOfTarget which target vector the result belongs to
+     * @return <code>double[]</code>
+     */
+    public double[] getDoubleColumn(@NonNull String fieldName, int indexOfTarget) {
+        checkTarget(indexOfTarget);
+        return getFieldWrapper(fieldName).toDoubleArray(offsets[indexOfTarget], offsets[indexOfTarget + 1]);
+    }
+
+    /**
+     * Gets the values of a Bool output field for the hits of a target vector.
+     *
+     * @param fieldName output field name
+     * @param indexOfTarget which target vector the result belongs to
+     * @return <code>boolean[]</code>
+     */
+    public boolean[] getBooleanColumn(@NonNull String fieldName, int indexOfTarget) {
+        checkTarget(indexOfTarget);
+        return getFieldWrapper(fieldName).toBooleanArray(offsets[indexOfTarget], offsets[indexOfTarget + 1]);
+    }
+
+    /**
+     * Gets the values of a VarChar output field for the hits of a target vector. The list is a view of the response.
+     *
+     * @param fieldName output field name
+     * @param indexOfTarget which target vector the result belongs to
+     * @return <code>List<String></code>
+     */
+    public List<String> getStringColumn(@NonNull String fieldName, int indexOfTarget) {
+        checkTarget(indexOfTarget);
+        return getFieldWrapper(fieldName).toStringList(offsets[indexOfTarget], offsets[indexOfTarget + 1]);
+    }
+
+    /**
+     * Gets the values of any output field for the hits of a target vector,
+     * in the types described by {@link FieldDataWrapper#getFieldData()}.
+     *
+     * @param fieldName output field name
+     * @param indexOfTarget which target vector the result belongs to
+     * @return <code>List<?></code>
+     */
+    public List<?> getColumn(@NonNull String fieldName, int indexOfTarget) {
+        checkTarget(indexOfTarget);
+        return getFieldWrapper(fieldName).getFieldData(offsets[indexOfTarget], offsets[indexOfTarget + 1]);
+    }
+
+    /**
+     * Converts all the hits into per-hit objects with entity maps.
+     *
+     * @return <code>List<List<SearchResp.SearchResult>></code>
+     */
+    public List<List<SearchResp.SearchResult>> toSearchResults() {
+        return new ConvertUtils().getEntities(results);
+    }
+
+    private void checkTarget(int indexOfTarget) throws ParamException {
+        if (indexOfTarget < 0 || indexOfTarget >= getNumQueries()) {
+            throw new ParamException("Illegal index of target: " + indexOfTarget);
+        }
+    }
+}
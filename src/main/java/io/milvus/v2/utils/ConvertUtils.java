@@ -59,8 +59,12 @@ public class ConvertUtils {
     }
 
     public List<List<SearchResp.SearchResult>> getEntities(SearchResults response) {
-        SearchResultsWrapper searchResultsWrapper = new SearchResultsWrapper(response.getResults());
-        long numQueries = response.getResults().getNumQueries();
+        return getEntities(response.getResults());
+    }
+
+    public List<List<SearchResp.SearchResult>> getEntities(SearchResultData results) {
+        SearchResultsWrapper searchResultsWrapper = new SearchResultsWrapper(results);
+        long numQueries = results.getNumQueries();
         List<List<SearchResp.SearchResult>> searchResults = new ArrayList<>();
         for (int i = 0; i < numQueries; i++) {
             searchResults.add(searchResultsWrapper.getIDScore(i).stream().map(idScore -> SearchResp.SearchResult.builder()
@@ -19,184 +19,101 @@
 
 package io.milvus.v2.utils;
 
-import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
-import com.google.common.collect.Lists;
-import com.google.protobuf.ByteString;
-import io.milvus.exception.IllegalResponseException;
 import io.milvus.exception.ParamException;
 import io.milvus.grpc.*;
-import io.milvus.param.Constant;
+import io.milvus.param.InsertPlan;
 import io.milvus.param.ParamUtils;
-import io.milvus.param.collection.FieldType;
 import io.milvus.param.dml.InsertParam;
 import io.milvus.response.DescCollResponseWrapper;
 import io.milvus.v2.service.vector.request.InsertReq;
 import io.milvus.v2.service.vector.request.UpsertReq;
 import lombok.NonNull;
+import org.apache.commons.collections4.CollectionUtils;
 
-import java.nio.ByteBuffer;
-import java.util.*;
-import java.util.stream.Collectors;
+import java.util.List;
 
+/**
+ * Converts insert/upsert requests to grpc requests.
+ * This class holds no state, one instance can be shared by concurrent callers.
+ */
 public class DataUtils {
-    private InsertRequest.Builder insertBuilder;
-    private UpsertRequest.Builder upsertBuilder;
 
     public InsertRequest convertGrpcInsertRequest(@NonNull InsertReq requestParam,
                                                   DescCollResponseWrapper wrapper) {
+        return convertGrpcInsertRequest(requestParam, new InsertPlan(wrapper));
+    }
+
+    public InsertRequest convertGrpcInsertRequest(@NonNull InsertReq requestParam,
+                                                  @NonNull InsertPlan plan) {
         String collectionName = requestParam.getCollectionName();
 
         // generate insert request builder
         MsgBase msgBase = MsgBase.newBuilder().setMsgType(MsgType.Insert).build();
-        insertBuilder = InsertRequest.newBuilder()
+        InsertRequest.Builder insertBuilder = InsertRequest.newBuilder()
                 .setCollectionName(collectionName)
                 .setBase(msgBase)
-                .setNumRows(requestParam.getData().size());
-        upsertBuilder = null;
-        fillFieldsData(requestParam, wrapper);
+                .setNumRows(getRowCount(requestParam.getData(), requestParam.getFields()));
+        String partitionName = plan.resolvePartitionName(collectionName, requestParam.getPartitionName());
+        if (partitionName != null) {
+            insertBuilder.setPartitionName(partitionName);
+        }
+        plan.genFieldsData(requestParam.getData(), requestParam.getFields(), false)
+                .forEach(insertBuilder::addFieldsData);
         return insertBuilder.build();
     }
+
     public UpsertRequest convertGrpcUpsertRequest(@NonNull UpsertReq requestParam,
                                                   DescCollResponseWrapper wrapper) {
-        String collectionName = requestParam.getCollectionName();
+        return convertGrpcUpsertRequest(requestParam, new InsertPlan(wrapper));
+    }
 
-        // currently, not allow to upsert for collection whose primary key is auto-generated
-        FieldType pk = wrapper.getPrimaryField();
-        if (pk.isAutoID()) {
-            throw new ParamException(String.format("Upsert don't support autoID==True, collection: %s",
-                    requestParam.getCollectionName()));
-        }
+    public UpsertRequest convertGrpcUpsertRequest(@NonNull UpsertReq requestParam,
+                                                  @NonNull InsertPlan plan) {
+        String collectionName = requestParam.getCollectionName();
+        plan.checkUpsert(collectionName);
 
         // generate upsert request builder
         MsgBase msgBase = MsgBase.newBuilder().setMsgType(MsgType.Insert).build();
-        upsertBuilder = UpsertRequest.newBuilder()
+        UpsertRequest.Builder upsertBuilder = UpsertRequest.newBuilder()
                 .setCollectionName(collectionName)
                 .setBase(msgBase)
-                .setNumRows(requestParam.getData().size());
-        insertBuilder = null;
-        fillFieldsData(requestParam, wrapper);
-        return upsertBuilder.build();
-    }
-
-    private void addFieldsData(io.milvus.grpc.FieldData value) {
-        if (insertBuilder != null) {
-            insertBuilder.addFieldsData(value);
-        } else if (upsertBuilder != null) {
-            upsertBuilder.addFieldsData(value);
-        }
-    }
-
-    private void setPartitionName(String value) {
-        if (insertBuilder != null) {
-            insertBuilder.setPartitionName(value);
-        } else if (upsertBuilder != null) {
-            upsertBuilder.setPartitionName(value);
+                .setNumRows(getRowCount(requestParam.getData(), requestParam.getFields()));
+        String partitionName = plan.resolvePartitionName(collectionName, requestParam.getPartitionName());
+        if (partitionName != null) {
+            upsertBuilder.setPartitionName(partitionName);
         }
+        plan.genFieldsData(requestParam.getData(), requestParam.getFields(), false)
+                .forEach(upsertBuilder::addFieldsData);
+        return upsertBuilder.build();
     }
 
-    private void fillFieldsData(UpsertReq requestParam, DescCollResponseWrapper wrapper) {
-        // set partition name only when there is no partition key field
-        String partitionName = requestParam.getPartitionName();
-        boolean isPartitionKeyEnabled = false;
-        for (FieldType fieldType : wrapper.getFields()) {
-            if (fieldType.isPartitionKey()) {
-                isPartitionKeyEnabled = true;
-                break;
-            }
-        }
-        if (isPartitionKeyEnabled) {
-            if (partitionName != null && !partitionName.isEmpty()) {
-                String msg = "Collection " + requestParam.getCollectionName() + " has partition key, not allow to specify partition name";
-                throw new ParamException(msg);
-            }
-        } else if (partitionName != null) {
-            this.setPartitionName(partitionName);
-        }
-
-        // convert insert data
-        List<JsonObject> rowFields = requestParam.getData();
-        checkAndSetRowData(wrapper, rowFields);
-    }
-
-    private void fillFieldsData(InsertReq requestParam, DescCollResponseWrapper wrapper) {
-        // set partition name only when there is no partition key field
-        String partitionName = requestParam.getPartitionName();
-        boolean isPartitionKeyEnabled = false;
-        for (FieldType fieldType : wrapper.getFields()) {
-            if (fieldType.isPartitionKey()) {
-                isPartitionKeyEnabled = true;
-                break;
-            }
+    private static int getRowCount(List<JsonObject> rows, List<InsertParam.Field> fields) {
+        if (CollectionUtils.isNotEmpty(rows) && CollectionUtils.isNotEmpty(fields)) {
+            throw new ParamException("Only one of data or fields is allowed to be non-empty.");
         }
-        if (isPartitionKeyEnabled) {
-            if (partitionName != null && !partitionName.isEmpty()) {
-                String msg = "Collection " + requestParam.getCollectionName() + " has partition key, not allow to specify partition name";
-                throw new ParamException(msg);
+        if (CollectionUtils.isEmpty(fields)) {
+            if (rows == null) {
+                throw new ParamException("Data and fields are empty, use data() or fields() to input data.");
             }
-        } else if (partitionName != null) {
-            this.setPartitionName(partitionName);
+            return rows.size();
         }
 
-        // convert insert data
-        List<JsonObject> rowFields = requestParam.getData();
-        checkAndSetRowData(wrapper, rowFields);
-    }
-
-    private void checkAndSetRowData(DescCollResponseWrapper wrapper, List<JsonObject> rows) {
-        List<FieldType> fieldTypes = wrapper.getFields();
-
-        Map<String, ParamUtils.InsertDataInfo> nameInsertInfo = new HashMap<>();
-        ParamUtils.InsertDataInfo insertDynamicDataInfo = ParamUtils.InsertDataInfo.builder().fieldType(
-                        FieldType.newBuilder()
-                                .withName(Constant.DYNAMIC_FIELD_NAME)
-                                .withDataType(DataType.JSON)
-                                .withIsDynamic(true)
-                                .build())
-                .data(new LinkedList<>()).build();
-        for (JsonObject row : rows) {
-            for (FieldType fieldType : fieldTypes) {
-                String fieldName = fieldType.getName();
-                ParamUtils.InsertDataInfo insertDataInfo = nameInsertInfo.getOrDefault(fieldName, ParamUtils.InsertDataInfo.builder()
-                        .fieldType(fieldType).data(new LinkedList<>()).build());
-
-                // check normalField
-                JsonElement rowFieldData = row.get(fieldName);
-                if (rowFieldData != null) {
-                    if (fieldType.isAutoID()) {
-                        String msg = String.format("The primary key: %s is auto generated, no need to input.", fieldName);
-                        throw new ParamException(msg);
-                    }
-                    Object fieldValue = ParamUtils.checkFieldValue(fieldType, rowFieldData);
-                    insertDataInfo.getData().add(fieldValue);
-                    nameInsertInfo.put(fieldName, insertDataInfo);
-                } else {
-                    // check if autoId
-                    if (!fieldType.isAutoID()) {
-                        String msg = String.format("The field: %s is not provided.", fieldType.getName());
-                        throw new ParamException(msg);
-                    }
-                }
+        int count = -1;
+        for (InsertParam.Field field : fields) {
+            if (field == null) {
+                throw new ParamException("Field cannot be null." +
+                        " If the field is auto-id, just ignore it from fields");
             }
-
-            // deal with dynamicField
-            if (wrapper.getEnableDynamicField()) {
-                JsonObject dynamicField = new JsonObject();
-                for (String rowFieldName : row.keySet()) {
-                    if (!nameInsertInfo.containsKey(rowFieldName)) {
-                        dynamicField.add(rowFieldName, row.get(rowFieldName));
-                    }
-                }
-                insertDynamicDataInfo.getData().add(dynamicField);
+            ParamUtils.CheckNullEmptyString(field.getName(), "Field name");
+            if (count >= 0 && field.getRowCount() != count) {
+                throw new ParamException("Row count of fields must be equal");
             }
+            count = field.getRowCount();
         }
-
-        for (String fieldNameKey : nameInsertInfo.keySet()) {
-            ParamUtils.InsertDataInfo insertDataInfo = nameInsertInfo.get(fieldNameKey);
-            this.addFieldsData(ParamUtils.genFieldData(insertDataInfo.getFieldType(), insertDataInfo.getData()));
-        }
-        if (wrapper.getEnableDynamicField()) {
-            this.addFieldsData(ParamUtils.genFieldData(insertDynamicDataInfo.getFieldType(), insertDynamicDataInfo.getData(), Boolean.TRUE));
+        if (count == 0) {
+            throw new ParamException("Zero row count is not allowed");
         }
+        return count;
     }
 }
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.milvus.benchmark;
+
+import io.milvus.common.utils.Float16Utils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the Float16/BFloat16 batch codecs on one column of vectors.
+ * Run it from the test classpath with the main method, it is not part of the unit tests.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class Float16Benchmark {
+    @Param({"128", "768"})
+    private int dim;
+
+    @Param({"1000"})
+    private int rows;
+
+    private float[] floats;
+    private byte[] bytes;
+    private ByteBuffer encoded;
+    private float[] decoded;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(0);
+        floats = new float[dim * rows];
+        for (int i = 0; i < floats.length; i++) {
+            floats[i] = random.nextFloat() * 2 - 1;
+        }
+        bytes = new byte[floats.length * 2];
+        decoded = new float[floats.length];
+        Float16Utils.encodeFloat16(floats, 0, bytes, 0, floats.length);
+        encoded = ByteBuffer.wrap(bytes.clone());
+    }
+
+    @Benchmark
+    public byte[] encodeFloat16() {
+        Float16Utils.encodeFloat16(floats, 0, bytes, 0, floats.length);
+        return bytes;
+    }
+
+    @Benchmark
+    public byte[] encodeBFloat16() {
+        Float16Utils.encodeBFloat16(floats, 0, bytes, 0, floats.length);
+        return bytes;
+    }
+
+    @Benchmark
+    public float[] decodeFloat16() {
+        Float16Utils.decodeFloat16(encoded, 0, decoded, 0, decoded.length);
+        return decoded;
+    }
+
+    @Benchmark
+    public float[] decodeBFloat16() {
+        Float16Utils.decodeBFloat16(encoded, 0, decoded, 0, decoded.length);
+        return decoded;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(Float16Benchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.milvus.benchmark;
+
+import com.google.protobuf.ByteString;
+import io.milvus.grpc.*;
+import io.milvus.response.SearchResultsWrapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures SearchResultsWrapper.getIDScore() on one target with a float vector output field,
+ * a binary vector output field and two keys of the dynamic field.
+ * The score is the time of one call, divide it by topK to get the time per hit: with each column
+ * decoded once it stays flat as topK grows, instead of growing linearly with topK.
+ * Run it from the test classpath with the main method, it is not part of the unit tests.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchResultsBenchmark {
+    @Param({"10", "100", "1000"})
+    private int topK;
+
+    @Param({"128"})
+    private int dim;
+
+    private SearchResultData results;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(0);
+        FloatArray.Builder floats = FloatArray.newBuilder();
+        for (int i = 0; i < topK * dim; i++) {
+            floats.addData(random.nextFloat());
+        }
+        byte[] binary = new byte[topK * dim / 8];
+        random.nextBytes(binary);
+        JSONArray.Builder json = JSONArray.newBuilder();
+        LongArray.Builder ids = LongArray.newBuilder();
+        SearchResultData.Builder builder = SearchResultData.newBuilder();
+        for (int i = 0; i < topK; i++) {
+            json.addData(ByteString.copyFromUtf8(String.format("{\"color\": \"c%d\", \"weight\": %d}", i, i)));
+            ids.addData(i);
+            builder.addScores(random.nextFloat());
+        }
+
+        results = builder
+                .setNumQueries(1)
+                .setTopK(topK)
+                .addTopks(topK)
+                .setIds(IDs.newBuilder().setIntId(ids))
+                .addFieldsData(FieldData.newBuilder()
+                        .setFieldName("vector")
+                        .setType(DataType.FloatVector)
+                        .setVectors(VectorField.newBuilder().setDim(dim).setFloatVector(floats)))
+                .addFieldsData(FieldData.newBuilder()
+                        .setFieldName("binary")
+                        .setType(DataType.BinaryVector)
+                        .setVectors(VectorField.newBuilder().setDim(dim).setBinaryVector(ByteString.copyFrom(binary))))
+                .addFieldsData(FieldData.newBuilder()
+                        .setFieldName("$meta")
+                        .setType(DataType.JSON)
+                        .setIsDynamic(true)
+                        .setScalars(ScalarField.newBuilder().setJsonData(json)))
+                .addOutputFields("vector")
+                .addOutputFields("binary")
+                .addOutputFields("color")
+                .addOutputFields("weight")
+                .build();
+    }
+
+    @Benchmark
+    public List<SearchResultsWrapper.IDScore> getIDScore() {
+        return new SearchResultsWrapper(results).getIDScore(0);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(SearchResultsBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -19,12 +19,33 @@
 
 package io.milvus.client;
 
+import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
 import com.google.protobuf.ByteString;
+import io.milvus.bulkwriter.CollectionExportParam;
+import io.milvus.bulkwriter.CollectionExporter;
+import io.milvus.bulkwriter.common.utils.ParquetReaderUtils;
 import io.milvus.common.clientenum.ConsistencyLevelEnum;
+import io.milvus.common.utils.FieldDataSplitter;
+import io.milvus.common.utils.Float16Utils;
+import io.milvus.common.utils.MutationChunkDispatcher;
+import io.milvus.common.utils.ResultCache;
+import io.milvus.common.utils.SearchCoalescer;
 import io.milvus.exception.IllegalResponseException;
 import io.milvus.exception.ParamException;
 import io.milvus.grpc.*;
+import io.milvus.orm.iterator.BatchSearchIterator;
+import io.milvus.orm.iterator.IteratorCache;
+import io.milvus.orm.iterator.ParallelQueryIterator;
+import io.milvus.orm.iterator.QueryIterator;
+import io.milvus.orm.iterator.QueryIteratorCheckpoint;
+import io.milvus.orm.iterator.SearchIterator;
+import io.milvus.orm.iterator.SearchIteratorCheckpoint;
+import io.milvus.orm.mapper.MilvusField;
+import io.milvus.orm.mapper.RowMapper;
 import io.milvus.param.*;
 import io.milvus.param.alias.AlterAliasParam;
 import io.milvus.param.alias.CreateAliasParam;
@@ -41,16 +62,31 @@ import io.milvus.param.partition.*;
 import io.milvus.response.*;
 import io.milvus.server.MockMilvusServer;
 import io.milvus.server.MockMilvusServerImpl;
+import io.milvus.v2.exception.MilvusClientException;
 import org.junit.jupiter.api.Test;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
 
 class MilvusServiceClientTest {
     private final int testPort = 53019;
@@ -1658,6 +1694,1733 @@ class MilvusServiceClientTest {
         );
     }
 
+    @Test
+    void convertPlaceholder() throws Exception {
+        float[] floats = new float[]{0.1f, 0.2f, -0.3f};
+        ByteBuffer floatBuf = ByteBuffer.allocate(Float.BYTES * floats.length).order(ByteOrder.LITTLE_ENDIAN);
+        for (float f : floats) {
+            floatBuf.putFloat(f);
+        }
+        PlaceholderGroup expected = PlaceholderGroup.newBuilder()
+                .addPlaceholders(PlaceholderValue.newBuilder()
+                        .setTag(Constant.VECTOR_TAG)
+                        .setType(PlaceholderType.FloatVector)
+                        .addValues(ByteString.copyFrom(floatBuf.array()))
+                        .addValues(ByteString.copyFrom(floatBuf.array()))
+                        .build())
+                .build();
+
+        // List<Float>, float[] and FloatBuffer are serialized to the same bytes
+        List<Float> floatList = Arrays.asList(0.1f, 0.2f, -0.3f);
+        assertEquals(expected.toByteString(),
+                ParamUtils.convertPlaceholder(Arrays.asList(floatList, floats), PlaceholderType.None));
+        assertEquals(expected.toByteString(),
+                ParamUtils.convertPlaceholder(Arrays.asList(FloatBuffer.wrap(floats), floatList), PlaceholderType.None));
+
+        // direct ByteBuffer is serialized without copying to a heap array first
+        ByteBuffer direct = ByteBuffer.allocateDirect(4);
+        direct.put(new byte[]{1, 2, 3, 4});
+        ByteBuffer heap = ByteBuffer.wrap(new byte[]{5, 6, 7, 8});
+        PlaceholderGroup binaryGroup = PlaceholderGroup.parseFrom(
+                ParamUtils.convertPlaceholder(Arrays.asList(direct, heap), PlaceholderType.Float16Vector));
+        PlaceholderValue binaryValue = binaryGroup.getPlaceholders(0);
+        assertEquals(PlaceholderType.Float16Vector, binaryValue.getType());
+        assertEquals(ByteString.copyFrom(new byte[]{1, 2, 3, 4}), binaryValue.getValues(0));
+        assertEquals(ByteString.copyFrom(new byte[]{5, 6, 7, 8}), binaryValue.getValues(1));
+
+        // sparse vector
+        SortedMap<Long, Float> sparse = new TreeMap<>();
+        sparse.put(1L, 0.5f);
+        sparse.put(100L, 0.25f);
+        PlaceholderValue sparseValue = PlaceholderGroup.parseFrom(
+                ParamUtils.convertPlaceholder(Collections.singletonList(sparse), PlaceholderType.None)).getPlaceholders(0);
+        assertEquals(PlaceholderType.SparseFloatVector, sparseValue.getType());
+        assertEquals(16, sparseValue.getValues(0).size());
+
+        assertThrows(ParamException.class, () -> ParamUtils.convertPlaceholder(
+                Collections.singletonList("illegal"), PlaceholderType.None));
+    }
+
+    @Test
+    void insertPrimitiveColumns() {
+        CollectionSchema schema = CollectionSchema.newBuilder()
+                .setName("collection1")
+                .addFields(ParamUtils.ConvertField(FieldType.newBuilder()
+                        .withName("id")
+                        .withDataType(DataType.Int64)
+                        .withPrimaryKey(true)
+                        .build()))
+                .addFields(ParamUtils.ConvertField(FieldType.newBuilder()
+                        .withName("age")
+                        .withDataType(DataType.Int32)
+                        .build()))
+                .addFields(ParamUtils.ConvertField(FieldType.newBuilder()
+                        .withName("weight")
+                        .withDataType(DataType.Double)
+                        .build()))
+                .addFields(ParamUtils.ConvertField(FieldType.newBuilder()
+                        .withName("vector")
+                        .withDataType(DataType.FloatVector)
+                        .withDimension(2)
+                        .build()))
+                .build();
+        DescCollResponseWrapper wrapper = new DescCollResponseWrapper(DescribeCollectionResponse.newBuilder()
+                .setSchema(schema)
+                .build());
+
+        long[] ids = new long[]{1L, 2L, 3L};
+        int[] ages = new int[]{10, 20, 30};
+        double[] weights = new double[]{0.5, 1.5, 2.5};
+        float[] flatVectors = new float[]{0.1f, 0.2f, 0.3f, 0.4f, 0.5f, 0.6f};
+
+        List<InsertParam.Field> fields = new ArrayList<>();
+        fields.add(new InsertParam.Field("id", ids));
+        fields.add(new InsertParam.Field("age", ages));
+        fields.add(new InsertParam.Field("weight", weights));
+        fields.add(new InsertParam.Field("vector", flatVectors, 2));
+        InsertParam param = InsertParam.newBuilder()
+                .withCollectionName("collection1")
+                .withFields(fields)
+                .build();
+        assertEquals(3, param.getRowCount());
+
+        InsertRequest request = new ParamUtils.InsertBuilderWrapper(param, wrapper).buildInsertRequest();
+        assertEquals(3, request.getNumRows());
+        assertEquals(4, request.getFieldsDataCount());
+        assertEquals(Arrays.asList(1L, 2L, 3L), request.getFieldsData(0).getScalars().getLongData().getDataList());
+        assertEquals(Arrays.asList(10, 20, 30), request.getFieldsData(1).getScalars().getIntData().getDataList());
+        assertEquals(Arrays.asList(0.5, 1.5, 2.5), request.getFieldsData(2).getScalars().getDoubleData().getDataList());
+        VectorField vectorField = request.getFieldsData(3).getVectors();
+        assertEquals(2, vectorField.getDim());
+        assertEquals(6, vectorField.getFloatVector().getDataCount());
+        assertEquals(0.6f, vectorField.getFloatVector().getData(5));
+
+        // float[][] and FloatBuffer produce the same vector data as flat float[]
+        float[][] vectors = new float[][]{{0.1f, 0.2f}, {0.3f, 0.4f}, {0.5f, 0.6f}};
+        fields.set(3, new InsertParam.Field("vector", vectors));
+        request = new ParamUtils.InsertBuilderWrapper(InsertParam.newBuilder()
+                .withCollectionName("collection1")
+                .withFields(fields)
+                .build(), wrapper).buildInsertRequest();
+        assertEquals(vectorField, request.getFieldsData(3).getVectors());
+
+        fields.set(3, new InsertParam.Field("vector", FloatBuffer.wrap(flatVectors), 2));
+        request = new ParamUtils.InsertBuilderWrapper(InsertParam.newBuilder()
+                .withCollectionName("collection1")
+                .withFields(fields)
+                .build(), wrapper).buildInsertRequest();
+        assertEquals(vectorField, request.getFieldsData(3).getVectors());
+
+        // the boxed view is consisted with the primitive data
+        assertEquals(Arrays.asList(0.3f, 0.4f), fields.get(3).getValues().get(1));
+
+        // flat array length is not a multiple of dimension
+        assertThrows(ParamException.class, () -> new InsertParam.Field("vector", new float[]{0.1f, 0.2f, 0.3f}, 2));
+
+        // dimension mismatch
+        fields.set(3, new InsertParam.Field("vector", new float[]{0.1f, 0.2f, 0.3f, 0.4f, 0.5f, 0.6f}, 3));
+        assertThrows(ParamException.class, () -> InsertParam.newBuilder()
+                .withCollectionName("collection1")
+                .withFields(fields)
+                .build());
+        fields.set(3, new InsertParam.Field("vector", new float[][]{{0.1f, 0.2f}, {0.3f}, {0.5f, 0.6f}}));
+        InsertParam badDimParam = InsertParam.newBuilder()
+                .withCollectionName("collection1")
+                .withFields(fields)
+                .build();
+        assertThrows(ParamException.class, () -> new ParamUtils.InsertBuilderWrapper(badDimParam, wrapper));
+
+        // type mismatch
+        fields.set(3, new InsertParam.Field("vector", vectors));
+        fields.set(1, new InsertParam.Field("age", new long[]{10L, 20L, 30L}));
+        InsertParam badTypeParam = InsertParam.newBuilder()
+                .withCollectionName("collection1")
+                .withFields(fields)
+                .build();
+        assertThrows(ParamException.class, () -> new ParamUtils.InsertBuilderWrapper(badTypeParam, wrapper));
+    }
+
+    @Test
+    void insertPlan() {
+        CollectionSchema schema = CollectionSchema.newBuilder()
+                .setEnableDynamicField(true)
+                .addFields(ParamUtils.ConvertField(FieldType.newBuilder()
+                        .withName("id")
+                        .withDataType(DataType.Int64)
+                        .withPrimaryKey(true)
+                        .withAutoID(true)
+                        .build()))
+                .addFields(ParamUtils.ConvertField(FieldType.newBuilder()
+                        .withName("name")
+                        .withDataType(DataType.VarChar)
+                        .withMaxLength(10)
+                        .build()))
+                .addFields(ParamUtils.ConvertField(FieldType.newBuilder()
+                        .withName("vector")
+                        .withDataType(DataType.FloatVector)
+                        .withDimension(2)
+                        .build()))
+                .build();
+        InsertPlan plan = new InsertPlan(new DescCollResponseWrapper(DescribeCollectionResponse.newBuilder()
+                .setSchema(schema)
+                .build()));
+        assertEquals("id", plan.getPrimaryField().getName());
+        assertTrue(plan.isDynamicFieldEnabled());
+        assertEquals("p1", plan.resolvePartitionName("collection1", "p1"));
+        assertThrows(ParamException.class, () -> plan.checkUpsert("collection1"));
+
+        List<JsonObject> rows = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            JsonObject row = new JsonObject();
+            row.addProperty("name", "n" + i);
+            JsonArray vector = new JsonArray();
+            vector.add(i);
+            vector.add(i + 0.5f);
+            row.add("vector", vector);
+            row.addProperty("extra", i);
+            rows.add(row);
+        }
+
+        // output is in schema order, the auto-id field is skipped, unknown keys go to the dynamic field
+        List<FieldData> fieldsData = plan.genRowFieldsData(rows);
+        assertEquals(3, fieldsData.size());
+        assertEquals("name", fieldsData.get(0).getFieldName());
+        assertEquals(Arrays.asList("n0", "n1", "n2"), fieldsData.get(0).getScalars().getStringData().getDataList());
+        assertEquals("vector", fieldsData.get(1).getFieldName());
+        assertEquals(6, fieldsData.get(1).getVectors().getFloatVector().getDataCount());
+        assertTrue(fieldsData.get(2).getIsDynamic());
+        assertEquals("{\"extra\":2}", fieldsData.get(2).getScalars().getJsonData().getData(2).toStringUtf8());
+
+        rows.get(1).addProperty("name", 5);
+        ParamException e = assertThrows(ParamException.class, () -> plan.genRowFieldsData(rows));
+        assertTrue(e.getMessage().contains("'name'"));
+        rows.get(1).addProperty("id", 5);
+        assertThrows(ParamException.class, () -> plan.genRowFieldsData(rows));
+    }
+
+    @Test
+    void sparseVector() {
+        SortedMap<Long, Float> map = new TreeMap<>();
+        map.put(1L, 0.5f);
+        map.put(100L, 1.5f);
+        map.put(4294967294L, 2.5f);
+        SparseVector sparse = SparseVector.fromMap(map);
+        assertEquals(3, sparse.size());
+        assertEquals(4294967294L, sparse.getIndex(2));
+        assertEquals(map, sparse.toMap());
+        assertEquals(sparse, SparseVector.decode(sparse.encode()));
+        assertEquals(24, sparse.encode().size());
+
+        assertThrows(ParamException.class, () -> new SparseVector(new int[]{2, 1}, new float[]{1.0f, 2.0f}));
+        assertThrows(ParamException.class, () -> new SparseVector(new int[]{1}, new float[]{Float.NaN}));
+        assertThrows(ParamException.class, () -> new SparseVector(new int[]{-1}, new float[]{1.0f}));
+        assertThrows(ParamException.class, () -> new SparseVector(new int[]{1, 2}, new float[]{1.0f}));
+
+        // the same binary for SortedMap and SparseVector
+        assertEquals(ParamUtils.convertPlaceholder(Collections.singletonList(map), PlaceholderType.None),
+                ParamUtils.convertPlaceholder(Collections.singletonList(sparse), PlaceholderType.None));
+
+        FieldType fieldType = FieldType.newBuilder()
+                .withName("sparse")
+                .withDataType(DataType.SparseFloatVector)
+                .build();
+        SparseVector other = new SparseVector(new int[]{3}, new float[]{-1.0f});
+        FieldData fieldData = ParamUtils.genFieldData(fieldType, Arrays.asList(sparse, other));
+        assertEquals(2, fieldData.getVectors().getSparseFloatVector().getContentsCount());
+
+        FieldDataWrapper wrapper = new FieldDataWrapper(fieldData);
+        assertEquals(Arrays.asList(sparse, other), wrapper.getSparseVectors());
+        assertEquals(Arrays.asList(map, other.toMap()), wrapper.getFieldData());
+    }
+
+    @Test
+    void float16Vector() {
+        float[] v1 = new float[]{1.5f, -2.25f, 0.0f, 65504.0f};
+        float[] v2 = new float[]{0.5f, 0.25f, -0.125f, 3.0f};
+        ByteBuffer f16 = Float16Utils.toFloat16Buffer(v1);
+        assertEquals(8, f16.position());
+        assertArrayEquals(v1, Float16Utils.fromFloat16Buffer(f16));
+        // 65504 is the max float16 value, bfloat16 rounds it to 65536
+        assertArrayEquals(new float[]{1.5f, -2.25f, 0.0f, 65536.0f}, Float16Utils.fromBFloat16Buffer(
+                Float16Utils.toBFloat16Buffer(v1)));
+        assertEquals(0.0999755859375f, Float16Utils.float16ToFloat(
+                Float16Utils.floatToFloat16(0.1f)));
+        assertEquals(Float.POSITIVE_INFINITY, Float16Utils.float16ToFloat(
+                Float16Utils.floatToFloat16(1.0e6f)));
+        assertTrue(Float.isNaN(Float16Utils.bfloat16ToFloat(
+                Float16Utils.floatToBFloat16(Float.NaN))));
+
+        FieldType fieldType = FieldType.newBuilder()
+                .withName("vec")
+                .withDataType(DataType.Float16Vector)
+                .withDimension(4)
+                .build();
+        // float[] rows and pre-encoded ByteBuffer rows produce the same bytes
+        ParamUtils.checkFieldData(fieldType, Arrays.asList(v1, v2), false);
+        FieldData fromFloats = ParamUtils.genFieldData(fieldType, Arrays.asList(v1, v2));
+        FieldData fromBuffers = ParamUtils.genFieldData(fieldType, Arrays.asList(f16,
+                Float16Utils.toFloat16Buffer(v2)));
+        assertEquals(fromBuffers, fromFloats);
+        assertEquals(fromFloats, ParamUtils.genFieldData(fieldType, new InsertParam.Field("vec", new float[][]{v1, v2})));
+        assertEquals(4, fromFloats.getVectors().getDim());
+        assertThrows(ParamException.class, () -> ParamUtils.checkFieldData(fieldType,
+                Collections.singletonList(new float[]{1.0f}), false));
+
+        FieldDataWrapper wrapper = new FieldDataWrapper(fromFloats);
+        assertArrayEquals(new float[]{1.5f, -2.25f, 0.0f, 65504.0f, 0.5f, 0.25f, -0.125f, 3.0f}, wrapper.toFloatArray());
+        List<?> rows = wrapper.getFieldData();
+        assertEquals(2, rows.size());
+        assertEquals(8, ((ByteBuffer) rows.get(1)).position());
+        assertArrayEquals(v2, Float16Utils.fromFloat16Buffer((ByteBuffer) rows.get(1)));
+        // the read-only view of the ByteString has no array, values are read in bulk from the row offset
+        assertArrayEquals(v2, wrapper.toFloatArray(1, 2));
+        float[] decoded = new float[2];
+        Float16Utils.decodeFloat16(fromFloats.getVectors().getFloat16Vector().asReadOnlyByteBuffer(), 10, decoded, 0, 2);
+        assertArrayEquals(new float[]{0.25f, -0.125f}, decoded);
+
+        FieldType bf16Type = FieldType.newBuilder()
+                .withName("vec")
+                .withDataType(DataType.BFloat16Vector)
+                .withDimension(4)
+                .build();
+        FieldData bf16 = ParamUtils.genFieldData(bf16Type, new InsertParam.Field("vec", java.nio.FloatBuffer.wrap(v2), 4));
+        assertArrayEquals(v2, new FieldDataWrapper(bf16).toFloatArray());
+    }
+
+    @Test
+    void splitInsertData() throws Exception {
+        List<FieldData> fieldsData = new ArrayList<>();
+        FieldType idType = FieldType.newBuilder().withName("id").withDataType(DataType.Int64).build();
+        FieldType nameType = FieldType.newBuilder().withName("name").withDataType(DataType.VarChar).withMaxLength(100).build();
+        FieldType binType = FieldType.newBuilder().withName("bin").withDataType(DataType.BinaryVector).withDimension(16).build();
+        List<Long> ids = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        List<ByteBuffer> bins = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            ids.add((long) i);
+            names.add(i % 2 == 0 ? "a" : "abcdefghijklmnopqrstuvwxyz");
+            ByteBuffer buf = ByteBuffer.allocate(2);
+            buf.put((byte) i);
+            buf.put((byte) -i);
+            bins.add(buf);
+        }
+        fieldsData.add(ParamUtils.genFieldData(idType, ids));
+        fieldsData.add(ParamUtils.genFieldData(nameType, names));
+        fieldsData.add(ParamUtils.genFieldData(binType, bins));
+
+        long[] sizes = FieldDataSplitter.estimateRowSizes(fieldsData, 10);
+        assertEquals(1 + 3 + 2, sizes[0]);
+        assertEquals(1 + 28 + 2, sizes[1]);
+
+        List<FieldDataSplitter.Chunk> chunks = FieldDataSplitter.split(fieldsData, 10, 40);
+        int offset = 0;
+        for (FieldDataSplitter.Chunk chunk : chunks) {
+            assertEquals(offset, chunk.getOffset());
+            FieldDataWrapper idWrapper = new FieldDataWrapper(chunk.getFieldsData().get(0));
+            FieldDataWrapper nameWrapper = new FieldDataWrapper(chunk.getFieldsData().get(1));
+            FieldDataWrapper binWrapper = new FieldDataWrapper(chunk.getFieldsData().get(2));
+            assertEquals(chunk.getRowCount(), idWrapper.getRowCount());
+            assertEquals(chunk.getRowCount(), nameWrapper.getRowCount());
+            assertEquals(chunk.getRowCount(), binWrapper.getRowCount());
+            for (int i = 0; i < chunk.getRowCount(); i++) {
+                assertEquals(ids.get(offset + i), idWrapper.getFieldData().get(i));
+                assertEquals(names.get(offset + i), nameWrapper.getFieldData().get(i));
+                assertArrayEquals(bins.get(offset + i).array(), ((ByteBuffer) binWrapper.getFieldData().get(i)).array());
+            }
+            offset += chunk.getRowCount();
+        }
+        assertEquals(10, offset);
+        assertTrue(chunks.size() > 1);
+
+        // results are merged in row order, the second chunk fails and stops the rest
+        MutationResult merged = MutationChunkDispatcher.dispatch(chunks, 1, chunk -> {
+            if (chunk.getOffset() == chunks.get(1).getOffset()) {
+                return Futures.immediateFuture(MutationResult.newBuilder()
+                        .setStatus(Status.newBuilder().setCode(8).setReason("rate limit"))
+                        .build());
+            }
+            return Futures.immediateFuture(MutationResult.newBuilder()
+                    .setIDs(IDs.newBuilder().setIntId(LongArray.newBuilder()
+                            .addAllData(ids.subList(chunk.getOffset(), chunk.getOffset() + chunk.getRowCount()))))
+                    .setInsertCnt(chunk.getRowCount())
+                    .build());
+        }).get();
+        assertEquals(8, merged.getStatus().getCode());
+        assertEquals(chunks.get(0).getRowCount(), merged.getInsertCnt());
+
+        merged = MutationChunkDispatcher.dispatch(chunks, 3, chunk -> Futures.immediateFuture(
+                MutationResult.newBuilder()
+                        .setIDs(IDs.newBuilder().setIntId(LongArray.newBuilder()
+                                .addAllData(ids.subList(chunk.getOffset(), chunk.getOffset() + chunk.getRowCount()))))
+                        .addSuccIndex(0)
+                        .setInsertCnt(chunk.getRowCount())
+                        .build())).get();
+        assertEquals(0, merged.getStatus().getCode());
+        assertEquals(10, merged.getInsertCnt());
+        assertEquals(ids, merged.getIDs().getIntId().getDataList());
+        assertEquals(chunks.size(), merged.getSuccIndexCount());
+        assertEquals(chunks.get(1).getOffset(), merged.getSuccIndex(1));
+
+        // with pending rpcs the window never exceeds the max number in flight
+        List<FieldDataSplitter.Chunk> sent = new ArrayList<>();
+        List<SettableFuture<MutationResult>> pending = new ArrayList<>();
+        AtomicInteger inflight = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        ListenableFuture<MutationResult> dispatched = MutationChunkDispatcher.dispatch(chunks, 2, chunk -> {
+            peak.accumulateAndGet(inflight.incrementAndGet(), Math::max);
+            SettableFuture<MutationResult> future = SettableFuture.create();
+            sent.add(chunk);
+            pending.add(future);
+            return future;
+        });
+        assertEquals(2, pending.size());
+        for (int i = 0; i < pending.size(); i++) {
+            FieldDataSplitter.Chunk chunk = sent.get(i);
+            inflight.decrementAndGet();
+            pending.get(i).set(MutationResult.newBuilder()
+                    .setIDs(IDs.newBuilder().setIntId(LongArray.newBuilder()
+                            .addAllData(ids.subList(chunk.getOffset(), chunk.getOffset() + chunk.getRowCount()))))
+                    .setInsertCnt(chunk.getRowCount())
+                    .build());
+        }
+        assertEquals(2, peak.get());
+        assertEquals(chunks.size(), sent.size());
+        assertEquals(10, dispatched.get().getInsertCnt());
+        assertEquals(ids, dispatched.get().getIDs().getIntId().getDataList());
+    }
+
+    @Test
+    void insertBatcher() throws Exception {
+        MilvusClient client = mock(MilvusClient.class);
+        List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+        when(client.insertAsync(any(InsertParam.class)))
+                .thenAnswer(invocation -> {
+                    InsertParam param = invocation.getArgument(0);
+                    batchSizes.add(param.getRows().size());
+                    LongArray.Builder ids = LongArray.newBuilder();
+                    param.getRows().forEach(row -> ids.addData(row.get("id").getAsLong()));
+                    return Futures.immediateFuture(R.success(MutationResult.newBuilder()
+                            .setIDs(IDs.newBuilder().setIntId(ids))
+                            .setInsertCnt(param.getRows().size())
+                            .build()));
+                });
+
+        InsertBatcherParam batcherParam = InsertBatcherParam.newBuilder()
+                .withCollectionName("collection1")
+                .withMaxBatchRows(10)
+                .withLingerMs(5)
+                .build();
+        InsertBatcher batcher = new InsertBatcher(client, batcherParam);
+
+        List<Thread> threads = new ArrayList<>();
+        Map<Long, ListenableFuture<R<List<Object>>>> futures = new ConcurrentHashMap<>();
+        for (int t = 0; t < 4; t++) {
+            final long base = t * 100L;
+            Thread thread = new Thread(() -> {
+                for (long i = base; i < base + 25; i++) {
+                    JsonObject row = new JsonObject();
+                    row.addProperty("id", i);
+                    futures.put(i, batcher.add(row));
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        for (Map.Entry<Long, ListenableFuture<R<List<Object>>>> entry : futures.entrySet()) {
+            R<List<Object>> result = entry.getValue().get(5, TimeUnit.SECONDS);
+            assertEquals(R.Status.Success.getCode(), result.getStatus().intValue());
+            assertEquals(Collections.singletonList(entry.getKey()), result.getData());
+        }
+        assertEquals(100, batchSizes.stream().mapToInt(Integer::intValue).sum());
+        assertTrue(batchSizes.stream().allMatch(size -> size <= 10));
+
+        batcher.close();
+        R<List<Object>> rejected = batcher.add(new JsonObject()).get();
+        assertNotEquals(R.Status.Success.getCode(), rejected.getStatus().intValue());
+
+        assertThrows(ParamException.class, () -> InsertBatcherParam.newBuilder()
+                .withCollectionName("collection1")
+                .withMaxBatchRows(0)
+                .build());
+    }
+
+    @Test
+    void streamInsert() {
+        MilvusClient client = mock(MilvusClient.class);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        AtomicInteger inflight = new AtomicInteger();
+        AtomicInteger maxInflight = new AtomicInteger();
+        when(client.insertAsync(any(InsertParam.class)))
+                .thenAnswer(invocation -> {
+                    InsertParam param = invocation.getArgument(0);
+                    maxInflight.accumulateAndGet(inflight.incrementAndGet(), Math::max);
+                    SettableFuture<R<MutationResult>> future = SettableFuture.create();
+                    executor.submit(() -> {
+                        TimeUnit.MILLISECONDS.sleep(2);
+                        inflight.decrementAndGet();
+                        future.set(R.success(MutationResult.newBuilder()
+                                .setInsertCnt(param.getRows().size())
+                                .build()));
+                        return null;
+                    });
+                    return future;
+                });
+
+        List<Long> progress = Collections.synchronizedList(new ArrayList<>());
+        StreamInsertParam param = StreamInsertParam.newBuilder()
+                .withCollectionName("collection1")
+                .withBatchRows(64)
+                .withMaxInflightBatches(2)
+                .withProgressListener(progress::add)
+                .build();
+        Stream<JsonObject> rows = LongStream.range(0, 1000)
+                .mapToObj(i -> {
+                    JsonObject row = new JsonObject();
+                    row.addProperty("id", i);
+                    return row;
+                });
+        R<Long> result = new StreamInserter(client, param).insert(rows);
+
+        assertEquals(R.Status.Success.getCode(), result.getStatus().intValue());
+        assertEquals(1000L, result.getData().longValue());
+        assertEquals(16, progress.size());
+        assertEquals(1000L, progress.get(progress.size() - 1).longValue());
+        assertTrue(maxInflight.get() <= 2);
+
+        // a failed read of the source still waits for the requests in flight
+        Stream<JsonObject> broken = LongStream.range(0, 1000)
+                .mapToObj(i -> {
+                    if (i == 200) {
+                        throw new IllegalStateException("bad source row");
+                    }
+                    JsonObject row = new JsonObject();
+                    row.addProperty("id", i);
+                    return row;
+                });
+        result = new StreamInserter(client, param).insert(broken);
+        executor.shutdown();
+        assertEquals(0, inflight.get());
+        assertNotEquals(R.Status.Success.getCode(), result.getStatus().intValue());
+        assertTrue(result.getMessage().contains("after 192 rows"));
+
+        // the source is not drained after a failure
+        doReturn(Futures.immediateFuture(R.failed(new ParamException("bad row"))))
+                .when(client).insertAsync(any(InsertParam.class));
+        Iterator<JsonObject> source = Stream
+                .generate(JsonObject::new).limit(1000).iterator();
+        result = new StreamInserter(client, param).insert(source);
+        assertNotEquals(R.Status.Success.getCode(), result.getStatus().intValue());
+        assertTrue(source.hasNext());
+    }
+
+    public static class Book {
+        @MilvusField(insert = false)
+        private long id;
+        @MilvusField(name = "book_title")
+        private String title;
+        private short year;
+        private float[] vector;
+        private Boolean available;
+        private transient String note;
+
+        public Book() {
+        }
+
+        public Book(String title, short year, float[] vector) {
+            this.title = title;
+            this.year = year;
+            this.vector = vector;
+            this.available = true;
+        }
+    }
+
+    @Test
+    void rowMapper() {
+        RowMapper<Book> mapper = RowMapper.of(Book.class);
+        assertSame(mapper, RowMapper.of(Book.class));
+
+        List<Book> books = Arrays.asList(new Book("a", (short) 2001, new float[]{1.0f, 2.0f}),
+                new Book("b", (short) 2002, new float[]{3.0f, 4.0f}));
+        List<InsertParam.Field> fields = mapper.toFields(books);
+        assertEquals(4, fields.size());
+        assertEquals("book_title", fields.get(0).getName());
+        assertEquals(Arrays.asList("a", "b"), fields.get(0).getValues());
+        assertArrayEquals(new int[]{2001, 2002}, (int[]) fields.get(1).getPrimitiveValues());
+        assertTrue(fields.get(2).getPrimitiveValues() instanceof float[][]);
+        assertEquals(2, fields.get(2).getRowCount());
+        assertEquals(Arrays.asList(true, true), fields.get(3).getValues());
+
+        FieldType idType = FieldType.newBuilder().withName("id").withDataType(DataType.Int64).build();
+        FieldType titleType = FieldType.newBuilder().withName("book_title").withDataType(DataType.VarChar)
+                .withMaxLength(10).build();
+        FieldType vectorType = FieldType.newBuilder().withName("vector").withDataType(DataType.FloatVector)
+                .withDimension(2).build();
+        FieldData dynamic = FieldData.newBuilder()
+                .setFieldName(Constant.DYNAMIC_FIELD_NAME)
+                .setType(DataType.JSON)
+                .setIsDynamic(true)
+                .setScalars(ScalarField.newBuilder().setJsonData(JSONArray.newBuilder()
+                        .addData(ByteString.copyFromUtf8("{\"year\": 2001, \"available\": true}"))
+                        .addData(ByteString.copyFromUtf8("{\"year\": 2002}"))))
+                .build();
+        QueryResults results = QueryResults.newBuilder()
+                .addFieldsData(ParamUtils.genFieldData(idType, Arrays.asList(10L, 11L)))
+                .addFieldsData(ParamUtils.genFieldData(titleType, Arrays.asList("a", "b")))
+                .addFieldsData(ParamUtils.genFieldData(vectorType,
+                        Arrays.asList(Arrays.asList(1.0f, 2.0f), Arrays.asList(3.0f, 4.0f))))
+                .addFieldsData(dynamic)
+                .build();
+        List<Book> fetched = mapper.fromQuery(new QueryResultsWrapper(results));
+        assertEquals(2, fetched.size());
+        assertEquals(11L, fetched.get(1).id);
+        assertEquals("b", fetched.get(1).title);
+        assertEquals(2002, fetched.get(1).year);
+        assertArrayEquals(new float[]{3.0f, 4.0f}, fetched.get(1).vector);
+        assertTrue(fetched.get(0).available);
+        assertNull(fetched.get(1).available);
+        assertNull(fetched.get(0).note);
+    }
+
+    @Test
+    void rowMapperDynamicField() {
+        RowMapper<Book> mapper = RowMapper.of(Book.class);
+        List<Book> books = Arrays.asList(new Book("a", (short) 2001, new float[]{1.0f, 2.0f}),
+                new Book("b", (short) 2002, new float[]{3.0f, 4.0f}));
+        books.get(1).available = null;
+
+        CollectionSchema.Builder schema = CollectionSchema.newBuilder()
+                .addFields(ParamUtils.ConvertField(FieldType.newBuilder()
+                        .withName("id")
+                        .withDataType(DataType.Int64)
+                        .withPrimaryKey(true)
+                        .withAutoID(true)
+                        .build()))
+                .addFields(ParamUtils.ConvertField(FieldType.newBuilder()
+                        .withName("book_title")
+                        .withDataType(DataType.VarChar)
+                        .withMaxLength(10)
+                        .build()))
+                .addFields(ParamUtils.ConvertField(FieldType.newBuilder()
+                        .withName("vector")
+                        .withDataType(DataType.FloatVector)
+                        .withDimension(2)
+                        .build()));
+
+        // members out of the schema are packed into the dynamic field
+        InsertPlan plan = new InsertPlan(new DescCollResponseWrapper(DescribeCollectionResponse.newBuilder()
+                .setSchema(schema.setEnableDynamicField(true).build())
+                .build()));
+        List<InsertParam.Field> fields = mapper.toFields(books, plan);
+        assertEquals(3, fields.size());
+        assertEquals("book_title", fields.get(0).getName());
+        assertEquals("vector", fields.get(1).getName());
+        assertEquals(Constant.DYNAMIC_FIELD_NAME, fields.get(2).getName());
+        JsonObject first = (JsonObject) fields.get(2).getValues().get(0);
+        assertEquals(2001, first.get("year").getAsInt());
+        assertTrue(first.get("available").getAsBoolean());
+        JsonObject second = (JsonObject) fields.get(2).getValues().get(1);
+        assertEquals(2002, second.get("year").getAsInt());
+        assertFalse(second.has("available"));
+        assertEquals(3, plan.genColumnFieldsData(fields).size());
+
+        // without dynamic field, the unknown member is reported
+        InsertPlan staticPlan = new InsertPlan(new DescCollResponseWrapper(DescribeCollectionResponse.newBuilder()
+                .setSchema(schema.setEnableDynamicField(false).build())
+                .build()));
+        ParamException e = assertThrows(ParamException.class, () -> mapper.toFields(books, staticPlan));
+        assertTrue(e.getMessage().contains("'year'"));
+    }
+
+    public static class ImmutableBook {
+        private final long id;
+        private final String title;
+        private final int year;
+
+        public ImmutableBook(long id, String title, int year) {
+            this.id = id;
+            this.title = title;
+            this.year = year;
+        }
+    }
+
+    @Test
+    void rowMapperFieldsConstructor() {
+        RowMapper<ImmutableBook> mapper = RowMapper.of(ImmutableBook.class);
+        FieldType idType = FieldType.newBuilder().withName("id").withDataType(DataType.Int64).build();
+        FieldType titleType = FieldType.newBuilder().withName("title").withDataType(DataType.VarChar)
+                .withMaxLength(10).build();
+        QueryResults results = QueryResults.newBuilder()
+                .addFieldsData(ParamUtils.genFieldData(idType, Arrays.asList(10L, 11L)))
+                .addFieldsData(ParamUtils.genFieldData(titleType, Arrays.asList("a", "b")))
+                .build();
+
+        // final fields are filled through the constructor, missing values are left as defaults
+        List<ImmutableBook> fetched = mapper.fromQuery(new QueryResultsWrapper(results));
+        assertEquals(2, fetched.size());
+        assertEquals(11L, fetched.get(1).id);
+        assertEquals("b", fetched.get(1).title);
+        assertEquals(0, fetched.get(1).year);
+    }
+
+    @Test
+    void insertAsyncNonBlocking() throws Exception {
+        MockMilvusServer server = startServer();
+        CollectionSchema schema = CollectionSchema.newBuilder()
+                .addFields(ParamUtils.ConvertField(FieldType.newBuilder()
+                        .withName("id")
+                        .withDataType(DataType.Int64)
+                        .withPrimaryKey(true)
+                        .build()))
+                .addFields(ParamUtils.ConvertField(FieldType.newBuilder()
+                        .withName("vec")
+                        .withDataType(DataType.FloatVector)
+                        .withDimension(2)
+                        .build()))
+                .build();
+        mockServerImpl.setDescribeCollectionResponse(DescribeCollectionResponse.newBuilder().setSchema(schema).build());
+
+        // the requests are encoded on the configured executor, not on the caller thread
+        AtomicInteger executed = new AtomicInteger();
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        ConnectParam connectParam = ConnectParam.newBuilder()
+                .withHost("localhost")
+                .withPort(testPort)
+                .withAsyncExecutor(command -> {
+                    executed.incrementAndGet();
+                    pool.execute(command);
+                })
+                .build();
+        MilvusClient client = new MilvusServiceClient(connectParam);
+
+        List<InsertParam.Field> fields = new ArrayList<>();
+        fields.add(new InsertParam.Field("id", new long[]{1L, 2L}));
+        fields.add(new InsertParam.Field("vec", new float[][]{{0.1f, 0.2f}, {0.3f, 0.4f}}));
+        InsertParam insertParam = InsertParam.newBuilder()
+                .withCollectionName("collection1")
+                .withFields(fields)
+                .build();
+        R<MutationResult> resp = client.insertAsync(insertParam).get();
+        assertEquals(R.Status.Success.getCode(), resp.getStatus());
+        assertEquals(1, executed.get());
+
+        UpsertParam upsertParam = UpsertParam.newBuilder()
+                .withCollectionName("collection1")
+                .withFields(fields)
+                .build();
+        resp = client.upsertAsync(upsertParam).get();
+        assertEquals(R.Status.Success.getCode(), resp.getStatus());
+        assertEquals(2, executed.get());
+
+        // encoding errors complete the future exceptionally instead of throwing on the caller thread
+        List<InsertParam.Field> wrongFields = new ArrayList<>();
+        wrongFields.add(new InsertParam.Field("id", new long[]{1L}));
+        wrongFields.add(new InsertParam.Field("vec", new float[][]{{0.1f}}));
+        ListenableFuture<R<MutationResult>> future = client.insertAsync(InsertParam.newBuilder()
+                .withCollectionName("collection1")
+                .withFields(wrongFields)
+                .build());
+        ExecutionException e = assertThrows(ExecutionException.class, future::get);
+        assertTrue(e.getCause() instanceof ParamException);
+
+        client.close();
+        pool.shutdown();
+        server.stop();
+    }
+
+    @Test
+    void searchCoalescer() throws Exception {
+        List<SearchRequest> sent = new ArrayList<>();
+        SettableFuture<SearchResults> reply = SettableFuture.create();
+        SearchCoalescer coalescer = new SearchCoalescer(req -> {
+            sent.add(req);
+            return reply;
+        }, 60000L, 3);
+
+        List<ListenableFuture<SearchResults>> futures = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            SearchParam param = SearchParam.newBuilder()
+                    .withCollectionName("collection1")
+                    .withMetricType(MetricType.L2)
+                    .withTopK(2)
+                    .withFloatVectors(Collections.singletonList(Arrays.asList((float) i, 1.0f)))
+                    .withVectorFieldName("vec")
+                    .build();
+            futures.add(coalescer.submit(ParamUtils.convertSearchParam(param)));
+        }
+
+        // the third request fills the group, so the merged request is sent without waiting for the window
+        assertEquals(1, sent.size());
+        assertEquals(3, sent.get(0).getNq());
+        PlaceholderGroup group = PlaceholderGroup.parseFrom(sent.get(0).getPlaceholderGroup());
+        assertEquals(3, group.getPlaceholders(0).getValuesCount());
+
+        SearchResultData data = SearchResultData.newBuilder()
+                .setNumQueries(3)
+                .setTopK(2)
+                .addAllTopks(Arrays.asList(2L, 1L, 2L))
+                .addAllScores(Arrays.asList(0.1f, 0.2f, 0.3f, 0.4f, 0.5f))
+                .setIds(IDs.newBuilder().setIntId(LongArray.newBuilder().addAllData(Arrays.asList(1L, 2L, 3L, 4L, 5L))))
+                .build();
+        reply.set(SearchResults.newBuilder()
+                .setStatus(Status.newBuilder().setErrorCode(ErrorCode.Success).build())
+                .setResults(data)
+                .build());
+
+        SearchResultData second = futures.get(1).get().getResults();
+        assertEquals(1, second.getNumQueries());
+        assertEquals(Collections.singletonList(1L), second.getTopksList());
+        assertEquals(Collections.singletonList(3L), second.getIds().getIntId().getDataList());
+        assertEquals(0.3f, second.getScores(0));
+        SearchResultData third = futures.get(2).get().getResults();
+        assertEquals(Arrays.asList(4L, 5L), third.getIds().getIntId().getDataList());
+
+        // a request with more target vectors than maxNq is not merged
+        SearchParam multi = SearchParam.newBuilder()
+                .withCollectionName("collection1")
+                .withMetricType(MetricType.L2)
+                .withTopK(2)
+                .withFloatVectors(Arrays.asList(Arrays.asList(1.0f, 1.0f), Arrays.asList(2.0f, 2.0f),
+                        Arrays.asList(3.0f, 3.0f), Arrays.asList(4.0f, 4.0f)))
+                .withVectorFieldName("vec")
+                .build();
+        coalescer.submit(ParamUtils.convertSearchParam(multi));
+        assertEquals(2, sent.size());
+
+        SearchCoalescer.Metrics metrics = coalescer.getMetrics();
+        assertEquals(4, metrics.getRequests());
+        assertEquals(3, metrics.getCoalescedRequests());
+        assertEquals(1, metrics.getMergedBatches());
+        assertEquals(1, metrics.getBypassedRequests());
+        assertEquals(2, metrics.getSentRequests());
+        coalescer.close();
+
+        // requests are merged only with requests of the same timeout, the merged request keeps the deadline
+        Map<Integer, Long> timeouts = new HashMap<>();
+        SearchCoalescer timed = new SearchCoalescer((req, timeoutMs) -> {
+            timeouts.put((int) req.getNq(), timeoutMs);
+            return reply;
+        }, 60000L, 2);
+        SearchRequest single = ParamUtils.convertSearchParam(SearchParam.newBuilder()
+                .withCollectionName("collection1")
+                .withMetricType(MetricType.L2)
+                .withTopK(2)
+                .withFloatVectors(Collections.singletonList(Arrays.asList(1.0f, 1.0f)))
+                .withVectorFieldName("vec")
+                .build());
+        timed.submit(single, 5000L);
+        timed.submit(single);
+        assertTrue(timeouts.isEmpty());
+        timed.submit(single, 5000L);
+        assertEquals(1, timeouts.size());
+        assertTrue(timeouts.get(2) > 0 && timeouts.get(2) <= 5000L);
+        timed.close();
+        assertEquals(0L, timeouts.get(1));
+        assertEquals(0, timed.getMetrics().getBypassedRequests());
+
+        assertThrows(ParamException.class, () -> SearchCoalescerParam.newBuilder().withMaxNq(1).build());
+    }
+
+    @Test
+    void resultCache() {
+        ResultCache cache = ResultCache.newBuilder()
+                .withMaxEntries(2)
+                .build();
+        String coll1 = ResultCache.collectionKey("", "coll1");
+        String coll2 = ResultCache.collectionKey("", "coll2");
+
+        QueryRequest query1 = QueryRequest.newBuilder().setCollectionName("coll1").setExpr("id > 1")
+                .setConsistencyLevel(ConsistencyLevel.Bounded).setGuaranteeTimestamp(100L).build();
+        QueryResults results1 = QueryResults.newBuilder().setCollectionName("coll1").build();
+
+        ResultCache.Lookup<QueryResults> lookup = cache.lookup(coll1, query1);
+        assertNull(lookup.getResult());
+        lookup.put(results1);
+
+        // the guarantee timestamp is not a part of the key
+        QueryRequest sameQuery = query1.toBuilder().setGuaranteeTimestamp(200L).build();
+        ResultCache.Lookup<QueryResults> hit = cache.lookup(coll1, sameQuery);
+        assertSame(results1, hit.getResult());
+
+        // STRONG consistency is never cached
+        QueryRequest strong = query1.toBuilder().setConsistencyLevel(ConsistencyLevel.Strong).build();
+        ResultCache.Lookup<QueryResults> bypass = cache.lookup(coll1, strong);
+        bypass.put(results1);
+        assertNull(cache.lookup(coll1, strong).getResult());
+
+        // a write issued between lookup and put drops the result
+        QueryRequest query2 = query1.toBuilder().setExpr("id > 2").build();
+        ResultCache.Lookup<QueryResults> racing = cache.lookup(coll1, query2);
+        cache.invalidate(coll1);
+        racing.put(results1);
+        assertNull(cache.lookup(coll1, query2).getResult());
+        assertNull(cache.lookup(coll1, query1).getResult());
+
+        // LRU eviction by number of entries
+        for (int i = 0; i < 3; i++) {
+            QueryRequest request = query1.toBuilder().setCollectionName("coll2").setExpr("id > " + i).build();
+            cache.<QueryResults>lookup(coll2, request).put(results1);
+        }
+        assertNull(cache.lookup(coll2, query1.toBuilder().setCollectionName("coll2").setExpr("id > 0").build()).getResult());
+        assertNotNull(cache.lookup(coll2, query1.toBuilder().setCollectionName("coll2").setExpr("id > 2").build()).getResult());
+
+        ResultCache.Metrics metrics = cache.getMetrics();
+        assertEquals(2, metrics.getHits());
+        assertEquals(2, metrics.getBypasses());
+        assertEquals(1, metrics.getInvalidations());
+        assertEquals(1, metrics.getEvictions());
+        assertEquals(2, metrics.getEntries());
+
+        // the default consistency level of the collection could be STRONG, never cached
+        QueryRequest byDefault = query1.toBuilder().setUseDefaultConsistency(true).build();
+        cache.<QueryResults>lookup(coll1, byDefault).put(results1);
+        assertNull(cache.lookup(coll1, byDefault).getResult());
+        assertEquals(4, cache.getMetrics().getBypasses());
+
+        assertThrows(ParamException.class, () -> ResultCache.newBuilder().withTtlMs(0).build());
+    }
+
+    @Test
+    void fieldDataWrapperCache() {
+        FieldData binary = FieldData.newBuilder()
+                .setFieldName("bin")
+                .setType(DataType.BinaryVector)
+                .setVectors(VectorField.newBuilder()
+                        .setDim(16)
+                        .setBinaryVector(ByteString.copyFrom(new byte[]{1, 2, 3, 4})))
+                .build();
+        FieldDataWrapper wrapper = new FieldDataWrapper(binary);
+        ByteBuffer first = (ByteBuffer) wrapper.valueByIdx(1);
+        first.position(0);
+        first.get();
+        // the decoded column is cached, but each call gets its own position
+        ByteBuffer again = (ByteBuffer) wrapper.valueByIdx(1);
+        assertEquals(2, again.position());
+        assertArrayEquals(new byte[]{3, 4}, again.array());
+        assertEquals(2, wrapper.getFieldData().size());
+        // a range of rows is copied alone
+        List<?> slice = wrapper.getFieldData(1, 2);
+        assertEquals(1, slice.size());
+        assertEquals(2, ((ByteBuffer) slice.get(0)).position());
+        assertThrows(IllegalResponseException.class, () -> wrapper.getFieldData(1, 3));
+
+        FieldData dynamic = FieldData.newBuilder()
+                .setFieldName("$meta")
+                .setType(DataType.JSON)
+                .setIsDynamic(true)
+                .setScalars(ScalarField.newBuilder().setJsonData(JSONArray.newBuilder()
+                        .addData(ByteString.copyFromUtf8("{\"a\": 1, \"b\": \"x\"}"))
+                        .addData(ByteString.copyFromUtf8("{\"a\": 2.5}"))))
+                .build();
+        FieldDataWrapper dynamicWrapper = new FieldDataWrapper(dynamic);
+        assertEquals(1L, dynamicWrapper.get(0, "a"));
+        assertEquals("x", dynamicWrapper.get(0, "b"));
+        assertEquals(2.5, dynamicWrapper.get(1, "a"));
+        assertNull(dynamicWrapper.get(1, "b"));
+
+        // the row records of a result share one wrapper for each field
+        QueryResults results = QueryResults.newBuilder()
+                .addFieldsData(dynamic)
+                .addOutputFields("a")
+                .addOutputFields("b")
+                .build();
+        QueryResultsWrapper queryWrapper = new QueryResultsWrapper(results);
+        assertSame(queryWrapper.getDynamicWrapper(), queryWrapper.getDynamicWrapper());
+        List<QueryResultsWrapper.RowRecord> records = queryWrapper.getRowRecords();
+        assertEquals("x", records.get(0).get("b"));
+        assertEquals(2.5, records.get(1).get("a"));
+    }
+
+    @Test
+    void vectorViews() {
+        FieldData binary = FieldData.newBuilder()
+                .setFieldName("bin")
+                .setType(DataType.BinaryVector)
+                .setVectors(VectorField.newBuilder()
+                        .setDim(16)
+                        .setBinaryVector(ByteString.copyFrom(new byte[]{1, 2, 3, 4})))
+                .build();
+        FieldDataWrapper wrapper = new FieldDataWrapper(binary);
+        assertEquals(2, wrapper.getBytesPerVector());
+        ByteBuffer row = wrapper.getVectorBytes(1);
+        assertTrue(row.isReadOnly());
+        assertEquals(0, row.position());
+        assertEquals(2, row.remaining());
+        assertEquals(3, row.get(0));
+        assertEquals(4, wrapper.toByteBuffer().remaining());
+        assertThrows(ParamException.class, () -> wrapper.getVectorBytes(2));
+
+        FieldData fp16 = FieldData.newBuilder()
+                .setFieldName("fp16")
+                .setType(DataType.Float16Vector)
+                .setVectors(VectorField.newBuilder()
+                        .setDim(2)
+                        .setFloat16Vector(ByteString.copyFrom(Float16Utils.toFloat16Buffer(
+                                new float[]{1.0f, 2.0f, 3.0f, 4.0f}).array())))
+                .build();
+        FieldDataWrapper fp16Wrapper = new FieldDataWrapper(fp16);
+        ByteBuffer fp16Row = fp16Wrapper.getVectorBytes(1);
+        assertEquals(0, fp16Row.position());
+        assertEquals(4, fp16Row.remaining());
+        assertEquals(ByteOrder.LITTLE_ENDIAN, fp16Row.order());
+        assertEquals(3.0f, Float16Utils.float16ToFloat(fp16Row.getShort(0)));
+
+        FieldData floats = FieldData.newBuilder()
+                .setFieldName("vec")
+                .setType(DataType.FloatVector)
+                .setVectors(VectorField.newBuilder()
+                        .setDim(2)
+                        .setFloatVector(FloatArray.newBuilder().addAllData(Arrays.asList(1.0f, 2.0f, 3.0f, 4.0f))))
+                .build();
+        FloatBuffer floatBuffer = new FieldDataWrapper(floats).toFloatBuffer();
+        assertEquals(4, floatBuffer.remaining());
+        assertEquals(3.0f, floatBuffer.get(2));
+        assertThrows(IllegalResponseException.class, () -> new FieldDataWrapper(floats).toByteBuffer());
+    }
+
+    @Test
+    void queryIteratorPrefetch() {
+        MilvusServiceGrpc.MilvusServiceBlockingStub stub = mock(MilvusServiceGrpc.MilvusServiceBlockingStub.class);
+        when(stub.query(any(QueryRequest.class))).thenAnswer(invocation -> {
+            QueryRequest request = invocation.getArgument(0);
+            String expr = request.getExpr();
+            long start = expr.isEmpty() ? 0L : Long.parseLong(expr.substring(expr.lastIndexOf('>') + 1).trim());
+            List<Long> ids = new ArrayList<>();
+            for (long id = start + 1; id <= Math.min(start + 3, 10L); id++) {
+                ids.add(id);
+            }
+            return QueryResults.newBuilder()
+                    .setStatus(Status.newBuilder().setErrorCode(ErrorCode.Success).build())
+                    .addOutputFields("id")
+                    .addFieldsData(FieldData.newBuilder()
+                            .setFieldName("id")
+                            .setType(DataType.Int64)
+                            .setScalars(ScalarField.newBuilder().setLongData(LongArray.newBuilder().addAllData(ids))))
+                    .build();
+        });
+        FieldType primaryField = FieldType.newBuilder()
+                .withName("id")
+                .withDataType(DataType.Int64)
+                .withPrimaryKey(true)
+                .build();
+        QueryIteratorParam param = QueryIteratorParam.newBuilder()
+                .withCollectionName("collection1")
+                .withOutFields(Collections.singletonList("id"))
+                .withBatchSize(3L)
+                .withPrefetchDepth(2)
+                .build();
+
+        QueryIterator iterator = new QueryIterator(param, stub, primaryField);
+        List<Long> received = new ArrayList<>();
+        List<QueryResultsWrapper.RowRecord> page = iterator.next();
+        // the following pages are fetched while the caller holds the first one
+        verify(stub, timeout(5000).atLeast(3)).query(any(QueryRequest.class));
+        while (!page.isEmpty()) {
+            assertTrue(page.size() <= 3);
+            page.forEach(record -> received.add((Long) record.get("id")));
+            page = iterator.next();
+        }
+        assertEquals(Arrays.asList(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L), received);
+        assertTrue(iterator.next().isEmpty());
+        iterator.close();
+
+        // a failed fetch is rethrown to the caller
+        doReturn(QueryResults.newBuilder()
+                        .setStatus(Status.newBuilder().setErrorCode(ErrorCode.UnexpectedError).setReason("mock").build())
+                        .build())
+                .when(stub).query(any(QueryRequest.class));
+        QueryIterator failed = new QueryIterator(param, stub, primaryField);
+        assertThrows(MilvusClientException.class, failed::next);
+        failed.close();
+
+        // close() waits for the fetching thread before the cache is released
+        MilvusServiceGrpc.MilvusServiceBlockingStub blocked = mock(MilvusServiceGrpc.MilvusServiceBlockingStub.class);
+        AtomicReference<Thread> worker = new AtomicReference<>();
+        CountDownLatch fetching = new CountDownLatch(1);
+        when(blocked.query(any(QueryRequest.class))).thenAnswer(invocation -> {
+            worker.set(Thread.currentThread());
+            fetching.countDown();
+            try {
+                Thread.sleep(60000L);
+            } catch (InterruptedException e) {
+                // like a blocking gRPC call cancelled by the interrupt
+                Thread.sleep(200L);
+                throw new RuntimeException("cancelled");
+            }
+            return QueryResults.getDefaultInstance();
+        });
+        QueryIterator closing = new QueryIterator(param, blocked, primaryField);
+        assertTrue(fetching.await(5, TimeUnit.SECONDS));
+        closing.close();
+        assertFalse(worker.get().isAlive());
+
+        assertThrows(ParamException.class, () -> QueryIteratorParam.newBuilder()
+                .withCollectionName("collection1")
+                .withPrefetchDepth(-1)
+                .build());
+    }
+
+    @Test
+    void parallelQueryIterator() {
+        // an in-memory collection of primary keys 1..100 which understands the range filters of the iterators
+        MilvusServiceGrpc.MilvusServiceBlockingStub stub = mock(MilvusServiceGrpc.MilvusServiceBlockingStub.class);
+        List<String> exprs = Collections.synchronizedList(new ArrayList<>());
+        when(stub.query(any(QueryRequest.class))).thenAnswer(invocation -> {
+            QueryRequest request = invocation.getArgument(0);
+            exprs.add(request.getExpr());
+            long limit = Long.MAX_VALUE;
+            for (KeyValuePair pair : request.getQueryParamsList()) {
+                if (pair.getKey().equals(Constant.LIMIT)) {
+                    limit = Long.parseLong(pair.getValue());
+                }
+            }
+            Matcher matcher = Pattern.compile("id (>=|>|<) (-?\\d+)").matcher(request.getExpr());
+            long lower = Long.MIN_VALUE;
+            long upper = Long.MAX_VALUE;
+            while (matcher.find()) {
+                long value = Long.parseLong(matcher.group(2));
+                switch (matcher.group(1)) {
+                    case ">=":
+                        lower = Math.max(lower, value);
+                        break;
+                    case ">":
+                        lower = Math.max(lower, value + 1);
+                        break;
+                    default:
+                        upper = Math.min(upper, value);
+                        break;
+                }
+            }
+            List<Long> ids = new ArrayList<>();
+            for (long id = Math.max(lower, 1L); id <= 100L && id < upper && ids.size() < limit; id++) {
+                ids.add(id);
+            }
+            return QueryResults.newBuilder()
+                    .setStatus(Status.newBuilder().setErrorCode(ErrorCode.Success).build())
+                    .addOutputFields("id")
+                    .addFieldsData(FieldData.newBuilder()
+                            .setFieldName("id")
+                            .setType(DataType.Int64)
+                            .setScalars(ScalarField.newBuilder().setLongData(LongArray.newBuilder().addAllData(ids))))
+                    .build();
+        });
+        FieldType primaryField = FieldType.newBuilder()
+                .withName("id")
+                .withDataType(DataType.Int64)
+                .withPrimaryKey(true)
+                .build();
+        QueryIteratorParam queryParam = QueryIteratorParam.newBuilder()
+                .withCollectionName("collection1")
+                .withExpr("id > 0")
+                .withBatchSize(7L)
+                .build();
+
+        // probed boundaries divide [1, 100] evenly
+        ParallelQueryIterator probed = new ParallelQueryIterator(
+                ParallelQueryIteratorParam.newBuilder()
+                        .withQueryIteratorParam(queryParam)
+                        .withSplitCount(4)
+                        .build(), stub, primaryField);
+        assertEquals(Arrays.asList("(id > 0) and id < 26", "(id > 0) and id >= 26 and id < 51",
+                "(id > 0) and id >= 51 and id < 76", "(id > 0) and id >= 76"), probed.getSplitExprs());
+        List<Long> firstSplit = new ArrayList<>();
+        List<QueryResultsWrapper.RowRecord> page = probed.getSplits().get(0).next();
+        while (!page.isEmpty()) {
+            page.forEach(record -> firstSplit.add((Long) record.get("id")));
+            page = probed.getSplits().get(0).next();
+        }
+        assertEquals(25, firstSplit.size());
+        assertEquals(25L, firstSplit.get(24));
+        probed.close();
+
+        // user given boundaries, merged into one unordered stream
+        ParallelQueryIterator merged = new ParallelQueryIterator(
+                ParallelQueryIteratorParam.newBuilder()
+                        .withQueryIteratorParam(queryParam)
+                        .withSplitPoints(Arrays.asList(60L, 30L))
+                        .withParallelism(2)
+                        .build(), stub, primaryField);
+        assertEquals(3, merged.getSplits().size());
+        Set<Long> received = new HashSet<>();
+        page = merged.next();
+        while (!page.isEmpty()) {
+            page.forEach(record -> assertTrue(received.add((Long) record.get("id"))));
+            page = merged.next();
+        }
+        assertEquals(100, received.size());
+        assertTrue(merged.next().isEmpty());
+        merged.close();
+
+        assertThrows(ParamException.class, () -> new ParallelQueryIterator(
+                ParallelQueryIteratorParam.newBuilder()
+                        .withQueryIteratorParam(queryParam)
+                        .withSplitPoints(Collections.singletonList("abc"))
+                        .build(), stub, primaryField));
+        assertThrows(ParamException.class, () -> ParallelQueryIteratorParam.newBuilder()
+                .withQueryIteratorParam(QueryIteratorParam.newBuilder()
+                        .withCollectionName("collection1")
+                        .withLimit(10L)
+                        .build())
+                .build());
+    }
+
+    @Test
+    void iteratorCheckpoint() {
+        MilvusServiceGrpc.MilvusServiceBlockingStub stub = mock(MilvusServiceGrpc.MilvusServiceBlockingStub.class);
+        List<QueryRequest> queries = new ArrayList<>();
+        when(stub.query(any(QueryRequest.class))).thenAnswer(invocation -> {
+            QueryRequest request = invocation.getArgument(0);
+            queries.add(request);
+            String expr = request.getExpr();
+            long start = expr.isEmpty() ? 0L : Long.parseLong(expr.substring(expr.lastIndexOf('>') + 1).trim());
+            List<Long> ids = new ArrayList<>();
+            for (long id = start + 1; id <= Math.min(start + 3, 10L); id++) {
+                ids.add(id);
+            }
+            return QueryResults.newBuilder()
+                    .setStatus(Status.newBuilder().setErrorCode(ErrorCode.Success).build())
+                    .addOutputFields("id")
+                    .addFieldsData(FieldData.newBuilder()
+                            .setFieldName("id")
+                            .setType(DataType.Int64)
+                            .setScalars(ScalarField.newBuilder().setLongData(LongArray.newBuilder().addAllData(ids))))
+                    .build();
+        });
+        FieldType primaryField = FieldType.newBuilder()
+                .withName("id")
+                .withDataType(DataType.Int64)
+                .withPrimaryKey(true)
+                .build();
+
+        QueryIterator iterator = new QueryIterator(
+                QueryIteratorParam.newBuilder()
+                        .withCollectionName("collection1")
+                        .withBatchSize(3L)
+                        .build(), stub, primaryField);
+        iterator.next();
+        iterator.next();
+        String saved = iterator.getCheckpoint().toJson();
+        iterator.close();
+
+        QueryIteratorCheckpoint checkpoint = QueryIteratorCheckpoint.fromJson(saved);
+        assertEquals(6L, checkpoint.getLastId());
+        assertEquals(6L, checkpoint.getReturnedCount());
+        queries.clear();
+        QueryIterator resumed = new QueryIterator(
+                QueryIteratorParam.newBuilder()
+                        .withCollectionName("collection1")
+                        .withBatchSize(3L)
+                        .withLimit(8L)
+                        .withCheckpoint(checkpoint)
+                        .build(), stub, primaryField);
+        List<QueryResultsWrapper.RowRecord> page = resumed.next();
+        // resumed with one query after the saved key, and the limit counts the rows returned before the checkpoint
+        assertEquals(1, queries.size());
+        assertEquals("id > 6", queries.get(0).getExpr());
+        assertEquals(2, page.size());
+        assertEquals(7L, page.get(0).get("id"));
+        assertEquals(8L, resumed.getCheckpoint().getReturnedCount());
+        resumed.close();
+
+        assertThrows(ParamException.class, () -> QueryIteratorParam.newBuilder()
+                .withCollectionName("collection2")
+                .withCheckpoint(checkpoint)
+                .build());
+
+        // search iterator resumes with a range search from the saved distance, skipping the init search
+        List<SearchRequest> searches = new ArrayList<>();
+        when(stub.search(any(SearchRequest.class))).thenAnswer(invocation -> {
+            searches.add(invocation.getArgument(0));
+            return SearchResults.newBuilder()
+                    .setStatus(Status.newBuilder().setErrorCode(ErrorCode.Success).build())
+                    .setResults(SearchResultData.newBuilder()
+                            .setNumQueries(1)
+                            .setTopK(2)
+                            .addTopks(2L)
+                            .addAllScores(Arrays.asList(0.55f, 0.6f))
+                            .setIds(IDs.newBuilder().setIntId(LongArray.newBuilder().addAllData(Arrays.asList(4L, 5L)))))
+                    .build();
+        });
+        SearchIteratorCheckpoint searchCheckpoint = SearchIteratorCheckpoint.fromJson(
+                "{\"collectionName\":\"collection1\",\"returnedCount\":5,\"tailBand\":0.5,\"width\":0.1,\"filteredIds\":[3]}");
+        SearchIterator searchIterator = new SearchIterator(
+                SearchIteratorParam.newBuilder()
+                        .withCollectionName("collection1")
+                        .withVectorFieldName("vec")
+                        .withMetricType(MetricType.L2)
+                        .withFloatVectors(Collections.singletonList(Arrays.asList(1.0f, 2.0f)))
+                        .withBatchSize(2L)
+                        .withCheckpoint(searchCheckpoint)
+                        .build(), stub, primaryField);
+        List<QueryResultsWrapper.RowRecord> hits = searchIterator.next();
+        assertEquals(1, searches.size());
+        assertEquals("id not in [3]", searches.get(0).getDsl());
+        String searchParams = searches.get(0).getSearchParamsList().stream()
+                .filter(pair -> pair.getKey().equals(Constant.PARAMS))
+                .findFirst().get().getValue();
+        assertTrue(searchParams.contains("\"range_filter\":0.5"));
+        assertEquals(2, hits.size());
+
+        SearchIteratorCheckpoint next = searchIterator.getCheckpoint();
+        assertEquals(7L, next.getReturnedCount());
+        assertEquals(0.6f, next.getTailBand());
+        assertEquals(Collections.singletonList(5L), next.getFilteredIds());
+        assertEquals(next, SearchIteratorCheckpoint.fromJson(next.toJson()));
+        searchIterator.close();
+    }
+
+    @Test
+    void iteratorCacheSpill() {
+        List<QueryResultsWrapper.RowRecord> rows = new ArrayList<>();
+        for (long i = 0; i < 10; i++) {
+            QueryResultsWrapper.RowRecord record = new QueryResultsWrapper.RowRecord();
+            record.put("id", i);
+            record.put("name", "row" + i);
+            record.put("vec", Arrays.asList(1.0f * i, 2.0f));
+            ByteBuffer binary = ByteBuffer.wrap(new byte[]{(byte) i, 1});
+            binary.position(2);
+            record.put("bin", binary);
+            SortedMap<Long, Float> sparse = new TreeMap<>();
+            sparse.put(i, 0.5f);
+            record.put("sparse", sparse);
+            JsonObject json = new JsonObject();
+            json.addProperty("k", i);
+            record.put("json", json);
+            rows.add(record);
+        }
+
+        // room for about two rows in memory
+        IteratorCache cache = new IteratorCache(2000L);
+        int cacheId = cache.cache(Constant.NO_CACHE_ID, rows.subList(0, 6));
+        cache.append(cacheId, rows.subList(6, 10));
+        assertEquals(10, cache.size(cacheId));
+        IteratorCache.Metrics metrics = cache.getMetrics();
+        assertTrue(metrics.getResidentBytes() <= 2000L);
+        assertTrue(metrics.getSpilledRows() > 0);
+        assertEquals(10, metrics.getResidentRows() + metrics.getSpilledRows());
+
+        List<QueryResultsWrapper.RowRecord> taken = new ArrayList<>();
+        while (cache.size(cacheId) > 0) {
+            taken.addAll(cache.take(cacheId, 3));
+        }
+        assertEquals(10, taken.size());
+        for (int i = 0; i < 10; i++) {
+            QueryResultsWrapper.RowRecord record = taken.get(i);
+            assertEquals((long) i, record.get("id"));
+            assertEquals("row" + i, record.get("name"));
+            assertEquals(Arrays.asList(1.0f * i, 2.0f), record.get("vec"));
+            ByteBuffer binary = (ByteBuffer) record.get("bin");
+            assertEquals(2, binary.position());
+            assertEquals((byte) i, binary.get(0));
+            assertEquals(0.5f, ((SortedMap<?, ?>) record.get("sparse")).get((long) i));
+            assertEquals(i, ((JsonObject) record.get("json")).get("k").getAsLong());
+        }
+
+        metrics = cache.getMetrics();
+        assertEquals(0, metrics.getResidentBytes());
+        assertEquals(0, metrics.getSpilledRows());
+        assertEquals(metrics.getSpillCount(), metrics.getReloadCount());
+        cache.close();
+        assertEquals(0, cache.size(cacheId));
+
+        // a backlog that never drains, every row is spilled: the consumed rows are reclaimed from the file
+        IteratorCache steady = new IteratorCache(1L);
+        int steadyId = steady.cache(Constant.NO_CACHE_ID, rows);
+        for (int i = 0; i < 50000; i++) {
+            steady.append(steadyId, Collections.singletonList(rows.get(i % 10)));
+            assertEquals((long) (i % 10), steady.take(steadyId, 1).get(0).get("id"));
+        }
+        metrics = steady.getMetrics();
+        assertEquals(10, metrics.getSpilledRows());
+        assertEquals(50010, metrics.getSpillCount());
+        long written = metrics.getSpillCount() * (metrics.getSpilledBytes() / metrics.getSpilledRows());
+        assertTrue(metrics.getSpillFileBytes() < written / 2);
+        List<QueryResultsWrapper.RowRecord> rest = steady.take(steadyId, 10);
+        for (int i = 0; i < 10; i++) {
+            assertEquals((long) i, rest.get(i).get("id"));
+        }
+        assertEquals(0, steady.getMetrics().getSpillFileBytes());
+        steady.close();
+
+        assertThrows(ParamException.class, () -> QueryIteratorParam.newBuilder()
+                .withCollectionName("collection1")
+                .withCacheMaxBytes(0L)
+                .build());
+    }
+
+    @Test
+    void collectionExport() throws Exception {
+        // a collection of 10 rows with a vector field, each query answers the rows after the cursor
+        MilvusClient client = mock(MilvusClient.class);
+        CollectionSchema schema = CollectionSchema.newBuilder()
+                .addFields(FieldSchema.newBuilder().setName("id").setDataType(DataType.Int64).setIsPrimaryKey(true))
+                .addFields(FieldSchema.newBuilder().setName("vector").setDataType(DataType.FloatVector)
+                        .addTypeParams(KeyValuePair.newBuilder().setKey(Constant.VECTOR_DIM).setValue("2")))
+                .addFields(FieldSchema.newBuilder().setName("name").setDataType(DataType.VarChar)
+                        .addTypeParams(KeyValuePair.newBuilder().setKey(Constant.VARCHAR_MAX_LENGTH).setValue("16")))
+                .build();
+        when(client.describeCollection(any()))
+                .thenReturn(R.success(DescribeCollectionResponse.newBuilder()
+                        .setStatus(Status.newBuilder().setErrorCode(ErrorCode.Success).build())
+                        .setCollectionName("collection1")
+                        .setSchema(schema)
+                        .build()));
+        AtomicInteger failAfter = new AtomicInteger(1);
+        when(client.query(any())).thenAnswer(invocation -> {
+            QueryParam queryParam = invocation.getArgument(0);
+            if (failAfter.getAndDecrement() == 0) {
+                return R.failed(new IllegalResponseException("connection lost"));
+            }
+            Matcher matcher = Pattern.compile("id > (\\d+)").matcher(queryParam.getExpr());
+            long from = matcher.find() ? Long.parseLong(matcher.group(1)) + 1 : 1L;
+            List<Long> ids = new ArrayList<>();
+            List<Float> vectors = new ArrayList<>();
+            List<String> names = new ArrayList<>();
+            for (long id = from; id <= 10L && ids.size() < queryParam.getLimit(); id++) {
+                ids.add(id);
+                vectors.add((float) id);
+                vectors.add((float) -id);
+                names.add("row_" + id);
+            }
+            return R.success(QueryResults.newBuilder()
+                    .setStatus(Status.newBuilder().setErrorCode(ErrorCode.Success).build())
+                    .addFieldsData(FieldData.newBuilder().setFieldName("id").setType(DataType.Int64)
+                            .setScalars(ScalarField.newBuilder().setLongData(LongArray.newBuilder().addAllData(ids))))
+                    .addFieldsData(FieldData.newBuilder().setFieldName("vector").setType(DataType.FloatVector)
+                            .setVectors(VectorField.newBuilder().setDim(2)
+                                    .setFloatVector(FloatArray.newBuilder().addAllData(vectors))))
+                    .addFieldsData(FieldData.newBuilder().setFieldName("name").setType(DataType.VarChar)
+                            .setScalars(ScalarField.newBuilder().setStringData(StringArray.newBuilder().addAllData(names))))
+                    .build());
+        });
+
+        java.nio.file.Path dir = java.nio.file.Files.createTempDirectory("milvus-export");
+        CollectionExportParam.Builder builder = CollectionExportParam.newBuilder()
+                .withCollectionName("collection1")
+                .withLocalPath(dir.toString())
+                .withBatchSize(4L)
+                .withMaxFileBytes(1L);
+        assertThrows(ParamException.class, () -> CollectionExportParam.newBuilder()
+                .withCollectionName("collection1").withLocalPath(dir.toString()).withBatchSize(0L).build());
+
+        // the second query fails, only the first file is committed
+        CollectionExporter exporter = new CollectionExporter(client, builder.build());
+        assertThrows(IllegalResponseException.class, exporter::export);
+        assertTrue(new String(java.nio.file.Files.readAllBytes(java.nio.file.Paths.get(exporter.getManifestPath())),
+                java.nio.charset.StandardCharsets.UTF_8).contains("\"lastId\": \"4\""));
+
+        // resumed from the manifest, every file holds one batch
+        List<String> files = new CollectionExporter(client, builder.withResume(true).build()).export();
+        assertEquals(3, files.size());
+        List<Long> ids = new ArrayList<>();
+        for (String file : files) {
+            new ParquetReaderUtils() {
+                @Override
+                public void readRecord(org.apache.avro.generic.GenericData.Record record) {
+                    ids.add((Long) record.get("id"));
+                    assertEquals("row_" + record.get("id"), record.get("name").toString());
+                }
+            }.readParquet(file);
+        }
+        assertEquals(Arrays.asList(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L), ids);
+    }
+
+    // the hits 1..ties are tied on distance 1.0 and followed by 5 hits tied on 1.5, ranges are served as radius search
+    private MilvusServiceGrpc.MilvusServiceBlockingStub tiedDistanceStub(int ties, List<String> exclusions) {
+        MilvusServiceGrpc.MilvusServiceBlockingStub stub = mock(MilvusServiceGrpc.MilvusServiceBlockingStub.class);
+        when(stub.search(any(SearchRequest.class))).thenAnswer(invocation -> {
+            SearchRequest request = invocation.getArgument(0);
+            Map<String, String> searchParams = new HashMap<>();
+            request.getSearchParamsList().forEach(pair -> searchParams.put(pair.getKey(), pair.getValue()));
+            long topK = Long.parseLong(searchParams.get(Constant.TOP_K));
+            String params = searchParams.get(Constant.PARAMS);
+            Matcher radius = Pattern.compile("\"radius\":([-0-9.E]+)").matcher(params);
+            Matcher rangeFilter = Pattern.compile("\"range_filter\":([-0-9.E]+)").matcher(params);
+            double upper = radius.find() ? Double.parseDouble(radius.group(1)) : Double.MAX_VALUE;
+            double lower = rangeFilter.find() ? Double.parseDouble(rangeFilter.group(1)) : -Double.MAX_VALUE;
+            Set<Long> excluded = new HashSet<>();
+            Matcher notIn = Pattern.compile("not in \\[([^\\]]*)\\]").matcher(request.getDsl());
+            if (notIn.find()) {
+                exclusions.add(notIn.group(1));
+                for (String id : notIn.group(1).split(",")) {
+                    excluded.add(Long.parseLong(id));
+                }
+            }
+            List<Long> ids = new ArrayList<>();
+            List<Float> scores = new ArrayList<>();
+            for (long id = 1; id <= ties + 5 && ids.size() < topK; id++) {
+                float distance = id <= ties ? 1.0f : 1.5f;
+                if (distance >= lower && distance < upper && !excluded.contains(id)) {
+                    ids.add(id);
+                    scores.add(distance);
+                }
+            }
+            return SearchResults.newBuilder()
+                    .setStatus(Status.newBuilder().setErrorCode(ErrorCode.Success).build())
+                    .setResults(SearchResultData.newBuilder()
+                            .setNumQueries(1)
+                            .setTopK(topK)
+                            .addTopks(ids.size())
+                            .addAllScores(scores)
+                            .setIds(IDs.newBuilder().setIntId(LongArray.newBuilder().addAllData(ids))))
+                    .build();
+        });
+        return stub;
+    }
+
+    private List<Long> iterateIds(SearchIterator searchIterator) {
+        List<Long> received = new ArrayList<>();
+        List<QueryResultsWrapper.RowRecord> page = searchIterator.next();
+        while (!page.isEmpty()) {
+            page.forEach(record -> received.add((Long) record.get("id")));
+            page = searchIterator.next();
+        }
+        return received;
+    }
+
+    @Test
+    void searchIteratorTiedDistances() {
+        List<String> exclusions = new ArrayList<>();
+        MilvusServiceGrpc.MilvusServiceBlockingStub stub = tiedDistanceStub(20, exclusions);
+        FieldType primaryField = FieldType.newBuilder()
+                .withName("id")
+                .withDataType(DataType.Int64)
+                .withPrimaryKey(true)
+                .build();
+        SearchIterator searchIterator = new SearchIterator(
+                SearchIteratorParam.newBuilder()
+                        .withCollectionName("collection1")
+                        .withVectorFieldName("vec")
+                        .withMetricType(MetricType.L2)
+                        .withFloatVectors(Collections.singletonList(Arrays.asList(1.0f, 2.0f)))
+                        .withBatchSize(3L)
+                        .withExcludedIdsStep(2)
+                        .build(), stub, primaryField);
+
+        // every hit is returned once, the exclusion list only grows after the server repeats the returned ties
+        List<Long> expected = new ArrayList<>();
+        for (long id = 1; id <= 25; id++) {
+            expected.add(id);
+        }
+        assertEquals(expected, iterateIds(searchIterator));
+        assertEquals(2, exclusions.get(0).split(",").length);
+        assertEquals(2, exclusions.get(1).split(",").length);
+        assertEquals(20, exclusions.stream().mapToInt(exclusion -> exclusion.split(",").length).max().getAsInt());
+        assertEquals(95L, searchIterator.getSuppressedDuplicateCount());
+        searchIterator.close();
+
+        assertThrows(ParamException.class, () -> SearchIteratorParam.newBuilder()
+                .withCollectionName("collection1")
+                .withVectorFieldName("vec")
+                .withMetricType(MetricType.L2)
+                .withFloatVectors(Collections.singletonList(Arrays.asList(1.0f, 2.0f)))
+                .withExcludedIdsStep(-1)
+                .build());
+    }
+
+    @Test
+    void searchIteratorDenseTies() {
+        // 100 ties outnumber the first 2 excluded ids plus the 30 hits fetched by each round
+        List<String> exclusions = new ArrayList<>();
+        MilvusServiceGrpc.MilvusServiceBlockingStub stub = tiedDistanceStub(100, exclusions);
+        FieldType primaryField = FieldType.newBuilder()
+                .withName("id")
+                .withDataType(DataType.Int64)
+                .withPrimaryKey(true)
+                .build();
+        SearchIterator searchIterator = new SearchIterator(
+                SearchIteratorParam.newBuilder()
+                        .withCollectionName("collection1")
+                        .withVectorFieldName("vec")
+                        .withMetricType(MetricType.L2)
+                        .withFloatVectors(Collections.singletonList(Arrays.asList(1.0f, 2.0f)))
+                        .withBatchSize(3L)
+                        .withExcludedIdsStep(2)
+                        .build(), stub, primaryField);
+
+        // none of the ties is skipped, the last rounds on distance 1.0 exclude all of them
+        List<Long> expected = new ArrayList<>();
+        for (long id = 1; id <= 105; id++) {
+            expected.add(id);
+        }
+        assertEquals(expected, iterateIds(searchIterator));
+        assertEquals(100, exclusions.stream().mapToInt(exclusion -> exclusion.split(",").length).max().getAsInt());
+        assertTrue(searchIterator.getSuppressedDuplicateCount() > 0);
+        searchIterator.close();
+    }
+
+    @Test
+    void batchSearchIterator() {
+        // every target vector has its own 5 hits at distances 1..5, the first float of a vector tells the query
+        MilvusServiceGrpc.MilvusServiceFutureStub stub = mock(MilvusServiceGrpc.MilvusServiceFutureStub.class);
+        when(stub.search(any(SearchRequest.class))).thenAnswer(invocation -> {
+            SearchRequest request = invocation.getArgument(0);
+            Map<String, String> searchParams = new HashMap<>();
+            request.getSearchParamsList().forEach(pair -> searchParams.put(pair.getKey(), pair.getValue()));
+            long topK = Long.parseLong(searchParams.get(Constant.TOP_K));
+            String params = searchParams.get(Constant.PARAMS);
+            Matcher radius = Pattern.compile("\"radius\":([-0-9.E]+)").matcher(params);
+            Matcher rangeFilter = Pattern.compile("\"range_filter\":([-0-9.E]+)").matcher(params);
+            double upper = radius.find() ? Double.parseDouble(radius.group(1)) : Double.MAX_VALUE;
+            double lower = rangeFilter.find() ? Double.parseDouble(rangeFilter.group(1)) : -Double.MAX_VALUE;
+
+            SearchResultData.Builder data = SearchResultData.newBuilder().setTopK(topK);
+            LongArray.Builder ids = LongArray.newBuilder();
+            PlaceholderGroup group = PlaceholderGroup.parseFrom(request.getPlaceholderGroup());
+            for (ByteString vector : group.getPlaceholders(0).getValuesList()) {
+                long query = (long) vector.asReadOnlyByteBuffer().order(ByteOrder.LITTLE_ENDIAN).getFloat();
+                long count = 0;
+                for (long i = 1; i <= 5 && count < topK; i++) {
+                    if (i >= lower && i < upper) {
+                        ids.addData(query * 100 + i);
+                        data.addScores((float) i);
+                        count++;
+                    }
+                }
+                data.addTopks(count);
+            }
+            data.setNumQueries(group.getPlaceholders(0).getValuesCount()).setIds(IDs.newBuilder().setIntId(ids));
+            return Futures.immediateFuture(SearchResults.newBuilder()
+                    .setStatus(Status.newBuilder().setErrorCode(ErrorCode.Success).build())
+                    .setResults(data)
+                    .build());
+        });
+        FieldType primaryField = FieldType.newBuilder()
+                .withName("id")
+                .withDataType(DataType.Int64)
+                .withPrimaryKey(true)
+                .build();
+        BatchSearchIteratorParam.Builder builder = BatchSearchIteratorParam.newBuilder()
+                .withCoalesceWindowMs(1000L)
+                .withMaxNq(3);
+        for (int query = 1; query <= 3; query++) {
+            builder.addSearchIteratorParam(SearchIteratorParam.newBuilder()
+                    .withCollectionName("collection1")
+                    .withVectorFieldName("vec")
+                    .withMetricType(MetricType.L2)
+                    .withFloatVectors(Collections.singletonList(Arrays.asList((float) query, 0.0f)))
+                    .withBatchSize(2L)
+                    .withExcludedIdsStep(0)
+                    .build());
+        }
+        BatchSearchIterator iterator =
+                new BatchSearchIterator(builder.build(), stub, primaryField);
+
+        // each query gets its own hits in order, the searches of the three queries share rpcs
+        List<List<Long>> received = Arrays.asList(new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+        while (!iterator.isFinished()) {
+            List<List<QueryResultsWrapper.RowRecord>> pages = iterator.next();
+            assertEquals(3, pages.size());
+            for (int i = 0; i < 3; i++) {
+                List<Long> ids = received.get(i);
+                pages.get(i).forEach(record -> ids.add((Long) record.get("id")));
+            }
+        }
+        for (long query = 1; query <= 3; query++) {
+            assertEquals(Arrays.asList(query * 100 + 1, query * 100 + 2, query * 100 + 3, query * 100 + 4,
+                    query * 100 + 5), received.get((int) query - 1));
+        }
+        SearchCoalescer.Metrics metrics = iterator.getCoalescerMetrics();
+        assertTrue(metrics.getMergedBatches() > 0);
+        assertTrue(metrics.getSentRequests() < metrics.getRequests());
+        assertEquals(3, iterator.getIterators().size());
+        iterator.close();
+
+        assertThrows(ParamException.class, () -> BatchSearchIteratorParam.newBuilder().build());
+        assertThrows(ParamException.class, () -> BatchSearchIteratorParam.newBuilder()
+                .addSearchIteratorParam(SearchIteratorParam.newBuilder()
+                        .withCollectionName("collection1")
+                        .withVectorFieldName("vec")
+                        .withMetricType(MetricType.L2)
+                        .withFloatVectors(Collections.singletonList(Arrays.asList(1.0f, 0.0f)))
+                        .build())
+                .withMaxNq(1)
+                .build());
+    }
+
+    @Test
+    void batchSearchIteratorDistinctDistances() {
+        // every target vector has its own 5 hits at distances query * 10 + 1..5, so no range search can be merged
+        MilvusServiceGrpc.MilvusServiceFutureStub stub = mock(MilvusServiceGrpc.MilvusServiceFutureStub.class);
+        when(stub.search(any(SearchRequest.class))).thenAnswer(invocation -> {
+            SearchRequest request = invocation.getArgument(0);
+            Map<String, String> searchParams = new HashMap<>();
+            request.getSearchParamsList().forEach(pair -> searchParams.put(pair.getKey(), pair.getValue()));
+            long topK = Long.parseLong(searchParams.get(Constant.TOP_K));
+            String params = searchParams.get(Constant.PARAMS);
+            Matcher radius = Pattern.compile("\"radius\":([-0-9.E]+)").matcher(params);
+            Matcher rangeFilter = Pattern.compile("\"range_filter\":([-0-9.E]+)").matcher(params);
+            double upper = radius.find() ? Double.parseDouble(radius.group(1)) : Double.MAX_VALUE;
+            double lower = rangeFilter.find() ? Double.parseDouble(rangeFilter.group(1)) : -Double.MAX_VALUE;
+
+            SearchResultData.Builder data = SearchResultData.newBuilder().setTopK(topK);
+            LongArray.Builder ids = LongArray.newBuilder();
+            PlaceholderGroup group = PlaceholderGroup.parseFrom(request.getPlaceholderGroup());
+            for (ByteString vector : group.getPlaceholders(0).getValuesList()) {
+                long query = (long) vector.asReadOnlyByteBuffer().order(ByteOrder.LITTLE_ENDIAN).getFloat();
+                long count = 0;
+                for (long i = 1; i <= 5 && count < topK; i++) {
+                    float distance = query * 10 + i;
+                    if (distance >= lower && distance < upper) {
+                        ids.addData(query * 100 + i);
+                        data.addScores(distance);
+                        count++;
+                    }
+                }
+                data.addTopks(count);
+            }
+            data.setNumQueries(group.getPlaceholders(0).getValuesCount()).setIds(IDs.newBuilder().setIntId(ids));
+            return Futures.immediateFuture(SearchResults.newBuilder()
+                    .setStatus(Status.newBuilder().setErrorCode(ErrorCode.Success).build())
+                    .setResults(data)
+                    .build());
+        });
+        FieldType primaryField = FieldType.newBuilder()
+                .withName("id")
+                .withDataType(DataType.Int64)
+                .withPrimaryKey(true)
+                .build();
+        BatchSearchIteratorParam.Builder builder = BatchSearchIteratorParam.newBuilder()
+                .withCoalesceWindowMs(5000L);
+        for (int query = 1; query <= 3; query++) {
+            builder.addSearchIteratorParam(SearchIteratorParam.newBuilder()
+                    .withCollectionName("collection1")
+                    .withVectorFieldName("vec")
+                    .withMetricType(MetricType.L2)
+                    .withFloatVectors(Collections.singletonList(Arrays.asList((float) query, 0.0f)))
+                    .withBatchSize(2L)
+                    .build());
+        }
+
+        // the pending searches are sent once all the queries wait, none of them waits for the window
+        long start = System.currentTimeMillis();
+        BatchSearchIterator iterator = new BatchSearchIterator(builder.build(), stub, primaryField);
+        List<List<Long>> received = Arrays.asList(new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+        while (!iterator.isFinished()) {
+            List<List<QueryResultsWrapper.RowRecord>> pages = iterator.next();
+            for (int i = 0; i < 3; i++) {
+                List<Long> ids = received.get(i);
+                pages.get(i).forEach(record -> ids.add((Long) record.get("id")));
+            }
+        }
+        assertTrue(System.currentTimeMillis() - start < 5000L);
+        for (long query = 1; query <= 3; query++) {
+            assertEquals(Arrays.asList(query * 100 + 1, query * 100 + 2, query * 100 + 3, query * 100 + 4,
+                    query * 100 + 5), received.get((int) query - 1));
+        }
+
+        // only the init searches are merged, every range search is sent alone
+        SearchCoalescer.Metrics metrics = iterator.getCoalescerMetrics();
+        assertEquals(1L, metrics.getMergedBatches());
+        assertEquals(3L, metrics.getCoalescedRequests());
+        assertEquals(0L, metrics.getBypassedRequests());
+        assertEquals(metrics.getRequests() - 2, metrics.getSentRequests());
+        iterator.close();
+    }
+
     @Test
     void insert() {
         // prepare schema
@@ -3090,4 +4853,4 @@ class MilvusServiceClientTest {
 
         assertFalse(wrapper.toString().isEmpty());
     }
-}
\ No newline at end of file
+}
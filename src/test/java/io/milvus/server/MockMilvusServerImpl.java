@@ -24,6 +24,9 @@ import io.milvus.grpc.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
 public class MockMilvusServerImpl extends MilvusServiceGrpc.MilvusServiceImplBase {
     private static final Logger logger = LoggerFactory.getLogger(MockMilvusServerImpl.class);
     private io.milvus.grpc.ConnectResponse respConnect;
@@ -53,6 +56,7 @@ public class MockMilvusServerImpl extends MilvusServiceGrpc.MilvusServiceImplBas
     private io.milvus.grpc.GetIndexBuildProgressResponse respGetIndexBuildProgress;
     private io.milvus.grpc.Status respDropIndex;
     private io.milvus.grpc.MutationResult respInsert;
+    private final Queue<io.milvus.grpc.InsertRequest> insertRequests = new ConcurrentLinkedQueue<>();
     private io.milvus.grpc.MutationResult respDelete;
     private io.milvus.grpc.ImportResponse respImport;
     private io.milvus.grpc.GetImportStateResponse respImportState;
@@ -422,6 +426,7 @@ public class MockMilvusServerImpl extends MilvusServiceGrpc.MilvusServiceImplBas
                        io.grpc.stub.StreamObserver<io.milvus.grpc.MutationResult> responseObserver) {
         logger.info("MockServer receive insert() call");
 
+        insertRequests.add(request);
         responseObserver.onNext(respInsert);
         responseObserver.onCompleted();
     }
@@ -430,6 +435,10 @@ public class MockMilvusServerImpl extends MilvusServiceGrpc.MilvusServiceImplBas
         respInsert = resp;
     }
 
+    public Queue<io.milvus.grpc.InsertRequest> getInsertRequests() {
+        return insertRequests;
+    }
+
     @Override
     public void delete(io.milvus.grpc.DeleteRequest request,
                        io.grpc.stub.StreamObserver<io.milvus.grpc.MutationResult> responseObserver) {
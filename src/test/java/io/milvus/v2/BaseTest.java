@@ -42,10 +42,13 @@ public class BaseTest {
     public MilvusClientV2 client_v2 = new MilvusClientV2(null);;
     @Mock
     protected MilvusServiceGrpc.MilvusServiceBlockingStub blockingStub;
+    @Mock
+    protected MilvusServiceGrpc.MilvusServiceFutureStub futureStub;
 
     @BeforeEach
     public void setUp() {
         client_v2.setBlockingStub(blockingStub);
+        client_v2.setFutureStub(futureStub);
 
         Status successStatus = Status.newBuilder().setCode(0).build();
         BoolResponse trueResponse = BoolResponse.newBuilder().setStatus(successStatus).setValue(Boolean.TRUE).build();
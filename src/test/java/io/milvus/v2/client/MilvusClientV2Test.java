@@ -19,15 +19,70 @@
 
 package io.milvus.v2.client;
 
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.MethodDescriptor;
+import io.milvus.grpc.MilvusServiceGrpc;
 import io.milvus.v2.BaseTest;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 public class MilvusClientV2Test extends BaseTest {
 
     @Test
     void testMilvusClientV2() {
     }
+    @Test
+    void testDeadlineInterceptor() {
+        ConnectConfig config = ConnectConfig.builder()
+                .uri("http://localhost:19530")
+                .rpcDeadlineMs(1000)
+                .searchDeadlineMs(100)
+                .insertDeadlineMs(5000)
+                .build();
+        DeadlineInterceptor interceptor = new DeadlineInterceptor(config);
+        Assertions.assertEquals(100, interceptor.getDeadlineMs("Search"));
+        Assertions.assertEquals(100, interceptor.getDeadlineMs("HybridSearch"));
+        Assertions.assertEquals(1000, interceptor.getDeadlineMs("Query"));
+        Assertions.assertEquals(5000, interceptor.getDeadlineMs("Upsert"));
+        Assertions.assertEquals(1000, interceptor.getDeadlineMs("CreateIndex"));
+
+        List<CallOptions> captured = new ArrayList<>();
+        Channel channel = new Channel() {
+            @Override
+            public <ReqT, RespT> ClientCall<ReqT, RespT> newCall(MethodDescriptor<ReqT, RespT> method, CallOptions callOptions) {
+                captured.add(callOptions);
+                return null;
+            }
+
+            @Override
+            public String authority() {
+                return "localhost";
+            }
+        };
+
+        // the deadline starts from each call, not from the time the stub is created
+        interceptor.interceptCall(MilvusServiceGrpc.getSearchMethod(), CallOptions.DEFAULT, channel);
+        long remaining = captured.get(0).getDeadline().timeRemaining(TimeUnit.MILLISECONDS);
+        Assertions.assertTrue(remaining > 0 && remaining <= 100);
+
+        // per-request deadline overrides the operation type
+        CallOptions options = CallOptions.DEFAULT.withOption(DeadlineInterceptor.DEADLINE_MS, 20000L);
+        interceptor.interceptCall(MilvusServiceGrpc.getSearchMethod(), options, channel);
+        remaining = captured.get(1).getDeadline().timeRemaining(TimeUnit.MILLISECONDS);
+        Assertions.assertTrue(remaining > 10000 && remaining <= 20000);
+
+        // no deadline if nothing is configured
+        DeadlineInterceptor noDeadline = new DeadlineInterceptor(ConnectConfig.builder().uri("http://localhost:19530").build());
+        noDeadline.interceptCall(MilvusServiceGrpc.getQueryMethod(), CallOptions.DEFAULT, channel);
+        Assertions.assertNull(captured.get(2).getDeadline());
+    }
+
     @Test
     void testUseDatabase() {
         try {
@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.milvus.v2.service.vector;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import io.milvus.grpc.*;
+import io.milvus.server.MockMilvusServer;
+import io.milvus.server.MockMilvusServerImpl;
+import io.milvus.v2.client.ConnectConfig;
+import io.milvus.v2.client.MilvusClientV2;
+import io.milvus.v2.service.vector.request.InsertReq;
+import io.milvus.v2.service.vector.response.InsertResp;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Concurrent writers share one client, each request must only contain its own rows.
+ */
+class ConcurrentInsertTest {
+    private static final int TEST_PORT = 53020;
+    private static final int THREAD_COUNT = 8;
+    private static final int INSERT_PER_THREAD = 20;
+
+    private MockMilvusServer server;
+    private MockMilvusServerImpl serverImpl;
+    private MilvusClientV2 client;
+
+    @BeforeEach
+    void setUp() {
+        serverImpl = new MockMilvusServerImpl();
+        server = new MockMilvusServer(TEST_PORT, serverImpl);
+        server.start();
+
+        Status successStatus = Status.newBuilder().setCode(0).build();
+        CollectionSchema schema = CollectionSchema.newBuilder()
+                .setName("test")
+                .addFields(FieldSchema.newBuilder()
+                        .setName("id")
+                        .setDataType(DataType.Int64)
+                        .setIsPrimaryKey(true)
+                        .build())
+                .addFields(FieldSchema.newBuilder()
+                        .setName("vector")
+                        .setDataType(DataType.FloatVector)
+                        .addTypeParams(KeyValuePair.newBuilder().setKey("dim").setValue("2").build())
+                        .build())
+                .build();
+        serverImpl.setDescribeCollectionResponse(DescribeCollectionResponse.newBuilder()
+                .setStatus(successStatus)
+                .setCollectionName("test")
+                .setSchema(schema)
+                .build());
+        serverImpl.setInsertResponse(MutationResult.newBuilder()
+                .setStatus(successStatus)
+                .build());
+
+        client = new MilvusClientV2(ConnectConfig.builder()
+                .uri("http://localhost:" + TEST_PORT)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        client.close(3);
+        server.stop();
+    }
+
+    private static List<JsonObject> genRows(long firstId, int rowCount) {
+        Gson gson = new Gson();
+        List<JsonObject> rows = new ArrayList<>();
+        for (int i = 0; i < rowCount; i++) {
+            long id = firstId + i;
+            JsonObject row = new JsonObject();
+            row.addProperty("id", id);
+            row.add("vector", gson.toJsonTree(Arrays.asList((float) id, (float) -id)));
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static FieldData getField(InsertRequest request, String name) {
+        for (FieldData fieldData : request.getFieldsDataList()) {
+            if (fieldData.getFieldName().equals(name)) {
+                return fieldData;
+            }
+        }
+        fail("Field " + name + " is not found in insert request");
+        return null;
+    }
+
+    @Test
+    void testConcurrentInsert() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int t = 0; t < THREAD_COUNT; t++) {
+            final int thread = t;
+            futures.add(executor.submit(() -> {
+                startLatch.await();
+                int inserted = 0;
+                for (int k = 0; k < INSERT_PER_THREAD; k++) {
+                    int rowCount = 1 + (thread + k) % 7;
+                    long firstId = (thread * 1000L + k) * 100L;
+                    InsertResp resp = client.insert(InsertReq.builder()
+                            .collectionName("test")
+                            .data(genRows(firstId, rowCount))
+                            .build());
+                    assertNotNull(resp);
+                    inserted += rowCount;
+                }
+                return inserted;
+            }));
+        }
+        startLatch.countDown();
+
+        int totalRows = 0;
+        for (Future<Integer> future : futures) {
+            totalRows += future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(THREAD_COUNT * INSERT_PER_THREAD, serverImpl.getInsertRequests().size());
+        int receivedRows = 0;
+        for (InsertRequest request : serverImpl.getInsertRequests()) {
+            assertEquals(2, request.getFieldsDataCount());
+            List<Long> ids = getField(request, "id").getScalars().getLongData().getDataList();
+            List<Float> vectors = getField(request, "vector").getVectors().getFloatVector().getDataList();
+            assertEquals(request.getNumRows(), ids.size());
+            assertEquals(request.getNumRows() * 2, vectors.size());
+
+            // rows of one request come from one writer, consecutive ids and matched vectors
+            for (int i = 0; i < ids.size(); i++) {
+                assertEquals(ids.get(0) + i, ids.get(i).longValue());
+                assertEquals((float) ids.get(i), vectors.get(i * 2).floatValue());
+                assertEquals((float) -ids.get(i), vectors.get(i * 2 + 1).floatValue());
+            }
+            receivedRows += request.getNumRows();
+        }
+        assertEquals(totalRows, receivedRows);
+    }
+}
@@ -19,8 +19,17 @@
 
 package io.milvus.v2.service.vector;
 
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
 import com.google.gson.*;
+import io.grpc.StatusRuntimeException;
+import io.milvus.common.utils.ResultCache;
+import io.milvus.exception.ParamException;
+import io.milvus.grpc.*;
+import io.milvus.param.dml.InsertParam;
 import io.milvus.v2.BaseTest;
+import io.milvus.v2.common.ConsistencyLevel;
 import io.milvus.v2.service.vector.request.*;
 import io.milvus.v2.service.vector.request.data.FloatVec;
 import io.milvus.v2.service.vector.response.*;
@@ -29,8 +38,17 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
 
 class VectorTest extends BaseTest {
 
@@ -59,6 +77,49 @@ class VectorTest extends BaseTest {
         logger.info(statusR.toString());
     }
 
+    @Test
+    void testInsertInChunks() {
+        // the mock server returns the ids of received rows
+        when(blockingStub.insert(any())).thenAnswer(invocation -> {
+            InsertRequest request = invocation.getArgument(0);
+            LongArray.Builder ids = LongArray.newBuilder();
+            for (FieldData fieldData : request.getFieldsDataList()) {
+                if (fieldData.getFieldName().equals("id")) {
+                    ids.addAllData(fieldData.getScalars().getLongData().getDataList());
+                }
+            }
+            return MutationResult.newBuilder()
+                    .setInsertCnt(request.getNumRows())
+                    .setIDs(IDs.newBuilder().setIntId(ids))
+                    .build();
+        });
+
+        long[] ids = new long[100];
+        float[] vectors = new float[200];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = i;
+            vectors[i * 2] = i;
+            vectors[i * 2 + 1] = -i;
+        }
+        List<InsertParam.Field> fields = new ArrayList<>();
+        fields.add(new InsertParam.Field("id", ids));
+        fields.add(new InsertParam.Field("vector", vectors, 2));
+
+        // each row is 9 bytes: 1 byte varint id and 8 bytes vector, 100 bytes can hold 11 rows
+        InsertResp resp = client_v2.insert(InsertReq.builder()
+                .collectionName("test")
+                .fields(fields)
+                .maxRequestBytes(100)
+                .maxInflightRequests(4)
+                .build());
+        assertEquals(100, resp.getInsertCnt());
+        assertEquals(100, resp.getPrimaryKeys().size());
+        for (int i = 0; i < ids.length; i++) {
+            assertEquals((long) i, resp.getPrimaryKeys().get(i));
+        }
+        verify(blockingStub, times(10)).insert(any());
+    }
+
     @Test
     void testUpsert() {
 
@@ -105,6 +166,190 @@ class VectorTest extends BaseTest {
         logger.info(statusR.toString());
     }
 
+    @Test
+    void testSearchColumns() {
+        SearchResultData data = SearchResultData.newBuilder()
+                .setNumQueries(2L)
+                .setTopK(2L)
+                .addTopks(2L)
+                .addTopks(1L)
+                .addScores(0.1f).addScores(0.2f).addScores(0.3f)
+                .setIds(IDs.newBuilder().setIntId(LongArray.newBuilder().addData(1L).addData(2L).addData(3L)))
+                .addFieldsData(FieldData.newBuilder()
+                        .setFieldName("age")
+                        .setType(DataType.Int32)
+                        .setScalars(ScalarField.newBuilder().setIntData(IntArray.newBuilder()
+                                .addData(10).addData(20).addData(30))))
+                .addFieldsData(FieldData.newBuilder()
+                        .setFieldName("name")
+                        .setType(DataType.VarChar)
+                        .setScalars(ScalarField.newBuilder().setStringData(StringArray.newBuilder()
+                                .addData("a").addData("b").addData("c"))))
+                .addOutputFields("age")
+                .addOutputFields("name")
+                .build();
+        doReturn(SearchResults.newBuilder().setResults(data).build()).when(blockingStub).search(any());
+
+        SearchResp searchResp = client_v2.search(SearchReq.builder()
+                .collectionName("test")
+                .data(Collections.singletonList(new FloatVec(new float[]{1.0f, 2.0f})))
+                .topK(2)
+                .build());
+        SearchResultColumns columns = searchResp.getColumns();
+        assertEquals(2, columns.getNumQueries());
+        assertEquals(1, columns.getHitCount(1));
+        assertArrayEquals(new long[]{1L, 2L}, columns.getLongIds(0));
+        assertArrayEquals(new float[]{0.3f}, columns.getScores(1));
+        assertArrayEquals(new int[]{30}, columns.getIntColumn("age", 1));
+        assertEquals(Arrays.asList("a", "b"), columns.getStringColumn("name", 0));
+        assertThrows(ParamException.class, () -> columns.getStrIds(0));
+        assertThrows(ParamException.class, () -> columns.getScores(2));
+
+        // per-hit objects are still available, built on the first call
+        List<List<SearchResp.SearchResult>> results = searchResp.getSearchResults();
+        assertEquals(2, results.size());
+        assertEquals(3L, results.get(1).get(0).getId());
+        assertEquals("c", results.get(1).get(0).getEntity().get("name"));
+        assertSame(results, searchResp.getSearchResults());
+
+        doReturn(QueryResults.newBuilder()
+                .addFieldsData(FieldData.newBuilder()
+                        .setFieldName("id")
+                        .setType(DataType.Int64)
+                        .setScalars(ScalarField.newBuilder().setLongData(LongArray.newBuilder()
+                                .addData(5L).addData(6L))))
+                .addOutputFields("id")
+                .build()).when(blockingStub).query(any());
+        QueryResp queryResp = client_v2.query(QueryReq.builder()
+                .collectionName("test")
+                .filter("id > 0")
+                .build());
+        assertEquals(2, queryResp.getColumns().getRowCount());
+        assertArrayEquals(new long[]{5L, 6L}, queryResp.getColumns().getLongColumn("id"));
+        assertEquals(6L, queryResp.getQueryResults().get(1).getEntity().get("id"));
+    }
+
+    @Test
+    void testAsync() throws Exception {
+        DescribeCollectionResponse describeResponse = blockingStub.describeCollection(DescribeCollectionRequest.getDefaultInstance());
+        when(futureStub.describeCollection(any())).thenReturn(Futures.immediateFuture(describeResponse));
+        when(futureStub.insert(any())).thenReturn(Futures.immediateFuture(MutationResult.newBuilder()
+                .setInsertCnt(1L)
+                .setIDs(IDs.newBuilder().setIntId(LongArray.newBuilder().addData(7L)))
+                .build()));
+        when(futureStub.search(any())).thenReturn(Futures.immediateFuture(SearchResults.newBuilder()
+                .setResults(SearchResultData.newBuilder()
+                        .setNumQueries(1L)
+                        .setTopK(1L)
+                        .addTopks(1L)
+                        .addScores(0.5f)
+                        .setIds(IDs.newBuilder().setIntId(LongArray.newBuilder().addData(7L)))
+                        .build())
+                .build()));
+        when(futureStub.query(any())).thenReturn(Futures.immediateFuture(QueryResults.newBuilder().build()));
+
+        JsonObject row = new JsonObject();
+        row.add("vector", new Gson().toJsonTree(new float[]{1.0f, 2.0f}));
+        row.addProperty("id", 7L);
+        CompletableFuture<InsertResp> insertFuture = client_v2.insertAsync(InsertReq.builder()
+                .collectionName("test")
+                .data(Collections.singletonList(row))
+                .build());
+        assertEquals(Collections.singletonList(7L), insertFuture.get().getPrimaryKeys());
+
+        SearchResp searchResp = client_v2.searchAsync(SearchReq.builder()
+                .collectionName("test")
+                .data(Collections.singletonList(new FloatVec(new float[]{1.0f, 2.0f})))
+                .topK(10)
+                .build()).get();
+        assertEquals(1, searchResp.getSearchResults().size());
+        assertEquals(7L, searchResp.getSearchResults().get(0).get(0).getId());
+
+        // the primary key name comes from the cached collection info, describeCollection is called once
+        client_v2.getAsync(GetReq.builder()
+                .collectionName("test")
+                .ids(Collections.singletonList(7L))
+                .build()).get();
+        verify(futureStub, times(1)).describeCollection(any());
+        verify(blockingStub, never()).insert(any());
+        verify(blockingStub, never()).query(any());
+
+        // rpc errors complete the future exceptionally instead of blocking or throwing
+        when(futureStub.query(any())).thenReturn(Futures.immediateFailedFuture(
+                new StatusRuntimeException(io.grpc.Status.UNAVAILABLE)));
+        CompletableFuture<QueryResp> failed = client_v2.queryAsync(QueryReq.builder()
+                .collectionName("test")
+                .filter("id > 0")
+                .build());
+        ExecutionException e = assertThrows(ExecutionException.class, failed::get);
+        assertTrue(e.getCause() instanceof StatusRuntimeException);
+    }
+
+    @Test
+    void testResultCacheDatabases() {
+        when(blockingStub.search(any(SearchRequest.class))).thenReturn(SearchResults.newBuilder()
+                .setStatus(Status.newBuilder().setCode(0).build())
+                .setResults(SearchResultData.newBuilder().setNumQueries(1L).setTopK(1L).addTopks(1L).addScores(0.1f)
+                        .setIds(IDs.newBuilder().setIntId(LongArray.newBuilder().addData(1L))))
+                .build());
+        VectorService vectorService = new VectorService();
+        vectorService.setResultCache(ResultCache.newBuilder().build());
+        SearchReq request = SearchReq.builder()
+                .collectionName("test")
+                .data(Collections.singletonList(new FloatVec(Arrays.asList(1.0f, 2.0f))))
+                .topK(1)
+                .consistencyLevel(ConsistencyLevel.EVENTUALLY)
+                .build();
+
+        // the same search is cached per database
+        vectorService.setDatabaseName("db1");
+        vectorService.search(blockingStub, request);
+        vectorService.search(blockingStub, request);
+        verify(blockingStub, times(1)).search(any(SearchRequest.class));
+
+        vectorService.setDatabaseName("db2");
+        vectorService.search(blockingStub, request);
+        verify(blockingStub, times(2)).search(any(SearchRequest.class));
+
+        // the results of db1 are still cached after the search on db2
+        vectorService.setDatabaseName("db1");
+        vectorService.search(blockingStub, request);
+        verify(blockingStub, times(2)).search(any(SearchRequest.class));
+    }
+
+    @Test
+    void testAsyncCancel() throws Exception {
+        DescribeCollectionResponse describeResponse = blockingStub.describeCollection(DescribeCollectionRequest.getDefaultInstance());
+        when(futureStub.describeCollection(any())).thenReturn(Futures.immediateFuture(describeResponse));
+        SettableFuture<MutationResult> insertRpc = SettableFuture.create();
+        SettableFuture<SearchResults> searchRpc = SettableFuture.create();
+        when(futureStub.insert(any())).thenReturn(insertRpc);
+        when(futureStub.search(any())).thenReturn(searchRpc);
+
+        JsonObject row = new JsonObject();
+        row.add("vector", new Gson().toJsonTree(new float[]{1.0f, 2.0f}));
+        row.addProperty("id", 7L);
+        CompletableFuture<InsertResp> insertFuture = client_v2.insertAsync(InsertReq.builder()
+                .collectionName("test")
+                .data(Collections.singletonList(row))
+                .build());
+        CompletableFuture<SearchResp> searchFuture = client_v2.searchAsync(SearchReq.builder()
+                .collectionName("test")
+                .data(Collections.singletonList(new FloatVec(new float[]{1.0f, 2.0f})))
+                .topK(10)
+                .build());
+
+        // the rpcs may be sent before or after the cancellation, both of them are cancelled
+        assertTrue(insertFuture.cancel(true));
+        assertTrue(searchFuture.cancel(true));
+        CountDownLatch cancelled = new CountDownLatch(2);
+        insertRpc.addListener(cancelled::countDown, MoreExecutors.directExecutor());
+        searchRpc.addListener(cancelled::countDown, MoreExecutors.directExecutor());
+        assertTrue(cancelled.await(5, TimeUnit.SECONDS));
+        assertTrue(insertRpc.isCancelled());
+        assertTrue(searchRpc.isCancelled());
+    }
+
     @Test
     void testDelete() {
         DeleteReq request = DeleteReq.builder()